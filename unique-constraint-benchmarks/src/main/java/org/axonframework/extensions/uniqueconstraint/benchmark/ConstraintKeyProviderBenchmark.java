@@ -0,0 +1,70 @@
+package org.axonframework.extensions.uniqueconstraint.benchmark;
+
+import org.axonframework.extensions.uniqueconstraint.ConstraintKeyProvider;
+import org.axonframework.extensions.uniqueconstraint.HmacConstraintKeyProvider;
+import org.axonframework.extensions.uniqueconstraint.Murmur3ConstraintKeyProvider;
+import org.axonframework.extensions.uniqueconstraint.PlainConstraintKeyProvider;
+import org.axonframework.extensions.uniqueconstraint.Sha256ConstraintKeyProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of determining a constraint key with each of the {@link ConstraintKeyProvider}s, for a short and
+ * a long value.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConstraintKeyProviderBenchmark {
+
+    @Param({"room-123", "a.very.long.email.address.of.someone@some-subdomain.example-company.com"})
+    private String value;
+
+    @Param({"sha256", "hmac", "murmur3", "plain"})
+    private String provider;
+
+    private ConstraintKeyProvider keyProvider;
+
+    @Setup
+    public void setUp() {
+        switch (provider) {
+            case "sha256":
+                keyProvider = new Sha256ConstraintKeyProvider();
+                break;
+            case "hmac":
+                keyProvider = new HmacConstraintKeyProvider("benchmark-secret".getBytes(StandardCharsets.UTF_8));
+                break;
+            case "murmur3":
+                keyProvider = new Murmur3ConstraintKeyProvider();
+                break;
+            case "plain":
+                keyProvider = new PlainConstraintKeyProvider();
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown provider " + provider);
+        }
+    }
+
+    @Benchmark
+    public String determineKey() {
+        return keyProvider.determineValue("Email", value);
+    }
+}
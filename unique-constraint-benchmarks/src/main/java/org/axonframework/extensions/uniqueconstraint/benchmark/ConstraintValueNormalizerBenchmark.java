@@ -0,0 +1,67 @@
+package org.axonframework.extensions.uniqueconstraint.benchmark;
+
+import org.axonframework.extensions.uniqueconstraint.ConstraintValueNormalizer;
+import org.axonframework.extensions.uniqueconstraint.Sha256ConstraintKeyProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures normalizing a constraint value followed by determining its SHA-256 key, for a value that is already
+ * normalized and one that is not. The {@code none} normalizers measure hashing only, as a baseline.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConstraintValueNormalizerBenchmark {
+
+    @Param({"someone@example.com", " SomeOne@Example.COM "})
+    private String value;
+
+    @Param({"none", "lowercase", "trim-lowercase-nfkc"})
+    private String normalizers;
+
+    private ConstraintValueNormalizer normalizer;
+    private Sha256ConstraintKeyProvider keyProvider;
+
+    @Setup
+    public void setUp() {
+        keyProvider = new Sha256ConstraintKeyProvider();
+        switch (normalizers) {
+            case "none":
+                normalizer = value -> value;
+                break;
+            case "lowercase":
+                normalizer = new ConstraintValueNormalizer.LowerCase();
+                break;
+            case "trim-lowercase-nfkc":
+                normalizer = new ConstraintValueNormalizer.Trim()
+                        .andThen(new ConstraintValueNormalizer.LowerCase())
+                        .andThen(new ConstraintValueNormalizer.Nfkc());
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown normalizers " + normalizers);
+        }
+    }
+
+    @Benchmark
+    public String normalizeAndHash() {
+        return keyProvider.determineValue("Email", normalizer.normalize(value).toString());
+    }
+}
@@ -0,0 +1,60 @@
+package org.axonframework.extensions.uniqueconstraint.benchmark;
+
+import org.axonframework.extensions.uniqueconstraint.ConstraintKeyProvider;
+import org.axonframework.extensions.uniqueconstraint.Sha256ConstraintKeyProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of determining a constraint key with the {@link Sha256ConstraintKeyProvider}, from a single thread
+ * and from multiple threads sharing one provider, as the configuration does for all command handling threads. Both
+ * encodings of the key are measured.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class Sha256ConstraintKeyProviderBenchmark {
+
+    @Param({"room-123", "a.very.long.email.address.of.someone@some-subdomain.example-company.com"})
+    private String value;
+
+    @Param({"HEX", "BASE64_URL"})
+    private Sha256ConstraintKeyProvider.Encoding encoding;
+
+    private ConstraintKeyProvider provider;
+
+    @Setup
+    public void setUp() {
+        provider = new Sha256ConstraintKeyProvider(encoding);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public String singleThread() {
+        return provider.determineValue("Email", value);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String eightThreads() {
+        return provider.determineValue("Email", value);
+    }
+}
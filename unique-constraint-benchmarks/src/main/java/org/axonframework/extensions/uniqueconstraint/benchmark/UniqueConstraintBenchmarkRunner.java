@@ -0,0 +1,27 @@
+package org.axonframework.extensions.uniqueconstraint.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the {@link GCProfiler} enabled, so the results contain the allocation rate next to the
+ * throughput and latency percentiles. Accepts the same arguments as the JMH command line, for example a regular
+ * expression to select the benchmarks to run.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class UniqueConstraintBenchmarkRunner {
+
+    private UniqueConstraintBenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLineOptions = new CommandLineOptions(args);
+        new Runner(new OptionsBuilder().parent(commandLineOptions)
+                                       .addProfiler(GCProfiler.class)
+                                       .build()).run();
+    }
+}
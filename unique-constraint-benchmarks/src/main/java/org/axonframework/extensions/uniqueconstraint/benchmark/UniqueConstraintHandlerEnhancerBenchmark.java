@@ -0,0 +1,202 @@
+package org.axonframework.extensions.uniqueconstraint.benchmark;
+
+import org.axonframework.commandhandling.CommandHandler;
+import org.axonframework.commandhandling.CommandMessage;
+import org.axonframework.eventsourcing.EventSourcingHandler;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.extensions.uniqueconstraint.AggregateUniqueConstraint;
+import org.axonframework.extensions.uniqueconstraint.EventStoreUniqueConstraintStore;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintHandlerEnhancerDefinition;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintValidator;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.axonframework.modelling.command.AggregateIdentifier;
+import org.axonframework.modelling.command.inspection.AggregateModel;
+import org.axonframework.modelling.command.inspection.AnnotatedAggregate;
+import org.axonframework.modelling.command.inspection.AnnotatedAggregateMetaModelFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.axonframework.commandhandling.GenericCommandMessage.asCommandMessage;
+import static org.axonframework.modelling.command.AggregateLifecycle.apply;
+
+/**
+ * Measures handling a command on an aggregate whose command handlers are wrapped by the
+ * {@link UniqueConstraintHandlerEnhancerDefinition}, with claims stored in an {@link EmbeddedEventStore} on an
+ * {@link InMemoryEventStorageEngine}. An aggregate without constraints is handled the same way as a baseline.
+ * <p>
+ * Every command is handled in its own unit of work, which is rolled back afterwards. This keeps the event store at a
+ * fixed size, since the in-memory storage engine scans all events on every read.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UniqueConstraintHandlerEnhancerBenchmark {
+
+    private static final String ROOM_ID = "room-1";
+
+    private EmbeddedEventStore eventStore;
+    private AggregateModel<Room> roomModel;
+    private AggregateModel<UnconstrainedRoom> unconstrainedRoomModel;
+    private long counter;
+
+    @Setup
+    public void setUp() throws Exception {
+        eventStore = EmbeddedEventStore.builder().storageEngine(new InMemoryEventStorageEngine()).build();
+        EventStoreUniqueConstraintStore store = EventStoreUniqueConstraintStore.builder()
+                                                                               .eventStore(eventStore)
+                                                                               .build();
+        UniqueConstraintHandlerEnhancerDefinition.setUniqueConstraintValidator(
+                UniqueConstraintValidator.builder().constraintStore(store).build());
+        roomModel = AnnotatedAggregateMetaModelFactory.inspectAggregate(Room.class);
+        unconstrainedRoomModel = AnnotatedAggregateMetaModelFactory.inspectAggregate(UnconstrainedRoom.class);
+
+        for (int i = 0; i < 1_000; i++) {
+            store.checkAndClaimValue("RoomNumber", "existing-" + i, "room-" + i);
+        }
+        store.checkAndClaimValue("RoomNumber", "101", ROOM_ID);
+    }
+
+    @TearDown
+    public void tearDown() {
+        eventStore.shutDown();
+    }
+
+    @Benchmark
+    public Object changeConstrainedValue() throws Exception {
+        return handle(roomModel, new Room(ROOM_ID, "101"), new ChangeRoomNumberCommand("new-" + counter++));
+    }
+
+    @Benchmark
+    public Object changeUnconstrainedValue() throws Exception {
+        return handle(roomModel, new Room(ROOM_ID, "101"), new RenameRoomCommand("name-" + counter++));
+    }
+
+    @Benchmark
+    public Object baselineWithoutConstraints() throws Exception {
+        return handle(unconstrainedRoomModel,
+                      new UnconstrainedRoom(ROOM_ID, "101"),
+                      new RenameRoomCommand("name-" + counter++));
+    }
+
+    private <T> Object handle(AggregateModel<T> model, T aggregateRoot, Object command) throws Exception {
+        CommandMessage<Object> commandMessage = asCommandMessage(command);
+        UnitOfWork<CommandMessage<Object>> unitOfWork = DefaultUnitOfWork.startAndGet(commandMessage);
+        try {
+            return AnnotatedAggregate.initialize(aggregateRoot, model, eventStore).handle(commandMessage);
+        } finally {
+            unitOfWork.rollback();
+        }
+    }
+
+    public static class Room {
+
+        @AggregateIdentifier
+        private String roomId;
+        @AggregateUniqueConstraint(constraintName = "RoomNumber")
+        private String roomNumber;
+        private String name;
+
+        public Room(String roomId, String roomNumber) {
+            this.roomId = roomId;
+            this.roomNumber = roomNumber;
+        }
+
+        @CommandHandler
+        public void handle(ChangeRoomNumberCommand command) {
+            apply(new RoomNumberChangedEvent(command.roomNumber));
+        }
+
+        @CommandHandler
+        public void handle(RenameRoomCommand command) {
+            apply(new RoomRenamedEvent(command.name));
+        }
+
+        @EventSourcingHandler
+        public void on(RoomNumberChangedEvent event) {
+            this.roomNumber = event.roomNumber;
+        }
+
+        @EventSourcingHandler
+        public void on(RoomRenamedEvent event) {
+            this.name = event.name;
+        }
+    }
+
+    public static class UnconstrainedRoom {
+
+        @AggregateIdentifier
+        private String roomId;
+        private String roomNumber;
+        private String name;
+
+        public UnconstrainedRoom(String roomId, String roomNumber) {
+            this.roomId = roomId;
+            this.roomNumber = roomNumber;
+        }
+
+        @CommandHandler
+        public void handle(RenameRoomCommand command) {
+            apply(new RoomRenamedEvent(command.name));
+        }
+
+        @EventSourcingHandler
+        public void on(RoomRenamedEvent event) {
+            this.name = event.name;
+        }
+    }
+
+    public static class ChangeRoomNumberCommand {
+
+        private final String roomNumber;
+
+        public ChangeRoomNumberCommand(String roomNumber) {
+            this.roomNumber = roomNumber;
+        }
+    }
+
+    public static class RenameRoomCommand {
+
+        private final String name;
+
+        public RenameRoomCommand(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class RoomNumberChangedEvent {
+
+        private final String roomNumber;
+
+        public RoomNumberChangedEvent(String roomNumber) {
+            this.roomNumber = roomNumber;
+        }
+    }
+
+    public static class RoomRenamedEvent {
+
+        private final String name;
+
+        public RoomRenamedEvent(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.axonframework.extensions.uniqueconstraint.benchmark;
+
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintStore;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintValidator;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintValidator.ValidatorInstance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Measures the overhead of {@link ValidatorInstance#checkForInterceptor} for an aggregate with 1, 5 or 20
+ * constraints, both when no constrained value changes and when a single one does. The constrained values are either
+ * {@link String}s or {@link Long}s, of which the {@code toString()} allocates. The store does not do any work, so
+ * only the cost of the validator itself is measured.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UniqueConstraintValidatorBenchmark {
+
+    @Param({"1", "5", "20"})
+    private int constraintCount;
+
+    @Param({"string", "long"})
+    private String valueType;
+
+    private UniqueConstraintValidator validator;
+    private String[] constraintNames;
+    private Object[] values;
+    private Supplier<Object>[] suppliers;
+    private long counter;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp(Blackhole blackhole) {
+        validator = UniqueConstraintValidator.builder()
+                                             .constraintStore(new BlackholeConstraintStore(blackhole))
+                                             .build();
+        constraintNames = new String[constraintCount];
+        values = new Object[constraintCount];
+        suppliers = new Supplier[constraintCount];
+        for (int i = 0; i < constraintCount; i++) {
+            int index = i;
+            constraintNames[i] = "Constraint" + i;
+            values[i] = value(i);
+            suppliers[i] = () -> values[index];
+        }
+    }
+
+    @Benchmark
+    public Object unchangedValues() throws Exception {
+        return validatorInstance().checkForInterceptor(() -> null);
+    }
+
+    @Benchmark
+    public Object singleChangedValue() throws Exception {
+        return validatorInstance().checkForInterceptor(() -> {
+            values[0] = value(counter++);
+            return null;
+        });
+    }
+
+    private Object value(long number) {
+        return "long".equals(valueType) ? Long.valueOf(1_000_000L + number) : "value-" + number;
+    }
+
+    private ValidatorInstance validatorInstance() {
+        ValidatorInstance instance = validator.forAggregate(() -> "AGG_ID");
+        for (int i = 0; i < constraintCount; i++) {
+            instance.addConstraint(constraintNames[i], suppliers[i]);
+        }
+        return instance;
+    }
+
+    private static class BlackholeConstraintStore implements UniqueConstraintStore {
+
+        private final Blackhole blackhole;
+
+        private BlackholeConstraintStore(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void releaseClaimValue(String constraintName, String constraintValue, String owner) {
+            blackhole.consume(constraintValue);
+        }
+
+        @Override
+        public void checkAndClaimValue(String constraintName, String constraintValue, String owner) {
+            blackhole.consume(constraintValue);
+        }
+    }
+}
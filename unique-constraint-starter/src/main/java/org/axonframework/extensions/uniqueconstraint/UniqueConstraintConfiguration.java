@@ -1,21 +1,76 @@
 package org.axonframework.extensions.uniqueconstraint;
 
+import org.axonframework.common.AxonConfigurationException;
 import org.axonframework.config.ConfigurerModule;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.Map;
+
 /**
  * Automatically configures a {@link UniqueConstraintValidator} to be used within the application.
  * Does so by configuring the {@link UniqueConstraintConfigurerModule} to be used in the axon configuration.
+ * <p>
+ * The settings of constraints in the {@link UniqueConstraintProperties} are provided as a
+ * {@link UniqueConstraintSettingsRegistry}, unless the application defines its own registry.
  *
  * @author Mitchell Herrijgers
  * @since 0.0.1
  */
 @Configuration
+@EnableConfigurationProperties(UniqueConstraintProperties.class)
 public class UniqueConstraintConfiguration {
 
     @Bean
     public ConfigurerModule uniqueConstraintConfigurerModule() {
         return new UniqueConstraintConfigurerModule();
     }
+
+    @Bean
+    @ConditionalOnMissingBean
+    public UniqueConstraintSettingsRegistry uniqueConstraintSettingsRegistry(UniqueConstraintProperties properties,
+                                                                             BeanFactory beanFactory) {
+        UniqueConstraintSettingsRegistry.Builder builder = UniqueConstraintSettingsRegistry.builder();
+        for (Map.Entry<String, UniqueConstraintProperties.Constraint> entry : properties.getConstraints().entrySet()) {
+            UniqueConstraintProperties.Constraint constraint = entry.getValue();
+            UniqueConstraintSettings.Builder settings = UniqueConstraintSettings
+                    .builder()
+                    .cached(constraint.isCached())
+                    .caseInsensitive(constraint.isCaseInsensitive())
+                    .normalized(constraint.isNormalized());
+            if (constraint.getStore() != null && constraint.getKeyProvider() != null) {
+                throw new AxonConfigurationException(String.format(
+                        "Unique constraint %s configures both a store and a key-provider. Configure the key provider "
+                                + "on the %s bean instead, since that store determines its own keys.",
+                        entry.getKey(),
+                        constraint.getStore()));
+            }
+            if (constraint.getStore() != null) {
+                settings.store(beanFactory.getBean(constraint.getStore(), UniqueConstraintStore.class));
+            }
+            if (constraint.getKeyProvider() != null) {
+                settings.keyProvider(keyProvider(constraint.getKeyProvider(), beanFactory));
+            }
+            builder.constraint(entry.getKey(), settings.build());
+        }
+        return builder.build();
+    }
+
+    private static ConstraintKeyProvider keyProvider(String keyProvider, BeanFactory beanFactory) {
+        switch (keyProvider) {
+            case "sha256":
+                return new Sha256ConstraintKeyProvider();
+            case "sha256-base64-url":
+                return new Sha256ConstraintKeyProvider(Sha256ConstraintKeyProvider.Encoding.BASE64_URL);
+            case "murmur3":
+                return new Murmur3ConstraintKeyProvider();
+            case "plain":
+                return new PlainConstraintKeyProvider();
+            default:
+                return beanFactory.getBean(keyProvider, ConstraintKeyProvider.class);
+        }
+    }
 }
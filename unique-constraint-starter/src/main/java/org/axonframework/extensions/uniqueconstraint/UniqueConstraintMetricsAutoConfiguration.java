@@ -0,0 +1,33 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.axonframework.config.ConfigurerModule;
+import org.axonframework.extensions.uniqueconstraint.micrometer.UniqueConstraintMetricsConfigurerModule;
+import org.springframework.boot.autoconfigure.AutoConfigureAfter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Automatically configures metrics of the unique constraints when a {@link MeterRegistry} is present in the
+ * application. Does so by configuring the {@link UniqueConstraintMetricsConfigurerModule} to be used in the axon
+ * configuration.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+@Configuration
+@ConditionalOnClass(MeterRegistry.class)
+@ConditionalOnBean(MeterRegistry.class)
+@AutoConfigureAfter(name = {
+        "org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration",
+        "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration"
+})
+public class UniqueConstraintMetricsAutoConfiguration {
+
+    @Bean
+    public ConfigurerModule uniqueConstraintMetricsConfigurerModule(MeterRegistry meterRegistry) {
+        return new UniqueConstraintMetricsConfigurerModule(meterRegistry);
+    }
+}
@@ -0,0 +1,108 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Properties of the unique constraint extension, such as the settings of each constraint by its name:
+ * <pre>
+ * axon.unique-constraint.constraints.RoomNumber.store=roomNumberConstraintStore
+ * axon.unique-constraint.constraints.Email.case-insensitive=true
+ * axon.unique-constraint.constraints.Email.normalized=true
+ * </pre>
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+@ConfigurationProperties("axon.unique-constraint")
+public class UniqueConstraintProperties {
+
+    /**
+     * The settings of each constraint, by the name of the constraint.
+     */
+    private Map<String, Constraint> constraints = new HashMap<>();
+
+    public Map<String, Constraint> getConstraints() {
+        return constraints;
+    }
+
+    public void setConstraints(Map<String, Constraint> constraints) {
+        this.constraints = constraints;
+    }
+
+    /**
+     * The settings of a single constraint. See {@link UniqueConstraintSettings}.
+     */
+    public static class Constraint {
+
+        /**
+         * The name of the {@link UniqueConstraintStore} bean claiming the values of the constraint. Defaults to the
+         * store of the extension.
+         */
+        private String store;
+
+        /**
+         * The key provider of the constraint: {@code sha256}, {@code sha256-base64-url}, {@code murmur3},
+         * {@code plain}, or the name of a {@link ConstraintKeyProvider} bean. Defaults to the key provider of the
+         * extension. Cannot be combined with a store, which determines its own keys.
+         */
+        private String keyProvider;
+
+        /**
+         * Whether the claim state of the constraint's keys is cached. Defaults to {@code false}.
+         */
+        private boolean cached;
+
+        /**
+         * Whether values differing only in case are the same value. Defaults to {@code false}.
+         */
+        private boolean caseInsensitive;
+
+        /**
+         * Whether values are trimmed and brought to Unicode normalization form NFKC. Defaults to {@code false}.
+         */
+        private boolean normalized;
+
+        public String getStore() {
+            return store;
+        }
+
+        public void setStore(String store) {
+            this.store = store;
+        }
+
+        public String getKeyProvider() {
+            return keyProvider;
+        }
+
+        public void setKeyProvider(String keyProvider) {
+            this.keyProvider = keyProvider;
+        }
+
+        public boolean isCached() {
+            return cached;
+        }
+
+        public void setCached(boolean cached) {
+            this.cached = cached;
+        }
+
+        public boolean isCaseInsensitive() {
+            return caseInsensitive;
+        }
+
+        public void setCaseInsensitive(boolean caseInsensitive) {
+            this.caseInsensitive = caseInsensitive;
+        }
+
+        public boolean isNormalized() {
+            return normalized;
+        }
+
+        public void setNormalized(boolean normalized) {
+            this.normalized = normalized;
+        }
+    }
+}
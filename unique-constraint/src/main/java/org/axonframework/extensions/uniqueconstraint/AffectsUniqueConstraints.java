@@ -0,0 +1,41 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation limiting the unique constraints evaluated around the annotated handler of an aggregate to the
+ * constraints named in {@link #value()}. Without this annotation, a handler may affect all constraints of the
+ * aggregate.
+ * <p>
+ * On a command handler, only the named constraints are read before and checked after the command. When no constraints
+ * are named, the command handler is not wrapped at all:
+ * <pre>{@code
+ * @CommandHandler
+ * @AffectsUniqueConstraints({})
+ * public void handle(RecordLoginCommand command) { ... }
+ * }</pre>
+ * On an event sourcing handler of an aggregate annotated with {@link TrackUniqueConstraintChanges}, only the named
+ * constraints are tracked when the handler is invoked.
+ * <p>
+ * Naming a constraint the aggregate does not declare results in an {@link IllegalArgumentException} when the aggregate
+ * is inspected. Declaring too few constraints causes changes to go unnoticed, so only use this annotation on handlers
+ * of which it is certain which constraints they affect.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+@Target({ElementType.METHOD, ElementType.CONSTRUCTOR})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface AffectsUniqueConstraints {
+
+    /**
+     * The names of the constraints, as declared by {@link AggregateUniqueConstraint#constraintName()}, the annotated
+     * handler may affect.
+     *
+     * @return The names of the affected constraints.
+     */
+    String[] value();
+}
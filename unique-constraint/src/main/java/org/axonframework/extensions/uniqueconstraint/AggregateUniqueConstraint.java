@@ -9,6 +9,16 @@ import java.lang.annotation.Target;
  * Annotation indicating that the annotated field or method should be unique across all instances of this aggregate.
  * If the constraint's value is owned by another aggregate, the command handling will end in an
  * {@link UniqueConstraintClaimException}.
+ * <p>
+ * Annotating multiple fields or methods with the same constraint name and a different {@link #order()} declares a
+ * composite constraint, of which the combination of values should be unique:
+ * <pre>{@code
+ * @AggregateUniqueConstraint(constraintName = "TenantRoomNumber", order = 0)
+ * private String tenantId;
+ * @AggregateUniqueConstraint(constraintName = "TenantRoomNumber", order = 1)
+ * private int roomNumber;
+ * }</pre>
+ * A composite constraint has no value, and so claims nothing, while any of its components is {@code null}.
  *
  * @author Mitchell Herrijgers
  * @since 0.0.1
@@ -23,4 +33,21 @@ public @interface AggregateUniqueConstraint {
      * @return The name of the constraint
      */
     String constraintName();
+
+    /**
+     * The {@link ConstraintValueNormalizer}s to apply to the value of the constraint, in order, before it is claimed.
+     * Values that are equal after normalization are the same value. Defaults to no normalization.
+     *
+     * @return The classes of the normalizers of the constraint.
+     */
+    Class<? extends ConstraintValueNormalizer>[] normalizers() default {};
+
+    /**
+     * The position of the annotated member among the components of a composite constraint. Members declaring the same
+     * constraint name and order replace each other, in which case methods take precedence over fields. Defaults to
+     * {@code 0}.
+     *
+     * @return The position of the component in the constraint.
+     */
+    int order() default 0;
 }
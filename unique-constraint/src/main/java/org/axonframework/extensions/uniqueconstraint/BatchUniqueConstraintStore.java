@@ -0,0 +1,28 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import java.util.List;
+
+/**
+ * A {@link UniqueConstraintStore} that is able to apply all claims and releases caused by a single command at once.
+ * The {@link UniqueConstraintValidator} uses this instead of claiming and releasing every value separately when the
+ * configured store implements it, so an aggregate with multiple constraints does not cause a round-trip to the store
+ * per constraint.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public interface BatchUniqueConstraintStore extends UniqueConstraintStore {
+
+    /**
+     * Applies the given {@code changes} on behalf of the {@code owner}, in order. Releasing a value that is not
+     * claimed, or claiming a value that is already claimed by the owner, has no effect.
+     * <p>
+     * All changes are validated before any of them is applied. If any value is claimed by a different owner, a
+     * {@link UniqueConstraintClaimException} is thrown and none of the changes are applied.
+     *
+     * @param owner   The owner of the claims, usually the aggregate identifier.
+     * @param changes The claims and releases to apply.
+     * @throws UniqueConstraintClaimException when a value is claimed by a different owner.
+     */
+    void applyChanges(String owner, List<ConstraintChange> changes);
+}
@@ -0,0 +1,242 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.common.BuilderUtils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link ConstraintKeyFilter} backed by an in-memory Bloom filter. The size of the filter is determined by the expected
+ * amount of constraint keys and the desired false-positive probability, optionally capped at a memory budget. A capped
+ * filter, or a filter holding more keys than expected, answers {@code true} more often, causing more reads, but never
+ * answers {@code false} for a key that was added.
+ * <p>
+ * The filter is safe to use from multiple threads concurrently without locking. It keeps track of the lookups it
+ * answers, so the ratio of reads that were skipped can be monitored.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class BloomConstraintKeyFilter implements ConstraintKeyFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashFunctionCount;
+    private volatile boolean initialized;
+
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder skippedLookups = new LongAdder();
+
+    /**
+     * Creates a new {@link BloomConstraintKeyFilter} with the builder's configuration.
+     *
+     * @param builder The builder to use.
+     */
+    protected BloomConstraintKeyFilter(Builder builder) {
+        builder.validate();
+        long optimalBitSize = (long) Math.ceil(-builder.expectedKeys * Math.log(builder.falsePositiveProbability)
+                                                       / (Math.log(2) * Math.log(2)));
+        long words = Math.max(1, (Math.min(optimalBitSize, builder.maximumMemoryBytes * 8) + 63) / 64);
+        this.bits = new AtomicLongArray((int) Math.min(words, Integer.MAX_VALUE));
+        this.bitSize = bits.length() * 64L;
+        this.hashFunctionCount = Math.max(1, (int) Math.round((double) bitSize / builder.expectedKeys * Math.log(2)));
+    }
+
+    /**
+     * Creates a new builder to construct a new {@link BloomConstraintKeyFilter}.
+     * <p>
+     * The expected amount of keys defaults to {@code 1_000_000}, the false-positive probability to {@code 0.01} and
+     * the memory budget to 64 megabytes.
+     *
+     * @return A builder suitable to construct a new {@link BloomConstraintKeyFilter}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public boolean mightExist(String constraintKey) {
+        if (!initialized) {
+            return true;
+        }
+        lookups.increment();
+        long hash1 = hash(constraintKey);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashFunctionCount; i++) {
+            long index = bitIndex(hash1 + i * hash2);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                skippedLookups.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void add(String constraintKey) {
+        long hash1 = hash(constraintKey);
+        long hash2 = mix(hash1 ^ 0x9E3779B97F4A7C15L);
+        for (int i = 0; i < hashFunctionCount; i++) {
+            long index = bitIndex(hash1 + i * hash2);
+            int word = (int) (index >>> 6);
+            long mask = 1L << index;
+            long current;
+            do {
+                current = bits.get(word);
+            } while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask));
+        }
+    }
+
+    @Override
+    public void markInitialized() {
+        this.initialized = true;
+    }
+
+    @Override
+    public void markUninitialized() {
+        this.initialized = false;
+    }
+
+    /**
+     * Whether the filter was initialized and answers lookups.
+     *
+     * @return {@code true} if the filter was initialized.
+     */
+    public boolean isInitialized() {
+        return initialized;
+    }
+
+    /**
+     * The amount of bits in the filter. Determines the memory used, which is one eighth of this amount in bytes.
+     *
+     * @return The size of the filter in bits.
+     */
+    public long getBitSize() {
+        return bitSize;
+    }
+
+    /**
+     * The amount of bits set for every key added.
+     *
+     * @return The amount of hash functions of the filter.
+     */
+    public int getHashFunctionCount() {
+        return hashFunctionCount;
+    }
+
+    /**
+     * The number of lookups answered since the filter was initialized.
+     *
+     * @return The number of lookups.
+     */
+    public long getLookupCount() {
+        return lookups.sum();
+    }
+
+    /**
+     * The number of lookups for which the filter answered the key was never used, allowing the read to be skipped.
+     *
+     * @return The number of skipped reads.
+     */
+    public long getSkippedLookupCount() {
+        return skippedLookups.sum();
+    }
+
+    /**
+     * The fraction of lookups for which the read was skipped, or {@code 0} if no lookups were done yet.
+     *
+     * @return The ratio of skipped reads, between {@code 0} and {@code 1}.
+     */
+    public double getSkipRatio() {
+        long lookupCount = lookups.sum();
+        return lookupCount == 0 ? 0 : (double) skippedLookups.sum() / lookupCount;
+    }
+
+    private long bitIndex(long combinedHash) {
+        return (combinedHash & Long.MAX_VALUE) % bitSize;
+    }
+
+    private static long hash(String constraintKey) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < constraintKey.length(); i++) {
+            hash ^= constraintKey.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    /**
+     * A new builder to construct a new {@link BloomConstraintKeyFilter}.
+     * <p>
+     * The expected amount of keys defaults to {@code 1_000_000}, the false-positive probability to {@code 0.01} and
+     * the memory budget to 64 megabytes.
+     */
+    public static class Builder {
+
+        private long expectedKeys = 1_000_000;
+        private double falsePositiveProbability = 0.01;
+        private long maximumMemoryBytes = 64L * 1024 * 1024;
+
+        /**
+         * The amount of constraint keys the filter is expected to hold. Defaults to {@code 1_000_000}.
+         *
+         * @param expectedKeys The expected amount of keys.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder expectedKeys(long expectedKeys) {
+            BuilderUtils.assertStrictPositive(expectedKeys, "expectedKeys should be strictly positive!");
+            this.expectedKeys = expectedKeys;
+            return this;
+        }
+
+        /**
+         * The desired probability of the filter answering a key might exist while it was never added, when the filter
+         * holds the expected amount of keys. Defaults to {@code 0.01}.
+         *
+         * @param falsePositiveProbability The false-positive probability, between {@code 0} and {@code 1}.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder falsePositiveProbability(double falsePositiveProbability) {
+            BuilderUtils.assertThat(falsePositiveProbability, p -> p > 0 && p < 1,
+                                    "falsePositiveProbability should be between 0 and 1!");
+            this.falsePositiveProbability = falsePositiveProbability;
+            return this;
+        }
+
+        /**
+         * The maximum amount of memory the filter may use, in bytes. When the expected amount of keys and
+         * false-positive probability require more, the filter is capped at this size and the actual false-positive
+         * probability will be higher. Defaults to 64 megabytes.
+         *
+         * @param maximumMemoryBytes The memory budget of the filter in bytes.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder maximumMemoryBytes(long maximumMemoryBytes) {
+            BuilderUtils.assertStrictPositive(maximumMemoryBytes, "maximumMemoryBytes should be strictly positive!");
+            this.maximumMemoryBytes = maximumMemoryBytes;
+            return this;
+        }
+
+        protected void validate() {
+            // All fields have valid defaults
+        }
+
+        /**
+         * Builds the {@link BloomConstraintKeyFilter} using the configuration acquired.
+         *
+         * @return The {@link BloomConstraintKeyFilter}
+         */
+        public BloomConstraintKeyFilter build() {
+            return new BloomConstraintKeyFilter(this);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.common.BuilderUtils;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Determines how often, and after how long, the {@link EventStoreUniqueConstraintStore} retries a claim or release of
+ * which the append to the event store failed with a {@link org.axonframework.modelling.command.ConcurrencyException}.
+ * Before every retry, the state of the constraint keys is read again. When another owner claimed the value in the
+ * meantime, the claim fails with a {@link UniqueConstraintClaimException} instead of being retried. When the same owner
+ * claimed it, or it was released, the claim or release is applied to the new state.
+ * <p>
+ * The backoff before every retry is chosen randomly between zero and an exponentially growing upper bound, starting at
+ * the initial backoff and capped by the maximum backoff, so nodes retrying the same key don't collide again.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class ClaimRetryPolicy {
+
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+
+    /**
+     * Creates a new {@link ClaimRetryPolicy} with the builder's configuration.
+     *
+     * @param builder The builder to use.
+     */
+    protected ClaimRetryPolicy(Builder builder) {
+        builder.validate();
+        this.maxAttempts = builder.maxAttempts;
+        this.initialBackoffMillis = builder.initialBackoff.toMillis();
+        this.maxBackoffMillis = builder.maxBackoff.toMillis();
+    }
+
+    /**
+     * Creates a new builder to construct a new {@link ClaimRetryPolicy}.
+     * <p>
+     * The maximum amount of attempts defaults to {@code 3}, the initial backoff to 10 milliseconds and the maximum
+     * backoff to 200 milliseconds.
+     *
+     * @return A builder suitable to construct a new {@link ClaimRetryPolicy}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Whether another attempt is made after the given {@code attempt} failed.
+     *
+     * @param attempt The attempt that failed, starting at {@code 1}.
+     * @return {@code true} if the claim or release should be attempted again.
+     */
+    public boolean shouldRetry(int attempt) {
+        return attempt < maxAttempts;
+    }
+
+    /**
+     * The time to wait before retrying after the given {@code attempt} failed, chosen randomly between zero and
+     * {@code initialBackoff * 2^(attempt - 1)}, capped by the maximum backoff.
+     *
+     * @param attempt The attempt that failed, starting at {@code 1}.
+     * @return The time to wait, in milliseconds.
+     */
+    public long backoffMillis(int attempt) {
+        long bound = initialBackoffMillis << Math.min(attempt - 1, 30);
+        if (bound <= 0 || bound > maxBackoffMillis) {
+            bound = maxBackoffMillis;
+        }
+        return bound > 0 ? ThreadLocalRandom.current().nextLong(bound + 1) : 0;
+    }
+
+    /**
+     * A new builder to construct a new {@link ClaimRetryPolicy}.
+     * <p>
+     * The maximum amount of attempts defaults to {@code 3}, the initial backoff to 10 milliseconds and the maximum
+     * backoff to 200 milliseconds.
+     */
+    public static class Builder {
+
+        private int maxAttempts = 3;
+        private Duration initialBackoff = Duration.ofMillis(10);
+        private Duration maxBackoff = Duration.ofMillis(200);
+
+        /**
+         * The maximum amount of attempts, including the first one. Defaults to {@code 3}.
+         *
+         * @param maxAttempts The maximum amount of attempts.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder maxAttempts(int maxAttempts) {
+            BuilderUtils.assertStrictPositive(maxAttempts, "maxAttempts must be positive!");
+            this.maxAttempts = maxAttempts;
+            return this;
+        }
+
+        /**
+         * The upper bound of the backoff before the first retry, doubling for every following retry. Defaults to 10
+         * milliseconds.
+         *
+         * @param initialBackoff The upper bound of the first backoff.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder initialBackoff(Duration initialBackoff) {
+            BuilderUtils.assertNonNull(initialBackoff, "initialBackoff cannot be null!");
+            BuilderUtils.assertThat(initialBackoff, d -> !d.isNegative(), "initialBackoff cannot be negative!");
+            this.initialBackoff = initialBackoff;
+            return this;
+        }
+
+        /**
+         * The maximum backoff before any retry. Defaults to 200 milliseconds.
+         *
+         * @param maxBackoff The maximum backoff.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder maxBackoff(Duration maxBackoff) {
+            BuilderUtils.assertNonNull(maxBackoff, "maxBackoff cannot be null!");
+            BuilderUtils.assertThat(maxBackoff, d -> !d.isNegative(), "maxBackoff cannot be negative!");
+            this.maxBackoff = maxBackoff;
+            return this;
+        }
+
+        protected void validate() {
+            BuilderUtils.assertThat(maxBackoff,
+                                    d -> d.compareTo(initialBackoff) >= 0,
+                                    "maxBackoff cannot be shorter than initialBackoff!");
+        }
+
+        /**
+         * Builds the {@link ClaimRetryPolicy} using the configuration acquired.
+         *
+         * @return The {@link ClaimRetryPolicy}
+         */
+        public ClaimRetryPolicy build() {
+            return new ClaimRetryPolicy(this);
+        }
+    }
+}
@@ -0,0 +1,372 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.common.ReflectionUtils;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Precompiled accessors of the {@link AggregateUniqueConstraint} annotated fields and methods of an aggregate class.
+ * The plan of a class is created once, using {@link MethodHandle}s instead of reflection, and shared between all
+ * command handlers of that class. Reading the constraint values of an aggregate through the plan does not allocate
+ * anything besides the values themselves.
+ * <p>
+ * Constraints are indexed in the order fields and methods are declared. When a field and a method declare the same
+ * constraint name and {@link AggregateUniqueConstraint#order() order}, the method takes precedence. Members declaring
+ * the same constraint name with different orders are the components of a composite constraint.
+ * <p>
+ * The values of all constraints are indexed separately from the constraints themselves, one value per component, in
+ * the order of the constraints and their components. The values of the constraint at index {@code i} start at
+ * {@link #valueIndex(int) valueIndex(i)}. For plans without composite constraints, both indexes are the same. The
+ * {@link ConstraintValueNormalizer}s declared by a component are instantiated once and combined into a single
+ * normalizer per value.
+ * <p>
+ * Constraints can only be declared on instance fields, and on instance methods without parameters returning a value.
+ * Other members are rejected with an {@link IllegalStateException} when the plan is created.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class ConstraintAccessorPlan {
+
+    private static final MethodType ACCESSOR_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final ConcurrentMap<Class<?>, ConstraintAccessorPlan> PLANS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Class<?>, ConstraintValueNormalizer> NORMALIZERS = new ConcurrentHashMap<>();
+
+    private final String[] constraintNames;
+    private final int[] valueIndexes;
+    private final MethodHandle[] accessors;
+    private final ConstraintValueNormalizer[] normalizers;
+
+    private ConstraintAccessorPlan(String[] constraintNames,
+                                   int[] valueIndexes,
+                                   MethodHandle[] accessors,
+                                   ConstraintValueNormalizer[] normalizers) {
+        this.constraintNames = constraintNames;
+        this.valueIndexes = valueIndexes;
+        this.accessors = accessors;
+        this.normalizers = normalizers;
+    }
+
+    /**
+     * Returns the plan of the given aggregate class, creating it if this class was not inspected before.
+     *
+     * @param aggregateClass The class of the aggregate.
+     * @return The {@link ConstraintAccessorPlan} of the class, which is empty if it has no constraints.
+     */
+    public static ConstraintAccessorPlan forClass(Class<?> aggregateClass) {
+        return PLANS.computeIfAbsent(aggregateClass, ConstraintAccessorPlan::inspect);
+    }
+
+    private static ConstraintAccessorPlan inspect(Class<?> aggregateClass) {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        Map<String, TreeMap<Integer, Component>> constraints = new LinkedHashMap<>();
+        try {
+            for (Field field : ReflectionUtils.fieldsOf(aggregateClass)) {
+                AggregateUniqueConstraint annotation = field.getAnnotation(AggregateUniqueConstraint.class);
+                if (annotation != null) {
+                    assertNotStatic(aggregateClass, annotation, field.getModifiers(), "field " + field.getName());
+                    MethodHandle accessor = lookup.unreflectGetter(ReflectionUtils.ensureAccessible(field));
+                    addComponent(constraints, annotation, accessor);
+                }
+            }
+            for (Method method : ReflectionUtils.methodsOf(aggregateClass)) {
+                AggregateUniqueConstraint annotation = method.getAnnotation(AggregateUniqueConstraint.class);
+                if (annotation != null) {
+                    assertReadableMethod(aggregateClass, annotation, method);
+                    MethodHandle accessor = lookup.unreflect(ReflectionUtils.ensureAccessible(method));
+                    addComponent(constraints, annotation, accessor);
+                }
+            }
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(
+                    "Unable to access the unique constraints of aggregate [" + aggregateClass.getName() + "]", e);
+        }
+
+        String[] constraintNames = constraints.keySet().toArray(new String[0]);
+        int[] valueIndexes = new int[constraintNames.length + 1];
+        List<Component> components = new ArrayList<>();
+        for (int i = 0; i < constraintNames.length; i++) {
+            valueIndexes[i] = components.size();
+            components.addAll(constraints.get(constraintNames[i]).values());
+        }
+        valueIndexes[constraintNames.length] = components.size();
+        MethodHandle[] accessors = new MethodHandle[components.size()];
+        ConstraintValueNormalizer[] normalizers = new ConstraintValueNormalizer[components.size()];
+        for (int i = 0; i < components.size(); i++) {
+            accessors[i] = components.get(i).accessor;
+            normalizers[i] = components.get(i).normalizer;
+        }
+        return new ConstraintAccessorPlan(constraintNames, valueIndexes, accessors, normalizers);
+    }
+
+    /**
+     * Fails when the annotated member is static, since the value of a constraint is read from the aggregate instance.
+     */
+    private static void assertNotStatic(Class<?> aggregateClass,
+                                        AggregateUniqueConstraint annotation,
+                                        int modifiers,
+                                        String member) {
+        if (Modifier.isStatic(modifiers)) {
+            throw new IllegalStateException(
+                    "Unique constraint [" + annotation.constraintName() + "] of aggregate [" + aggregateClass.getName()
+                            + "] is declared on static " + member + ". Declare it on an instance field or method");
+        }
+    }
+
+    /**
+     * Fails when the annotated method can't be invoked on the aggregate to return a value.
+     */
+    private static void assertReadableMethod(Class<?> aggregateClass,
+                                             AggregateUniqueConstraint annotation,
+                                             Method method) {
+        assertNotStatic(aggregateClass, annotation, method.getModifiers(), "method " + method.getName());
+        if (method.getParameterCount() > 0 || method.getReturnType() == void.class) {
+            throw new IllegalStateException(
+                    "Unique constraint [" + annotation.constraintName() + "] of aggregate [" + aggregateClass.getName()
+                            + "] is declared on method " + method.getName() + ", which does not return a value "
+                            + "without parameters. Declare it on a method without parameters returning the value");
+        }
+    }
+
+    private static void addComponent(Map<String, TreeMap<Integer, Component>> constraints,
+                                     AggregateUniqueConstraint annotation,
+                                     MethodHandle accessor) {
+        constraints.computeIfAbsent(annotation.constraintName(), name -> new TreeMap<>())
+                   .put(annotation.order(), new Component(accessor.asType(ACCESSOR_TYPE), normalizerOf(annotation)));
+    }
+
+    private static ConstraintValueNormalizer normalizerOf(AggregateUniqueConstraint annotation) {
+        ConstraintValueNormalizer result = null;
+        for (Class<? extends ConstraintValueNormalizer> normalizerClass : annotation.normalizers()) {
+            ConstraintValueNormalizer normalizer = NORMALIZERS.computeIfAbsent(normalizerClass,
+                                                                               ConstraintAccessorPlan::instantiate);
+            result = result == null ? normalizer : result.andThen(normalizer);
+        }
+        return result;
+    }
+
+    private static ConstraintValueNormalizer instantiate(Class<?> normalizerClass) {
+        try {
+            return (ConstraintValueNormalizer) ReflectionUtils.ensureAccessible(normalizerClass.getDeclaredConstructor())
+                                                              .newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(
+                    "Unable to create normalizer [" + normalizerClass.getName() + "]. "
+                            + "Normalizers require a no-argument constructor", e);
+        }
+    }
+
+    /**
+     * Whether the aggregate class declares any unique constraints.
+     *
+     * @return {@code true} if the class has no {@link AggregateUniqueConstraint} annotated members.
+     */
+    public boolean isEmpty() {
+        return constraintNames.length == 0;
+    }
+
+    /**
+     * The number of constraints of the aggregate class.
+     *
+     * @return The number of constraints.
+     */
+    public int size() {
+        return constraintNames.length;
+    }
+
+    /**
+     * The index of the constraint with the given {@code constraintName}.
+     *
+     * @param constraintName The name of the constraint.
+     * @return The index of the constraint, or {@code -1} if this plan has no constraint with that name.
+     */
+    public int indexOf(String constraintName) {
+        for (int i = 0; i < constraintNames.length; i++) {
+            if (constraintNames[i].equals(constraintName)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Creates a plan containing only the constraints with the given {@code constraintNames}, in the order of this plan.
+     * Used for handlers that only affect some constraints of the aggregate, see {@link AffectsUniqueConstraints}.
+     *
+     * @param constraintNames The names of the constraints to retain.
+     * @return A {@link ConstraintAccessorPlan} with the given constraints, which is empty if no names are given.
+     * @throws IllegalArgumentException When this plan has no constraint with one of the given names.
+     */
+    public ConstraintAccessorPlan restrictTo(String... constraintNames) {
+        boolean[] retained = new boolean[this.constraintNames.length];
+        int retainedCount = 0;
+        for (String constraintName : constraintNames) {
+            int index = indexOf(constraintName);
+            if (index < 0) {
+                throw new IllegalArgumentException("No unique constraint [" + constraintName + "] is declared. "
+                                                           + "Declared constraints are "
+                                                           + Arrays.toString(this.constraintNames));
+            }
+            if (!retained[index]) {
+                retained[index] = true;
+                retainedCount++;
+            }
+        }
+        String[] restrictedNames = new String[retainedCount];
+        int[] restrictedValueIndexes = new int[retainedCount + 1];
+        int valueCount = 0;
+        for (int i = 0, j = 0; i < retained.length; i++) {
+            if (retained[i]) {
+                restrictedNames[j] = this.constraintNames[i];
+                restrictedValueIndexes[j++] = valueCount;
+                valueCount += componentCount(i);
+            }
+        }
+        restrictedValueIndexes[retainedCount] = valueCount;
+        MethodHandle[] restrictedAccessors = new MethodHandle[valueCount];
+        ConstraintValueNormalizer[] restrictedNormalizers = new ConstraintValueNormalizer[valueCount];
+        for (int i = 0, j = 0; i < retained.length; i++) {
+            if (retained[i]) {
+                int count = componentCount(i);
+                System.arraycopy(accessors, valueIndexes[i], restrictedAccessors, j, count);
+                System.arraycopy(normalizers, valueIndexes[i], restrictedNormalizers, j, count);
+                j += count;
+            }
+        }
+        return new ConstraintAccessorPlan(restrictedNames,
+                                          restrictedValueIndexes,
+                                          restrictedAccessors,
+                                          restrictedNormalizers);
+    }
+
+    /**
+     * The name of the constraint at the given {@code index}.
+     *
+     * @param index The index of the constraint.
+     * @return The name of the constraint.
+     */
+    public String constraintName(int index) {
+        return constraintNames[index];
+    }
+
+    /**
+     * The number of components of the constraint at the given {@code index}, which is {@code 1} unless it is a
+     * composite constraint.
+     *
+     * @param index The index of the constraint.
+     * @return The number of components of the constraint.
+     */
+    public int componentCount(int index) {
+        return valueIndexes[index + 1] - valueIndexes[index];
+    }
+
+    /**
+     * The index of the value of the first component of the constraint at the given {@code index}. The values of its
+     * other components directly follow it.
+     *
+     * @param index The index of the constraint.
+     * @return The index of the first value of the constraint.
+     */
+    public int valueIndex(int index) {
+        return valueIndexes[index];
+    }
+
+    /**
+     * The total number of values of the constraints of this plan, which is the number of constraints plus the number
+     * of additional components of composite constraints.
+     *
+     * @return The number of values.
+     */
+    public int valueCount() {
+        return accessors.length;
+    }
+
+    /**
+     * The {@link ConstraintValueNormalizer} of the value at the given {@code valueIndex}, combining all normalizers
+     * declared by its {@link AggregateUniqueConstraint} annotation.
+     *
+     * @param valueIndex The index of the value.
+     * @return The normalizer of the value, or {@code null} if it declares none.
+     */
+    public ConstraintValueNormalizer normalizer(int valueIndex) {
+        return normalizers[valueIndex];
+    }
+
+    /**
+     * Reads the value at the given {@code valueIndex} from the given {@code aggregate}.
+     *
+     * @param valueIndex The index of the value.
+     * @param aggregate  The aggregate to read the value from.
+     * @return The current value, which may be {@code null}.
+     */
+    public Object readValue(int valueIndex, Object aggregate) {
+        try {
+            return accessors[valueIndex].invokeExact(aggregate);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Unable to read the value of unique constraint ["
+                                                    + constraintNames[constraintOf(valueIndex)] + "]", e);
+        }
+    }
+
+    /**
+     * Reads the values of the constraint at the given {@code index} from the given {@code aggregate} into the given
+     * {@code values}, starting at its {@link #valueIndex(int) value index}.
+     *
+     * @param index     The index of the constraint.
+     * @param aggregate The aggregate to read the values from.
+     * @param values    The array of all values of the plan to read the values into.
+     */
+    public void readValues(int index, Object aggregate, Object[] values) {
+        for (int i = valueIndexes[index]; i < valueIndexes[index + 1]; i++) {
+            values[i] = readValue(i, aggregate);
+        }
+    }
+
+    /**
+     * Reads all values of the constraints from the given {@code aggregate}, indexed by their value index.
+     *
+     * @param aggregate The aggregate to read the values from.
+     * @return The current values of the constraints.
+     */
+    public Object[] readValues(Object aggregate) {
+        Object[] values = new Object[accessors.length];
+        for (int i = 0; i < accessors.length; i++) {
+            values[i] = readValue(i, aggregate);
+        }
+        return values;
+    }
+
+    private int constraintOf(int valueIndex) {
+        int index = 0;
+        while (valueIndexes[index + 1] <= valueIndex) {
+            index++;
+        }
+        return index;
+    }
+
+    private static class Component {
+
+        private final MethodHandle accessor;
+        private final ConstraintValueNormalizer normalizer;
+
+        private Component(MethodHandle accessor, ConstraintValueNormalizer normalizer) {
+            this.accessor = accessor;
+            this.normalizer = normalizer;
+        }
+    }
+}
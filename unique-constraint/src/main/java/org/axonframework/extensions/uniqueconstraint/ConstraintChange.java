@@ -0,0 +1,120 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import java.util.Objects;
+
+/**
+ * A single change to the claims of an owner, to be applied by a {@link BatchUniqueConstraintStore} together with the
+ * other changes caused by the same command. Either claims or releases the value of a constraint.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public final class ConstraintChange {
+
+    private final Type type;
+    private final String constraintName;
+    private final String constraintValue;
+
+    private ConstraintChange(Type type, String constraintName, String constraintValue) {
+        this.type = type;
+        this.constraintName = Objects.requireNonNull(constraintName, "constraintName cannot be null!");
+        this.constraintValue = Objects.requireNonNull(constraintValue, "constraintValue cannot be null!");
+    }
+
+    /**
+     * Change claiming the given {@code constraintValue} of the constraint.
+     *
+     * @param constraintName  The name of the constraint.
+     * @param constraintValue The value to claim.
+     * @return The claiming change.
+     */
+    public static ConstraintChange claim(String constraintName, String constraintValue) {
+        return new ConstraintChange(Type.CLAIM, constraintName, constraintValue);
+    }
+
+    /**
+     * Change releasing the given {@code constraintValue} of the constraint.
+     *
+     * @param constraintName  The name of the constraint.
+     * @param constraintValue The value to release.
+     * @return The releasing change.
+     */
+    public static ConstraintChange release(String constraintName, String constraintValue) {
+        return new ConstraintChange(Type.RELEASE, constraintName, constraintValue);
+    }
+
+    /**
+     * Whether this change claims or releases the value.
+     *
+     * @return The {@link Type} of the change.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * Whether this change claims the value.
+     *
+     * @return {@code true} if the value is claimed, {@code false} if it is released.
+     */
+    public boolean isClaim() {
+        return type == Type.CLAIM;
+    }
+
+    /**
+     * The name of the constraint that changed.
+     *
+     * @return The name of the constraint.
+     */
+    public String getConstraintName() {
+        return constraintName;
+    }
+
+    /**
+     * The value to claim or release.
+     *
+     * @return The value of the constraint.
+     */
+    public String getConstraintValue() {
+        return constraintValue;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ConstraintChange that = (ConstraintChange) o;
+        return type == that.type
+                && constraintName.equals(that.constraintName)
+                && constraintValue.equals(that.constraintValue);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, constraintName, constraintValue);
+    }
+
+    @Override
+    public String toString() {
+        return "ConstraintChange{type=" + type + ", constraintName='" + constraintName
+                + "', constraintValue='" + constraintValue + "'}";
+    }
+
+    /**
+     * The type of a {@link ConstraintChange}.
+     */
+    public enum Type {
+        /**
+         * The value is claimed by the owner.
+         */
+        CLAIM,
+        /**
+         * The value is released by the owner.
+         */
+        RELEASE
+    }
+}
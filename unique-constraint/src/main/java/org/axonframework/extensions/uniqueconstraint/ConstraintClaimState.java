@@ -0,0 +1,121 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import java.util.Objects;
+
+/**
+ * The state of a constraint key as known by the store: the sequence number of the last event of the key and, if the
+ * key is currently claimed, its owner. A sequence number of {@code -1} indicates the key has never been used.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public final class ConstraintClaimState {
+
+    private static final ConstraintClaimState UNUSED = new ConstraintClaimState(-1L, null);
+
+    private final long sequenceNumber;
+    private final String owner;
+
+    private ConstraintClaimState(long sequenceNumber, String owner) {
+        this.sequenceNumber = sequenceNumber;
+        this.owner = owner;
+    }
+
+    /**
+     * State of a key that has never been claimed.
+     *
+     * @return The state of an unused key.
+     */
+    public static ConstraintClaimState unused() {
+        return UNUSED;
+    }
+
+    /**
+     * State of a key that is claimed by the given {@code owner} as of the given {@code sequenceNumber}.
+     *
+     * @param sequenceNumber The sequence number of the event that claimed the key.
+     * @param owner          The owner of the claim.
+     * @return The state of a claimed key.
+     */
+    public static ConstraintClaimState claimed(long sequenceNumber, String owner) {
+        return new ConstraintClaimState(sequenceNumber, Objects.requireNonNull(owner, "owner cannot be null!"));
+    }
+
+    /**
+     * State of a key that was released as of the given {@code sequenceNumber}.
+     *
+     * @param sequenceNumber The sequence number of the event that released the key.
+     * @return The state of a released key.
+     */
+    public static ConstraintClaimState released(long sequenceNumber) {
+        return new ConstraintClaimState(sequenceNumber, null);
+    }
+
+    /**
+     * The sequence number of the last event of the key, or {@code -1} if the key was never used.
+     *
+     * @return The sequence number of the last event of the key.
+     */
+    public long getSequenceNumber() {
+        return sequenceNumber;
+    }
+
+    /**
+     * The current owner of the key, or {@code null} if the key is free to claim.
+     *
+     * @return The current owner of the key.
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * Whether the key has never been claimed, meaning it has no events at all.
+     *
+     * @return {@code true} if the key has never been claimed.
+     */
+    public boolean isUnused() {
+        return sequenceNumber < 0;
+    }
+
+    /**
+     * Whether the key is currently claimed by any owner.
+     *
+     * @return {@code true} if the key is claimed, {@code false} if it is free to claim.
+     */
+    public boolean isClaimed() {
+        return owner != null;
+    }
+
+    /**
+     * Whether the key is currently claimed by the given {@code owner}.
+     *
+     * @param owner The owner to compare with.
+     * @return {@code true} if the key is claimed by the given owner.
+     */
+    public boolean isClaimedBy(String owner) {
+        return this.owner != null && this.owner.equals(owner);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ConstraintClaimState that = (ConstraintClaimState) o;
+        return sequenceNumber == that.sequenceNumber && Objects.equals(owner, that.owner);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(sequenceNumber, owner);
+    }
+
+    @Override
+    public String toString() {
+        return "ConstraintClaimState{sequenceNumber=" + sequenceNumber + ", owner='" + owner + "'}";
+    }
+}
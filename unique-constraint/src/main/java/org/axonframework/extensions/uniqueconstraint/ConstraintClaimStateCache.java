@@ -0,0 +1,232 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.common.BuilderUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, read-through cache of the {@link ConstraintClaimState} of constraint keys. Used by the
+ * {@link EventStoreUniqueConstraintStore} to prevent reading the last event of a constraint key from the event store
+ * on every claim or release.
+ * <p>
+ * Entries are evicted in least-recently-used order when the cache exceeds its maximum size, and expire after the
+ * configured time-to-live. The time-to-live bounds how long changes made by other nodes can go unnoticed.
+ * <p>
+ * The store only uses an entry when it leads to appending an event, such as claiming a key that is cached as released.
+ * When the entry is stale, the event store rejects that append, since its sequence number conflicts with the actual
+ * state of the constraint key. Decisions not to append, such as rejecting a claim of a key cached as claimed by another
+ * owner, can't be verified that way, so those are always based on the state read from the event store.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class ConstraintClaimStateCache {
+
+    private final int maximumSize;
+    private final long timeToLiveMillis;
+    private final Clock clock;
+    private final Map<String, Entry> entries;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a new {@link ConstraintClaimStateCache} with the builder's configuration.
+     *
+     * @param builder The builder to use.
+     */
+    protected ConstraintClaimStateCache(Builder builder) {
+        builder.validate();
+        this.maximumSize = builder.maximumSize;
+        this.timeToLiveMillis = builder.timeToLive.toMillis();
+        this.clock = builder.clock;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() > maximumSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Creates a new builder to construct a new {@link ConstraintClaimStateCache}.
+     * <p>
+     * The maximum size defaults to {@code 10_000} entries and the time-to-live to one minute.
+     *
+     * @return A builder suitable to construct a new {@link ConstraintClaimStateCache}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Returns the cached state of the given {@code constraintKey}, or {@code null} if it is not cached or expired.
+     *
+     * @param constraintKey The constraint key to look up.
+     * @return The cached {@link ConstraintClaimState}, or {@code null}.
+     */
+    public ConstraintClaimState get(String constraintKey) {
+        long now = clock.millis();
+        synchronized (entries) {
+            Entry entry = entries.get(constraintKey);
+            if (entry == null) {
+                misses.increment();
+                return null;
+            }
+            if (entry.expiresAt <= now) {
+                entries.remove(constraintKey);
+                evictions.increment();
+                misses.increment();
+                return null;
+            }
+            hits.increment();
+            return entry.state;
+        }
+    }
+
+    /**
+     * Caches the given {@code state} for the {@code constraintKey}, replacing any previous state.
+     *
+     * @param constraintKey The constraint key to cache the state for.
+     * @param state         The current state of the key.
+     */
+    public void put(String constraintKey, ConstraintClaimState state) {
+        Entry entry = new Entry(state, clock.millis() + timeToLiveMillis);
+        synchronized (entries) {
+            entries.put(constraintKey, entry);
+        }
+    }
+
+    /**
+     * Removes the cached state of the {@code constraintKey}. Used when the cached state is known to be incorrect, for
+     * example after an append to the key failed.
+     *
+     * @param constraintKey The constraint key to remove.
+     */
+    public void invalidate(String constraintKey) {
+        synchronized (entries) {
+            entries.remove(constraintKey);
+        }
+    }
+
+    /**
+     * The number of entries currently cached, including entries that expired but were not evicted yet.
+     *
+     * @return The number of entries in the cache.
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * The number of lookups that were answered from the cache.
+     *
+     * @return The number of cache hits.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * The number of lookups that were not answered from the cache, because the entry was absent or expired.
+     *
+     * @return The number of cache misses.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * The number of entries that were evicted because the cache exceeded its maximum size or the entry expired.
+     *
+     * @return The number of evictions.
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    private static class Entry {
+
+        private final ConstraintClaimState state;
+        private final long expiresAt;
+
+        private Entry(ConstraintClaimState state, long expiresAt) {
+            this.state = state;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * A new builder to construct a new {@link ConstraintClaimStateCache}.
+     * <p>
+     * The maximum size defaults to {@code 10_000} entries and the time-to-live to one minute.
+     */
+    public static class Builder {
+
+        private int maximumSize = 10_000;
+        private Duration timeToLive = Duration.ofMinutes(1);
+        private Clock clock = Clock.systemUTC();
+
+        /**
+         * The maximum amount of constraint keys to cache. Defaults to {@code 10_000}.
+         *
+         * @param maximumSize The maximum amount of entries.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder maximumSize(int maximumSize) {
+            BuilderUtils.assertStrictPositive(maximumSize, "maximumSize should be strictly positive!");
+            this.maximumSize = maximumSize;
+            return this;
+        }
+
+        /**
+         * The time after which a cached entry expires. Defaults to one minute.
+         *
+         * @param timeToLive The time-to-live of an entry.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder timeToLive(Duration timeToLive) {
+            BuilderUtils.assertNonNull(timeToLive, "timeToLive cannot be null!");
+            BuilderUtils.assertThat(timeToLive, ttl -> !ttl.isNegative() && !ttl.isZero(),
+                                    "timeToLive should be strictly positive!");
+            this.timeToLive = timeToLive;
+            return this;
+        }
+
+        /**
+         * The {@link Clock} used to determine expiry of entries. Defaults to the system clock.
+         *
+         * @param clock The {@link Clock} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder clock(Clock clock) {
+            BuilderUtils.assertNonNull(clock, "clock cannot be null!");
+            this.clock = clock;
+            return this;
+        }
+
+        protected void validate() {
+            // All fields have valid defaults
+        }
+
+        /**
+         * Builds the {@link ConstraintClaimStateCache} using the configuration acquired.
+         *
+         * @return The {@link ConstraintClaimStateCache}
+         */
+        public ConstraintClaimStateCache build() {
+            return new ConstraintClaimStateCache(this);
+        }
+    }
+}
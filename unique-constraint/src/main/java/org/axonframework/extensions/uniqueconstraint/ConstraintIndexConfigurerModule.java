@@ -0,0 +1,41 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.config.Configurer;
+import org.axonframework.config.ConfigurerModule;
+import org.axonframework.eventhandling.StreamingEventProcessor;
+import org.axonframework.eventhandling.tokenstore.inmemory.InMemoryTokenStore;
+
+/**
+ * Registers a {@link ConstraintIndexProjection} as {@link ConstraintKeyFilter}, which the
+ * {@link UniqueConstraintConfigurerModule} passes to the {@link EventStoreUniqueConstraintStore}.
+ * <p>
+ * The projection is fed by a tracking event processor named {@link ConstraintIndexProjection#PROCESSING_GROUP}, reading
+ * from the event store. Since the index is kept in memory, the processor uses an {@link InMemoryTokenStore} and reads
+ * all constraint events on every startup. Until it has caught up, the store reads the state of every key.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class ConstraintIndexConfigurerModule implements ConfigurerModule {
+
+    @Override
+    public void configureModule(Configurer configurer) {
+        configurer.registerComponent(ConstraintIndexProjection.class,
+                                     config -> ConstraintIndexProjection.builder().build());
+        configurer.registerComponent(ConstraintKeyFilter.class,
+                                     config -> config.getComponent(ConstraintIndexProjection.class));
+        configurer.eventProcessing()
+                  .registerEventHandler(config -> config.getComponent(ConstraintIndexProjection.class))
+                  .registerTokenStore(ConstraintIndexProjection.PROCESSING_GROUP, config -> new InMemoryTokenStore())
+                  .registerTrackingEventProcessor(ConstraintIndexProjection.PROCESSING_GROUP);
+
+        configurer.onStart(() -> {
+            ConstraintIndexProjection projection = configurer.buildConfiguration()
+                                                             .getComponent(ConstraintIndexProjection.class);
+            configurer.buildConfiguration()
+                      .eventProcessingConfiguration()
+                      .eventProcessor(ConstraintIndexProjection.PROCESSING_GROUP, StreamingEventProcessor.class)
+                      .ifPresent(projection::trackReadinessOf);
+        });
+    }
+}
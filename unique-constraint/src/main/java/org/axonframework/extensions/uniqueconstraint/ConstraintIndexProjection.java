@@ -0,0 +1,440 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.common.BuilderUtils;
+import org.axonframework.config.ProcessingGroup;
+import org.axonframework.eventhandling.EventHandler;
+import org.axonframework.eventhandling.EventTrackerStatus;
+import org.axonframework.eventhandling.ResetHandler;
+import org.axonframework.eventhandling.StreamingEventProcessor;
+import org.axonframework.extensions.uniqueconstraint.events.ConstraintClaimedEvent;
+import org.axonframework.extensions.uniqueconstraint.events.ConstraintReleasedEvent;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index of the owner of every constraint key, built from the {@link ConstraintClaimedEvent}s and
+ * {@link ConstraintReleasedEvent}s in the event store by a {@link StreamingEventProcessor}. The index is kept in memory
+ * only, so the processor should start from the beginning of the event stream on every startup, which the
+ * {@link ConstraintIndexConfigurerModule} takes care of.
+ * <p>
+ * Keys created by the {@link Sha256ConstraintKeyProvider}, in either encoding, are stored as their 32 raw bytes in an
+ * open-addressing table of primitive longs, instead of as Strings. Every slot of the table takes 32 bytes plus a reference to the
+ * owner, where a regular map takes well over 100 bytes per key for the String and map entry alone. Keys of other
+ * formats are stored in a regular map.
+ * <p>
+ * As a {@link ConstraintKeyFilter}, the index lets the {@link EventStoreUniqueConstraintStore} skip reading the state of
+ * keys that have no events, and only read the state from the event store to confirm a key that is in the index. The
+ * index is exact, so it does not answer that a key might exist when it has no events. It is not ready to answer until
+ * the processor has caught up with the event stream, or {@link #markInitialized()} was called. It stops being ready as
+ * soon as the processor is no longer running or reports an error, since the index then misses new claims, and becomes
+ * ready again once the processor has caught up again. Like any {@link ConstraintKeyFilter}, the store only consults the
+ * index for claims, so releases of keys the index has not seen yet are never skipped.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+@ProcessingGroup(ConstraintIndexProjection.PROCESSING_GROUP)
+public class ConstraintIndexProjection implements ConstraintKeyFilter {
+
+    /**
+     * The processing group of the event handlers of this projection.
+     */
+    public static final String PROCESSING_GROUP = "UniqueConstraintIndex";
+
+    private static final int HEX_KEY_LENGTH = 64;
+    private static final int BASE64_KEY_LENGTH = 43;
+    private static final int LONGS_PER_KEY = 4;
+    private static final int MAXIMUM_CAPACITY = 1 << 28;
+    private static final float LOAD_FACTOR = 0.75f;
+    @SuppressWarnings("StringOperationCanBeSimplified")
+    private static final String RELEASED = new String("RELEASED");
+    @SuppressWarnings("StringOperationCanBeSimplified")
+    private static final String UNKNOWN_OWNER = new String("UNKNOWN_OWNER");
+
+    private final int initialCapacity;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, String> otherKeys = new HashMap<>();
+    private long[] keys;
+    private String[] owners;
+    private int size;
+    private volatile boolean initialized;
+    private volatile StreamingEventProcessor processor;
+
+    /**
+     * Creates a new {@link ConstraintIndexProjection} with the builder's configuration.
+     *
+     * @param builder The builder to use.
+     */
+    protected ConstraintIndexProjection(Builder builder) {
+        builder.validate();
+        this.initialCapacity = capacityFor(builder.expectedKeys);
+        this.keys = new long[initialCapacity * LONGS_PER_KEY];
+        this.owners = new String[initialCapacity];
+    }
+
+    /**
+     * Creates a new builder to construct a new {@link ConstraintIndexProjection}.
+     * <p>
+     * The expected number of keys defaults to 16384.
+     *
+     * @return A builder suitable to construct a new {@link ConstraintIndexProjection}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    private static int capacityFor(int expectedKeys) {
+        long required = (long) Math.ceil(expectedKeys / (double) LOAD_FACTOR);
+        int capacity = 16;
+        while (capacity < required && capacity < MAXIMUM_CAPACITY) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    /**
+     * Records the owner of the claimed constraint key.
+     *
+     * @param event The event of the claim.
+     */
+    @EventHandler
+    public void on(ConstraintClaimedEvent event) {
+        put(event.getConstraintKey(), event.getOwner(), true);
+    }
+
+    /**
+     * Records the constraint key as released. The key is kept in the index, as its state still needs to be read to
+     * claim it again.
+     *
+     * @param event The event of the release.
+     */
+    @EventHandler
+    public void on(ConstraintReleasedEvent event) {
+        put(event.getConstraintKey(), RELEASED, true);
+    }
+
+    /**
+     * Clears the index when the processor is reset, after which it is no longer ready until it has caught up again.
+     */
+    @ResetHandler
+    public void reset() {
+        lock.writeLock().lock();
+        try {
+            initialized = false;
+            keys = new long[initialCapacity * LONGS_PER_KEY];
+            owners = new String[initialCapacity];
+            size = 0;
+            otherKeys.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the owner of the constraint key according to the events processed so far. A claim that was only
+     * {@link #add(String) added} by the store, but of which the event was not processed yet, has no known owner.
+     *
+     * @param constraintKey The constraint key to look up.
+     * @return The owner of the key, or an empty {@link Optional} if the key is not claimed or its owner is not known.
+     */
+    public Optional<String> ownerOf(String constraintKey) {
+        String owner = get(constraintKey);
+        return owner == null || owner == RELEASED || owner == UNKNOWN_OWNER ? Optional.empty() : Optional.of(owner);
+    }
+
+    /**
+     * Whether the index contains all keys with events in the event store. This is the case once
+     * {@link #markInitialized()} was called, or once the processor passed to {@link #trackReadinessOf} caught up. When
+     * that processor stopped, or any of its segments is in error, the index is no longer ready until it caught up
+     * again.
+     *
+     * @return {@code true} if the index is ready to answer whether keys exist.
+     */
+    public boolean isReady() {
+        StreamingEventProcessor trackedProcessor = processor;
+        if (trackedProcessor == null) {
+            return initialized;
+        }
+        Map<Integer, EventTrackerStatus> status = trackedProcessor.processingStatus();
+        if (!isProcessing(trackedProcessor, status)) {
+            initialized = false;
+            return false;
+        }
+        if (!initialized && status.values().stream().allMatch(EventTrackerStatus::isCaughtUp)) {
+            initialized = true;
+        }
+        return initialized;
+    }
+
+    private static boolean isProcessing(StreamingEventProcessor processor, Map<Integer, EventTrackerStatus> status) {
+        if (!processor.isRunning() || processor.isError() || status.isEmpty()) {
+            return false;
+        }
+        for (EventTrackerStatus segmentStatus : status.values()) {
+            if (segmentStatus.isErrorState()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Marks the index as ready once all segments of the given {@code processor} have caught up with the event stream,
+     * for as long as the processor keeps running without errors.
+     *
+     * @param processor The {@link StreamingEventProcessor} feeding the events to this projection.
+     */
+    public void trackReadinessOf(StreamingEventProcessor processor) {
+        this.processor = processor;
+    }
+
+    /**
+     * The number of constraint keys in the index, including released keys.
+     *
+     * @return The number of keys.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size + otherKeys.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean mightExist(String constraintKey) {
+        return !isReady() || get(constraintKey) != null;
+    }
+
+    /**
+     * Adds the key without an owner, unless it is in the index already. The owner is recorded once the event of the
+     * claim is processed.
+     */
+    @Override
+    public void add(String constraintKey) {
+        put(constraintKey, UNKNOWN_OWNER, false);
+    }
+
+    @Override
+    public void markInitialized() {
+        initialized = true;
+    }
+
+    @Override
+    public void markUninitialized() {
+        initialized = false;
+    }
+
+    private String get(String constraintKey) {
+        lock.readLock().lock();
+        try {
+            if (!isCompactKey(constraintKey)) {
+                return otherKeys.get(constraintKey);
+            }
+            long k0 = keyWord(constraintKey, 0);
+            long k1 = keyWord(constraintKey, 1);
+            long k2 = keyWord(constraintKey, 2);
+            long k3 = keyWord(constraintKey, 3);
+            int slot = findSlot(keys, owners, k0, k1, k2, k3);
+            return owners[slot];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(String constraintKey, String owner, boolean overwrite) {
+        lock.writeLock().lock();
+        try {
+            if (!isCompactKey(constraintKey)) {
+                if (overwrite) {
+                    otherKeys.put(constraintKey, owner);
+                } else {
+                    otherKeys.putIfAbsent(constraintKey, owner);
+                }
+                return;
+            }
+            long k0 = keyWord(constraintKey, 0);
+            long k1 = keyWord(constraintKey, 1);
+            long k2 = keyWord(constraintKey, 2);
+            long k3 = keyWord(constraintKey, 3);
+            int slot = findSlot(keys, owners, k0, k1, k2, k3);
+            if (owners[slot] != null) {
+                if (overwrite) {
+                    owners[slot] = owner;
+                }
+                return;
+            }
+            if (size + 1 > owners.length * LOAD_FACTOR) {
+                grow();
+                slot = findSlot(keys, owners, k0, k1, k2, k3);
+            }
+            store(keys, owners, slot, k0, k1, k2, k3, owner);
+            size++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void grow() {
+        if (owners.length >= MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("The constraint index can not hold more than "
+                                                    + (int) (MAXIMUM_CAPACITY * LOAD_FACTOR) + " keys.");
+        }
+        long[] newKeys = new long[keys.length * 2];
+        String[] newOwners = new String[owners.length * 2];
+        for (int slot = 0; slot < owners.length; slot++) {
+            if (owners[slot] != null) {
+                int offset = slot * LONGS_PER_KEY;
+                long k0 = keys[offset];
+                long k1 = keys[offset + 1];
+                long k2 = keys[offset + 2];
+                long k3 = keys[offset + 3];
+                store(newKeys, newOwners, findSlot(newKeys, newOwners, k0, k1, k2, k3), k0, k1, k2, k3, owners[slot]);
+            }
+        }
+        keys = newKeys;
+        owners = newOwners;
+    }
+
+    /**
+     * Finds the slot holding the given key using linear probing, or the empty slot where it should be stored.
+     */
+    private static int findSlot(long[] keys, String[] owners, long k0, long k1, long k2, long k3) {
+        int mask = owners.length - 1;
+        int slot = mix(k0) & mask;
+        while (owners[slot] != null) {
+            int offset = slot * LONGS_PER_KEY;
+            if (keys[offset] == k0 && keys[offset + 1] == k1 && keys[offset + 2] == k2 && keys[offset + 3] == k3) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static void store(long[] keys, String[] owners, int slot,
+                              long k0, long k1, long k2, long k3, String owner) {
+        int offset = slot * LONGS_PER_KEY;
+        keys[offset] = k0;
+        keys[offset + 1] = k1;
+        keys[offset + 2] = k2;
+        keys[offset + 3] = k3;
+        owners[slot] = owner;
+    }
+
+    private static int mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        return (int) value;
+    }
+
+    /**
+     * Whether the key is in the upper-case hexadecimal or the Base64url format of the
+     * {@link Sha256ConstraintKeyProvider}. Other formats, including lower-case hexadecimal keys, are stored as Strings
+     * so they are never confused with each other.
+     */
+    private static boolean isCompactKey(String constraintKey) {
+        if (constraintKey.length() == HEX_KEY_LENGTH) {
+            for (int i = 0; i < HEX_KEY_LENGTH; i++) {
+                char c = constraintKey.charAt(i);
+                if ((c < '0' || c > '9') && (c < 'A' || c > 'F')) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        if (constraintKey.length() == BASE64_KEY_LENGTH) {
+            for (int i = 0; i < BASE64_KEY_LENGTH; i++) {
+                if (base64Value(constraintKey.charAt(i)) < 0) {
+                    return false;
+                }
+            }
+            // The last character holds only 4 bits of the hash, the other 2 are zero in a canonical key
+            return (base64Value(constraintKey.charAt(BASE64_KEY_LENGTH - 1)) & 0x3) == 0;
+        }
+        return false;
+    }
+
+    /**
+     * Reads 64 bits of the hash from a compact key. Both encodings of the same hash result in the same bits, so a key
+     * shares its entry with the key of the same value in the other encoding.
+     */
+    private static long keyWord(String constraintKey, int word) {
+        long value = 0;
+        if (constraintKey.length() == HEX_KEY_LENGTH) {
+            for (int i = word * 16; i < word * 16 + 16; i++) {
+                char c = constraintKey.charAt(i);
+                value = (value << 4) | (c <= '9' ? c - '0' : c - 'A' + 10);
+            }
+            return value;
+        }
+        int firstBit = word * 64;
+        int bit = firstBit;
+        while (bit < firstBit + 64) {
+            int offset = bit % 6;
+            int available = Math.min(6 - offset, firstBit + 64 - bit);
+            int sextet = base64Value(constraintKey.charAt(bit / 6));
+            value = (value << available) | ((sextet >>> (6 - offset - available)) & ((1 << available) - 1));
+            bit += available;
+        }
+        return value;
+    }
+
+    private static int base64Value(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 26;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 52;
+        }
+        if (c == '-') {
+            return 62;
+        }
+        return c == '_' ? 63 : -1;
+    }
+
+    /**
+     * A new builder to construct a new {@link ConstraintIndexProjection}.
+     * <p>
+     * The expected number of keys defaults to 16384.
+     */
+    public static class Builder {
+
+        private int expectedKeys = 16384;
+
+        /**
+         * The number of keys the index is expected to hold. The index is sized to hold this number of keys without
+         * growing, which avoids copying the index while the processor catches up. Defaults to 16384.
+         *
+         * @param expectedKeys The expected number of keys.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder expectedKeys(int expectedKeys) {
+            BuilderUtils.assertStrictPositive(expectedKeys, "expectedKeys should be strictly positive!");
+            this.expectedKeys = expectedKeys;
+            return this;
+        }
+
+        protected void validate() {
+            // All fields have valid defaults
+        }
+
+        /**
+         * Builds the {@link ConstraintIndexProjection} using the configuration acquired.
+         *
+         * @return The {@link ConstraintIndexProjection}
+         */
+        public ConstraintIndexProjection build() {
+            return new ConstraintIndexProjection(this);
+        }
+    }
+}
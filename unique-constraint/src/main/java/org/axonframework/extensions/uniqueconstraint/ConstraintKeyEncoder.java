@@ -0,0 +1,127 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+/**
+ * Encoding routines shared by the hashing {@link ConstraintKeyProvider}s. They write into buffers owned by the caller,
+ * so providers can reuse their buffers per thread and only allocate the resulting key.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+final class ConstraintKeyEncoder {
+
+    /**
+     * Separator between the name and the value of the constraint in the hashed input.
+     */
+    static final String SEPARATOR = "__";
+
+    private static final char[] HEX_ARRAY = "0123456789ABCDEF".toCharArray();
+    private static final char[] BASE64_URL_ARRAY =
+            "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789-_".toCharArray();
+
+    private ConstraintKeyEncoder() {
+    }
+
+    /**
+     * The maximum number of bytes the UTF-8 encoding of the name, separator and value can take.
+     */
+    static int maximumInputLength(String constraintName, CharSequence value) {
+        return 3 * (constraintName.length() + SEPARATOR.length() + value.length());
+    }
+
+    /**
+     * Encodes the name, separator and value as UTF-8 into the {@code target} array, which should be at least
+     * {@link #maximumInputLength} bytes long.
+     *
+     * @return The number of bytes written.
+     */
+    static int encodeInput(String constraintName, CharSequence value, byte[] target) {
+        int length = encodeUtf8(constraintName, target, 0);
+        length = encodeUtf8(SEPARATOR, target, length);
+        return encodeUtf8(value, target, length);
+    }
+
+    /**
+     * Encodes the given {@code chars} as UTF-8 into the {@code target} array, starting at {@code position}. Unpaired
+     * surrogates are encoded as {@code '?'}, the same way {@link String#getBytes(java.nio.charset.Charset)} does, so
+     * keys remain the same as when they were calculated from the concatenated String.
+     *
+     * @return The position in the target array after the encoded characters.
+     */
+    static int encodeUtf8(CharSequence chars, byte[] target, int position) {
+        int length = chars.length();
+        for (int i = 0; i < length; i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                target[position++] = (byte) c;
+            } else if (c < 0x800) {
+                target[position++] = (byte) (0xC0 | (c >> 6));
+                target[position++] = (byte) (0x80 | (c & 0x3F));
+            } else if (Character.isSurrogate(c)) {
+                if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, chars.charAt(++i));
+                    target[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    target[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    target[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    target[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else {
+                    target[position++] = (byte) '?';
+                }
+            } else {
+                target[position++] = (byte) (0xE0 | (c >> 12));
+                target[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                target[position++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Encodes the first {@code length} bytes using the given {@code encoding}. The {@code buffer} should be able to
+     * hold twice as many characters as there are bytes.
+     */
+    static String encode(Sha256ConstraintKeyProvider.Encoding encoding, byte[] bytes, int length, char[] buffer) {
+        return encoding == Sha256ConstraintKeyProvider.Encoding.BASE64_URL
+                ? toBase64Url(bytes, length, buffer)
+                : toHex(bytes, length, buffer);
+    }
+
+    /**
+     * Thanks to <a href="https://stackoverflow.com/questions/9655181/how-to-convert-a-byte-array-to-a-hex-string-in-java">this StackOverflow post</a>
+     * for removing the dependency to JAXB.
+     */
+    private static String toHex(byte[] bytes, int length, char[] hexChars) {
+        for (int j = 0; j < length; j++) {
+            int v = bytes[j] & 0xFF;
+            hexChars[j * 2] = HEX_ARRAY[v >>> 4];
+            hexChars[j * 2 + 1] = HEX_ARRAY[v & 0x0F];
+        }
+        return new String(hexChars, 0, length * 2);
+    }
+
+    /**
+     * Encodes the bytes as unpadded Base64url. Every 3 bytes become 4 characters, and the remaining 1 or 2 bytes
+     * become 2 or 3 characters.
+     */
+    private static String toBase64Url(byte[] bytes, int length, char[] base64Chars) {
+        int position = 0;
+        int i = 0;
+        for (; i + 2 < length; i += 3) {
+            int bits = (bytes[i] & 0xFF) << 16 | (bytes[i + 1] & 0xFF) << 8 | (bytes[i + 2] & 0xFF);
+            base64Chars[position++] = BASE64_URL_ARRAY[bits >>> 18];
+            base64Chars[position++] = BASE64_URL_ARRAY[(bits >>> 12) & 0x3F];
+            base64Chars[position++] = BASE64_URL_ARRAY[(bits >>> 6) & 0x3F];
+            base64Chars[position++] = BASE64_URL_ARRAY[bits & 0x3F];
+        }
+        if (length - i == 2) {
+            int bits = (bytes[i] & 0xFF) << 8 | (bytes[i + 1] & 0xFF);
+            base64Chars[position++] = BASE64_URL_ARRAY[bits >>> 10];
+            base64Chars[position++] = BASE64_URL_ARRAY[(bits >>> 4) & 0x3F];
+            base64Chars[position++] = BASE64_URL_ARRAY[(bits << 2) & 0x3F];
+        } else if (length - i == 1) {
+            int bits = bytes[i] & 0xFF;
+            base64Chars[position++] = BASE64_URL_ARRAY[bits >>> 2];
+            base64Chars[position++] = BASE64_URL_ARRAY[(bits << 4) & 0x3F];
+        }
+        return new String(base64Chars, 0, position);
+    }
+}
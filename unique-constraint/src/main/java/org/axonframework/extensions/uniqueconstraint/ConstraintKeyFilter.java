@@ -0,0 +1,48 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+/**
+ * Probabilistic set of the constraint keys that have events in the store. The {@link EventStoreUniqueConstraintStore}
+ * consults the filter before reading the state of a key, and skips the read when the filter answers the key has never
+ * been used. Since almost all claims are for values that were never used before, this saves a read for most claims.
+ * <p>
+ * Implementations may answer {@code true} for keys that were never added (false positives), in which case the state
+ * is read as usual, but must never answer {@code false} for a key that was added. The keys of both claims and releases
+ * should be added, since the stream of a compacted key may only hold its release. The store only consults the filter
+ * for claims, of which the append is rejected by the event store if the filter lags behind. Releases always read the
+ * state of their key.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public interface ConstraintKeyFilter {
+
+    /**
+     * Whether the given {@code constraintKey} might have been used. Should return {@code true} until the filter is
+     * initialized using {@link #markInitialized()}, since keys may be missing before that moment.
+     *
+     * @param constraintKey The constraint key to check.
+     * @return {@code false} if the key has definitely never been used, {@code true} if it might have been.
+     */
+    boolean mightExist(String constraintKey);
+
+    /**
+     * Adds the given {@code constraintKey} to the filter, after which {@link #mightExist(String)} will always return
+     * {@code true} for it.
+     *
+     * @param constraintKey The constraint key that was claimed.
+     */
+    void add(String constraintKey);
+
+    /**
+     * Marks the filter as initialized, meaning all keys used so far have been added. Until this moment the filter
+     * cannot answer any key has never been used.
+     */
+    void markInitialized();
+
+    /**
+     * Marks the filter as no longer initialized, for example because it stopped receiving the keys used by other
+     * nodes. Until it is {@link #markInitialized() initialized} again, the filter cannot answer any key has never been
+     * used.
+     */
+    void markUninitialized();
+}
@@ -0,0 +1,218 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.common.BuilderUtils;
+import org.axonframework.common.stream.BlockingStream;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.extensions.uniqueconstraint.events.ConstraintClaimedEvent;
+import org.axonframework.extensions.uniqueconstraint.events.ConstraintReleasedEvent;
+import org.axonframework.messaging.StreamableMessageSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandles;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fills a {@link ConstraintKeyFilter} with the keys of all {@link ConstraintClaimedEvent}s and
+ * {@link ConstraintReleasedEvent}s in the event store. Once it has read all events available at startup, the filter is
+ * marked as initialized. It then keeps following the event stream, so claims made by other nodes are added to the
+ * filter as well.
+ * <p>
+ * Keys of releases are added as well, since a key that was released is not unused: its next claim has to be appended
+ * after the release. When the stream of a key was compacted, for example by the
+ * {@link org.axonframework.extensions.uniqueconstraint.jdbc.JdbcConstraintEventCompactor}, its release may be the only
+ * event left.
+ * <p>
+ * Claims made by another node are only known to the filter after they have been read from the stream. A claim for the
+ * same value made on this node in the meantime is not rejected based on its state, but by the event store, since the
+ * event appended for it conflicts with the event of the other node.
+ * <p>
+ * When following the stream fails, the filter is marked as uninitialized, so it stops answering keys were never used
+ * while it misses the claims of other nodes. After the {@link Builder#restartDelay(Duration) restart delay}, the stream
+ * is opened again from the start, and the filter is marked as initialized once it caught up.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class ConstraintKeyFilterInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+    private final StreamableMessageSource<TrackedEventMessage<?>> messageSource;
+    private final ConstraintKeyFilter constraintKeyFilter;
+    private final long restartDelayMillis;
+    private volatile boolean running;
+    private Thread worker;
+
+    /**
+     * Creates a new {@link ConstraintKeyFilterInitializer} with the builder's configuration.
+     *
+     * @param builder The builder to use.
+     */
+    protected ConstraintKeyFilterInitializer(Builder builder) {
+        builder.validate();
+        this.messageSource = builder.messageSource;
+        this.constraintKeyFilter = builder.constraintKeyFilter;
+        this.restartDelayMillis = builder.restartDelay.toMillis();
+    }
+
+    /**
+     * Creates a new builder to construct a new {@link ConstraintKeyFilterInitializer}.
+     * <p>
+     * Requires the {@link StreamableMessageSource} and {@link ConstraintKeyFilter} to be configured. The restart delay
+     * defaults to 5 seconds.
+     *
+     * @return A builder suitable to construct a new {@link ConstraintKeyFilterInitializer}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Starts reading the event stream in a background thread. Does nothing if already started.
+     */
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        worker = new Thread(this::followEventStream, "ConstraintKeyFilterInitializer");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Stops reading the event stream, waiting for the background thread to finish. The filter is marked as
+     * uninitialized, since it no longer receives the keys used by other nodes.
+     */
+    public synchronized void shutdown() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+            try {
+                worker.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            worker = null;
+        }
+        constraintKeyFilter.markUninitialized();
+    }
+
+    private void followEventStream() {
+        while (running) {
+            try {
+                readEventStream();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                constraintKeyFilter.markUninitialized();
+                if (!running) {
+                    return;
+                }
+                logger.warn("Stopped filling the constraint key filter, claims will read their state until it is "
+                                    + "restarted in {} ms.", restartDelayMillis, e);
+                try {
+                    Thread.sleep(restartDelayMillis);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void readEventStream() throws InterruptedException {
+        boolean initialized = false;
+        try (BlockingStream<TrackedEventMessage<?>> eventStream = messageSource.openStream(null)) {
+            while (running) {
+                if (!eventStream.hasNextAvailable()) {
+                    if (!initialized) {
+                        constraintKeyFilter.markInitialized();
+                        initialized = true;
+                        logger.debug("Constraint key filter initialized, following new claims.");
+                    }
+                    eventStream.hasNextAvailable(1, TimeUnit.SECONDS);
+                    continue;
+                }
+                TrackedEventMessage<?> event = eventStream.nextAvailable();
+                if (event instanceof DomainEventMessage && isConstraintEvent(event)) {
+                    constraintKeyFilter.add(((DomainEventMessage<?>) event).getAggregateIdentifier());
+                }
+            }
+        }
+    }
+
+    private static boolean isConstraintEvent(TrackedEventMessage<?> event) {
+        return ConstraintClaimedEvent.class.equals(event.getPayloadType())
+                || ConstraintReleasedEvent.class.equals(event.getPayloadType());
+    }
+
+    /**
+     * A new builder to construct a new {@link ConstraintKeyFilterInitializer}.
+     * <p>
+     * Requires the {@link StreamableMessageSource} and {@link ConstraintKeyFilter} to be configured. The restart delay
+     * defaults to 5 seconds.
+     */
+    public static class Builder {
+
+        private StreamableMessageSource<TrackedEventMessage<?>> messageSource;
+        private ConstraintKeyFilter constraintKeyFilter;
+        private Duration restartDelay = Duration.ofSeconds(5);
+
+        /**
+         * The {@link StreamableMessageSource} to read the constraint events from, usually the
+         * {@link org.axonframework.eventsourcing.eventstore.EventStore}. Required to be able to build the builder.
+         *
+         * @param messageSource The {@link StreamableMessageSource} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder messageSource(StreamableMessageSource<TrackedEventMessage<?>> messageSource) {
+            BuilderUtils.assertNonNull(messageSource, "messageSource cannot be null!");
+            this.messageSource = messageSource;
+            return this;
+        }
+
+        /**
+         * The {@link ConstraintKeyFilter} to fill. Required to be able to build the builder.
+         *
+         * @param constraintKeyFilter The {@link ConstraintKeyFilter} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder constraintKeyFilter(ConstraintKeyFilter constraintKeyFilter) {
+            BuilderUtils.assertNonNull(constraintKeyFilter, "constraintKeyFilter cannot be null!");
+            this.constraintKeyFilter = constraintKeyFilter;
+            return this;
+        }
+
+        /**
+         * The time to wait before opening the event stream again after following it failed. Defaults to 5 seconds.
+         *
+         * @param restartDelay The time to wait before restarting.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder restartDelay(Duration restartDelay) {
+            BuilderUtils.assertNonNull(restartDelay, "restartDelay cannot be null!");
+            BuilderUtils.assertThat(restartDelay, d -> !d.isNegative(), "restartDelay cannot be negative!");
+            this.restartDelay = restartDelay;
+            return this;
+        }
+
+        protected void validate() {
+            BuilderUtils.assertNonNull(messageSource, "messageSource cannot be null!");
+            BuilderUtils.assertNonNull(constraintKeyFilter, "constraintKeyFilter cannot be null!");
+        }
+
+        /**
+         * Builds the {@link ConstraintKeyFilterInitializer} using the configuration acquired.
+         *
+         * @return The {@link ConstraintKeyFilterInitializer}
+         */
+        public ConstraintKeyFilterInitializer build() {
+            return new ConstraintKeyFilterInitializer(this);
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.axonframework.extensions.uniqueconstraint;
 
+import java.util.Optional;
+
 /**
  * Provides a value for a constraint, based on the name of the constraint and the value of the aggregate member.
  * The combination needs to be unique together, as the result is used as aggregate identifier in the event store.
@@ -10,4 +12,18 @@ package org.axonframework.extensions.uniqueconstraint;
 @FunctionalInterface
 public interface ConstraintKeyProvider {
     String determineValue(String constraintName, Object value);
+
+    /**
+     * Provides the key the constraint had in a previous key format, if the format changed. Claims made before the
+     * change are stored under this key. A store supporting it treats a legacy key that is still claimed as the key of
+     * the value. Returns an empty {@link Optional} by default.
+     *
+     * @param constraintName The name of the constraint.
+     * @param value          The value of the aggregate member.
+     * @return The key in the previous format, or an empty {@link Optional} if the format did not change.
+     * @see FallbackConstraintKeyProvider
+     */
+    default Optional<String> determineLegacyValue(String constraintName, Object value) {
+        return Optional.empty();
+    }
 }
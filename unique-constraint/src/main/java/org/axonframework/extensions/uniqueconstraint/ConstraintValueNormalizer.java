@@ -0,0 +1,101 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import java.text.Normalizer;
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Brings the value of a unique constraint to the form in which it is claimed, so that values like
+ * {@code "Foo@Example.com"} and {@code "foo@example.com"} claim the same key. Normalizers are declared on the
+ * constraint using {@link AggregateUniqueConstraint#normalizers()}, and applied in the declared order:
+ * <pre>{@code
+ * @AggregateUniqueConstraint(constraintName = "Email",
+ *         normalizers = {ConstraintValueNormalizer.Trim.class, ConstraintValueNormalizer.LowerCase.class})
+ * private String email;
+ * }</pre>
+ * The {@link UniqueConstraintValidator} only normalizes values that changed, after comparing them as they are read
+ * from the aggregate. Implementations should return the given value itself when it is already normalized, so the
+ * common case of an already normalized value does not allocate. Custom normalizers need a no-argument constructor,
+ * and are shared by all constraints declaring them, so they need to be thread-safe.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+@FunctionalInterface
+public interface ConstraintValueNormalizer {
+
+    /**
+     * Normalizes the given {@code value}.
+     *
+     * @param value The value to normalize.
+     * @return The normalized value, or the given {@code value} itself if it is already normalized.
+     */
+    CharSequence normalize(CharSequence value);
+
+    /**
+     * Returns a normalizer applying this normalizer, followed by the given {@code next} normalizer.
+     *
+     * @param next The normalizer to apply after this one.
+     * @return The combined {@link ConstraintValueNormalizer}.
+     */
+    default ConstraintValueNormalizer andThen(ConstraintValueNormalizer next) {
+        Objects.requireNonNull(next, "next cannot be null!");
+        return value -> next.normalize(normalize(value));
+    }
+
+    /**
+     * Removes leading and trailing whitespace and control characters, like {@link String#trim()}.
+     */
+    class Trim implements ConstraintValueNormalizer {
+
+        @Override
+        public CharSequence normalize(CharSequence value) {
+            int start = 0;
+            int end = value.length();
+            while (start < end && value.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && value.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            return start == 0 && end == value.length() ? value : value.subSequence(start, end);
+        }
+    }
+
+    /**
+     * Converts the value to lower case, using the rules of {@link Locale#ROOT}.
+     */
+    class LowerCase implements ConstraintValueNormalizer {
+
+        @Override
+        public CharSequence normalize(CharSequence value) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (Character.isSurrogate(c) || Character.toLowerCase(c) != c) {
+                    return value.toString().toLowerCase(Locale.ROOT);
+                }
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Brings the value to Unicode normalization form NFKC, so compatible characters such as full-width letters and
+     * ligatures are replaced by their canonical equivalent. Values consisting of ASCII characters only are always in
+     * this form, and are returned as is.
+     */
+    class Nfkc implements ConstraintValueNormalizer {
+
+        @Override
+        public CharSequence normalize(CharSequence value) {
+            for (int i = 0; i < value.length(); i++) {
+                if (value.charAt(i) >= 0x80) {
+                    return Normalizer.isNormalized(value, Normalizer.Form.NFKC)
+                            ? value
+                            : Normalizer.normalize(value, Normalizer.Form.NFKC);
+                }
+            }
+            return value;
+        }
+    }
+}
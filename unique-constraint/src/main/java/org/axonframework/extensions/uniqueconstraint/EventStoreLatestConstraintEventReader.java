@@ -0,0 +1,43 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.DomainEventStream;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+
+import java.util.Optional;
+
+/**
+ * Implementation of the {@link LatestConstraintEventReader} that works with any {@link EventStore}. It determines the
+ * last sequence number of the constraint key, after which it reads the event with that sequence number.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class EventStoreLatestConstraintEventReader implements LatestConstraintEventReader {
+
+    private final EventStore eventStore;
+
+    /**
+     * Creates a new {@link EventStoreLatestConstraintEventReader} reading from the given {@code eventStore}.
+     *
+     * @param eventStore The {@link EventStore} to read the constraint events from.
+     */
+    public EventStoreLatestConstraintEventReader(EventStore eventStore) {
+        this.eventStore = eventStore;
+    }
+
+    @Override
+    public Optional<DomainEventMessage<?>> readLatestEvent(String constraintKey) {
+        Optional<Long> lastSequenceNumber = eventStore.lastSequenceNumberFor(constraintKey);
+        if (!lastSequenceNumber.isPresent()) {
+            return Optional.empty();
+        }
+        DomainEventStream eventStream = eventStore.readEvents(constraintKey, lastSequenceNumber.get());
+        if (!eventStream.hasNext()) {
+            throw new IllegalArgumentException(
+                    String.format("Was unable to fetch event for constraint key %s and sequence number %s",
+                                  constraintKey, lastSequenceNumber.get()));
+        }
+        return Optional.of(eventStream.next());
+    }
+}
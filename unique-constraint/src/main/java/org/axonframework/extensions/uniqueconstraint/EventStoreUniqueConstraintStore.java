@@ -1,27 +1,77 @@
 package org.axonframework.extensions.uniqueconstraint;
 
+import org.axonframework.common.AxonException;
 import org.axonframework.common.BuilderUtils;
 import org.axonframework.eventhandling.DomainEventMessage;
 import org.axonframework.eventhandling.GenericDomainEventMessage;
 import org.axonframework.eventsourcing.eventstore.EventStore;
 import org.axonframework.extensions.uniqueconstraint.events.ConstraintClaimedEvent;
 import org.axonframework.extensions.uniqueconstraint.events.ConstraintReleasedEvent;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.axonframework.modelling.command.AggregateStreamCreationException;
+import org.axonframework.modelling.command.ConcurrencyException;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.function.BiConsumer;
-import java.util.function.LongConsumer;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
 
 /**
  * Implementation of the {@link UniqueConstraintStore} that stores the constraints in an {@link EventStore}. Adds events
  * to the database to mark constraint keys as claimed or unclaimed.
+ * <p>
+ * Changes applied as a batch through {@link #applyChanges(String, List)} read the state of all affected constraint keys
+ * at once, and publish all resulting events in a single call to the {@link EventStore}. When a lookup
+ * {@link Executor} is configured, the states of the keys are read in parallel on that executor. The events are always
+ * published on the calling thread, so they are part of the active {@link UnitOfWork}.
+ * <p>
+ * When the {@link ConstraintKeyProvider} provides a {@link ConstraintKeyProvider#determineLegacyValue legacy key} for a
+ * value that was never claimed under its current key, the state of the legacy key is read as well. If the legacy key
+ * is claimed, that claim is respected and released as usual.
+ * <p>
+ * Claims of the same constraint key on this node are coalesced. While a claim of a key is in flight, which lasts until
+ * the {@link UnitOfWork} claiming it is cleaned up, claims of that key by other owners fail immediately with a
+ * {@link UniqueConstraintClaimException}, without reading the state of the key or appending to the event store. Those
+ * claims would otherwise all try to append the same sequence number, failing in the event store with a concurrency
+ * exception. Every rejected claim is reported to the {@link UniqueConstraintMonitor#onClaimContention monitor}.
+ * <p>
+ * When a {@link ClaimRetryPolicy} is configured, claims and releases of which the append fails with a
+ * {@link ConcurrencyException} are retried on the latest state of their keys. Once all attempts failed, the claim fails
+ * with a {@link UniqueConstraintClaimException}. Within a {@link UnitOfWork}, the {@link EventStore} appends the events
+ * when the unit of work commits, so they are stored atomically with the command and invisible to other commands until
+ * then. Conflicts then surface at commit and fail the command instead. The keys of such a command are invalidated in
+ * the {@link ConstraintClaimStateCache} and added to the {@link ConstraintKeyFilter}, so retrying the command as a
+ * whole, for example by a {@link org.axonframework.commandhandling.gateway.RetryScheduler} on the command gateway,
+ * reads their latest state.
  *
  * @author Mitchell Herrijgers
  * @since 0.0.1
  */
-public class EventStoreUniqueConstraintStore implements UniqueConstraintStore {
+public class EventStoreUniqueConstraintStore implements BatchUniqueConstraintStore {
+
+    /**
+     * A claim only appends to the event store when the key is not claimed.
+     */
+    private static final Predicate<ConstraintClaimState> CLAIM_APPENDS = state -> !state.isClaimed();
 
     private final EventStore eventStore;
     private final ConstraintKeyProvider constraintKeyProvider;
+    private final ConstraintClaimStateCache claimStateCache;
+    private final LatestConstraintEventReader latestEventReader;
+    private final Executor lookupExecutor;
+    private final ConstraintKeyFilter constraintKeyFilter;
+    private final UniqueConstraintMonitor monitor;
+    private final ConcurrentMap<String, InFlightClaim> inFlightClaims;
+    private final ClaimRetryPolicy retryPolicy;
 
     /**
      * Creates a new {@link EventStoreUniqueConstraintStore} with the builder's configuration.
@@ -32,6 +82,15 @@ public class EventStoreUniqueConstraintStore implements UniqueConstraintStore {
         builder.validate();
         this.eventStore = builder.eventStore;
         this.constraintKeyProvider = builder.constraintKeyProvider;
+        this.claimStateCache = builder.claimStateCache;
+        this.latestEventReader = builder.latestEventReader != null
+                ? builder.latestEventReader
+                : new EventStoreLatestConstraintEventReader(eventStore);
+        this.lookupExecutor = builder.lookupExecutor;
+        this.constraintKeyFilter = builder.constraintKeyFilter;
+        this.monitor = builder.monitor;
+        this.inFlightClaims = builder.claimCoalescing ? new ConcurrentHashMap<>() : null;
+        this.retryPolicy = builder.retryPolicy;
     }
 
     /**
@@ -49,86 +108,590 @@ public class EventStoreUniqueConstraintStore implements UniqueConstraintStore {
 
     @Override
     public void releaseClaimValue(String constraintName, String constraintValue, String owner) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                doReleaseClaimValue(constraintName, constraintValue, owner);
+                return;
+            } catch (ConcurrencyException | AggregateStreamCreationException e) {
+                awaitRetry(attempt, e, constraintName);
+            }
+        }
+    }
+
+    private void doReleaseClaimValue(String constraintName, String constraintValue, String owner) {
         String constraintKey = constraintKeyProvider.determineValue(constraintName, constraintValue);
-        whenClaimedOrUnclaimed(
-                constraintKey,
-                (lastSequenceNumber, event) -> {
-                    if (!event.getOwner().equals(owner)) {
-                        throwDifferentOwnerException(constraintName, owner, event);
-                    }
-                    doRelease(constraintName, constraintKey, lastSequenceNumber);
-                },
-                lastSequenceNumber -> {
-                    // Do nothing
-                });
-        eventStore.lastSequenceNumberFor(constraintKey).ifPresent(sequence -> {
-        });
-    }
-
-    private void doRelease(String constraintName, String constraintKey, Long lastSequenceNumber) {
-        GenericDomainEventMessage<ConstraintReleasedEvent> message = new GenericDomainEventMessage<>(
-                "Constraint" + constraintName,
-                constraintKey,
-                lastSequenceNumber + 1,
-                new ConstraintReleasedEvent(constraintName, constraintKey));
-        eventStore.publish(message);
+        Predicate<ConstraintClaimState> releaseAppends = releaseAppends(owner);
+        ConstraintClaimState state = readClaimState(constraintKey, releaseAppends);
+        if (state.isUnused()) {
+            Optional<String> legacyKey = constraintKeyProvider.determineLegacyValue(constraintName, constraintValue);
+            if (legacyKey.isPresent()) {
+                constraintKey = legacyKey.get();
+                state = readClaimState(constraintKey, releaseAppends);
+            }
+        }
+        if (!state.isClaimed()) {
+            return;
+        }
+        if (!state.isClaimedBy(owner)) {
+            throwDifferentOwnerException(constraintName, owner, state);
+        }
+        doRelease(constraintName, constraintKey, state.getSequenceNumber());
+    }
+
+    private void doRelease(String constraintName, String constraintKey, long lastSequenceNumber) {
+        publish(releaseMessage(constraintName, constraintKey, lastSequenceNumber),
+                ConstraintClaimState.released(lastSequenceNumber + 1));
+    }
+
+    /**
+     * Releases the claim of the {@code constraintKey} appended at the given sequence number, regardless of its owner.
+     * Used to release claims that no longer match their owner, as found by the
+     * {@link org.axonframework.extensions.uniqueconstraint.reconciliation.ConstraintReconciliationScanner}. The release
+     * is skipped when the key is being claimed on this node, and fails when the key was claimed or released after the
+     * given sequence number. The {@link ConstraintClaimStateCache} and {@link ConstraintKeyFilter} are kept up to date
+     * like they are for other releases.
+     *
+     * @param constraintName      The name of the constraint.
+     * @param constraintKey       The key of the claimed value.
+     * @param claimSequenceNumber The sequence number of the claim to release.
+     * @return Whether the claim was released.
+     */
+    public boolean releaseClaim(String constraintName, String constraintKey, long claimSequenceNumber) {
+        if (inFlightClaims != null && inFlightClaims.containsKey(constraintKey)) {
+            return false;
+        }
+        try {
+            doRelease(constraintName, constraintKey, claimSequenceNumber);
+            return true;
+        } catch (ConcurrencyException e) {
+            return false;
+        }
+    }
+
+    private DomainEventMessage<?> releaseMessage(String constraintName, String constraintKey, long lastSequenceNumber) {
+        return new GenericDomainEventMessage<>("Constraint" + constraintName,
+                                               constraintKey,
+                                               lastSequenceNumber + 1,
+                                               new ConstraintReleasedEvent(constraintName, constraintKey));
     }
 
     @Override
     public void checkAndClaimValue(String constraintName, String constraintValue, String owner) {
         String constraintKey = constraintKeyProvider.determineValue(constraintName, constraintValue);
-        whenClaimedOrUnclaimed(
-                constraintKey,
-                (lastSequenceNumber, event) -> {
-                    if (!event.getOwner().equals(owner)) {
-                        throwDifferentOwnerException(constraintName, owner, event);
-                    }
-                },
-                lastSequenceNumber -> doClaim(constraintName, constraintKey, lastSequenceNumber, owner));
+        InFlightClaim inFlightClaim = startClaim(constraintName, constraintKey, owner);
+        boolean published = false;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    published = doCheckAndClaim(constraintName, constraintValue, constraintKey, owner);
+                    break;
+                } catch (ConcurrencyException | AggregateStreamCreationException e) {
+                    awaitRetry(attempt, e, constraintName);
+                }
+            }
+        } finally {
+            finishClaim(inFlightClaim, published);
+        }
+    }
+
+    private boolean doCheckAndClaim(String constraintName, String constraintValue, String constraintKey, String owner) {
+        ConstraintClaimState state = readClaimState(constraintKey, CLAIM_APPENDS);
+        if (state.isUnused()) {
+            ConstraintClaimState legacyState = readLegacyClaimState(constraintName, constraintValue);
+            if (legacyState.isClaimed()) {
+                state = legacyState;
+            }
+        }
+        if (state.isClaimed()) {
+            if (!state.isClaimedBy(owner)) {
+                throwDifferentOwnerException(constraintName, owner, state);
+            }
+            return false;
+        }
+        doClaim(constraintName, constraintKey, state.getSequenceNumber(), owner);
+        return true;
     }
 
-    private void throwDifferentOwnerException(String constraintName, String owner, ConstraintClaimedEvent event) {
+    /**
+     * Waits before retrying a claim or release of which the given {@code attempt} failed. The retry reads the state of
+     * the keys again, which is no longer cached after the failed append. Without a {@link ClaimRetryPolicy}, or within
+     * a {@link UnitOfWork} that would have to be retried as a whole, the {@link ConcurrencyException} is rethrown. Once
+     * the policy gives up, the conflict is reported as a {@link UniqueConstraintClaimException}.
+     */
+    private void awaitRetry(int attempt, AxonException exception, String constraintName) {
+        if (retryPolicy == null || CurrentUnitOfWork.isStarted()) {
+            throw exception;
+        }
+        if (!retryPolicy.shouldRetry(attempt)) {
+            throw conflictException(attempt, exception, constraintName);
+        }
+        long backoffMillis = retryPolicy.backoffMillis(attempt);
+        if (backoffMillis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(backoffMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw conflictException(attempt, exception, constraintName);
+        }
+    }
+
+    private UniqueConstraintClaimException conflictException(int attempts,
+                                                             AxonException exception,
+                                                             String constraintName) {
+        UniqueConstraintClaimException claimException = new UniqueConstraintClaimException(
+                String.format("Unique constraint %s kept conflicting with concurrent changes after %d attempts.",
+                              constraintName,
+                              attempts),
+                constraintName);
+        claimException.initCause(exception);
+        return claimException;
+    }
+
+    /**
+     * Marks the claim of the {@code constraintKey} as in flight, if claims are coalesced. Fails immediately if another
+     * owner is claiming the same key in another {@link UnitOfWork} on this node.
+     *
+     * @return The in-flight claim, or {@code null} if claims are not coalesced or the key was already marked by this
+     * owner or unit of work.
+     */
+    private InFlightClaim startClaim(String constraintName, String constraintKey, String owner) {
+        if (inFlightClaims == null) {
+            return null;
+        }
+        InFlightClaim claim = new InFlightClaim(constraintKey, owner, CurrentUnitOfWork.isStarted()
+                ? CurrentUnitOfWork.get().root()
+                : null);
+        InFlightClaim existingClaim = inFlightClaims.putIfAbsent(constraintKey, claim);
+        if (existingClaim == null) {
+            return claim;
+        }
+        if (!existingClaim.isCompatibleWith(claim)) {
+            monitor.onClaimContention(constraintName, constraintKey);
+            throw new UniqueConstraintClaimException(
+                    String.format("Unique constraint %s is being claimed by owner %s. Can not claim it for aggregate %s.",
+                                  constraintName,
+                                  existingClaim.owner,
+                                  owner),
+                    constraintName);
+        }
+        return null;
+    }
+
+    /**
+     * Ends the in-flight claim. When the claim was published within a {@link UnitOfWork}, the key stays in flight
+     * until that unit of work is cleaned up, since other units of work can't see the claim before it is committed.
+     */
+    private void finishClaim(InFlightClaim claim, boolean published) {
+        if (claim == null) {
+            return;
+        }
+        if (published && claim.unitOfWork != null) {
+            claim.unitOfWork.onCleanup(u -> inFlightClaims.remove(claim.constraintKey, claim));
+        } else {
+            inFlightClaims.remove(claim.constraintKey, claim);
+        }
+    }
+
+    private void throwDifferentOwnerException(String constraintName, String owner, ConstraintClaimState state) {
         throw new UniqueConstraintClaimException(
                 String.format(
                         "Unique constraint %s was claimed by owner %s. Can not change claims is for aggregate %s.",
                         constraintName,
-                        event.getOwner(),
-                        owner));
+                        state.getOwner(),
+                        owner),
+                constraintName);
+    }
+
+    /**
+     * Reads the state of the legacy key of the value, or returns an unused state if the {@link ConstraintKeyProvider}
+     * has no legacy key. A value claimed under its legacy key stays claimed under that key until it is released.
+     */
+    private ConstraintClaimState readLegacyClaimState(String constraintName, String constraintValue) {
+        Optional<String> legacyKey = constraintKeyProvider.determineLegacyValue(constraintName, constraintValue);
+        return legacyKey.isPresent()
+                ? readClaimState(legacyKey.get(), CLAIM_APPENDS)
+                : ConstraintClaimState.unused();
     }
 
     private void doClaim(String constraintName, String constraintKey, long previousSequenceNumber, String owner) {
-        GenericDomainEventMessage<ConstraintClaimedEvent> message = new GenericDomainEventMessage<>(
-                "Constraint" + constraintName,
-                constraintKey,
-                previousSequenceNumber + 1,
-                new ConstraintClaimedEvent(constraintName,
-                                           constraintKey, owner));
-        eventStore.publish(message);
-    }
-
-    private void whenClaimedOrUnclaimed(String constraintKey,
-                                        BiConsumer<Long, ConstraintClaimedEvent> claimedEventConsumer,
-                                        LongConsumer unclaimedEventConsumer) {
-        Optional<Long> lastSequenceNumber = eventStore.lastSequenceNumberFor(constraintKey);
-        if (!lastSequenceNumber.isPresent()) {
-            unclaimedEventConsumer.accept(-1L);
+        publish(claimMessage(constraintName, constraintKey, previousSequenceNumber, owner),
+                ConstraintClaimState.claimed(previousSequenceNumber + 1, owner));
+    }
+
+    private DomainEventMessage<?> claimMessage(String constraintName,
+                                               String constraintKey,
+                                               long previousSequenceNumber,
+                                               String owner) {
+        return new GenericDomainEventMessage<>("Constraint" + constraintName,
+                                               constraintKey,
+                                               previousSequenceNumber + 1,
+                                               new ConstraintClaimedEvent(constraintName, constraintKey, owner));
+    }
+
+    @Override
+    public void applyChanges(String owner, List<ConstraintChange> changes) {
+        if (changes.isEmpty()) {
             return;
         }
-        Optional<DomainEventMessage<?>> eventMessage = lastSequenceNumber
-                .map(lastSequence -> eventStore.readEvents(constraintKey, lastSequence).next());
-        if (!eventMessage.isPresent()) {
-            throw new IllegalArgumentException(
-                    String.format("Was unable to fetch event for constraint key %s and sequence number %s",
-                                  constraintKey, lastSequenceNumber.get()));
+        List<String> constraintKeys = constraintKeysOf(changes);
+        List<InFlightClaim> claims = startClaims(owner, changes, constraintKeys);
+        boolean published = false;
+        try {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    published = doApplyChanges(owner, changes, constraintKeys);
+                    break;
+                } catch (ConcurrencyException | AggregateStreamCreationException e) {
+                    awaitRetry(attempt, e, changes.get(0).getConstraintName());
+                    constraintKeys = constraintKeysOf(changes);
+                }
+            }
+        } finally {
+            for (InFlightClaim claim : claims) {
+                finishClaim(claim, published);
+            }
         }
-        Object payload = eventMessage.get().getPayload();
-        if (payload instanceof ConstraintClaimedEvent) {
-            claimedEventConsumer.accept(eventMessage.get().getSequenceNumber(), (ConstraintClaimedEvent) payload);
+    }
+
+    private List<String> constraintKeysOf(List<ConstraintChange> changes) {
+        List<String> constraintKeys = new ArrayList<>(changes.size());
+        for (ConstraintChange change : changes) {
+            constraintKeys.add(constraintKeyProvider.determineValue(change.getConstraintName(),
+                                                                    change.getConstraintValue()));
+        }
+        return constraintKeys;
+    }
+
+    /**
+     * Starts an in-flight claim for every claimed key of the batch, ending the claims already started if any of the
+     * keys is being claimed by another owner. The returned list has an entry, possibly {@code null}, per change.
+     * The claims hold on to their key, since legacy keys may replace the keys of the batch afterwards.
+     */
+    private List<InFlightClaim> startClaims(String owner, List<ConstraintChange> changes, List<String> constraintKeys) {
+        if (inFlightClaims == null) {
+            return Collections.emptyList();
+        }
+        List<InFlightClaim> claims = new ArrayList<>(changes.size());
+        try {
+            for (int i = 0; i < changes.size(); i++) {
+                ConstraintChange change = changes.get(i);
+                claims.add(change.isClaim()
+                                   ? startClaim(change.getConstraintName(), constraintKeys.get(i), owner)
+                                   : null);
+            }
+        } catch (UniqueConstraintClaimException e) {
+            for (InFlightClaim claim : claims) {
+                finishClaim(claim, false);
+            }
+            throw e;
+        }
+        return claims;
+    }
+
+    private boolean doApplyChanges(String owner, List<ConstraintChange> changes, List<String> constraintKeys) {
+        List<Predicate<ConstraintClaimState>> appendsOn = new ArrayList<>(changes.size());
+        for (ConstraintChange change : changes) {
+            appendsOn.add(change.isClaim() ? CLAIM_APPENDS : releaseAppends(owner));
+        }
+        Map<String, ConstraintClaimState> states = readClaimStates(constraintKeys, appendsOn);
+        replaceClaimedLegacyKeys(changes, constraintKeys, appendsOn, states);
+
+        List<DomainEventMessage<?>> messages = new ArrayList<>(changes.size());
+        List<ConstraintClaimState> newStates = new ArrayList<>(changes.size());
+        for (int i = 0; i < changes.size(); i++) {
+            ConstraintChange change = changes.get(i);
+            String constraintKey = constraintKeys.get(i);
+            ConstraintClaimState state = states.get(constraintKey);
+            if (state.isClaimed() && !state.isClaimedBy(owner)) {
+                throwDifferentOwnerException(change.getConstraintName(), owner, state);
+            }
+            if (change.isClaim() == state.isClaimed()) {
+                continue;
+            }
+            ConstraintClaimState newState;
+            if (change.isClaim()) {
+                messages.add(claimMessage(change.getConstraintName(), constraintKey, state.getSequenceNumber(), owner));
+                newState = ConstraintClaimState.claimed(state.getSequenceNumber() + 1, owner);
+            } else {
+                messages.add(releaseMessage(change.getConstraintName(), constraintKey, state.getSequenceNumber()));
+                newState = ConstraintClaimState.released(state.getSequenceNumber() + 1);
+            }
+            newStates.add(newState);
+            states.put(constraintKey, newState);
+        }
+        if (messages.isEmpty()) {
+            return false;
+        }
+        publish(messages, newStates);
+        return true;
+    }
+
+    /**
+     * Replaces the keys that were never used by their legacy key, if the {@link ConstraintKeyProvider} has one and it
+     * is currently claimed. The states of all legacy keys are read at once.
+     */
+    private void replaceClaimedLegacyKeys(List<ConstraintChange> changes,
+                                          List<String> constraintKeys,
+                                          List<Predicate<ConstraintClaimState>> appendsOn,
+                                          Map<String, ConstraintClaimState> states) {
+        List<Integer> indexes = null;
+        List<String> legacyKeys = null;
+        List<Predicate<ConstraintClaimState>> legacyAppendsOn = null;
+        for (int i = 0; i < changes.size(); i++) {
+            if (!states.get(constraintKeys.get(i)).isUnused()) {
+                continue;
+            }
+            ConstraintChange change = changes.get(i);
+            Optional<String> legacyKey = constraintKeyProvider.determineLegacyValue(change.getConstraintName(),
+                                                                                    change.getConstraintValue());
+            if (legacyKey.isPresent()) {
+                if (indexes == null) {
+                    indexes = new ArrayList<>();
+                    legacyKeys = new ArrayList<>();
+                    legacyAppendsOn = new ArrayList<>();
+                }
+                indexes.add(i);
+                legacyKeys.add(legacyKey.get());
+                legacyAppendsOn.add(appendsOn.get(i));
+            }
+        }
+        if (indexes == null) {
             return;
         }
+        Map<String, ConstraintClaimState> legacyStates = readClaimStates(legacyKeys, legacyAppendsOn);
+        for (int i = 0; i < indexes.size(); i++) {
+            String legacyKey = legacyKeys.get(i);
+            ConstraintClaimState legacyState = legacyStates.get(legacyKey);
+            if (legacyState.isClaimed()) {
+                constraintKeys.set(indexes.get(i), legacyKey);
+                states.put(legacyKey, legacyState);
+            }
+        }
+    }
+
+    /**
+     * Publishes the event to the {@link EventStore}, updating the {@link ConstraintClaimStateCache} if configured.
+     *
+     * @see #publish(List, List)
+     */
+    private void publish(DomainEventMessage<?> message, ConstraintClaimState newState) {
+        try {
+            eventStore.publish(message);
+        } catch (RuntimeException e) {
+            onPublishFailure(Collections.singletonList(message), e);
+            throw e;
+        }
+        recordPublishedStates(Collections.singletonList(message), Collections.singletonList(newState));
+    }
+
+    /**
+     * Publishes the events to the {@link EventStore} in a single call. If a {@link ConstraintClaimStateCache} is
+     * configured, the cache is updated with the {@code newStates} once the events are stored, and the entries are
+     * invalidated if storing the events fails, for example due to a concurrent append to the same constraint key.
+     */
+    private void publish(List<DomainEventMessage<?>> messages, List<ConstraintClaimState> newStates) {
+        try {
+            eventStore.publish(messages);
+        } catch (RuntimeException e) {
+            onPublishFailure(messages, e);
+            throw e;
+        }
+        recordPublishedStates(messages, newStates);
+    }
+
+    /**
+     * Invalidates the cached states of the keys of the messages. A conflict proves the keys were used by another
+     * append, so they are added to the {@link ConstraintKeyFilter} as well, to make sure their state is read again.
+     */
+    private void onPublishFailure(List<DomainEventMessage<?>> messages, Throwable exception) {
+        if (claimStateCache != null) {
+            messages.forEach(message -> claimStateCache.invalidate(message.getAggregateIdentifier()));
+        }
+        if (constraintKeyFilter != null && isConflict(exception)) {
+            messages.forEach(message -> constraintKeyFilter.add(message.getAggregateIdentifier()));
+        }
+    }
+
+    /**
+     * Records the states of the published keys. Within a {@link UnitOfWork}, the events are only stored once it
+     * commits, so the cache is only updated then. When the unit of work rolls back, the keys are treated like those of
+     * a failed publication, so a conflict at commit makes a retry of the command read the latest state of the keys.
+     */
+    private void recordPublishedStates(List<DomainEventMessage<?>> messages, List<ConstraintClaimState> newStates) {
+        if (constraintKeyFilter != null) {
+            for (int i = 0; i < messages.size(); i++) {
+                if (newStates.get(i).isClaimed()) {
+                    constraintKeyFilter.add(messages.get(i).getAggregateIdentifier());
+                }
+            }
+        }
+        if (CurrentUnitOfWork.isStarted()) {
+            UnitOfWork<?> unitOfWork = CurrentUnitOfWork.get();
+            if (claimStateCache != null) {
+                for (int i = 0; i < messages.size(); i++) {
+                    String constraintKey = messages.get(i).getAggregateIdentifier();
+                    ConstraintClaimState newState = newStates.get(i);
+                    claimStateCache.invalidate(constraintKey);
+                    unitOfWork.afterCommit(u -> claimStateCache.put(constraintKey, newState));
+                }
+            }
+            unitOfWork.onRollback(u -> onPublishFailure(messages, rollbackCause(u)));
+        } else if (claimStateCache != null) {
+            for (int i = 0; i < messages.size(); i++) {
+                claimStateCache.put(messages.get(i).getAggregateIdentifier(), newStates.get(i));
+            }
+        }
+    }
+
+    /**
+     * The conflict the {@link UnitOfWork} rolled back on, if any, or else the cause of the rollback.
+     */
+    private static Throwable rollbackCause(UnitOfWork<?> unitOfWork) {
+        Throwable cause = unitOfWork.getExecutionResult() != null
+                ? unitOfWork.getExecutionResult().getExceptionResult()
+                : null;
+        for (Throwable current = cause; current != null; current = current.getCause()) {
+            if (isConflict(current)) {
+                return current;
+            }
+        }
+        return cause;
+    }
+
+    /**
+     * Whether the exception reports a concurrent append to the same constraint key. The event store reports it as an
+     * {@link AggregateStreamCreationException} when both appends were the first event of the key.
+     */
+    private static boolean isConflict(Throwable exception) {
+        return exception instanceof ConcurrencyException || exception instanceof AggregateStreamCreationException;
+    }
+
+    /**
+     * A release only appends to the event store when the key is claimed by the releasing {@code owner}.
+     */
+    private static Predicate<ConstraintClaimState> releaseAppends(String owner) {
+        return state -> state.isClaimedBy(owner);
+    }
+
+    /**
+     * Reads the state of the {@code constraintKey}. A cached state is only used when it leads to an append, as
+     * determined by {@code appendsOn}. The event store rejects appends based on a stale state, but it can't verify a
+     * decision not to append, so those are always based on the state in the event store. The same goes for the
+     * {@link ConstraintKeyFilter}, which is only consulted when treating the key as unused leads to an append.
+     */
+    private ConstraintClaimState readClaimState(String constraintKey, Predicate<ConstraintClaimState> appendsOn) {
+        if (claimStateCache == null) {
+            return readUncachedClaimState(constraintKey, appendsOn);
+        }
+        ConstraintClaimState cachedState = claimStateCache.get(constraintKey);
+        if (cachedState != null && appendsOn.test(cachedState)) {
+            return cachedState;
+        }
+        ConstraintClaimState state = readUncachedClaimState(constraintKey, appendsOn);
+        claimStateCache.put(constraintKey, state);
+        return state;
+    }
+
+    private ConstraintClaimState readUncachedClaimState(String constraintKey,
+                                                        Predicate<ConstraintClaimState> appendsOn) {
+        if (isNeverUsed(constraintKey, appendsOn)) {
+            return ConstraintClaimState.unused();
+        }
+        long start = System.nanoTime();
+        DomainEventMessage<?> latestEvent = latestEventReader.readLatestEvent(constraintKey).orElse(null);
+        monitor.onClaimStateRead(1, System.nanoTime() - start);
+        return toClaimState(latestEvent);
+    }
+
+    /**
+     * Whether the {@link ConstraintKeyFilter} answers the key was never used, given that treating it as unused leads to
+     * an append. Releases of a key that the filter has not seen yet, for example because another node claimed it
+     * moments ago, always read its state, since nothing would catch a release that was skipped.
+     */
+    private boolean isNeverUsed(String constraintKey, Predicate<ConstraintClaimState> appendsOn) {
+        return constraintKeyFilter != null
+                && appendsOn.test(ConstraintClaimState.unused())
+                && !constraintKeyFilter.mightExist(constraintKey);
+    }
+
+    /**
+     * Reads the states of the {@code constraintKeys}, each using the cache under the same condition as
+     * {@link #readClaimState(String, Predicate)}, given the entry of {@code appendsOn} at the same index.
+     */
+    private Map<String, ConstraintClaimState> readClaimStates(List<String> constraintKeys,
+                                                              List<Predicate<ConstraintClaimState>> appendsOn) {
+        Map<String, ConstraintClaimState> states = new HashMap<>();
+        List<String> keysToRead = new ArrayList<>(constraintKeys.size());
+        for (int i = 0; i < constraintKeys.size(); i++) {
+            String constraintKey = constraintKeys.get(i);
+            if (keysToRead.contains(constraintKey)) {
+                continue;
+            }
+            ConstraintClaimState cachedState = claimStateCache != null ? claimStateCache.get(constraintKey) : null;
+            if (cachedState != null && appendsOn.get(i).test(cachedState)) {
+                states.put(constraintKey, cachedState);
+            } else if (isNeverUsed(constraintKey, appendsOn.get(i))) {
+                states.put(constraintKey, ConstraintClaimState.unused());
+            } else {
+                keysToRead.add(constraintKey);
+            }
+        }
+        if (keysToRead.isEmpty()) {
+            return states;
+        }
+        long start = System.nanoTime();
+        Map<String, DomainEventMessage<?>> latestEvents = lookupExecutor != null && keysToRead.size() > 1
+                ? readLatestEventsInParallel(keysToRead)
+                : latestEventReader.readLatestEvents(keysToRead);
+        monitor.onClaimStateRead(keysToRead.size(), System.nanoTime() - start);
+        for (String constraintKey : keysToRead) {
+            ConstraintClaimState state = toClaimState(latestEvents.get(constraintKey));
+            states.put(constraintKey, state);
+            if (claimStateCache != null) {
+                claimStateCache.put(constraintKey, state);
+            }
+        }
+        return states;
+    }
+
+    /**
+     * Reads the last event of every key on the {@code lookupExecutor}, waiting for all reads to complete. The time
+     * this takes is determined by the slowest read, instead of the sum of all reads.
+     */
+    private Map<String, DomainEventMessage<?>> readLatestEventsInParallel(List<String> constraintKeys) {
+        List<CompletableFuture<Optional<DomainEventMessage<?>>>> lookups = new ArrayList<>(constraintKeys.size());
+        for (String constraintKey : constraintKeys) {
+            lookups.add(CompletableFuture.supplyAsync(() -> latestEventReader.readLatestEvent(constraintKey),
+                                                      lookupExecutor));
+        }
+        Map<String, DomainEventMessage<?>> latestEvents = new HashMap<>();
+        try {
+            for (int i = 0; i < constraintKeys.size(); i++) {
+                String constraintKey = constraintKeys.get(i);
+                lookups.get(i).join().ifPresent(event -> latestEvents.put(constraintKey, event));
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+        return latestEvents;
+    }
+
+    private ConstraintClaimState toClaimState(DomainEventMessage<?> eventMessage) {
+        if (eventMessage == null) {
+            return ConstraintClaimState.unused();
+        }
+        Object payload = eventMessage.getPayload();
+        if (payload instanceof ConstraintClaimedEvent) {
+            return ConstraintClaimState.claimed(eventMessage.getSequenceNumber(),
+                                                ((ConstraintClaimedEvent) payload).getOwner());
+        }
         if (payload instanceof ConstraintReleasedEvent) {
-            unclaimedEventConsumer.accept(eventMessage.get().getSequenceNumber());
-            return;
+            return ConstraintClaimState.released(eventMessage.getSequenceNumber());
         }
 
         throw new IllegalArgumentException(
@@ -136,6 +699,26 @@ public class EventStoreUniqueConstraintStore implements UniqueConstraintStore {
                               payload.getClass().getName()));
     }
 
+    /**
+     * A claim of a constraint key that is in flight on this node, by the given owner in the given {@link UnitOfWork}.
+     */
+    private static final class InFlightClaim {
+
+        private final String constraintKey;
+        private final String owner;
+        private final UnitOfWork<?> unitOfWork;
+
+        private InFlightClaim(String constraintKey, String owner, UnitOfWork<?> unitOfWork) {
+            this.constraintKey = constraintKey;
+            this.owner = owner;
+            this.unitOfWork = unitOfWork;
+        }
+
+        private boolean isCompatibleWith(InFlightClaim other) {
+            return owner.equals(other.owner) || (unitOfWork != null && unitOfWork == other.unitOfWork);
+        }
+    }
+
     /**
      * A new builder to construct a new {@link EventStoreUniqueConstraintStore}.
      * <p>
@@ -146,6 +729,13 @@ public class EventStoreUniqueConstraintStore implements UniqueConstraintStore {
 
         private EventStore eventStore;
         private ConstraintKeyProvider constraintKeyProvider = new Sha256ConstraintKeyProvider();
+        private ConstraintClaimStateCache claimStateCache;
+        private LatestConstraintEventReader latestEventReader;
+        private Executor lookupExecutor;
+        private ConstraintKeyFilter constraintKeyFilter;
+        private UniqueConstraintMonitor monitor = NoOpUniqueConstraintMonitor.INSTANCE;
+        private boolean claimCoalescing = true;
+        private ClaimRetryPolicy retryPolicy;
 
         /**
          * Changes the {@link ConstraintKeyProvider} to be used when determining the value of the constraint. Defaults
@@ -172,6 +762,121 @@ public class EventStoreUniqueConstraintStore implements UniqueConstraintStore {
             return this;
         }
 
+        /**
+         * The {@link ConstraintClaimStateCache} to keep the state of recently used constraint keys in, preventing
+         * reads from the {@link EventStore} for keys that are cached. No cache is used unless configured.
+         *
+         * @param claimStateCache The {@link ConstraintClaimStateCache} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder claimStateCache(ConstraintClaimStateCache claimStateCache) {
+            BuilderUtils.assertNonNull(claimStateCache, "claimStateCache cannot be null!");
+            this.claimStateCache = claimStateCache;
+            return this;
+        }
+
+        /**
+         * The {@link LatestConstraintEventReader} used to read the last event of a constraint key. Defaults to an
+         * {@link EventStoreLatestConstraintEventReader} on the configured {@link EventStore}. Configure a reader
+         * specific to your storage engine, such as the
+         * {@link org.axonframework.extensions.uniqueconstraint.jdbc.JdbcLatestConstraintEventReader}, to read the
+         * state of a constraint key in a single call.
+         *
+         * @param latestEventReader The {@link LatestConstraintEventReader} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder latestEventReader(LatestConstraintEventReader latestEventReader) {
+            BuilderUtils.assertNonNull(latestEventReader, "latestEventReader cannot be null!");
+            this.latestEventReader = latestEventReader;
+            return this;
+        }
+
+        /**
+         * The {@link Executor} used to read the state of multiple constraint keys in parallel, when a command changes
+         * more than one constraint. Without it, which is the default, the keys are read on the calling thread using
+         * {@link LatestConstraintEventReader#readLatestEvents(java.util.Collection)}.
+         * <p>
+         * Parallel reads reduce latency when every key costs a separate round-trip to the storage engine, as with the
+         * default {@link EventStoreLatestConstraintEventReader}. Readers that read multiple keys in a single query,
+         * like the {@link org.axonframework.extensions.uniqueconstraint.jdbc.JdbcLatestConstraintEventReader}, do not
+         * benefit from it. On JDK 21 and later, an executor creating a virtual thread per task is a good fit, since
+         * the lookups spend most of their time waiting for the storage engine.
+         * <p>
+         * Reads on the executor take place outside of the active {@link UnitOfWork}. When the storage engine shares a
+         * transaction with the unit of work, those reads do not see constraint events that were appended earlier in
+         * the same, uncommitted, transaction.
+         *
+         * @param lookupExecutor The {@link Executor} to read constraint keys on.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder lookupExecutor(Executor lookupExecutor) {
+            BuilderUtils.assertNonNull(lookupExecutor, "lookupExecutor cannot be null!");
+            this.lookupExecutor = lookupExecutor;
+            return this;
+        }
+
+        /**
+         * The {@link ConstraintKeyFilter} consulted before reading the state of a constraint key. When the filter
+         * answers a key has never been used, it is claimed without reading its state. Keys of claims published by this
+         * store are added to the filter. No filter is used unless configured.
+         * <p>
+         * Use a {@link ConstraintKeyFilterInitializer} to fill the filter with the keys claimed before startup and by
+         * other nodes.
+         *
+         * @param constraintKeyFilter The {@link ConstraintKeyFilter} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder constraintKeyFilter(ConstraintKeyFilter constraintKeyFilter) {
+            BuilderUtils.assertNonNull(constraintKeyFilter, "constraintKeyFilter cannot be null!");
+            this.constraintKeyFilter = constraintKeyFilter;
+            return this;
+        }
+
+        /**
+         * The {@link UniqueConstraintMonitor} notified of every read of constraint keys from the {@link EventStore}.
+         * Defaults to the {@link NoOpUniqueConstraintMonitor}.
+         *
+         * @param monitor The {@link UniqueConstraintMonitor} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder monitor(UniqueConstraintMonitor monitor) {
+            BuilderUtils.assertNonNull(monitor, "monitor cannot be null!");
+            this.monitor = monitor;
+            return this;
+        }
+
+        /**
+         * Whether claims of the same constraint key on this node are coalesced, rejecting claims by other owners while
+         * a claim of the key is in flight. Enabled by default.
+         * <p>
+         * Disable it to have every claim read the state of its key and append to the {@link EventStore}, leaving
+         * concurrent claims to be rejected by the event store.
+         *
+         * @param claimCoalescing Whether to coalesce claims of the same constraint key.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder claimCoalescing(boolean claimCoalescing) {
+            this.claimCoalescing = claimCoalescing;
+            return this;
+        }
+
+        /**
+         * The {@link ClaimRetryPolicy} determining how claims and releases are retried when appending their events
+         * fails with a {@link ConcurrencyException}. Without it, which is the default, the exception is rethrown.
+         * <p>
+         * Within a {@link UnitOfWork}, the events are appended when the unit of work commits, so conflicts fail the
+         * command instead of being retried. Retry those commands with a
+         * {@link org.axonframework.commandhandling.gateway.RetryScheduler} on the command gateway.
+         *
+         * @param retryPolicy The {@link ClaimRetryPolicy} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder retryPolicy(ClaimRetryPolicy retryPolicy) {
+            BuilderUtils.assertNonNull(retryPolicy, "retryPolicy cannot be null!");
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
         protected void validate() {
             BuilderUtils.assertNonNull(eventStore, "eventStore cannot be null!");
         }
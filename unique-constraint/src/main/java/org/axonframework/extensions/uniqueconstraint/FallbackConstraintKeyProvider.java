@@ -0,0 +1,46 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Provides keys using a new {@link ConstraintKeyProvider}, while still recognizing the claims made with the previous
+ * one. Use it when changing the key format of existing constraints, for example to the compact
+ * {@link Sha256ConstraintKeyProvider.Encoding#BASE64_URL} encoding:
+ * <pre>{@code
+ * new FallbackConstraintKeyProvider(new Sha256ConstraintKeyProvider(Sha256ConstraintKeyProvider.Encoding.BASE64_URL),
+ *                                   new Sha256ConstraintKeyProvider());
+ * }</pre>
+ * New claims are made using the keys of the primary provider. Values that are still claimed under the key of the
+ * legacy provider remain claimed by their owner, until that owner releases them.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class FallbackConstraintKeyProvider implements ConstraintKeyProvider {
+
+    private final ConstraintKeyProvider primaryProvider;
+    private final ConstraintKeyProvider legacyProvider;
+
+    /**
+     * Creates the provider, using the {@code primaryProvider} for new claims and the {@code legacyProvider} to find
+     * existing ones.
+     *
+     * @param primaryProvider The {@link ConstraintKeyProvider} of the new key format.
+     * @param legacyProvider  The {@link ConstraintKeyProvider} of the previous key format.
+     */
+    public FallbackConstraintKeyProvider(ConstraintKeyProvider primaryProvider, ConstraintKeyProvider legacyProvider) {
+        this.primaryProvider = Objects.requireNonNull(primaryProvider, "primaryProvider cannot be null!");
+        this.legacyProvider = Objects.requireNonNull(legacyProvider, "legacyProvider cannot be null!");
+    }
+
+    @Override
+    public String determineValue(String constraintName, Object value) {
+        return primaryProvider.determineValue(constraintName, value);
+    }
+
+    @Override
+    public Optional<String> determineLegacyValue(String constraintName, Object value) {
+        return Optional.of(legacyProvider.determineValue(constraintName, value));
+    }
+}
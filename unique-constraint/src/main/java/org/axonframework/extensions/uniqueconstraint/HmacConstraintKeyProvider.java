@@ -0,0 +1,101 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import java.security.GeneralSecurityException;
+import java.util.Objects;
+import javax.crypto.Mac;
+import javax.crypto.ShortBufferException;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Creates an HMAC-SHA256 of the constraint's name and value, using a secret key. Like the
+ * {@link Sha256ConstraintKeyProvider}, the key is not reversible. Without the secret, it is also impossible to find the
+ * key of a guessed value, which protects values that are easy to enumerate, such as phone numbers, and prevents users
+ * from constructing colliding values.
+ * <p>
+ * The keys of a constraint change with the secret, so it should never be changed once claims exist. The secret should
+ * be kept outside of the event store.
+ * <p>
+ * This provider is safe to use from multiple threads concurrently. Every thread uses its own {@link Mac} and buffers.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class HmacConstraintKeyProvider implements ConstraintKeyProvider {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int MAC_LENGTH = 32;
+
+    private final SecretKeySpec secretKey;
+    private final Sha256ConstraintKeyProvider.Encoding encoding;
+    private final ThreadLocal<MacState> macState;
+
+    /**
+     * Creates the provider using the given {@code secret}, encoding the keys as 64 hexadecimal characters.
+     *
+     * @param secret The secret key of the HMAC.
+     */
+    public HmacConstraintKeyProvider(byte[] secret) {
+        this(secret, Sha256ConstraintKeyProvider.Encoding.HEX);
+    }
+
+    /**
+     * Creates the provider using the given {@code secret} and {@code encoding}.
+     *
+     * @param secret   The secret key of the HMAC.
+     * @param encoding The {@link Sha256ConstraintKeyProvider.Encoding} of the keys.
+     */
+    public HmacConstraintKeyProvider(byte[] secret, Sha256ConstraintKeyProvider.Encoding encoding) {
+        Objects.requireNonNull(secret, "secret cannot be null!");
+        if (secret.length == 0) {
+            throw new IllegalArgumentException("secret cannot be empty!");
+        }
+        this.secretKey = new SecretKeySpec(secret, ALGORITHM);
+        this.encoding = Objects.requireNonNull(encoding, "encoding cannot be null!");
+        this.macState = ThreadLocal.withInitial(() -> new MacState(secretKey));
+        macState.get();
+    }
+
+    @Override
+    public String determineValue(String constraintName, Object value) {
+        CharSequence valueChars = value instanceof CharSequence ? (CharSequence) value : value.toString();
+        MacState state = macState.get();
+
+        byte[] input = state.input(ConstraintKeyEncoder.maximumInputLength(constraintName, valueChars));
+        int length = ConstraintKeyEncoder.encodeInput(constraintName, valueChars, input);
+
+        state.mac.update(input, 0, length);
+        try {
+            state.mac.doFinal(state.hash, 0);
+        } catch (ShortBufferException e) {
+            throw new IllegalStateException("Could not complete the HMAC of the constraint value", e);
+        }
+        return ConstraintKeyEncoder.encode(encoding, state.hash, MAC_LENGTH, state.chars);
+    }
+
+    /**
+     * The {@link Mac} and buffers of a single thread.
+     */
+    private static class MacState {
+
+        private final Mac mac;
+        private final byte[] hash = new byte[MAC_LENGTH];
+        private final char[] chars = new char[MAC_LENGTH * 2];
+        private byte[] input = new byte[256];
+
+        private MacState(SecretKeySpec secretKey) {
+            try {
+                mac = Mac.getInstance(ALGORITHM);
+                mac.init(secretKey);
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Could not initialize the HmacConstraintKeyProvider!", e);
+            }
+        }
+
+        private byte[] input(int requiredCapacity) {
+            if (input.length < requiredCapacity) {
+                input = new byte[Math.max(requiredCapacity, input.length * 2)];
+            }
+            return input;
+        }
+    }
+}
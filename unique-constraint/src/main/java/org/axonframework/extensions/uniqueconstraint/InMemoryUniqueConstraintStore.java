@@ -0,0 +1,290 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.common.BuilderUtils;
+import org.axonframework.lifecycle.Lifecycle;
+import org.axonframework.lifecycle.Phase;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Implementation of the {@link UniqueConstraintStore} that keeps the claims in memory, for tests and deployments
+ * consisting of a single node. Claims are stored in a {@link ConcurrentHashMap} keyed by constraint key, and are claimed
+ * and released atomically without additional locking.
+ * <p>
+ * Claims and releases are visible to other threads immediately. When made within a
+ * {@link org.axonframework.messaging.unitofwork.UnitOfWork}, they are reverted if the unit of work is rolled back.
+ * <p>
+ * When a snapshot path is configured, the claims are read from it when the store is created, and written to it when
+ * the application shuts down or when {@link #writeSnapshot()} is called. Without a snapshot, all claims are lost when
+ * the application stops.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class InMemoryUniqueConstraintStore implements BatchUniqueConstraintStore, Lifecycle {
+
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final ConstraintKeyProvider constraintKeyProvider;
+    private final Path snapshotPath;
+    private final ConcurrentMap<String, String> claims = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new {@link InMemoryUniqueConstraintStore} with the builder's configuration. Reads the snapshot, if
+     * configured and present.
+     *
+     * @param builder The builder to use.
+     */
+    protected InMemoryUniqueConstraintStore(Builder builder) {
+        builder.validate();
+        this.constraintKeyProvider = builder.constraintKeyProvider;
+        this.snapshotPath = builder.snapshotPath;
+        if (snapshotPath != null && Files.exists(snapshotPath)) {
+            readSnapshot();
+        }
+    }
+
+    /**
+     * Creates a new builder to construct a new {@link InMemoryUniqueConstraintStore}.
+     * <p>
+     * The {@link ConstraintKeyProvider} defaults to a {@link Sha256ConstraintKeyProvider}. No snapshot is used unless
+     * configured.
+     *
+     * @return A builder suitable to construct a new {@link InMemoryUniqueConstraintStore}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void checkAndClaimValue(String constraintName, String constraintValue, String owner) {
+        revertOnRollback(claim(constraintName,
+                               constraintKeyProvider.determineValue(constraintName, constraintValue),
+                               owner));
+    }
+
+    @Override
+    public void releaseClaimValue(String constraintName, String constraintValue, String owner) {
+        revertOnRollback(release(constraintName,
+                                 constraintKeyProvider.determineValue(constraintName, constraintValue),
+                                 owner));
+    }
+
+    /**
+     * Claims and releases the values in order. If any value is claimed by a different owner, the changes applied
+     * before it are reverted before the {@link UniqueConstraintClaimException} is thrown. Only when all changes are
+     * applied are they reverted when the unit of work rolls back, so failed changes are never reverted twice.
+     */
+    @Override
+    public void applyChanges(String owner, List<ConstraintChange> changes) {
+        List<Runnable> revertActions = new ArrayList<>(changes.size());
+        try {
+            for (ConstraintChange change : changes) {
+                String constraintKey = constraintKeyProvider.determineValue(change.getConstraintName(),
+                                                                            change.getConstraintValue());
+                Runnable revertAction = change.isClaim()
+                        ? claim(change.getConstraintName(), constraintKey, owner)
+                        : release(change.getConstraintName(), constraintKey, owner);
+                if (revertAction != null) {
+                    revertActions.add(revertAction);
+                }
+            }
+        } catch (RuntimeException e) {
+            revertAll(revertActions);
+            throw e;
+        }
+        if (!revertActions.isEmpty()) {
+            revertOnRollback(() -> revertAll(revertActions));
+        }
+    }
+
+    private static void revertAll(List<Runnable> revertActions) {
+        for (int i = revertActions.size() - 1; i >= 0; i--) {
+            revertActions.get(i).run();
+        }
+    }
+
+    /**
+     * Claims the key for the owner.
+     *
+     * @return The action reverting the claim, or {@code null} if the owner already had claimed the key.
+     */
+    private Runnable claim(String constraintName, String constraintKey, String owner) {
+        String currentOwner = claims.putIfAbsent(constraintKey, owner);
+        if (currentOwner != null) {
+            if (!currentOwner.equals(owner)) {
+                throw claimedByOtherOwnerException(constraintName, currentOwner, owner);
+            }
+            return null;
+        }
+        return () -> claims.remove(constraintKey, owner);
+    }
+
+    /**
+     * Releases the key, if claimed by the owner.
+     *
+     * @return The action reverting the release, or {@code null} if the key was not claimed.
+     */
+    private Runnable release(String constraintName, String constraintKey, String owner) {
+        if (!claims.remove(constraintKey, owner)) {
+            String currentOwner = claims.get(constraintKey);
+            if (currentOwner != null && !currentOwner.equals(owner)) {
+                throw claimedByOtherOwnerException(constraintName, currentOwner, owner);
+            }
+            return null;
+        }
+        return () -> claims.putIfAbsent(constraintKey, owner);
+    }
+
+    private static void revertOnRollback(Runnable revertAction) {
+        if (revertAction != null && CurrentUnitOfWork.isStarted()) {
+            CurrentUnitOfWork.get().onRollback(u -> revertAction.run());
+        }
+    }
+
+    private static UniqueConstraintClaimException claimedByOtherOwnerException(String constraintName,
+                                                                               String currentOwner,
+                                                                               String owner) {
+        return new UniqueConstraintClaimException(
+                String.format(
+                        "Unique constraint %s was claimed by owner %s. Can not change claims is for aggregate %s.",
+                        constraintName,
+                        currentOwner,
+                        owner),
+                constraintName);
+    }
+
+    /**
+     * The amount of constraint keys currently claimed.
+     *
+     * @return The number of claims.
+     */
+    public int size() {
+        return claims.size();
+    }
+
+    /**
+     * Writes all current claims to the configured snapshot path. The snapshot is written to a temporary file first,
+     * which then replaces the previous snapshot, so a failure while writing does not corrupt the previous snapshot.
+     * Claims made while writing may or may not be part of the snapshot.
+     *
+     * @throws IllegalStateException when no snapshot path was configured.
+     * @throws UncheckedIOException  when the snapshot could not be written.
+     */
+    public void writeSnapshot() {
+        if (snapshotPath == null) {
+            throw new IllegalStateException("Can not write a snapshot, since no snapshot path was configured.");
+        }
+        try {
+            Path directory = snapshotPath.toAbsolutePath().getParent();
+            Path temporaryFile = Files.createTempFile(directory, snapshotPath.getFileName().toString(), ".tmp");
+            try (DataOutputStream output = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                List<Map.Entry<String, String>> entries = new ArrayList<>(claims.entrySet());
+                output.writeInt(SNAPSHOT_VERSION);
+                output.writeInt(entries.size());
+                for (Map.Entry<String, String> entry : entries) {
+                    output.writeUTF(entry.getKey());
+                    output.writeUTF(entry.getValue());
+                }
+            }
+            Files.move(temporaryFile, snapshotPath,
+                       StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write the unique constraint snapshot to " + snapshotPath, e);
+        }
+    }
+
+    private void readSnapshot() {
+        try (DataInputStream input = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            int version = input.readInt();
+            if (version != SNAPSHOT_VERSION) {
+                throw new IllegalStateException(String.format(
+                        "Unique constraint snapshot %s has unsupported version %d", snapshotPath, version));
+            }
+            int size = input.readInt();
+            for (int i = 0; i < size; i++) {
+                claims.put(input.readUTF(), input.readUTF());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read the unique constraint snapshot from " + snapshotPath, e);
+        }
+    }
+
+    /**
+     * Writes a snapshot when the application shuts down, after command handlers have been unsubscribed, if a snapshot
+     * path was configured.
+     */
+    @Override
+    public void registerLifecycleHandlers(LifecycleRegistry lifecycle) {
+        if (snapshotPath != null) {
+            lifecycle.onShutdown(Phase.LOCAL_MESSAGE_HANDLER_REGISTRATIONS, this::writeSnapshot);
+        }
+    }
+
+    /**
+     * A new builder to construct a new {@link InMemoryUniqueConstraintStore}.
+     * <p>
+     * The {@link ConstraintKeyProvider} defaults to a {@link Sha256ConstraintKeyProvider}. No snapshot is used unless
+     * configured.
+     */
+    public static class Builder {
+
+        private ConstraintKeyProvider constraintKeyProvider = new Sha256ConstraintKeyProvider();
+        private Path snapshotPath;
+
+        /**
+         * Changes the {@link ConstraintKeyProvider} to be used when determining the value of the constraint. Defaults
+         * to the {@link Sha256ConstraintKeyProvider} unless changed.
+         *
+         * @param constraintKeyProvider The new {@link ConstraintKeyProvider}.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder constraintValueProvider(ConstraintKeyProvider constraintKeyProvider) {
+            BuilderUtils.assertNonNull(constraintKeyProvider, "valueProviderFunction cannot be null!");
+            this.constraintKeyProvider = constraintKeyProvider;
+            return this;
+        }
+
+        /**
+         * The file to keep a snapshot of the claims in. When the file exists, the claims are read from it when the
+         * store is created. No snapshot is used unless configured.
+         *
+         * @param snapshotPath The path of the snapshot file.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder snapshotPath(Path snapshotPath) {
+            BuilderUtils.assertNonNull(snapshotPath, "snapshotPath cannot be null!");
+            this.snapshotPath = snapshotPath;
+            return this;
+        }
+
+        protected void validate() {
+            // All fields have valid defaults
+        }
+
+        /**
+         * Builds the {@link InMemoryUniqueConstraintStore} using the configuration acquired.
+         *
+         * @return The {@link InMemoryUniqueConstraintStore}
+         */
+        public InMemoryUniqueConstraintStore build() {
+            return new InMemoryUniqueConstraintStore(this);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.eventhandling.DomainEventMessage;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Reads the last event of a constraint key. The {@link EventStoreUniqueConstraintStore} uses the payload of this event
+ * to determine whether a constraint key is claimed, and the sequence number to append the next claim or release.
+ * <p>
+ * The default implementation, {@link EventStoreLatestConstraintEventReader}, uses the generic
+ * {@link org.axonframework.eventsourcing.eventstore.EventStore} API, which takes two calls to the storage engine.
+ * Implementations specific to a storage engine, such as the
+ * {@link org.axonframework.extensions.uniqueconstraint.jdbc.JdbcLatestConstraintEventReader}, can do this in a single
+ * call.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+@FunctionalInterface
+public interface LatestConstraintEventReader {
+
+    /**
+     * Reads the event with the highest sequence number of the given {@code constraintKey}.
+     *
+     * @param constraintKey The constraint key, used as aggregate identifier of the constraint events.
+     * @return The last event of the constraint key, or an empty optional if the key has no events.
+     */
+    Optional<DomainEventMessage<?>> readLatestEvent(String constraintKey);
+
+    /**
+     * Reads the event with the highest sequence number of each of the given {@code constraintKeys}. The default
+     * implementation reads the keys one by one. Implementations able to read multiple keys in a single call should
+     * override this method.
+     *
+     * @param constraintKeys The constraint keys to read the last event of.
+     * @return The last event of every key that has events, keyed by the constraint key. Keys without events are
+     * absent.
+     */
+    default Map<String, DomainEventMessage<?>> readLatestEvents(Collection<String> constraintKeys) {
+        Map<String, DomainEventMessage<?>> latestEvents = new HashMap<>();
+        for (String constraintKey : constraintKeys) {
+            readLatestEvent(constraintKey).ifPresent(event -> latestEvents.put(constraintKey, event));
+        }
+        return latestEvents;
+    }
+}
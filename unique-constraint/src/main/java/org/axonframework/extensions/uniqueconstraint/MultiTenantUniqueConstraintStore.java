@@ -0,0 +1,232 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.common.BuilderUtils;
+import org.axonframework.messaging.Message;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * {@link UniqueConstraintStore} partitioning the constraints of a multi-tenant application by tenant. The tenant is
+ * resolved from the message handled in the current Unit of Work, by default from its {@code "tenantId"} meta-data.
+ * <p>
+ * Each tenant can be given its own store, such as an {@link EventStoreUniqueConstraintStore} on the event store of the
+ * tenant, or a {@link org.axonframework.extensions.uniqueconstraint.jdbc.JdbcUniqueConstraintStore} on a table of the
+ * tenant. Claims of different tenants then never contend with each other. The store of a tenant is created the first
+ * time the tenant claims or releases a value, and reused afterwards.
+ * <p>
+ * Tenants without a store of their own share the default store, in which each value is prefixed with the tenant, for
+ * example {@code "tenant-1/someone@example.com"}. The same value can therefore be claimed once by every tenant, and
+ * claims of different tenants use different keys. The constraint names are passed as is, so the default store can be a
+ * {@link RoutingUniqueConstraintStore} routing them to a store per constraint. Messages without a tenant, or values
+ * claimed outside of a Unit of Work, use the default store with the values as is.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class MultiTenantUniqueConstraintStore implements BatchUniqueConstraintStore {
+
+    private static final String TENANT_SEPARATOR = "/";
+
+    private final UniqueConstraintStore defaultStore;
+    private final Function<String, UniqueConstraintStore> tenantStoreFactory;
+    private final Function<Message<?>, String> tenantResolver;
+    private final ConcurrentMap<String, Optional<UniqueConstraintStore>> tenantStores = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new {@link MultiTenantUniqueConstraintStore} with the builder's configuration.
+     *
+     * @param builder The builder to use.
+     */
+    protected MultiTenantUniqueConstraintStore(Builder builder) {
+        builder.validate();
+        this.defaultStore = builder.defaultStore;
+        this.tenantStoreFactory = builder.tenantStoreFactory;
+        this.tenantResolver = builder.tenantResolver;
+    }
+
+    /**
+     * Creates a new builder to construct a new {@link MultiTenantUniqueConstraintStore}.
+     * <p>
+     * Requires the default {@link UniqueConstraintStore} to be configured. The tenant is resolved from the
+     * {@code "tenantId"} meta-data by default, and tenants have no store of their own by default.
+     *
+     * @return A builder suitable to construct a new {@link MultiTenantUniqueConstraintStore}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void releaseClaimValue(String constraintName, String constraintValue, String owner) {
+        String tenant = currentTenant();
+        storeOf(tenant).releaseClaimValue(constraintName, scopedValueOf(tenant, constraintValue), owner);
+    }
+
+    @Override
+    public void checkAndClaimValue(String constraintName, String constraintValue, String owner) {
+        String tenant = currentTenant();
+        storeOf(tenant).checkAndClaimValue(constraintName, scopedValueOf(tenant, constraintValue), owner);
+    }
+
+    @Override
+    public void applyChanges(String owner, List<ConstraintChange> changes) {
+        String tenant = currentTenant();
+        UniqueConstraintStore store = storeOf(tenant);
+        List<ConstraintChange> scopedChanges = changes;
+        if (tenant != null && store == defaultStore) {
+            scopedChanges = new ArrayList<>(changes.size());
+            for (ConstraintChange change : changes) {
+                String scopedValue = scopedValue(tenant, change.getConstraintValue());
+                scopedChanges.add(change.isClaim()
+                                          ? ConstraintChange.claim(change.getConstraintName(), scopedValue)
+                                          : ConstraintChange.release(change.getConstraintName(), scopedValue));
+            }
+        }
+        if (store instanceof BatchUniqueConstraintStore) {
+            ((BatchUniqueConstraintStore) store).applyChanges(owner, scopedChanges);
+            return;
+        }
+        for (ConstraintChange change : scopedChanges) {
+            if (change.isClaim()) {
+                store.checkAndClaimValue(change.getConstraintName(), change.getConstraintValue(), owner);
+            } else {
+                store.releaseClaimValue(change.getConstraintName(), change.getConstraintValue(), owner);
+            }
+        }
+    }
+
+    /**
+     * The {@link UniqueConstraintStore} of the given {@code tenant}, creating it if the tenant did not use its store
+     * before.
+     *
+     * @param tenant The tenant, or {@code null} for messages without a tenant.
+     * @return The store of the tenant, or the default store if it has no store of its own.
+     */
+    public UniqueConstraintStore storeOf(String tenant) {
+        if (tenant == null || tenantStoreFactory == null) {
+            return defaultStore;
+        }
+        return tenantStores.computeIfAbsent(tenant, t -> Optional.ofNullable(tenantStoreFactory.apply(t)))
+                           .orElse(defaultStore);
+    }
+
+    /**
+     * The value as claimed in a store shared by multiple tenants, which is the value prefixed with the tenant.
+     *
+     * @param tenant          The tenant, or {@code null} for messages without a tenant.
+     * @param constraintValue The value of the constraint.
+     * @return The value scoped to the tenant, or the value as is if there is no tenant.
+     */
+    public static String scopedValue(String tenant, String constraintValue) {
+        return tenant == null ? constraintValue : tenant + TENANT_SEPARATOR + constraintValue;
+    }
+
+    private String scopedValueOf(String tenant, String constraintValue) {
+        if (tenant == null || storeOf(tenant) != defaultStore) {
+            return constraintValue;
+        }
+        return scopedValue(tenant, constraintValue);
+    }
+
+    private String currentTenant() {
+        if (!CurrentUnitOfWork.isStarted()) {
+            return null;
+        }
+        Message<?> message = CurrentUnitOfWork.get().getMessage();
+        if (message == null) {
+            return null;
+        }
+        String tenant = tenantResolver.apply(message);
+        return tenant == null || tenant.isEmpty() ? null : tenant;
+    }
+
+    /**
+     * A new builder to construct a new {@link MultiTenantUniqueConstraintStore}.
+     * <p>
+     * Requires the default {@link UniqueConstraintStore} to be configured. The tenant is resolved from the
+     * {@code "tenantId"} meta-data by default, and tenants have no store of their own by default.
+     */
+    public static class Builder {
+
+        private UniqueConstraintStore defaultStore;
+        private Function<String, UniqueConstraintStore> tenantStoreFactory;
+        private Function<Message<?>, String> tenantResolver = metaDataTenantResolver("tenantId");
+
+        /**
+         * The {@link UniqueConstraintStore} of messages without a tenant, and of tenants without a store of their own.
+         * Required to be able to build the builder.
+         *
+         * @param defaultStore The default {@link UniqueConstraintStore}.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder defaultStore(UniqueConstraintStore defaultStore) {
+            BuilderUtils.assertNonNull(defaultStore, "defaultStore cannot be null!");
+            this.defaultStore = defaultStore;
+            return this;
+        }
+
+        /**
+         * The factory creating the {@link UniqueConstraintStore} of a tenant. It is invoked once per tenant, and may
+         * return {@code null} for tenants that share the default store. By default, all tenants share the default
+         * store.
+         *
+         * @param tenantStoreFactory The factory of the store of a tenant.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder tenantStoreFactory(Function<String, UniqueConstraintStore> tenantStoreFactory) {
+            BuilderUtils.assertNonNull(tenantStoreFactory, "tenantStoreFactory cannot be null!");
+            this.tenantStoreFactory = tenantStoreFactory;
+            return this;
+        }
+
+        /**
+         * The function resolving the tenant of the message handled in the current Unit of Work, returning
+         * {@code null} for messages without a tenant. Defaults to the {@code "tenantId"} meta-data of the message.
+         *
+         * @param tenantResolver The function resolving the tenant of a message.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder tenantResolver(Function<Message<?>, String> tenantResolver) {
+            BuilderUtils.assertNonNull(tenantResolver, "tenantResolver cannot be null!");
+            this.tenantResolver = tenantResolver;
+            return this;
+        }
+
+        /**
+         * Resolves the tenant from the meta-data of the message with the given {@code key}.
+         *
+         * @param key The meta-data key of the tenant.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder tenantMetaDataKey(String key) {
+            BuilderUtils.assertNonEmpty(key, "key cannot be null or empty!");
+            return tenantResolver(metaDataTenantResolver(key));
+        }
+
+        private static Function<Message<?>, String> metaDataTenantResolver(String key) {
+            return message -> {
+                Object tenant = message.getMetaData().get(key);
+                return tenant != null ? tenant.toString() : null;
+            };
+        }
+
+        protected void validate() {
+            BuilderUtils.assertNonNull(defaultStore, "defaultStore cannot be null!");
+        }
+
+        /**
+         * Builds the {@link MultiTenantUniqueConstraintStore} using the configuration acquired.
+         *
+         * @return The {@link MultiTenantUniqueConstraintStore}
+         */
+        public MultiTenantUniqueConstraintStore build() {
+            return new MultiTenantUniqueConstraintStore(this);
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import java.util.Objects;
+
+/**
+ * Creates a 128-bit MurmurHash3 hash out of the constraint's name and value. This is a non-cryptographic hash, which
+ * is many times cheaper to calculate than SHA-256, while accidental collisions remain as unlikely as with a random
+ * 128-bit value: even among a billion keys, the chance of any collision is below one in 10^20.
+ * <p>
+ * The hash is not a safe way to mask personal data, and colliding values can be constructed on purpose. Only use it for
+ * constraints of which the values are not sensitive and not freely chosen by users, such as room numbers or SKUs. Use
+ * the {@link HmacConstraintKeyProvider} for values that users choose themselves.
+ * <p>
+ * This provider is safe to use from multiple threads concurrently. Every thread uses its own buffers.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class Murmur3ConstraintKeyProvider implements ConstraintKeyProvider {
+
+    private static final int HASH_LENGTH = 16;
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private static final ThreadLocal<HashState> HASH_STATE = ThreadLocal.withInitial(HashState::new);
+
+    private final Sha256ConstraintKeyProvider.Encoding encoding;
+    private final int seed;
+
+    /**
+     * Creates the provider using a seed of {@code 0}, encoding the keys as 32 hexadecimal characters.
+     */
+    public Murmur3ConstraintKeyProvider() {
+        this(Sha256ConstraintKeyProvider.Encoding.HEX, 0);
+    }
+
+    /**
+     * Creates the provider using the given {@code encoding} and {@code seed}. The keys of a constraint change with the
+     * seed, so it should never be changed once claims exist.
+     *
+     * @param encoding The {@link Sha256ConstraintKeyProvider.Encoding} of the keys.
+     * @param seed     The seed of the hash function.
+     */
+    public Murmur3ConstraintKeyProvider(Sha256ConstraintKeyProvider.Encoding encoding, int seed) {
+        this.encoding = Objects.requireNonNull(encoding, "encoding cannot be null!");
+        this.seed = seed;
+    }
+
+    @Override
+    public String determineValue(String constraintName, Object value) {
+        CharSequence valueChars = value instanceof CharSequence ? (CharSequence) value : value.toString();
+        HashState state = HASH_STATE.get();
+
+        byte[] input = state.input(ConstraintKeyEncoder.maximumInputLength(constraintName, valueChars));
+        int length = ConstraintKeyEncoder.encodeInput(constraintName, valueChars, input);
+        hash(input, length, seed, state.hash);
+        return ConstraintKeyEncoder.encode(encoding, state.hash, HASH_LENGTH, state.chars);
+    }
+
+    /**
+     * Calculates the MurmurHash3 x64 128-bit hash of the first {@code length} bytes of the {@code input}, writing the
+     * two 64-bit halves of the hash into the {@code target} in little-endian order, as the reference implementation
+     * does.
+     */
+    static void hash(byte[] input, int length, int seed, byte[] target) {
+        long h1 = seed & 0xFFFFFFFFL;
+        long h2 = seed & 0xFFFFFFFFL;
+        int blocks = length / 16;
+        for (int i = 0; i < blocks; i++) {
+            long k1 = readLong(input, i * 16);
+            long k2 = readLong(input, i * 16 + 8);
+
+            h1 ^= mixK1(k1);
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            h2 ^= mixK2(k2);
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+        }
+
+        int tail = blocks * 16;
+        long k1 = 0;
+        long k2 = 0;
+        switch (length & 15) {
+            case 15:
+                k2 ^= (long) (input[tail + 14] & 0xFF) << 48;
+            case 14:
+                k2 ^= (long) (input[tail + 13] & 0xFF) << 40;
+            case 13:
+                k2 ^= (long) (input[tail + 12] & 0xFF) << 32;
+            case 12:
+                k2 ^= (long) (input[tail + 11] & 0xFF) << 24;
+            case 11:
+                k2 ^= (long) (input[tail + 10] & 0xFF) << 16;
+            case 10:
+                k2 ^= (long) (input[tail + 9] & 0xFF) << 8;
+            case 9:
+                k2 ^= input[tail + 8] & 0xFF;
+                h2 ^= mixK2(k2);
+            case 8:
+                k1 ^= (long) (input[tail + 7] & 0xFF) << 56;
+            case 7:
+                k1 ^= (long) (input[tail + 6] & 0xFF) << 48;
+            case 6:
+                k1 ^= (long) (input[tail + 5] & 0xFF) << 40;
+            case 5:
+                k1 ^= (long) (input[tail + 4] & 0xFF) << 32;
+            case 4:
+                k1 ^= (long) (input[tail + 3] & 0xFF) << 24;
+            case 3:
+                k1 ^= (long) (input[tail + 2] & 0xFF) << 16;
+            case 2:
+                k1 ^= (long) (input[tail + 1] & 0xFF) << 8;
+            case 1:
+                k1 ^= input[tail] & 0xFF;
+                h1 ^= mixK1(k1);
+            default:
+                break;
+        }
+
+        h1 ^= length;
+        h2 ^= length;
+        h1 += h2;
+        h2 += h1;
+        h1 = fmix64(h1);
+        h2 = fmix64(h2);
+        h1 += h2;
+        h2 += h1;
+
+        writeLong(h1, target, 0);
+        writeLong(h2, target, 8);
+    }
+
+    private static long mixK1(long k1) {
+        k1 *= C1;
+        k1 = Long.rotateLeft(k1, 31);
+        return k1 * C2;
+    }
+
+    private static long mixK2(long k2) {
+        k2 *= C2;
+        k2 = Long.rotateLeft(k2, 33);
+        return k2 * C1;
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+
+    private static long readLong(byte[] bytes, int offset) {
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    private static void writeLong(long value, byte[] target, int offset) {
+        for (int i = 0; i < 8; i++) {
+            target[offset + i] = (byte) (value >>> (8 * i));
+        }
+    }
+
+    /**
+     * The buffers of a single thread.
+     */
+    private static class HashState {
+
+        private final byte[] hash = new byte[HASH_LENGTH];
+        private final char[] chars = new char[HASH_LENGTH * 2];
+        private byte[] input = new byte[256];
+
+        private byte[] input(int requiredCapacity) {
+            if (input.length < requiredCapacity) {
+                input = new byte[Math.max(requiredCapacity, input.length * 2)];
+            }
+            return input;
+        }
+    }
+}
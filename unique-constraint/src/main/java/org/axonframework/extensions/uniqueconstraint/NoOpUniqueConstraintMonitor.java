@@ -0,0 +1,15 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+/**
+ * {@link UniqueConstraintMonitor} that ignores all notifications. Used when no monitor is configured.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public enum NoOpUniqueConstraintMonitor implements UniqueConstraintMonitor {
+
+    /**
+     * Singleton instance of the {@link NoOpUniqueConstraintMonitor}.
+     */
+    INSTANCE
+}
@@ -0,0 +1,117 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.common.BuilderUtils;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Determines the key of a constraint using the {@link ConstraintKeyProvider} registered for its name, falling back to a
+ * default provider for all other constraints. This allows cheaper providers, like the
+ * {@link Murmur3ConstraintKeyProvider}, for constraints that don't need the masking of the
+ * {@link Sha256ConstraintKeyProvider}:
+ * <pre>{@code
+ * PerConstraintKeyProvider.builder()
+ *                         .provider("RoomNumber", new PlainConstraintKeyProvider())
+ *                         .provider("Sku", new Murmur3ConstraintKeyProvider())
+ *                         .build();
+ * }</pre>
+ * Changing the provider of a constraint changes its keys, so existing claims are no longer recognized unless the new
+ * provider is wrapped in a {@link FallbackConstraintKeyProvider} with the previous one.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class PerConstraintKeyProvider implements ConstraintKeyProvider {
+
+    private final Map<String, ConstraintKeyProvider> providers;
+    private final ConstraintKeyProvider defaultProvider;
+
+    /**
+     * Creates a new {@link PerConstraintKeyProvider} with the builder's configuration.
+     *
+     * @param builder The builder to use.
+     */
+    protected PerConstraintKeyProvider(Builder builder) {
+        builder.validate();
+        this.providers = new HashMap<>(builder.providers);
+        this.defaultProvider = builder.defaultProvider;
+    }
+
+    /**
+     * Creates a new builder to construct a new {@link PerConstraintKeyProvider}.
+     * <p>
+     * The default provider defaults to a {@link Sha256ConstraintKeyProvider}.
+     *
+     * @return A builder suitable to construct a new {@link PerConstraintKeyProvider}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public String determineValue(String constraintName, Object value) {
+        return providerFor(constraintName).determineValue(constraintName, value);
+    }
+
+    @Override
+    public Optional<String> determineLegacyValue(String constraintName, Object value) {
+        return providerFor(constraintName).determineLegacyValue(constraintName, value);
+    }
+
+    private ConstraintKeyProvider providerFor(String constraintName) {
+        return providers.getOrDefault(constraintName, defaultProvider);
+    }
+
+    /**
+     * A new builder to construct a new {@link PerConstraintKeyProvider}.
+     * <p>
+     * The default provider defaults to a {@link Sha256ConstraintKeyProvider}.
+     */
+    public static class Builder {
+
+        private final Map<String, ConstraintKeyProvider> providers = new HashMap<>();
+        private ConstraintKeyProvider defaultProvider = new Sha256ConstraintKeyProvider();
+
+        /**
+         * Registers the {@link ConstraintKeyProvider} to use for the constraint with the given name.
+         *
+         * @param constraintName The name of the constraint.
+         * @param provider       The {@link ConstraintKeyProvider} of the constraint.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder provider(String constraintName, ConstraintKeyProvider provider) {
+            BuilderUtils.assertNonEmpty(constraintName, "constraintName cannot be null or empty!");
+            BuilderUtils.assertNonNull(provider, "provider cannot be null!");
+            this.providers.put(constraintName, provider);
+            return this;
+        }
+
+        /**
+         * The {@link ConstraintKeyProvider} to use for constraints without a registered provider. Defaults to the
+         * {@link Sha256ConstraintKeyProvider}.
+         *
+         * @param defaultProvider The default {@link ConstraintKeyProvider}.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder defaultProvider(ConstraintKeyProvider defaultProvider) {
+            BuilderUtils.assertNonNull(defaultProvider, "defaultProvider cannot be null!");
+            this.defaultProvider = defaultProvider;
+            return this;
+        }
+
+        protected void validate() {
+            // All fields have valid defaults
+        }
+
+        /**
+         * Builds the {@link PerConstraintKeyProvider} using the configuration acquired.
+         *
+         * @return The {@link PerConstraintKeyProvider}
+         */
+        public PerConstraintKeyProvider build() {
+            return new PerConstraintKeyProvider(this);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+/**
+ * Uses the constraint's value itself as key, prefixed by the constraint's name. This is the cheapest key to determine,
+ * and keeps the claims readable in the event store, but does not mask the value in any way. Only use it for
+ * constraints of which the values are not sensitive, such as room numbers or SKUs.
+ * <p>
+ * The key is the name, in which {@code '\'} and {@code ':'} are escaped with a {@code '\'}, followed by a {@code ':'}
+ * and the value. The first unescaped {@code ':'} separates the name from the value, so different combinations of name
+ * and value never result in the same key. The key is as long as the value, so avoid this provider for long values.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class PlainConstraintKeyProvider implements ConstraintKeyProvider {
+
+    @Override
+    public String determineValue(String constraintName, Object value) {
+        String valueString = value.toString();
+        StringBuilder key = new StringBuilder(constraintName.length() + valueString.length() + 2);
+        for (int i = 0; i < constraintName.length(); i++) {
+            char c = constraintName.charAt(i);
+            if (c == '\\' || c == ':') {
+                key.append('\\');
+            }
+            key.append(c);
+        }
+        return key.append(':').append(valueString).toString();
+    }
+}
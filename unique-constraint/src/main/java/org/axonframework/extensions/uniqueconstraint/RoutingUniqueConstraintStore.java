@@ -0,0 +1,159 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.common.BuilderUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link UniqueConstraintStore} that claims and releases the values of each constraint in the store configured for its
+ * name, falling back to a default store for all other constraints. This allows a high-volume constraint to be claimed
+ * in a {@link org.axonframework.extensions.uniqueconstraint.jdbc.JdbcUniqueConstraintStore}, while other constraints
+ * are claimed in the event store.
+ * <p>
+ * Batches of changes are split per store. Each store applies its part of the batch at once if it is a
+ * {@link BatchUniqueConstraintStore}, and change by change otherwise. When a store rejects its part, the parts
+ * applied by other stores are only undone when those stores take part in the same Unit of Work, as all stores of this
+ * extension do.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class RoutingUniqueConstraintStore implements BatchUniqueConstraintStore {
+
+    private final UniqueConstraintStore defaultStore;
+    private final Map<String, UniqueConstraintStore> stores;
+
+    /**
+     * Creates a new {@link RoutingUniqueConstraintStore} with the builder's configuration.
+     *
+     * @param builder The builder to use.
+     */
+    protected RoutingUniqueConstraintStore(Builder builder) {
+        builder.validate();
+        this.defaultStore = builder.defaultStore;
+        this.stores = new HashMap<>(builder.stores);
+    }
+
+    /**
+     * Creates a new builder to construct a new {@link RoutingUniqueConstraintStore}.
+     * <p>
+     * Requires the default {@link UniqueConstraintStore} to be configured.
+     *
+     * @return A builder suitable to construct a new {@link RoutingUniqueConstraintStore}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The {@link UniqueConstraintStore} claiming the values of the constraint with the given {@code constraintName}.
+     *
+     * @param constraintName The name of the constraint.
+     * @return The store of the constraint.
+     */
+    public UniqueConstraintStore storeOf(String constraintName) {
+        return stores.getOrDefault(constraintName, defaultStore);
+    }
+
+    @Override
+    public void releaseClaimValue(String constraintName, String constraintValue, String owner) {
+        storeOf(constraintName).releaseClaimValue(constraintName, constraintValue, owner);
+    }
+
+    @Override
+    public void checkAndClaimValue(String constraintName, String constraintValue, String owner) {
+        storeOf(constraintName).checkAndClaimValue(constraintName, constraintValue, owner);
+    }
+
+    @Override
+    public void applyChanges(String owner, List<ConstraintChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        UniqueConstraintStore firstStore = storeOf(changes.get(0).getConstraintName());
+        boolean singleStore = true;
+        for (int i = 1; i < changes.size() && singleStore; i++) {
+            singleStore = storeOf(changes.get(i).getConstraintName()) == firstStore;
+        }
+        if (singleStore) {
+            apply(firstStore, owner, changes);
+            return;
+        }
+
+        Map<UniqueConstraintStore, List<ConstraintChange>> changesPerStore = new LinkedHashMap<>();
+        for (ConstraintChange change : changes) {
+            changesPerStore.computeIfAbsent(storeOf(change.getConstraintName()), store -> new ArrayList<>())
+                           .add(change);
+        }
+        changesPerStore.forEach((store, storeChanges) -> apply(store, owner, storeChanges));
+    }
+
+    private static void apply(UniqueConstraintStore store, String owner, List<ConstraintChange> changes) {
+        if (store instanceof BatchUniqueConstraintStore) {
+            ((BatchUniqueConstraintStore) store).applyChanges(owner, changes);
+            return;
+        }
+        for (ConstraintChange change : changes) {
+            if (change.isClaim()) {
+                store.checkAndClaimValue(change.getConstraintName(), change.getConstraintValue(), owner);
+            } else {
+                store.releaseClaimValue(change.getConstraintName(), change.getConstraintValue(), owner);
+            }
+        }
+    }
+
+    /**
+     * A new builder to construct a new {@link RoutingUniqueConstraintStore}.
+     * <p>
+     * Requires the default {@link UniqueConstraintStore} to be configured.
+     */
+    public static class Builder {
+
+        private final Map<String, UniqueConstraintStore> stores = new HashMap<>();
+        private UniqueConstraintStore defaultStore;
+
+        /**
+         * The {@link UniqueConstraintStore} of all constraints without a store of their own. Required to be able to
+         * build the builder.
+         *
+         * @param defaultStore The default {@link UniqueConstraintStore}.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder defaultStore(UniqueConstraintStore defaultStore) {
+            BuilderUtils.assertNonNull(defaultStore, "defaultStore cannot be null!");
+            this.defaultStore = defaultStore;
+            return this;
+        }
+
+        /**
+         * Registers the {@link UniqueConstraintStore} of the constraint with the given {@code constraintName}.
+         *
+         * @param constraintName The name of the constraint.
+         * @param store          The {@link UniqueConstraintStore} of the constraint.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder store(String constraintName, UniqueConstraintStore store) {
+            BuilderUtils.assertNonEmpty(constraintName, "constraintName cannot be null or empty!");
+            BuilderUtils.assertNonNull(store, "store cannot be null!");
+            this.stores.put(constraintName, store);
+            return this;
+        }
+
+        protected void validate() {
+            BuilderUtils.assertNonNull(defaultStore, "defaultStore cannot be null!");
+        }
+
+        /**
+         * Builds the {@link RoutingUniqueConstraintStore} using the configuration acquired.
+         *
+         * @return The {@link RoutingUniqueConstraintStore}
+         */
+        public RoutingUniqueConstraintStore build() {
+            return new RoutingUniqueConstraintStore(this);
+        }
+    }
+}
@@ -1,26 +1,52 @@
 package org.axonframework.extensions.uniqueconstraint;
 
-import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
 import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Objects;
 
 /**
  * Creates a SHA-256 hash out of the constraint's name and value, to guarantee a unique value that is not reversible.
  * It's safe to use this provider together with personal data, as SHA-256 is a safe algorithm.
+ * <p>
+ * This provider is safe to use from multiple threads concurrently. Every thread uses its own {@link MessageDigest}
+ * and buffers, so no locking is required and no intermediate Strings or arrays are created besides the resulting key.
+ * <p>
+ * By default, the hash is encoded as 64 upper-case hexadecimal characters. The {@link Encoding#BASE64_URL} encoding
+ * takes 43 characters instead, which makes both the aggregate identifiers and the events of the claims smaller. Keys of
+ * both encodings differ, so existing claims are not recognized after changing the encoding, unless the
+ * {@link FallbackConstraintKeyProvider} is used.
  *
  * @since 0.0.1
  * @author Mitchell Herrijgers
  */
 public class Sha256ConstraintKeyProvider implements ConstraintKeyProvider {
 
-    private final MessageDigest digest;
+    private static final String ALGORITHM = "SHA-256";
+    private static final int DIGEST_LENGTH = 32;
+
+    private static final ThreadLocal<DigestState> DIGEST_STATE = ThreadLocal.withInitial(DigestState::new);
+
+    private final Encoding encoding;
 
     /**
      * Creates the provider, looking up the SHA-256 algorithm in the JVM. The SHA-256 algorithm is present in all
-     * JDK's since version 8.
+     * JDK's since version 8. Keys are encoded as hexadecimal characters.
      */
     public Sha256ConstraintKeyProvider() {
+        this(Encoding.HEX);
+    }
+
+    /**
+     * Creates the provider, looking up the SHA-256 algorithm in the JVM, encoding the keys using the given
+     * {@code encoding}.
+     *
+     * @param encoding The {@link Encoding} of the keys.
+     */
+    public Sha256ConstraintKeyProvider(Encoding encoding) {
+        this.encoding = Objects.requireNonNull(encoding, "encoding cannot be null!");
         try {
-            digest = MessageDigest.getInstance("SHA-256");
+            MessageDigest.getInstance(ALGORITHM);
         } catch (Exception e) {
             throw new IllegalArgumentException("Could not initialize the Sha256ConstraintValueProvider!", e);
         }
@@ -28,28 +54,59 @@ public class Sha256ConstraintKeyProvider implements ConstraintKeyProvider {
 
     @Override
     public String determineValue(String constraintName, Object value) {
-        if (digest == null) {
-            return constraintName + "__" + value.hashCode();
-        }
-        String toHash = constraintName + "__" + value.toString();
+        CharSequence valueChars = value instanceof CharSequence ? (CharSequence) value : value.toString();
+        DigestState state = DIGEST_STATE.get();
 
-        byte[] byteDigest = digest.digest(toHash.getBytes(StandardCharsets.UTF_8));
-        return bytesToHex(byteDigest).toUpperCase();
+        byte[] input = state.input(ConstraintKeyEncoder.maximumInputLength(constraintName, valueChars));
+        int length = ConstraintKeyEncoder.encodeInput(constraintName, valueChars, input);
+
+        state.digest.update(input, 0, length);
+        try {
+            state.digest.digest(state.hash, 0, DIGEST_LENGTH);
+        } catch (DigestException e) {
+            throw new IllegalStateException("Could not complete the SHA-256 digest of the constraint value", e);
+        }
+        return ConstraintKeyEncoder.encode(encoding, state.hash, DIGEST_LENGTH, state.chars);
     }
 
-    private static final char[] HEX_ARRAY = "0123456789ABCDEF".toCharArray();
+    /**
+     * The encodings of the key the provider supports. Also used by the other hashing providers, such as the
+     * {@link Murmur3ConstraintKeyProvider} and {@link HmacConstraintKeyProvider}.
+     */
+    public enum Encoding {
+        /**
+         * Upper-case hexadecimal characters, the original format of the keys. Takes 64 characters for SHA-256.
+         */
+        HEX,
+        /**
+         * Unpadded Base64, using the URL-safe alphabet. Takes 43 characters for SHA-256.
+         */
+        BASE64_URL
+    }
 
     /**
-     * Thanks to <a href="https://stackoverflow.com/questions/9655181/how-to-convert-a-byte-array-to-a-hex-string-in-java">this StackOverflow post</a>
-     * for removing the dependency to JAXB.
+     * The {@link MessageDigest} and buffers of a single thread.
      */
-    private static String bytesToHex(byte[] bytes) {
-        char[] hexChars = new char[bytes.length * 2];
-        for (int j = 0; j < bytes.length; j++) {
-            int v = bytes[j] & 0xFF;
-            hexChars[j * 2] = HEX_ARRAY[v >>> 4];
-            hexChars[j * 2 + 1] = HEX_ARRAY[v & 0x0F];
+    private static class DigestState {
+
+        private final MessageDigest digest;
+        private final byte[] hash = new byte[DIGEST_LENGTH];
+        private final char[] chars = new char[DIGEST_LENGTH * 2];
+        private byte[] input = new byte[256];
+
+        private DigestState() {
+            try {
+                digest = MessageDigest.getInstance(ALGORITHM);
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("Could not initialize the Sha256ConstraintValueProvider!", e);
+            }
+        }
+
+        private byte[] input(int requiredCapacity) {
+            if (input.length < requiredCapacity) {
+                input = new byte[Math.max(requiredCapacity, input.length * 2)];
+            }
+            return input;
         }
-        return new String(hexChars);
     }
 }
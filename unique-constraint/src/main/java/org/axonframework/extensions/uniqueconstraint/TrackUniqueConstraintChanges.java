@@ -0,0 +1,35 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Annotation on an aggregate root switching the evaluation of its unique constraints from command handlers to event
+ * sourcing handlers. The command handlers of the aggregate are not wrapped at all. Instead, the values of the
+ * constraints are read the first time an event sourcing handler is invoked on the live aggregate, and compared with the
+ * current values when the Unit of Work prepares to commit. Commands that apply no events never read any constraint
+ * values.
+ * <p>
+ * Combined with {@link AffectsUniqueConstraints} on the event sourcing handlers, only the constraints that may be
+ * written by the applied events are read and checked:
+ * <pre>{@code
+ * @EventSourcingHandler
+ * @AffectsUniqueConstraints("Email")
+ * public void on(EmailChangedEvent event) { this.email = event.getEmail(); }
+ * }</pre>
+ * Since the constraints are checked when the Unit of Work prepares to commit, a
+ * {@link UniqueConstraintClaimException} is thrown after the command handler returned, rolling back the Unit of Work.
+ * The constraints of aggregate members other than the root are not checked.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+public @interface TrackUniqueConstraintChanges {
+
+}
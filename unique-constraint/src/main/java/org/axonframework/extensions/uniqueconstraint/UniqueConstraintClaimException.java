@@ -10,12 +10,35 @@ import org.axonframework.common.AxonNonTransientException;
  */
 public class UniqueConstraintClaimException extends AxonNonTransientException {
 
+    private final String constraintName;
+
     /**
      * Creates the {@link UniqueConstraintClaimException}
      *
      * @param message The message of the exception
      */
     public UniqueConstraintClaimException(String message) {
+        this(message, null);
+    }
+
+    /**
+     * Creates the {@link UniqueConstraintClaimException} for a claim on the constraint with given
+     * {@code constraintName}.
+     *
+     * @param message        The message of the exception
+     * @param constraintName The name of the constraint of which the claim failed
+     */
+    public UniqueConstraintClaimException(String message, String constraintName) {
         super(message);
+        this.constraintName = constraintName;
+    }
+
+    /**
+     * The name of the constraint of which the claim failed, or {@code null} if unknown.
+     *
+     * @return The name of the constraint.
+     */
+    public String getConstraintName() {
+        return constraintName;
     }
 }
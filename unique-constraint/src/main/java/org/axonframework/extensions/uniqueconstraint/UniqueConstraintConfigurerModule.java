@@ -1,5 +1,6 @@
 package org.axonframework.extensions.uniqueconstraint;
 
+import org.axonframework.config.Configuration;
 import org.axonframework.config.Configurer;
 import org.axonframework.config.ConfigurerModule;
 
@@ -8,7 +9,16 @@ import org.axonframework.config.ConfigurerModule;
  * configuring the {@link UniqueConstraintHandlerEnhancerDefinition}.
  * <p>
  * The enhancer will use the {@link EventStoreUniqueConstraintStore} with SHA-256 hashing as its key by default. This
- * can be overridden by adding your own configuration.
+ * can be overridden by adding your own configuration, or by registering a {@link ConstraintKeyProvider} component,
+ * such as a {@link PerConstraintKeyProvider}. When a {@link UniqueConstraintMonitor} component is registered,
+ * it is used by both the store and the validator. When a {@link ConstraintKeyFilter} component is registered, such as
+ * the {@link ConstraintIndexProjection}, the store consults it before reading the state of a constraint key. When a
+ * {@link ClaimRetryPolicy} component is registered, the store retries conflicting appends accordingly.
+ * <p>
+ * When a {@link UniqueConstraintSettingsRegistry} component is registered, the settings of each constraint are
+ * applied. Constraints with a store of their own are routed to it using a {@link RoutingUniqueConstraintStore}.
+ * Cached constraints are claimed in an {@link EventStoreUniqueConstraintStore} using the
+ * {@link ConstraintClaimStateCache} component, or a cache with default settings if none is registered.
  *
  * @author Mitchell Herrijgers
  * @since 0.0.1
@@ -19,14 +29,26 @@ public class UniqueConstraintConfigurerModule implements ConfigurerModule {
     public void configureModule(Configurer configurer) {
         configurer.registerComponent(
                 UniqueConstraintStore.class,
-                config -> EventStoreUniqueConstraintStore
-                        .builder()
-                        .eventStore(config.eventStore()).build());
+                config -> {
+                    UniqueConstraintSettingsRegistry settingsRegistry = settingsRegistry(config);
+                    if (settingsRegistry == null) {
+                        return eventStoreConstraintStore(config, constraintKeyProvider(config, null)).build();
+                    }
+                    return routingConstraintStore(config, settingsRegistry);
+                });
         configurer.registerComponent(
                 UniqueConstraintValidator.class,
-                config -> UniqueConstraintValidator.builder()
-                                                   .constraintStore(config.getComponent(UniqueConstraintStore.class))
-                                                   .build());
+                config -> {
+                    UniqueConstraintValidator.Builder builder =
+                            UniqueConstraintValidator.builder()
+                                                     .constraintStore(config.getComponent(UniqueConstraintStore.class))
+                                                     .monitor(monitor(config));
+                    UniqueConstraintSettingsRegistry settingsRegistry = settingsRegistry(config);
+                    if (settingsRegistry != null) {
+                        builder.settingsRegistry(settingsRegistry);
+                    }
+                    return builder.build();
+                });
 
         configurer.onStart(() -> {
             UniqueConstraintValidator validator = configurer.buildConfiguration()
@@ -34,4 +56,77 @@ public class UniqueConstraintConfigurerModule implements ConfigurerModule {
             UniqueConstraintHandlerEnhancerDefinition.setUniqueConstraintValidator(validator);
         });
     }
+
+    private static UniqueConstraintStore routingConstraintStore(Configuration config,
+                                                                UniqueConstraintSettingsRegistry settingsRegistry) {
+        ConstraintKeyProvider keyProvider = constraintKeyProvider(config, settingsRegistry);
+        UniqueConstraintStore defaultStore = eventStoreConstraintStore(config, keyProvider).build();
+        UniqueConstraintStore cachedStore = null;
+
+        RoutingUniqueConstraintStore.Builder builder = RoutingUniqueConstraintStore.builder()
+                                                                                   .defaultStore(defaultStore);
+        for (String constraintName : settingsRegistry.constraintNames()) {
+            UniqueConstraintSettings settings = settingsRegistry.settingsOf(constraintName);
+            if (settings.getStore() != null) {
+                builder.store(constraintName, settings.getStore());
+            } else if (settings.isCached()) {
+                if (cachedStore == null) {
+                    ConstraintClaimStateCache claimStateCache = config.getComponent(ConstraintClaimStateCache.class);
+                    cachedStore = eventStoreConstraintStore(config, keyProvider)
+                            .claimStateCache(claimStateCache != null
+                                                     ? claimStateCache
+                                                     : ConstraintClaimStateCache.builder().build())
+                            .build();
+                }
+                builder.store(constraintName, cachedStore);
+            }
+        }
+        return builder.build();
+    }
+
+    private static EventStoreUniqueConstraintStore.Builder eventStoreConstraintStore(Configuration config,
+                                                                                    ConstraintKeyProvider keyProvider) {
+        EventStoreUniqueConstraintStore.Builder builder = EventStoreUniqueConstraintStore
+                .builder()
+                .eventStore(config.eventStore())
+                .constraintValueProvider(keyProvider)
+                .monitor(monitor(config));
+        ConstraintKeyFilter constraintKeyFilter = config.getComponent(ConstraintKeyFilter.class);
+        if (constraintKeyFilter != null) {
+            builder.constraintKeyFilter(constraintKeyFilter);
+        }
+        ClaimRetryPolicy retryPolicy = config.getComponent(ClaimRetryPolicy.class);
+        if (retryPolicy != null) {
+            builder.retryPolicy(retryPolicy);
+        }
+        return builder;
+    }
+
+    private static ConstraintKeyProvider constraintKeyProvider(Configuration config,
+                                                               UniqueConstraintSettingsRegistry settingsRegistry) {
+        ConstraintKeyProvider constraintKeyProvider = config.getComponent(ConstraintKeyProvider.class);
+        ConstraintKeyProvider defaultProvider = constraintKeyProvider != null
+                ? constraintKeyProvider
+                : new Sha256ConstraintKeyProvider();
+        if (settingsRegistry == null) {
+            return defaultProvider;
+        }
+        PerConstraintKeyProvider.Builder builder = PerConstraintKeyProvider.builder().defaultProvider(defaultProvider);
+        for (String constraintName : settingsRegistry.constraintNames()) {
+            ConstraintKeyProvider keyProvider = settingsRegistry.settingsOf(constraintName).getKeyProvider();
+            if (keyProvider != null) {
+                builder.provider(constraintName, keyProvider);
+            }
+        }
+        return builder.build();
+    }
+
+    private static UniqueConstraintSettingsRegistry settingsRegistry(Configuration config) {
+        UniqueConstraintSettingsRegistry settingsRegistry = config.getComponent(UniqueConstraintSettingsRegistry.class);
+        return settingsRegistry != null && !settingsRegistry.constraintNames().isEmpty() ? settingsRegistry : null;
+    }
+
+    private static UniqueConstraintMonitor monitor(Configuration config) {
+        return config.getComponent(UniqueConstraintMonitor.class, () -> NoOpUniqueConstraintMonitor.INSTANCE);
+    }
 }
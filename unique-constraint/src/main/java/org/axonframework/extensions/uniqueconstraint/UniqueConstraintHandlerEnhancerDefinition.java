@@ -1,34 +1,43 @@
 package org.axonframework.extensions.uniqueconstraint;
 
 import org.axonframework.commandhandling.CommandMessage;
-import org.axonframework.common.ReflectionUtils;
-import org.axonframework.extensions.uniqueconstraint.UniqueConstraintValidator.ValidatorInstance;
+import org.axonframework.eventhandling.EventMessage;
 import org.axonframework.messaging.Message;
 import org.axonframework.messaging.annotation.HandlerEnhancerDefinition;
 import org.axonframework.messaging.annotation.MessageHandlingMember;
 import org.axonframework.messaging.annotation.WrappedMessageHandlingMember;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
 import org.axonframework.modelling.command.AggregateLifecycle;
 import org.axonframework.modelling.command.AggregateScopeDescriptor;
 import org.axonframework.modelling.command.TargetAggregateIdentifier;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Method;
-import java.util.HashMap;
+import java.lang.reflect.Executable;
+import java.util.IdentityHashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.function.Supplier;
 
 /**
  * Implementation of a {@link HandlerEnhancerDefinition} that configures a {@link UniqueConstraintValidator} for each
  * command handler if a field in the aggregate is annotated using {@link TargetAggregateIdentifier}.
  * <p>
  * This enhancer is capable of enhancing both constructors and regular commands. However, it is only able to check
- * constraints in top level class of the entity hierarchy; the aggregate root.
+ * constraints in top level class of the entity hierarchy; the aggregate root. The constraints of a class are read
+ * using its {@link ConstraintAccessorPlan}, which is created once and shared by all command handlers of the class.
+ * Command handlers annotated with {@link AffectsUniqueConstraints} only read and check the named constraints, and are
+ * not wrapped when no constraints are named.
+ * <p>
+ * When the aggregate is annotated with {@link TrackUniqueConstraintChanges}, its event sourcing handlers are wrapped
+ * instead of its command handlers, so only commands that apply events read constraint values.
  *
  * @author Mitchell Herrijgers
  * @since 0.0.1
  */
 public class UniqueConstraintHandlerEnhancerDefinition implements HandlerEnhancerDefinition {
 
+    private static final Supplier<Object> AGGREGATE_IDENTIFIER =
+            UniqueConstraintHandlerEnhancerDefinition::getAggregateIdentifier;
+
     private static UniqueConstraintValidator uniqueConstraintValidator;
 
     /**
@@ -47,65 +56,141 @@ public class UniqueConstraintHandlerEnhancerDefinition implements HandlerEnhance
 
     @Override
     public <T> MessageHandlingMember<T> wrapHandler(MessageHandlingMember<T> messageHandlingMember) {
-        if (!messageHandlingMember.canHandleMessageType(CommandMessage.class)) {
+        boolean commandHandler = messageHandlingMember.canHandleMessageType(CommandMessage.class);
+        if (!commandHandler && !messageHandlingMember.canHandleMessageType(EventMessage.class)) {
             return messageHandlingMember;
         }
 
-        Map<String, Function<Object, Object>> constraintFields = determineConstraintFields(messageHandlingMember.declaringClass());
-        if (constraintFields.isEmpty()) {
+        Class<?> declaringClass = messageHandlingMember.declaringClass();
+        boolean trackChanges = declaringClass.isAnnotationPresent(TrackUniqueConstraintChanges.class);
+        if (commandHandler == trackChanges) {
             return messageHandlingMember;
         }
 
+        ConstraintAccessorPlan plan = ConstraintAccessorPlan.forClass(declaringClass);
+        if (plan.isEmpty()) {
+            return messageHandlingMember;
+        }
+        ConstraintAccessorPlan affectedPlan = messageHandlingMember
+                .unwrap(Executable.class)
+                .map(executable -> executable.getAnnotation(AffectsUniqueConstraints.class))
+                .map(annotation -> plan.restrictTo(annotation.value()))
+                .orElse(plan);
+        if (affectedPlan.isEmpty()) {
+            return messageHandlingMember;
+        }
+
+        if (trackChanges) {
+            return new ChangeTrackingMessageHandlingMember<>(messageHandlingMember, plan, affectedPlan);
+        }
         return new WrappedMessageHandlingMember<T>(messageHandlingMember) {
             @Override
             public Object handle(Message<?> message, T target) throws Exception {
-                if (uniqueConstraintValidator == null) {
-                    throw new IllegalArgumentException(
-                            "Unique constraint validator was not initialized! Check the documentation for more information");
-                }
+                UniqueConstraintValidator validator = validator();
                 if (target == null) {
                     Object aggregate = super.handle(message, null);
-                    configureValidator(aggregate, constraintFields).check();
+                    validator.check(affectedPlan, aggregate, AGGREGATE_IDENTIFIER);
                     return aggregate;
                 } else {
-                    return configureValidator(target, constraintFields)
-                            .checkForInterceptor(() -> super.handle(message, target));
+                    Object[] valuesBefore = affectedPlan.readValues(target);
+                    Object result = super.handle(message, target);
+                    validator.checkChanges(affectedPlan, target, valuesBefore, AGGREGATE_IDENTIFIER);
+                    return result;
                 }
             }
         };
     }
 
-    private Map<String, Function<Object, Object>> determineConstraintFields(Class<?> clazz) {
-        Map<String, Function<Object, Object>> resultMap = new HashMap<>();
-        for (Field field : ReflectionUtils.fieldsOf(clazz)) {
-            if (field.isAnnotationPresent(AggregateUniqueConstraint.class)) {
-                AggregateUniqueConstraint annotation = field.getAnnotation(AggregateUniqueConstraint.class);
-                resultMap.put(annotation.constraintName(),
-                              (instance) -> ReflectionUtils.getFieldValue(field, instance));
+    private static UniqueConstraintValidator validator() {
+        UniqueConstraintValidator validator = uniqueConstraintValidator;
+        if (validator == null) {
+            throw new IllegalArgumentException(
+                    "Unique constraint validator was not initialized! Check the documentation for more information");
+        }
+        return validator;
+    }
+
+    private static Object getAggregateIdentifier() {
+        AggregateScopeDescriptor scopeDescriptor = (AggregateScopeDescriptor) AggregateLifecycle.describeCurrentScope();
+        return scopeDescriptor.getIdentifier();
+    }
+
+    /**
+     * Event sourcing handler of an aggregate annotated with {@link TrackUniqueConstraintChanges}. When invoked on the
+     * live aggregate, it reads the values of the constraints it affects that were not read before in the current
+     * {@link UnitOfWork}, and registers the check of the aggregate's constraints when the Unit of Work prepares to
+     * commit.
+     */
+    private static class ChangeTrackingMessageHandlingMember<T> extends WrappedMessageHandlingMember<T> {
+
+        private static final String TRACKERS_RESOURCE = "UniqueConstraintChangeTrackers";
+
+        private final ConstraintAccessorPlan plan;
+        private final int[] affectedIndexes;
+
+        private ChangeTrackingMessageHandlingMember(MessageHandlingMember<T> delegate,
+                                                    ConstraintAccessorPlan plan,
+                                                    ConstraintAccessorPlan affectedPlan) {
+            super(delegate);
+            this.plan = plan;
+            this.affectedIndexes = new int[affectedPlan.size()];
+            for (int i = 0; i < affectedIndexes.length; i++) {
+                affectedIndexes[i] = plan.indexOf(affectedPlan.constraintName(i));
             }
         }
 
-        for (Method method : ReflectionUtils.methodsOf(clazz)) {
-            if (method.isAnnotationPresent(AggregateUniqueConstraint.class)) {
-                AggregateUniqueConstraint annotation = method.getAnnotation(AggregateUniqueConstraint.class);
-                resultMap.put(annotation.constraintName(),
-                              (instance) -> ReflectionUtils.invokeAndGetMethodValue(method, instance));
+        @Override
+        public Object handle(Message<?> message, T target) throws Exception {
+            if (target != null && CurrentUnitOfWork.isStarted() && AggregateLifecycle.isLive()) {
+                trackerOf(target, CurrentUnitOfWork.get()).readBefore(affectedIndexes);
             }
+            return super.handle(message, target);
         }
-        return resultMap;
-    }
 
-    private ValidatorInstance configureValidator(Object constructedAggregate,
-                                                 Map<String, Function<Object, Object>> constraintFields) {
-        ValidatorInstance validator = uniqueConstraintValidator.forAggregate(this::getAggregateIdentifier);
-        for (Map.Entry<String, Function<Object, Object>> entry : constraintFields.entrySet()) {
-            validator.addConstraint(entry.getKey(), () -> entry.getValue().apply(constructedAggregate));
+        private ConstraintChangeTracker trackerOf(T target, UnitOfWork<?> unitOfWork) {
+            Map<Object, ConstraintChangeTracker> trackers =
+                    unitOfWork.getOrComputeResource(TRACKERS_RESOURCE, key -> new IdentityHashMap<>());
+            ConstraintChangeTracker tracker = trackers.get(target);
+            if (tracker == null) {
+                UniqueConstraintValidator validator = validator();
+                AggregateScopeDescriptor scope = (AggregateScopeDescriptor) AggregateLifecycle.describeCurrentScope();
+                ConstraintChangeTracker newTracker = new ConstraintChangeTracker(plan, target);
+                unitOfWork.onPrepareCommit(u -> validator.checkChanges(plan,
+                                                                       target,
+                                                                       newTracker.valuesBefore,
+                                                                       newTracker.readBefore,
+                                                                       scope::getIdentifier));
+                trackers.put(target, newTracker);
+                tracker = newTracker;
+            }
+            return tracker;
         }
-        return validator;
     }
 
-    private Object getAggregateIdentifier() {
-        AggregateScopeDescriptor scopeDescriptor = (AggregateScopeDescriptor) AggregateLifecycle.describeCurrentScope();
-        return scopeDescriptor.getIdentifier();
+    /**
+     * The constraint values of a single aggregate before the first event sourcing handler affecting them was invoked.
+     */
+    private static class ConstraintChangeTracker {
+
+        private final ConstraintAccessorPlan plan;
+        private final Object aggregate;
+        private final Object[] valuesBefore;
+        private final boolean[] readBefore;
+
+        private ConstraintChangeTracker(ConstraintAccessorPlan plan, Object aggregate) {
+            this.plan = plan;
+            this.aggregate = aggregate;
+            this.valuesBefore = new Object[plan.valueCount()];
+            this.readBefore = new boolean[plan.size()];
+        }
+
+        private void readBefore(int[] indexes) {
+            for (int index : indexes) {
+                if (!readBefore[index]) {
+                    plan.readValues(index, aggregate, valuesBefore);
+                    readBefore[index] = true;
+                }
+            }
+        }
     }
 }
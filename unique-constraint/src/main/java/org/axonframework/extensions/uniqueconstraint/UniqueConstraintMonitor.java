@@ -0,0 +1,44 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+/**
+ * Receives notifications of the work done by the {@link UniqueConstraintValidator} and
+ * {@link EventStoreUniqueConstraintStore}, to be able to measure how much of the command handling time is spent on
+ * checking constraints. All methods do nothing by default.
+ * <p>
+ * Claims and releases themselves can be measured by decorating the {@link UniqueConstraintStore}, as done by the
+ * {@link org.axonframework.extensions.uniqueconstraint.micrometer.MetricsUniqueConstraintStore}.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public interface UniqueConstraintMonitor {
+
+    /**
+     * Invoked by the {@link UniqueConstraintValidator} when the value of a constraint was not changed by a command, so
+     * the store did not have to be consulted.
+     *
+     * @param constraintName The name of the constraint.
+     */
+    default void onUnchangedValue(String constraintName) {
+    }
+
+    /**
+     * Invoked by the {@link EventStoreUniqueConstraintStore} after reading the state of constraint keys from the event
+     * store, for keys that could not be answered from the cache or the {@link ConstraintKeyFilter}.
+     *
+     * @param keyCount      The amount of constraint keys read.
+     * @param durationNanos The time the read took, in nanoseconds.
+     */
+    default void onClaimStateRead(int keyCount, long durationNanos) {
+    }
+
+    /**
+     * Invoked by the {@link EventStoreUniqueConstraintStore} when a claim was rejected without consulting the event
+     * store, because another owner was claiming the same constraint key on this node.
+     *
+     * @param constraintName The name of the constraint.
+     * @param constraintKey  The key of the contended value.
+     */
+    default void onClaimContention(String constraintName, String constraintKey) {
+    }
+}
@@ -0,0 +1,255 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.common.BuilderUtils;
+
+
+/**
+ * The settings of a single unique constraint, registered by name in the {@link UniqueConstraintSettingsRegistry}.
+ * Settings that are not configured fall back to the configuration of the extension:
+ * <ul>
+ *     <li>The {@link UniqueConstraintStore} claiming the values of the constraint. Defaults to the store of the
+ *     extension.</li>
+ *     <li>The {@link ConstraintKeyProvider} determining the keys of the constraint in the store of the extension.
+ *     Defaults to the key provider of the extension. A constraint with its own store uses the key provider that store
+ *     was built with.</li>
+ *     <li>Whether the claim state of the constraint's keys is cached, see {@link ConstraintClaimStateCache}. Only
+ *     applies to constraints claimed in the store of the extension. Cached constraints trade the read of each claim
+ *     for the chance of a conflict detected by the event store instead of the extension. Defaults to
+ *     {@code false}.</li>
+ *     <li>Whether values are case-insensitive, and whether they are normalized. Normalized values are trimmed and
+ *     brought to Unicode normalization form NFKC, so {@code "ｆｏｏ "} and {@code "foo"} are the same value. Both default
+ *     to {@code false}.</li>
+ * </ul>
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class UniqueConstraintSettings {
+
+    private static final UniqueConstraintSettings DEFAULT = builder().build();
+
+    private final UniqueConstraintStore store;
+    private final ConstraintKeyProvider keyProvider;
+    private final boolean cached;
+    private final boolean caseInsensitive;
+    private final boolean normalized;
+    private final ConstraintValueNormalizer normalizer;
+
+    /**
+     * Creates new {@link UniqueConstraintSettings} with the builder's configuration.
+     *
+     * @param builder The builder to use.
+     */
+    protected UniqueConstraintSettings(Builder builder) {
+        builder.validate();
+        this.store = builder.store;
+        this.keyProvider = builder.keyProvider;
+        this.cached = builder.cached;
+        this.caseInsensitive = builder.caseInsensitive;
+        this.normalized = builder.normalized;
+        this.normalizer = builder.normalizer();
+    }
+
+    /**
+     * Creates a new builder to construct new {@link UniqueConstraintSettings}.
+     * <p>
+     * None of the settings are required. The store and key provider default to those of the extension, and the
+     * constraint is not cached, case-insensitive or normalized by default.
+     *
+     * @return A builder suitable to construct new {@link UniqueConstraintSettings}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The settings of constraints that have no settings registered.
+     *
+     * @return The default {@link UniqueConstraintSettings}.
+     */
+    public static UniqueConstraintSettings defaultSettings() {
+        return DEFAULT;
+    }
+
+    /**
+     * The {@link UniqueConstraintStore} of the constraint.
+     *
+     * @return The store of the constraint, or {@code null} if it uses the store of the extension.
+     */
+    public UniqueConstraintStore getStore() {
+        return store;
+    }
+
+    /**
+     * The {@link ConstraintKeyProvider} of the constraint.
+     *
+     * @return The key provider of the constraint, or {@code null} if it uses the key provider of the extension.
+     */
+    public ConstraintKeyProvider getKeyProvider() {
+        return keyProvider;
+    }
+
+    /**
+     * Whether the claim state of the constraint's keys is cached.
+     *
+     * @return {@code true} if the claim state is cached.
+     */
+    public boolean isCached() {
+        return cached;
+    }
+
+    /**
+     * Whether the values of the constraint are case-insensitive.
+     *
+     * @return {@code true} if values differing only in case are the same value.
+     */
+    public boolean isCaseInsensitive() {
+        return caseInsensitive;
+    }
+
+    /**
+     * Whether the values of the constraint are trimmed and brought to Unicode normalization form NFKC.
+     *
+     * @return {@code true} if the values are normalized.
+     */
+    public boolean isNormalized() {
+        return normalized;
+    }
+
+    /**
+     * Brings the given {@code value} of the constraint to the form in which it is claimed, according to these
+     * settings.
+     *
+     * @param value The value to normalize.
+     * @return The normalized value, which is the given {@code value} when it needs no normalization.
+     */
+    public String normalize(String value) {
+        return normalizer != null ? normalizer.normalize(value).toString() : value;
+    }
+
+    /**
+     * A new builder to construct new {@link UniqueConstraintSettings}.
+     * <p>
+     * None of the settings are required. The store and key provider default to those of the extension, and the
+     * constraint is not cached, case-insensitive or normalized by default.
+     */
+    public static class Builder {
+
+        private UniqueConstraintStore store;
+        private ConstraintKeyProvider keyProvider;
+        private boolean cached;
+        private boolean caseInsensitive;
+        private boolean normalized;
+        private ConstraintValueNormalizer customNormalizer;
+
+        /**
+         * The {@link UniqueConstraintStore} claiming the values of the constraint, instead of the store of the
+         * extension. The store determines the keys of the values itself, so it cannot be combined with a
+         * {@link #keyProvider(ConstraintKeyProvider) key provider}. Configure the key provider on the store instead, for
+         * example using
+         * {@link org.axonframework.extensions.uniqueconstraint.jdbc.JdbcUniqueConstraintStore.Builder#constraintValueProvider}.
+         *
+         * @param store The {@link UniqueConstraintStore} of the constraint.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder store(UniqueConstraintStore store) {
+            BuilderUtils.assertNonNull(store, "store cannot be null!");
+            this.store = store;
+            return this;
+        }
+
+        /**
+         * The {@link ConstraintKeyProvider} determining the keys of the constraint in the store of the extension.
+         * Cannot be combined with a {@link #store(UniqueConstraintStore) store} of the constraint.
+         *
+         * @param keyProvider The {@link ConstraintKeyProvider} of the constraint.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder keyProvider(ConstraintKeyProvider keyProvider) {
+            BuilderUtils.assertNonNull(keyProvider, "keyProvider cannot be null!");
+            this.keyProvider = keyProvider;
+            return this;
+        }
+
+        /**
+         * Whether the claim state of the constraint's keys is cached. Defaults to {@code false}.
+         *
+         * @param cached Whether the claim state is cached.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder cached(boolean cached) {
+            this.cached = cached;
+            return this;
+        }
+
+        /**
+         * Whether values differing only in case are the same value. Defaults to {@code false}.
+         *
+         * @param caseInsensitive Whether the values are case-insensitive.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder caseInsensitive(boolean caseInsensitive) {
+            this.caseInsensitive = caseInsensitive;
+            return this;
+        }
+
+        /**
+         * Whether values are trimmed and brought to Unicode normalization form NFKC. Defaults to {@code false}.
+         *
+         * @param normalized Whether the values are normalized.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder normalized(boolean normalized) {
+            this.normalized = normalized;
+            return this;
+        }
+
+        /**
+         * A custom {@link ConstraintValueNormalizer} of the values, applied after the normalization and conversion to
+         * lower case of these settings. Defaults to none.
+         *
+         * @param normalizer The custom {@link ConstraintValueNormalizer}.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder normalizer(ConstraintValueNormalizer normalizer) {
+            BuilderUtils.assertNonNull(normalizer, "normalizer cannot be null!");
+            this.customNormalizer = normalizer;
+            return this;
+        }
+
+        private ConstraintValueNormalizer normalizer() {
+            ConstraintValueNormalizer result = null;
+            if (normalized) {
+                result = new ConstraintValueNormalizer.Nfkc().andThen(new ConstraintValueNormalizer.Trim());
+            }
+            if (caseInsensitive) {
+                result = append(result, new ConstraintValueNormalizer.LowerCase());
+            }
+            return append(result, customNormalizer);
+        }
+
+        private static ConstraintValueNormalizer append(ConstraintValueNormalizer first,
+                                                        ConstraintValueNormalizer next) {
+            if (next == null) {
+                return first;
+            }
+            return first == null ? next : first.andThen(next);
+        }
+
+        protected void validate() {
+            BuilderUtils.assertThat(store,
+                                    s -> s == null || (keyProvider == null && !cached),
+                                    "The keyProvider and cached settings cannot be combined with a store, "
+                                            + "since that store determines its own keys and caching");
+        }
+
+        /**
+         * Builds the {@link UniqueConstraintSettings} using the configuration acquired.
+         *
+         * @return The {@link UniqueConstraintSettings}
+         */
+        public UniqueConstraintSettings build() {
+            return new UniqueConstraintSettings(this);
+        }
+    }
+}
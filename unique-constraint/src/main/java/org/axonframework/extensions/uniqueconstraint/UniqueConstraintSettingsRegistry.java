@@ -0,0 +1,119 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.common.BuilderUtils;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Registry of the {@link UniqueConstraintSettings} of constraints by their name. Constraints without registered
+ * settings use the {@link UniqueConstraintSettings#defaultSettings() default settings}. Register the registry as a
+ * component to have the {@link UniqueConstraintConfigurerModule} apply it:
+ * <pre>{@code
+ * configurer.registerComponent(UniqueConstraintSettingsRegistry.class, c -> UniqueConstraintSettingsRegistry
+ *         .builder()
+ *         .constraint("RoomNumber", UniqueConstraintSettings.builder().store(jdbcStore).build())
+ *         .constraint("Email", UniqueConstraintSettings.builder().caseInsensitive(true).build())
+ *         .build());
+ * }</pre>
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class UniqueConstraintSettingsRegistry {
+
+    private final Map<String, UniqueConstraintSettings> settings;
+
+    /**
+     * Creates a new {@link UniqueConstraintSettingsRegistry} with the builder's configuration.
+     *
+     * @param builder The builder to use.
+     */
+    protected UniqueConstraintSettingsRegistry(Builder builder) {
+        builder.validate();
+        this.settings = new HashMap<>(builder.settings);
+    }
+
+    /**
+     * Creates a new builder to construct a new {@link UniqueConstraintSettingsRegistry}.
+     * <p>
+     * No settings are required to be registered.
+     *
+     * @return A builder suitable to construct a new {@link UniqueConstraintSettingsRegistry}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The settings of the constraint with the given {@code constraintName}.
+     *
+     * @param constraintName The name of the constraint.
+     * @return The registered {@link UniqueConstraintSettings}, or the default settings if none are registered.
+     */
+    public UniqueConstraintSettings settingsOf(String constraintName) {
+        return settings.getOrDefault(constraintName, UniqueConstraintSettings.defaultSettings());
+    }
+
+    /**
+     * The names of the constraints that have settings registered.
+     *
+     * @return The names of the constraints with settings.
+     */
+    public Set<String> constraintNames() {
+        return Collections.unmodifiableSet(settings.keySet());
+    }
+
+    /**
+     * Brings the given {@code value} of the constraint with the given {@code constraintName} to the form in which it
+     * is claimed. See {@link UniqueConstraintSettings#normalize(String)}.
+     *
+     * @param constraintName The name of the constraint.
+     * @param value          The value to normalize.
+     * @return The normalized value.
+     */
+    public String normalize(String constraintName, String value) {
+        UniqueConstraintSettings constraintSettings = settings.get(constraintName);
+        return constraintSettings != null ? constraintSettings.normalize(value) : value;
+    }
+
+    /**
+     * A new builder to construct a new {@link UniqueConstraintSettingsRegistry}.
+     * <p>
+     * No settings are required to be registered.
+     */
+    public static class Builder {
+
+        private final Map<String, UniqueConstraintSettings> settings = new HashMap<>();
+
+        /**
+         * Registers the {@link UniqueConstraintSettings} of the constraint with the given {@code constraintName},
+         * replacing any settings registered before.
+         *
+         * @param constraintName The name of the constraint.
+         * @param settings       The {@link UniqueConstraintSettings} of the constraint.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder constraint(String constraintName, UniqueConstraintSettings settings) {
+            BuilderUtils.assertNonEmpty(constraintName, "constraintName cannot be null or empty!");
+            BuilderUtils.assertNonNull(settings, "settings cannot be null!");
+            this.settings.put(constraintName, settings);
+            return this;
+        }
+
+        protected void validate() {
+            // All fields have valid defaults
+        }
+
+        /**
+         * Builds the {@link UniqueConstraintSettingsRegistry} using the configuration acquired.
+         *
+         * @return The {@link UniqueConstraintSettingsRegistry}
+         */
+        public UniqueConstraintSettingsRegistry build() {
+            return new UniqueConstraintSettingsRegistry(this);
+        }
+    }
+}
@@ -4,14 +4,18 @@ import org.axonframework.common.BuilderUtils;
 import org.axonframework.eventsourcing.eventstore.EventStore;
 import org.axonframework.messaging.InterceptorChain;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.function.Supplier;
 
 /**
  * Component which valides unique constraints against the {@link EventStore}. Will check values before and after command
  * execution and when will try to (un)claim values when appropriate. When claims are already taken, a
  * {@link UniqueConstraintClaimException} is thrown.
+ * <p>
+ * If the {@link UniqueConstraintStore} is a {@link BatchUniqueConstraintStore}, all claims and releases caused by a
+ * single command are applied to the store at once.
  *
  * @author Mitchell Herrijgers
  * @since 0.0.1
@@ -19,6 +23,9 @@ import java.util.function.Supplier;
 public class UniqueConstraintValidator {
 
     private final UniqueConstraintStore constraintStore;
+    private final BatchUniqueConstraintStore batchConstraintStore;
+    private final UniqueConstraintMonitor monitor;
+    private final UniqueConstraintSettingsRegistry settingsRegistry;
 
     /**
      * Creates a new {@link UniqueConstraintValidator} with the builder's configuration.
@@ -28,6 +35,11 @@ public class UniqueConstraintValidator {
     protected UniqueConstraintValidator(Builder builder) {
         builder.validate();
         this.constraintStore = builder.constraintStore;
+        this.batchConstraintStore = constraintStore instanceof BatchUniqueConstraintStore
+                ? (BatchUniqueConstraintStore) constraintStore
+                : null;
+        this.monitor = builder.monitor;
+        this.settingsRegistry = builder.settingsRegistry;
     }
 
     /**
@@ -40,6 +52,249 @@ public class UniqueConstraintValidator {
         return new ValidatorInstance(aggregateIdSupplier);
     }
 
+    /**
+     * Checks the constraints of the {@code aggregate} after a command was handled, comparing the values with the
+     * {@code valuesBefore} read from the {@link ConstraintAccessorPlan} before the command was handled. Constraints
+     * that changed are released and claimed.
+     * <p>
+     * This is the allocation-free equivalent of {@link ValidatorInstance#checkForInterceptor(InterceptorChain)}, used
+     * when the constraints of the aggregate are described by a {@link ConstraintAccessorPlan}.
+     *
+     * @param plan                The {@link ConstraintAccessorPlan} of the aggregate's class.
+     * @param aggregate           The aggregate after the command was handled.
+     * @param valuesBefore        The values read using {@link ConstraintAccessorPlan#readValues(Object)} before the
+     *                            command was handled, indexed by value index.
+     * @param aggregateIdSupplier Supplier of the aggregate id value.
+     */
+    public void checkChanges(ConstraintAccessorPlan plan,
+                             Object aggregate,
+                             Object[] valuesBefore,
+                             Supplier<Object> aggregateIdSupplier) {
+        checkChanges(plan, aggregate, valuesBefore, null, aggregateIdSupplier);
+    }
+
+    /**
+     * Checks the constraints of the {@code aggregate} like {@link #checkChanges(ConstraintAccessorPlan, Object,
+     * Object[], Supplier)}, but only those of which the value before was read, as indicated by {@code readBefore}.
+     * Used when the values before are read lazily, see {@link TrackUniqueConstraintChanges}.
+     *
+     * @param plan                The {@link ConstraintAccessorPlan} of the aggregate's class.
+     * @param aggregate           The aggregate after the command was handled.
+     * @param valuesBefore        The values of the constraints before the command was handled, indexed by value index.
+     * @param readBefore          Whether the value before was read, per constraint, or {@code null} if all were read.
+     * @param aggregateIdSupplier Supplier of the aggregate id value.
+     */
+    public void checkChanges(ConstraintAccessorPlan plan,
+                             Object aggregate,
+                             Object[] valuesBefore,
+                             boolean[] readBefore,
+                             Supplier<Object> aggregateIdSupplier) {
+        List<ConstraintChange> changes = null;
+        for (int i = 0; i < plan.size(); i++) {
+            if (readBefore != null && !readBefore[i]) {
+                continue;
+            }
+            changes = checkConstraintOfPlan(plan, i, aggregate, valuesBefore, aggregateIdSupplier, changes);
+        }
+        applyChanges(changes, aggregateIdSupplier);
+    }
+
+    /**
+     * Checks the constraints of the {@code aggregate} as they are now, claiming all values that are present. Usable
+     * after an aggregate was created.
+     *
+     * @param plan                The {@link ConstraintAccessorPlan} of the aggregate's class.
+     * @param aggregate           The aggregate to check.
+     * @param aggregateIdSupplier Supplier of the aggregate id value.
+     */
+    public void check(ConstraintAccessorPlan plan, Object aggregate, Supplier<Object> aggregateIdSupplier) {
+        List<ConstraintChange> changes = null;
+        for (int i = 0; i < plan.size(); i++) {
+            changes = checkConstraintOfPlan(plan, i, aggregate, null, aggregateIdSupplier, changes);
+        }
+        applyChanges(changes, aggregateIdSupplier);
+    }
+
+    /**
+     * Returns the value the constraint at the given {@code index} of the {@code plan} claims for the {@code aggregate}
+     * as it is now, after normalizing it and combining the components of a composite constraint.
+     *
+     * @param plan      The {@link ConstraintAccessorPlan} of the aggregate's class.
+     * @param index     The index of the constraint in the plan.
+     * @param aggregate The aggregate to read the value of.
+     * @return The value claimed for the constraint, or {@code null} if it claims no value.
+     */
+    public String claimedValue(ConstraintAccessorPlan plan, int index, Object aggregate) {
+        int valueIndex = plan.valueIndex(index);
+        if (plan.componentCount(index) == 1) {
+            return normalizedValue(plan.constraintName(index),
+                                   plan.normalizer(valueIndex),
+                                   plan.readValue(valueIndex, aggregate));
+        }
+        Object[] values = new Object[plan.valueCount()];
+        plan.readValues(index, aggregate, values);
+        return compositeValue(plan, index, values);
+    }
+
+    /**
+     * Releases and claims the constraint at the given {@code index} of the {@code plan} if its value changed. The
+     * components of a composite constraint are compared one by one, and only combined into the claimed value when any
+     * of them changed.
+     */
+    private List<ConstraintChange> checkConstraintOfPlan(ConstraintAccessorPlan plan,
+                                                         int index,
+                                                         Object aggregate,
+                                                         Object[] valuesBefore,
+                                                         Supplier<Object> aggregateIdSupplier,
+                                                         List<ConstraintChange> changes) {
+        int valueIndex = plan.valueIndex(index);
+        int componentCount = plan.componentCount(index);
+        if (componentCount == 1) {
+            return executeChecksAndClaimsForConstraint(plan.constraintName(index),
+                                                       plan.normalizer(valueIndex),
+                                                       valuesBefore != null ? valuesBefore[valueIndex] : null,
+                                                       plan.readValue(valueIndex, aggregate),
+                                                       aggregateIdSupplier,
+                                                       changes);
+        }
+
+        String constraintName = plan.constraintName(index);
+        boolean changed = valuesBefore == null;
+        for (int i = valueIndex; i < valueIndex + componentCount && !changed; i++) {
+            Object before = valuesBefore[i];
+            Object after = plan.readValue(i, aggregate);
+            changed = before != after && (before == null || !before.equals(after));
+        }
+        if (!changed) {
+            monitor.onUnchangedValue(constraintName);
+            return changes;
+        }
+        Object[] valuesAfter = new Object[plan.valueCount()];
+        plan.readValues(index, aggregate, valuesAfter);
+        String valueBefore = valuesBefore != null ? compositeValue(plan, index, valuesBefore) : null;
+        return claimChanges(constraintName,
+                            valueBefore,
+                            compositeValue(plan, index, valuesAfter),
+                            aggregateIdSupplier,
+                            changes);
+    }
+
+    /**
+     * Combines the normalized values of the components of a composite constraint into the value that is claimed. The
+     * components are separated by {@code '|'}, escaping {@code '|'} and {@code '\'} in the values with a {@code '\'}.
+     *
+     * @return The value of the constraint, or {@code null} if any of its components is {@code null}.
+     */
+    private String compositeValue(ConstraintAccessorPlan plan, int index, Object[] values) {
+        int valueIndex = plan.valueIndex(index);
+        StringBuilder result = new StringBuilder();
+        for (int i = valueIndex; i < valueIndex + plan.componentCount(index); i++) {
+            if (values[i] == null) {
+                return null;
+            }
+            CharSequence component = values[i] instanceof CharSequence
+                    ? (CharSequence) values[i]
+                    : values[i].toString();
+            if (plan.normalizer(i) != null) {
+                component = plan.normalizer(i).normalize(component);
+            }
+            if (i > valueIndex) {
+                result.append('|');
+            }
+            for (int c = 0; c < component.length(); c++) {
+                char character = component.charAt(c);
+                if (character == '|' || character == '\\') {
+                    result.append('\\');
+                }
+                result.append(character);
+            }
+        }
+        String value = result.toString();
+        return settingsRegistry != null ? settingsRegistry.normalize(plan.constraintName(index), value) : value;
+    }
+
+    /**
+     * Releases and claims the constraint if its value changed. If the store is a {@link BatchUniqueConstraintStore},
+     * the changes are added to the given {@code changes} instead, creating the list when needed, to be applied at once
+     * using {@link #applyChanges(List, Supplier)}.
+     *
+     * <p>
+     * Values that are the same instance or equal are unchanged without converting them to a {@link String}.
+     *
+     * @return The list of changes to apply as a batch, or {@code null} if there are none.
+     */
+    private List<ConstraintChange> executeChecksAndClaimsForConstraint(String constraintName,
+                                                                       ConstraintValueNormalizer normalizer,
+                                                                       Object oldValue,
+                                                                       Object newValue,
+                                                                       Supplier<Object> aggregateIdSupplier,
+                                                                       List<ConstraintChange> changes) {
+        if (oldValue == newValue || (oldValue != null && oldValue.equals(newValue))) {
+            monitor.onUnchangedValue(constraintName);
+            return changes;
+        }
+        return claimChanges(constraintName,
+                            normalizedValue(constraintName, normalizer, oldValue),
+                            normalizedValue(constraintName, normalizer, newValue),
+                            aggregateIdSupplier,
+                            changes);
+    }
+
+    private List<ConstraintChange> claimChanges(String constraintName,
+                                                String valueBefore,
+                                                String valueAfter,
+                                                Supplier<Object> aggregateIdSupplier,
+                                                List<ConstraintChange> changes) {
+        if (valueBefore == null ? valueAfter == null : valueBefore.equals(valueAfter)) {
+            monitor.onUnchangedValue(constraintName);
+            return changes;
+        }
+        if (valueBefore != null && (valueAfter == null || !valueAfter.equals(valueBefore))) {
+            if (batchConstraintStore != null) {
+                changes = addChange(changes, ConstraintChange.release(constraintName, valueBefore));
+            } else {
+                constraintStore.releaseClaimValue(constraintName, valueBefore, aggregateIdSupplier.get().toString());
+            }
+        }
+
+        if (valueAfter != null && (valueBefore == null || !valueBefore.equals(valueAfter))) {
+            if (batchConstraintStore != null) {
+                changes = addChange(changes, ConstraintChange.claim(constraintName, valueAfter));
+            } else {
+                constraintStore.checkAndClaimValue(constraintName, valueAfter, aggregateIdSupplier.get().toString());
+            }
+        }
+        return changes;
+    }
+
+    private static List<ConstraintChange> addChange(List<ConstraintChange> changes, ConstraintChange change) {
+        List<ConstraintChange> result = changes != null ? changes : new ArrayList<>();
+        result.add(change);
+        return result;
+    }
+
+    private void applyChanges(List<ConstraintChange> changes, Supplier<Object> aggregateIdSupplier) {
+        if (changes != null && !changes.isEmpty()) {
+            batchConstraintStore.applyChanges(aggregateIdSupplier.get().toString(), changes);
+        }
+    }
+
+    /**
+     * Converts the value to the {@link String} that is claimed, applying the normalizer of the constraint and the
+     * normalization of its settings. {@link CharSequence}s are normalized without converting them first.
+     */
+    private String normalizedValue(String constraintName, ConstraintValueNormalizer normalizer, Object value) {
+        if (value == null) {
+            return null;
+        }
+        CharSequence chars = value instanceof CharSequence ? (CharSequence) value : value.toString();
+        if (normalizer != null) {
+            chars = normalizer.normalize(chars);
+        }
+        String result = chars.toString();
+        return settingsRegistry != null ? settingsRegistry.normalize(constraintName, result) : result;
+    }
+
     /**
      * Creates a new builder to construct a new {@link UniqueConstraintValidator}.
      * <p>
@@ -59,25 +314,62 @@ public class UniqueConstraintValidator {
      * Recommended usage is by wrapping the command handling method using the
      * {@link #checkForInterceptor(InterceptorChain)} method. This will use change detection and only execute checks and
      * claims on changes.
+     * <p>
+     * The constraints are kept in arrays, in the order they were added. Checking them does not keep any state in the
+     * instance, so an instance built once for an aggregate can be reused for all of its commands.
      */
     public class ValidatorInstance {
 
         private final Supplier<Object> aggregateIdSupplier;
-        private final Map<String, Supplier<Object>> constraintMap = new HashMap<>();
+        private String[] constraintNames = new String[4];
+        @SuppressWarnings("unchecked")
+        private Supplier<Object>[] suppliers = new Supplier[4];
+        private ConstraintValueNormalizer[] normalizers = new ConstraintValueNormalizer[4];
+        private int constraintCount;
 
         private ValidatorInstance(Supplier<Object> aggregateIdSupplier) {
             this.aggregateIdSupplier = aggregateIdSupplier;
         }
 
         /**
-         * Adds a constraint to check after execution of the command.
+         * Adds a constraint to check after execution of the command. Adding a constraint with the same name again
+         * replaces its value supplier.
          *
          * @param constraintName The name of the constraint
          * @param supplier       The value supplier of the constraint.
          * @return The {@link ValidatorInstance}, for fluent interfacing.
          */
         public ValidatorInstance addConstraint(String constraintName, Supplier<Object> supplier) {
-            constraintMap.put(constraintName, supplier);
+            return addConstraint(constraintName, supplier, null);
+        }
+
+        /**
+         * Adds a constraint to check after execution of the command, of which changed values are normalized using the
+         * given {@code normalizer}. Adding a constraint with the same name again replaces its value supplier and
+         * normalizer.
+         *
+         * @param constraintName The name of the constraint
+         * @param supplier       The value supplier of the constraint.
+         * @param normalizer     The {@link ConstraintValueNormalizer} of the constraint, or {@code null} for none.
+         * @return The {@link ValidatorInstance}, for fluent interfacing.
+         */
+        public ValidatorInstance addConstraint(String constraintName,
+                                               Supplier<Object> supplier,
+                                               ConstraintValueNormalizer normalizer) {
+            int index = 0;
+            while (index < constraintCount && !constraintNames[index].equals(constraintName)) {
+                index++;
+            }
+            if (index == constraintCount) {
+                if (constraintCount == constraintNames.length) {
+                    constraintNames = Arrays.copyOf(constraintNames, constraintCount * 2);
+                    suppliers = Arrays.copyOf(suppliers, constraintCount * 2);
+                    normalizers = Arrays.copyOf(normalizers, constraintCount * 2);
+                }
+                constraintNames[constraintCount++] = constraintName;
+            }
+            suppliers[index] = supplier;
+            normalizers[index] = normalizer;
             return this;
         }
 
@@ -90,13 +382,22 @@ public class UniqueConstraintValidator {
          *                         method.
          */
         public Object checkForInterceptor(InterceptorChain interceptorChain) throws Exception {
-            Map<String, Object> valuesBefore = getValues();
+            Object[] valuesBefore = new Object[constraintCount];
+            for (int i = 0; i < constraintCount; i++) {
+                valuesBefore[i] = suppliers[i].get();
+            }
             Object proceed = interceptorChain.proceed();
-            Map<String, Object> valuesAfter = getValues();
 
-            constraintMap.keySet().forEach(key -> executeChecksAndClaimsForConstraint(key,
-                                                                                      valuesBefore.get(key),
-                                                                                      valuesAfter.get(key)));
+            List<ConstraintChange> changes = null;
+            for (int i = 0; i < constraintCount; i++) {
+                changes = executeChecksAndClaimsForConstraint(constraintNames[i],
+                                                              normalizers[i],
+                                                              valuesBefore[i],
+                                                              suppliers[i].get(),
+                                                              aggregateIdSupplier,
+                                                              changes);
+            }
+            applyChanges(changes, aggregateIdSupplier);
             return proceed;
         }
 
@@ -105,41 +406,16 @@ public class UniqueConstraintValidator {
          * after all EventSourcingHandlers have been invoked.
          */
         public void check() {
-            getValues().forEach((key, value) -> executeChecksAndClaimsForConstraint(key, null, value));
-        }
-
-        private Map<String, Object> getValues() {
-            Map<String, Object> values = new HashMap<>();
-            constraintMap.forEach((key, value) -> values.put(key, value.get()));
-            return values;
-        }
-
-        private void executeChecksAndClaimsForConstraint(String constraintName, Object oldValue, Object newValue) {
-            String valueBefore = getNullableValue(oldValue);
-            String valueAfter = getNullableValue(newValue);
-
-            if (valueBefore == null && valueAfter == null) {
-                return;
-            }
-            if (valueBefore != null && (valueAfter == null || !valueAfter.equals(valueBefore))) {
-                constraintStore.releaseClaimValue(constraintName, valueBefore, getAggregateId());
-            }
-
-            if (valueAfter != null && (valueBefore == null || !valueBefore.equals(valueAfter))) {
-                constraintStore.checkAndClaimValue(constraintName, valueAfter, getAggregateId());
+            List<ConstraintChange> changes = null;
+            for (int i = 0; i < constraintCount; i++) {
+                changes = executeChecksAndClaimsForConstraint(constraintNames[i],
+                                                              normalizers[i],
+                                                              null,
+                                                              suppliers[i].get(),
+                                                              aggregateIdSupplier,
+                                                              changes);
             }
-        }
-
-
-        private String getNullableValue(Object value) {
-            if (value == null) {
-                return null;
-            }
-            return value.toString();
-        }
-
-        private String getAggregateId() {
-            return aggregateIdSupplier.get().toString();
+            applyChanges(changes, aggregateIdSupplier);
         }
     }
 
@@ -152,6 +428,8 @@ public class UniqueConstraintValidator {
     public static class Builder {
 
         private UniqueConstraintStore constraintStore;
+        private UniqueConstraintMonitor monitor = NoOpUniqueConstraintMonitor.INSTANCE;
+        private UniqueConstraintSettingsRegistry settingsRegistry;
 
         /**
          * The {@link UniqueConstraintStore} to use when checking constraints. Required to be able to build the
@@ -166,6 +444,33 @@ public class UniqueConstraintValidator {
             return this;
         }
 
+        /**
+         * The {@link UniqueConstraintMonitor} notified of constraints that were not changed by a command. Defaults to
+         * the {@link NoOpUniqueConstraintMonitor}.
+         *
+         * @param monitor The {@link UniqueConstraintMonitor} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder monitor(UniqueConstraintMonitor monitor) {
+            BuilderUtils.assertNonNull(monitor, "monitor cannot be null!");
+            this.monitor = monitor;
+            return this;
+        }
+
+        /**
+         * The {@link UniqueConstraintSettingsRegistry} of which the case-insensitivity and normalization settings are
+         * applied to the values of the constraints before they are compared, claimed and released. Values are not
+         * normalized by default.
+         *
+         * @param settingsRegistry The {@link UniqueConstraintSettingsRegistry} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder settingsRegistry(UniqueConstraintSettingsRegistry settingsRegistry) {
+            BuilderUtils.assertNonNull(settingsRegistry, "settingsRegistry cannot be null!");
+            this.settingsRegistry = settingsRegistry;
+            return this;
+        }
+
         protected void validate() {
             BuilderUtils.assertNonNull(constraintStore, "eventStore cannot be null!");
         }
@@ -0,0 +1,83 @@
+package org.axonframework.extensions.uniqueconstraint.backfill;
+
+import java.util.Objects;
+
+/**
+ * A value of an existing aggregate that the {@link UniqueConstraintBackfill} could not claim, since it was claimed by
+ * another aggregate. None of the values of the aggregate were claimed.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public final class BackfillConflict {
+
+    private final String aggregateIdentifier;
+    private final String constraintName;
+    private final String message;
+
+    /**
+     * Creates a {@link BackfillConflict} for the aggregate with the given identifier.
+     *
+     * @param aggregateIdentifier The identifier of the aggregate of which the values could not be claimed.
+     * @param constraintName      The name of the conflicting constraint, or {@code null} if unknown.
+     * @param message             The message describing the conflict.
+     */
+    public BackfillConflict(String aggregateIdentifier, String constraintName, String message) {
+        this.aggregateIdentifier = aggregateIdentifier;
+        this.constraintName = constraintName;
+        this.message = message;
+    }
+
+    /**
+     * The identifier of the aggregate of which the values could not be claimed.
+     *
+     * @return The aggregate identifier.
+     */
+    public String getAggregateIdentifier() {
+        return aggregateIdentifier;
+    }
+
+    /**
+     * The name of the conflicting constraint, or {@code null} if unknown.
+     *
+     * @return The name of the constraint.
+     */
+    public String getConstraintName() {
+        return constraintName;
+    }
+
+    /**
+     * The message describing the conflict.
+     *
+     * @return The message of the conflict.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        BackfillConflict that = (BackfillConflict) o;
+        return aggregateIdentifier.equals(that.aggregateIdentifier)
+                && Objects.equals(constraintName, that.constraintName)
+                && Objects.equals(message, that.message);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(aggregateIdentifier, constraintName, message);
+    }
+
+    @Override
+    public String toString() {
+        return "BackfillConflict{aggregateIdentifier='" + aggregateIdentifier
+                + "', constraintName='" + constraintName
+                + "', message='" + message + "'}";
+    }
+}
@@ -0,0 +1,57 @@
+package org.axonframework.extensions.uniqueconstraint.backfill;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The outcome of a run of the {@link UniqueConstraintBackfill}.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public final class BackfillResult {
+
+    private final long processedAggregates;
+    private final List<BackfillConflict> conflicts;
+    private final String lastToken;
+
+    /**
+     * Creates the {@link BackfillResult} of a run.
+     *
+     * @param processedAggregates The amount of aggregates processed, including those with conflicts.
+     * @param conflicts           The conflicts found.
+     * @param lastToken           The token of the last aggregate processed.
+     */
+    public BackfillResult(long processedAggregates, List<BackfillConflict> conflicts, String lastToken) {
+        this.processedAggregates = processedAggregates;
+        this.conflicts = Collections.unmodifiableList(conflicts);
+        this.lastToken = lastToken;
+    }
+
+    /**
+     * The amount of aggregates processed, including those of which the values could not be claimed.
+     *
+     * @return The amount of aggregates processed.
+     */
+    public long getProcessedAggregates() {
+        return processedAggregates;
+    }
+
+    /**
+     * The values that could not be claimed since they were claimed by another aggregate.
+     *
+     * @return The conflicts found.
+     */
+    public List<BackfillConflict> getConflicts() {
+        return conflicts;
+    }
+
+    /**
+     * The token of the last aggregate processed, or the token the run started from if there were no aggregates.
+     *
+     * @return The last token.
+     */
+    public String getLastToken() {
+        return lastToken;
+    }
+}
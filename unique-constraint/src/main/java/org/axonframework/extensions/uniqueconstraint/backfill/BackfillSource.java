@@ -0,0 +1,27 @@
+package org.axonframework.extensions.uniqueconstraint.backfill;
+
+import java.util.List;
+
+/**
+ * Source of the existing aggregates of which the {@link UniqueConstraintBackfill} claims the unique constraints. The
+ * aggregates are read in batches, in a stable order, each batch starting after the token of the last aggregate of the
+ * previous batch. Usually this is a query on a projection, such as
+ * {@code SELECT ... WHERE id > :token ORDER BY id LIMIT :maxCount}, or aggregates loaded through a repository for the
+ * identifiers returned by such a query.
+ *
+ * @param <T> The type of the aggregates.
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+@FunctionalInterface
+public interface BackfillSource<T> {
+
+    /**
+     * Reads the next aggregates after the one with the given {@code token}.
+     *
+     * @param token    The token of the last aggregate read, or {@code null} to start at the first aggregate.
+     * @param maxCount The maximum amount of aggregates to return.
+     * @return The next aggregates, or an empty list if all aggregates have been read.
+     */
+    List<T> readAfter(String token, int maxCount);
+}
@@ -0,0 +1,510 @@
+package org.axonframework.extensions.uniqueconstraint.backfill;
+
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.common.BuilderUtils;
+import org.axonframework.common.ReflectionUtils;
+import org.axonframework.common.annotation.AnnotationUtils;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.extensions.uniqueconstraint.BatchUniqueConstraintStore;
+import org.axonframework.extensions.uniqueconstraint.ConstraintAccessorPlan;
+import org.axonframework.extensions.uniqueconstraint.ConstraintChange;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintClaimException;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintSettingsRegistry;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintStore;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintValidator;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.modelling.command.AggregateIdentifier;
+import org.axonframework.modelling.command.ConcurrencyException;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Claims the unique constraints of existing aggregates, for aggregate types that did not declare their
+ * {@link org.axonframework.extensions.uniqueconstraint.AggregateUniqueConstraint}s from the start. Without it, the
+ * values of an existing aggregate are only claimed when it handles its next command.
+ * <p>
+ * The aggregates are read from a {@link BackfillSource} in batches. Every batch is claimed in a single
+ * {@link org.axonframework.messaging.unitofwork.UnitOfWork}, so the
+ * {@link org.axonframework.extensions.uniqueconstraint.EventStoreUniqueConstraintStore} appends the claims of the
+ * whole batch to the event store at once when it commits. Batches are claimed concurrently, by the configured amount
+ * of threads. Values are claimed the same way the {@link UniqueConstraintValidator} claims them for commands, so they
+ * are recognized afterwards.
+ * <p>
+ * Values claimed by another aggregate don't fail the backfill, but are reported as a {@link BackfillConflict} in the
+ * {@link BackfillResult}, and none of the values of that aggregate are claimed. Aggregates of which the values were
+ * claimed before are skipped, so a backfill can be run again. If a batch can't be committed because another node
+ * claimed one of its values in the meantime, its aggregates are claimed one by one instead.
+ * <p>
+ * After every batch, the token of the last aggregate of all batches completed so far is passed to the progress
+ * listener. Store it to resume the backfill from there, by passing it to {@link #run(String)}, when the backfill
+ * fails or is stopped.
+ *
+ * @param <T> The type of the aggregates.
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class UniqueConstraintBackfill<T> {
+
+    private static final String CHUNK_CLAIMS_RESOURCE = "UniqueConstraintBackfillClaims";
+
+    private final ConstraintAccessorPlan plan;
+    private final BackfillSource<T> source;
+    private final UniqueConstraintStore constraintStore;
+    private final UniqueConstraintValidator validator;
+    private final TransactionManager transactionManager;
+    private final Function<T, ?> identifierResolver;
+    private final Function<T, String> tokenResolver;
+    private final Consumer<String> progressListener;
+    private final int batchSize;
+    private final int concurrency;
+
+    /**
+     * Creates a new {@link UniqueConstraintBackfill} with the builder's configuration.
+     *
+     * @param builder The builder to use.
+     */
+    protected UniqueConstraintBackfill(Builder<T> builder) {
+        builder.validate();
+        this.plan = ConstraintAccessorPlan.forClass(builder.aggregateType);
+        this.source = builder.source;
+        this.constraintStore = builder.constraintStore;
+        UniqueConstraintValidator.Builder validatorBuilder = UniqueConstraintValidator.builder()
+                                                                                      .constraintStore(new BatchClaimStore());
+        if (builder.settingsRegistry != null) {
+            validatorBuilder.settingsRegistry(builder.settingsRegistry);
+        }
+        this.validator = validatorBuilder.build();
+        this.transactionManager = builder.transactionManager;
+        this.identifierResolver = builder.identifierResolver != null
+                ? builder.identifierResolver
+                : annotatedIdentifierResolver(builder.aggregateType);
+        this.tokenResolver = builder.tokenResolver != null
+                ? builder.tokenResolver
+                : aggregate -> identifierResolver.apply(aggregate).toString();
+        this.progressListener = builder.progressListener;
+        this.batchSize = builder.batchSize;
+        this.concurrency = builder.concurrency;
+    }
+
+    /**
+     * Creates a new builder to construct a new {@link UniqueConstraintBackfill}.
+     * <p>
+     * Requires the aggregate type, {@link BackfillSource} and {@link UniqueConstraintStore} to be configured. The
+     * identifier of an aggregate defaults to its field annotated with {@link AggregateIdentifier}, and its token to
+     * that identifier. The batch size defaults to {@code 500}, the concurrency to {@code 1} and the
+     * {@link TransactionManager} to the {@link NoTransactionManager}.
+     *
+     * @param <T> The type of the aggregates.
+     * @return A builder suitable to construct a new {@link UniqueConstraintBackfill}.
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Claims the constraints of all aggregates of the {@link BackfillSource}, from the first aggregate on.
+     *
+     * @return The {@link BackfillResult} of the run.
+     */
+    public BackfillResult run() {
+        return run(null);
+    }
+
+    /**
+     * Claims the constraints of the aggregates of the {@link BackfillSource} after the one with the given
+     * {@code token}, waiting until all of them are processed.
+     * <p>
+     * If claiming a batch fails for another reason than a conflict, no new batches are started and the exception is
+     * rethrown once the running batches are completed. The progress listener has received the token to resume from.
+     *
+     * @param token The token to resume from, or {@code null} to start at the first aggregate.
+     * @return The {@link BackfillResult} of the run.
+     */
+    public BackfillResult run(String token) {
+        List<BackfillConflict> conflicts = Collections.synchronizedList(new ArrayList<>());
+        AtomicLong processed = new AtomicLong();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        Progress progress = new Progress(token);
+        Semaphore pendingBatches = new Semaphore(concurrency * 2);
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency,
+                                                                new AxonThreadFactory("UniqueConstraintBackfill"));
+        String lastToken = token;
+        long batchNumber = 0;
+        try {
+            while (failure.get() == null) {
+                List<T> batch = source.readAfter(lastToken, batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                lastToken = tokenResolver.apply(batch.get(batch.size() - 1));
+                long number = batchNumber++;
+                String batchToken = lastToken;
+                pendingBatches.acquire();
+                executor.execute(() -> {
+                    try {
+                        claimBatch(batch, conflicts);
+                        processed.addAndGet(batch.size());
+                        progress.complete(number, batchToken);
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        pendingBatches.release();
+                    }
+                });
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure.compareAndSet(null, new IllegalStateException("Interrupted while running the backfill", e));
+        } finally {
+            executor.shutdown();
+            awaitTermination(executor);
+        }
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return new BackfillResult(processed.get(), new ArrayList<>(conflicts), progress.lastToken());
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        try {
+            while (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                // Keep waiting for the running batches
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Claims the constraints of all aggregates of the batch in a single unit of work. The conflicts are only reported
+     * once the unit of work is committed. If committing fails due to a concurrent claim, every aggregate is claimed in
+     * a unit of work of its own.
+     */
+    private void claimBatch(List<T> batch, List<BackfillConflict> conflicts) {
+        List<BackfillConflict> batchConflicts = new ArrayList<>();
+        try {
+            inUnitOfWork(() -> batch.forEach(aggregate -> claim(aggregate, batchConflicts)));
+            conflicts.addAll(batchConflicts);
+        } catch (ConcurrencyException e) {
+            for (T aggregate : batch) {
+                List<BackfillConflict> aggregateConflicts = new ArrayList<>();
+                try {
+                    inUnitOfWork(() -> claim(aggregate, aggregateConflicts));
+                    conflicts.addAll(aggregateConflicts);
+                } catch (ConcurrencyException ce) {
+                    conflicts.add(new BackfillConflict(identifierOf(aggregate), null, ce.getMessage()));
+                }
+            }
+        }
+    }
+
+    private void claim(T aggregate, List<BackfillConflict> conflicts) {
+        String identifier = identifierOf(aggregate);
+        try {
+            validator.check(plan, aggregate, () -> identifier);
+        } catch (UniqueConstraintClaimException e) {
+            conflicts.add(new BackfillConflict(identifier, e.getConstraintName(), e.getMessage()));
+        }
+    }
+
+    private String identifierOf(T aggregate) {
+        return identifierResolver.apply(aggregate).toString();
+    }
+
+    private void inUnitOfWork(Runnable task) {
+        DefaultUnitOfWork<?> unitOfWork = DefaultUnitOfWork.startAndGet(null);
+        try {
+            unitOfWork.attachTransaction(transactionManager);
+            task.run();
+        } catch (RuntimeException e) {
+            if (unitOfWork.isActive()) {
+                unitOfWork.rollback(e);
+            }
+            throw e;
+        }
+        unitOfWork.commit();
+    }
+
+    private static <T> Function<T, ?> annotatedIdentifierResolver(Class<T> aggregateType) {
+        for (Field field : ReflectionUtils.fieldsOf(aggregateType)) {
+            if (AnnotationUtils.isAnnotationPresent(field, AggregateIdentifier.class)) {
+                ReflectionUtils.ensureAccessible(field);
+                return aggregate -> ReflectionUtils.getFieldValue(field, aggregate);
+            }
+        }
+        throw new IllegalArgumentException(String.format(
+                "Aggregate type %s has no field annotated with @AggregateIdentifier. Configure an identifierResolver.",
+                aggregateType.getName()));
+    }
+
+    /**
+     * {@link BatchUniqueConstraintStore} rejecting claims of values claimed by another aggregate in the same batch,
+     * before passing them on to the configured store. The store can't see those claims yet, since they are only
+     * appended when the unit of work of the batch commits.
+     */
+    private class BatchClaimStore implements BatchUniqueConstraintStore {
+
+        @Override
+        public void checkAndClaimValue(String constraintName, String constraintValue, String owner) {
+            applyChanges(owner, Collections.singletonList(ConstraintChange.claim(constraintName, constraintValue)));
+        }
+
+        @Override
+        public void releaseClaimValue(String constraintName, String constraintValue, String owner) {
+            applyChanges(owner, Collections.singletonList(ConstraintChange.release(constraintName, constraintValue)));
+        }
+
+        @Override
+        public void applyChanges(String owner, List<ConstraintChange> changes) {
+            Map<ConstraintChange, String> batchClaims = CurrentUnitOfWork.get().root().getOrComputeResource(
+                    CHUNK_CLAIMS_RESOURCE, k -> new HashMap<>());
+            for (ConstraintChange change : changes) {
+                String claimant = batchClaims.get(change);
+                if (claimant != null && !claimant.equals(owner)) {
+                    throw new UniqueConstraintClaimException(
+                            String.format("Unique constraint %s was claimed by owner %s. Can not claim it for aggregate %s.",
+                                          change.getConstraintName(),
+                                          claimant,
+                                          owner),
+                            change.getConstraintName());
+                }
+            }
+            if (constraintStore instanceof BatchUniqueConstraintStore) {
+                ((BatchUniqueConstraintStore) constraintStore).applyChanges(owner, changes);
+            } else {
+                for (ConstraintChange change : changes) {
+                    if (change.isClaim()) {
+                        constraintStore.checkAndClaimValue(change.getConstraintName(),
+                                                           change.getConstraintValue(),
+                                                           owner);
+                    } else {
+                        constraintStore.releaseClaimValue(change.getConstraintName(),
+                                                          change.getConstraintValue(),
+                                                          owner);
+                    }
+                }
+            }
+            for (ConstraintChange change : changes) {
+                if (change.isClaim()) {
+                    batchClaims.put(change, owner);
+                }
+            }
+        }
+    }
+
+    /**
+     * Keeps track of the completed batches, passing the token of the last batch of which all preceding batches are
+     * completed as well to the progress listener.
+     */
+    private class Progress {
+
+        private final TreeMap<Long, String> completedOutOfOrder = new TreeMap<>();
+        private long nextBatch;
+        private String lastToken;
+
+        private Progress(String initialToken) {
+            this.lastToken = initialToken;
+        }
+
+        private synchronized void complete(long batchNumber, String token) {
+            completedOutOfOrder.put(batchNumber, token);
+            String completedToken = null;
+            while (!completedOutOfOrder.isEmpty() && completedOutOfOrder.firstKey() == nextBatch) {
+                completedToken = completedOutOfOrder.pollFirstEntry().getValue();
+                nextBatch++;
+            }
+            if (completedToken != null) {
+                lastToken = completedToken;
+                progressListener.accept(completedToken);
+            }
+        }
+
+        private synchronized String lastToken() {
+            return lastToken;
+        }
+    }
+
+    /**
+     * A new builder to construct a new {@link UniqueConstraintBackfill}.
+     * <p>
+     * Requires the aggregate type, {@link BackfillSource} and {@link UniqueConstraintStore} to be configured. The
+     * identifier of an aggregate defaults to its field annotated with {@link AggregateIdentifier}, and its token to
+     * that identifier. The batch size defaults to {@code 500}, the concurrency to {@code 1} and the
+     * {@link TransactionManager} to the {@link NoTransactionManager}.
+     *
+     * @param <T> The type of the aggregates.
+     */
+    public static class Builder<T> {
+
+        private Class<T> aggregateType;
+        private BackfillSource<T> source;
+        private UniqueConstraintStore constraintStore;
+        private UniqueConstraintSettingsRegistry settingsRegistry;
+        private TransactionManager transactionManager = NoTransactionManager.INSTANCE;
+        private Function<T, ?> identifierResolver;
+        private Function<T, String> tokenResolver;
+        private Consumer<String> progressListener = token -> {
+        };
+        private int batchSize = 500;
+        private int concurrency = 1;
+
+        /**
+         * The type of the aggregates, declaring the
+         * {@link org.axonframework.extensions.uniqueconstraint.AggregateUniqueConstraint}s to claim. Required to be
+         * able to build the builder.
+         *
+         * @param aggregateType The type of the aggregates.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> aggregateType(Class<T> aggregateType) {
+            BuilderUtils.assertNonNull(aggregateType, "aggregateType cannot be null!");
+            this.aggregateType = aggregateType;
+            return this;
+        }
+
+        /**
+         * The {@link BackfillSource} reading the existing aggregates. Required to be able to build the builder.
+         *
+         * @param source The {@link BackfillSource} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> source(BackfillSource<T> source) {
+            BuilderUtils.assertNonNull(source, "source cannot be null!");
+            this.source = source;
+            return this;
+        }
+
+        /**
+         * The {@link UniqueConstraintStore} to claim the values in. Use the store of the validator, so the claims are
+         * recognized when commands are handled. Required to be able to build the builder.
+         *
+         * @param constraintStore The {@link UniqueConstraintStore} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> constraintStore(UniqueConstraintStore constraintStore) {
+            BuilderUtils.assertNonNull(constraintStore, "constraintStore cannot be null!");
+            this.constraintStore = constraintStore;
+            return this;
+        }
+
+        /**
+         * The {@link UniqueConstraintSettingsRegistry} used to normalize the values before claiming them. Use the
+         * registry of the validator, so the values are claimed as they are when commands are handled. No registry is
+         * used unless configured.
+         *
+         * @param settingsRegistry The {@link UniqueConstraintSettingsRegistry} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> settingsRegistry(UniqueConstraintSettingsRegistry settingsRegistry) {
+            BuilderUtils.assertNonNull(settingsRegistry, "settingsRegistry cannot be null!");
+            this.settingsRegistry = settingsRegistry;
+            return this;
+        }
+
+        /**
+         * The {@link TransactionManager} in which every batch is claimed. Defaults to the {@link NoTransactionManager}.
+         *
+         * @param transactionManager The {@link TransactionManager} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> transactionManager(TransactionManager transactionManager) {
+            BuilderUtils.assertNonNull(transactionManager, "transactionManager cannot be null!");
+            this.transactionManager = transactionManager;
+            return this;
+        }
+
+        /**
+         * The function returning the identifier of an aggregate, which becomes the owner of its claims. Defaults to
+         * the value of the field annotated with {@link AggregateIdentifier}.
+         *
+         * @param identifierResolver The function returning the identifier of an aggregate.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> identifierResolver(Function<T, ?> identifierResolver) {
+            BuilderUtils.assertNonNull(identifierResolver, "identifierResolver cannot be null!");
+            this.identifierResolver = identifierResolver;
+            return this;
+        }
+
+        /**
+         * The function returning the token of an aggregate, passed to the {@link BackfillSource} to read the
+         * aggregates after it. Defaults to the identifier of the aggregate.
+         *
+         * @param tokenResolver The function returning the token of an aggregate.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> tokenResolver(Function<T, String> tokenResolver) {
+            BuilderUtils.assertNonNull(tokenResolver, "tokenResolver cannot be null!");
+            this.tokenResolver = tokenResolver;
+            return this;
+        }
+
+        /**
+         * The listener receiving the token to resume from after every completed batch. Does nothing by default.
+         *
+         * @param progressListener The listener of the progress of the backfill.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> progressListener(Consumer<String> progressListener) {
+            BuilderUtils.assertNonNull(progressListener, "progressListener cannot be null!");
+            this.progressListener = progressListener;
+            return this;
+        }
+
+        /**
+         * The maximum amount of aggregates read from the {@link BackfillSource} and claimed in a single unit of work.
+         * Defaults to {@code 500}.
+         *
+         * @param batchSize The maximum amount of aggregates per batch.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> batchSize(int batchSize) {
+            BuilderUtils.assertStrictPositive(batchSize, "batchSize must be positive!");
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        /**
+         * The amount of batches claimed concurrently. Defaults to {@code 1}.
+         *
+         * @param concurrency The amount of threads claiming batches.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> concurrency(int concurrency) {
+            BuilderUtils.assertStrictPositive(concurrency, "concurrency must be positive!");
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        protected void validate() {
+            BuilderUtils.assertNonNull(aggregateType, "aggregateType cannot be null!");
+            BuilderUtils.assertNonNull(source, "source cannot be null!");
+            BuilderUtils.assertNonNull(constraintStore, "constraintStore cannot be null!");
+        }
+
+        /**
+         * Builds the {@link UniqueConstraintBackfill} using the configuration acquired.
+         *
+         * @return The {@link UniqueConstraintBackfill}
+         */
+        public UniqueConstraintBackfill<T> build() {
+            return new UniqueConstraintBackfill<>(this);
+        }
+    }
+}
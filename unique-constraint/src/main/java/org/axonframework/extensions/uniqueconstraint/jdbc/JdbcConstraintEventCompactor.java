@@ -0,0 +1,346 @@
+package org.axonframework.extensions.uniqueconstraint.jdbc;
+
+import org.axonframework.common.BuilderUtils;
+import org.axonframework.common.jdbc.ConnectionProvider;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.common.transaction.TransactionManager;
+import org.axonframework.eventsourcing.eventstore.EventStoreException;
+import org.axonframework.eventsourcing.eventstore.jdbc.EventSchema;
+import org.axonframework.extensions.uniqueconstraint.events.ConstraintClaimedEvent;
+import org.axonframework.extensions.uniqueconstraint.events.ConstraintReleasedEvent;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.axonframework.common.jdbc.JdbcUtils.closeQuietly;
+import static org.axonframework.common.jdbc.JdbcUtils.executeQuery;
+import static org.axonframework.common.jdbc.JdbcUtils.listResults;
+
+/**
+ * Compacts the event streams of constraint keys in the tables of the
+ * {@link org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine}. Every claim and release appends an
+ * event to the stream of its constraint key, while the state of a key only depends on its last event. Compacting
+ * removes all other events, so the streams of keys that are claimed and released often don't grow without bound.
+ * <p>
+ * The last event of every key is retained, and acts as the snapshot of its state. The
+ * {@link org.axonframework.extensions.uniqueconstraint.EventStoreUniqueConstraintStore} only reads that event, and
+ * appends new claims after it, so claims keep working during and after compaction. Event processors that have not
+ * handled the removed events yet, such as the
+ * {@link org.axonframework.extensions.uniqueconstraint.ConstraintIndexProjection}, end up in the same state, since the
+ * retained event supersedes the removed ones. Other processors handling constraint events will not see them.
+ * <p>
+ * When an archive table is configured, the removed events are copied to it first. The archive table should have the
+ * columns of the event table, such as one created with {@code CREATE TABLE ... AS (SELECT * FROM ...) WITH NO DATA}.
+ * <p>
+ * Compaction is not scheduled by this class. Invoke {@link #compact()} periodically, for example from a
+ * {@link java.util.concurrent.ScheduledExecutorService}, on a single node.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class JdbcConstraintEventCompactor {
+
+    private static final String CONSTRAINT_TYPE_PREFIX = "Constraint";
+
+    private final ConnectionProvider connectionProvider;
+    private final TransactionManager transactionManager;
+    private final EventSchema schema;
+    private final String archiveTable;
+    private final int batchSize;
+
+    /**
+     * Creates a new {@link JdbcConstraintEventCompactor} with the builder's configuration.
+     *
+     * @param builder The builder to use.
+     */
+    protected JdbcConstraintEventCompactor(Builder builder) {
+        builder.validate();
+        this.connectionProvider = builder.connectionProvider;
+        this.transactionManager = builder.transactionManager;
+        this.schema = builder.schema;
+        this.archiveTable = builder.archiveTable;
+        this.batchSize = builder.batchSize;
+    }
+
+    /**
+     * Creates a new builder to construct a new {@link JdbcConstraintEventCompactor}.
+     * <p>
+     * Requires the {@link ConnectionProvider} to be configured. The {@link TransactionManager} defaults to the
+     * {@link NoTransactionManager}, the {@link EventSchema} to the default schema of the storage engine and the batch
+     * size to {@code 1000}. Removed events are not archived by default.
+     *
+     * @return A builder suitable to construct a new {@link JdbcConstraintEventCompactor}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Compacts the streams of the keys of all constraints, removing all events but the last of every key.
+     *
+     * @return The amount of events removed.
+     */
+    public int compact() {
+        return compactKeysOfType(null);
+    }
+
+    /**
+     * Compacts the streams of the keys of the constraint with the given {@code constraintName}, removing all events but
+     * the last of every key.
+     *
+     * @param constraintName The name of the constraint to compact.
+     * @return The amount of events removed.
+     */
+    public int compact(String constraintName) {
+        return compactKeysOfType(CONSTRAINT_TYPE_PREFIX + constraintName);
+    }
+
+    /**
+     * Compacts batches of keys with more than one event, each in its own transaction, until no such keys remain.
+     */
+    private int compactKeysOfType(String type) {
+        int removed = 0;
+        while (true) {
+            int removedInBatch = transactionManager.fetchInTransaction(() -> compactBatch(type));
+            if (removedInBatch == 0) {
+                return removed;
+            }
+            removed += removedInBatch;
+        }
+    }
+
+    private int compactBatch(String type) {
+        Connection connection = getConnection();
+        try {
+            List<CompactableKey> keys = executeQuery(
+                    connection,
+                    c -> selectCompactableKeys(c, type),
+                    listResults(rs -> new CompactableKey(rs.getString(1), rs.getLong(2))),
+                    e -> new EventStoreException("Failed to find constraint keys to compact", e),
+                    false
+            );
+            if (keys.isEmpty()) {
+                return 0;
+            }
+            if (archiveTable != null) {
+                executeForKeys(connection, this::archiveEvents, keys);
+            }
+            return executeForKeys(connection, this::deleteEvents, keys);
+        } finally {
+            closeQuietly(connection);
+        }
+    }
+
+    /**
+     * Executes the statement created by the given {@code statementFactory} for each of the given {@code keys} in a
+     * single batch, returning the sum of the update counts. Drivers not reporting the count of a statement removed at
+     * least one event for its key, so it is counted as one.
+     */
+    private int executeForKeys(Connection connection, StatementFactory statementFactory, List<CompactableKey> keys) {
+        PreparedStatement statement = null;
+        try {
+            statement = statementFactory.create(connection);
+            for (CompactableKey key : keys) {
+                statement.setString(1, key.constraintKey);
+                statement.setLong(2, key.lastSequenceNumber);
+                statement.setString(3, ConstraintClaimedEvent.class.getName());
+                statement.setString(4, ConstraintReleasedEvent.class.getName());
+                statement.addBatch();
+            }
+            int updated = 0;
+            for (int count : statement.executeBatch()) {
+                updated += count >= 0 ? count : 1;
+            }
+            return updated;
+        } catch (SQLException e) {
+            throw new EventStoreException("Failed to compact the events of constraint keys", e);
+        } finally {
+            closeQuietly(statement);
+        }
+    }
+
+    /**
+     * Creates a statement selecting up to the batch size of constraint keys with more than one event, and the highest
+     * sequence number of each. Only events of the given {@code type} are considered, or of all constraints if it is
+     * {@code null}.
+     *
+     * @param connection The connection to the database.
+     * @param type       The aggregate type of the constraint, or {@code null} for all constraints.
+     * @return A {@link PreparedStatement} returning the constraint key and its highest sequence number.
+     * @throws SQLException when an exception occurs while creating the prepared statement.
+     */
+    protected PreparedStatement selectCompactableKeys(Connection connection, String type) throws SQLException {
+        final String sql = "SELECT " + schema.aggregateIdentifierColumn() + ", MAX(" + schema.sequenceNumberColumn() + ")"
+                + " FROM " + schema.domainEventTable()
+                + " WHERE " + schema.typeColumn() + (type != null ? " = ?" : " LIKE ?")
+                + " AND " + schema.payloadTypeColumn() + " IN (?, ?)"
+                + " GROUP BY " + schema.aggregateIdentifierColumn()
+                + " HAVING COUNT(*) > 1";
+        PreparedStatement statement = connection.prepareStatement(sql);
+        statement.setString(1, type != null ? type : CONSTRAINT_TYPE_PREFIX + "%");
+        statement.setString(2, ConstraintClaimedEvent.class.getName());
+        statement.setString(3, ConstraintReleasedEvent.class.getName());
+        statement.setMaxRows(batchSize);
+        return statement;
+    }
+
+    /**
+     * Creates a statement copying the events of a constraint key before the given sequence number to the archive
+     * table. The parameters are the constraint key, the sequence number of its last event, and the payload types of
+     * the {@link ConstraintClaimedEvent} and {@link ConstraintReleasedEvent}.
+     *
+     * @param connection The connection to the database.
+     * @return A {@link PreparedStatement} copying the events to the archive table.
+     * @throws SQLException when an exception occurs while creating the prepared statement.
+     */
+    protected PreparedStatement archiveEvents(Connection connection) throws SQLException {
+        String fields = schema.globalIndexColumn() + ", " + schema.domainEventFields();
+        final String sql = "INSERT INTO " + archiveTable + " (" + fields + ")"
+                + " SELECT " + fields
+                + " FROM " + schema.domainEventTable()
+                + eventsBeforeLastCondition();
+        return connection.prepareStatement(sql);
+    }
+
+    /**
+     * Creates a statement deleting the events of a constraint key before the given sequence number. The parameters
+     * are the constraint key, the sequence number of its last event, and the payload types of the
+     * {@link ConstraintClaimedEvent} and {@link ConstraintReleasedEvent}.
+     *
+     * @param connection The connection to the database.
+     * @return A {@link PreparedStatement} deleting the events.
+     * @throws SQLException when an exception occurs while creating the prepared statement.
+     */
+    protected PreparedStatement deleteEvents(Connection connection) throws SQLException {
+        final String sql = "DELETE FROM " + schema.domainEventTable() + eventsBeforeLastCondition();
+        return connection.prepareStatement(sql);
+    }
+
+    private String eventsBeforeLastCondition() {
+        return " WHERE " + schema.aggregateIdentifierColumn() + " = ?"
+                + " AND " + schema.sequenceNumberColumn() + " < ?"
+                + " AND " + schema.payloadTypeColumn() + " IN (?, ?)";
+    }
+
+    private Connection getConnection() {
+        try {
+            return connectionProvider.getConnection();
+        } catch (SQLException e) {
+            throw new EventStoreException("Failed to obtain a database connection", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface StatementFactory {
+
+        PreparedStatement create(Connection connection) throws SQLException;
+    }
+
+    /**
+     * A constraint key with more than one event, and the sequence number of its last event.
+     */
+    private static final class CompactableKey {
+
+        private final String constraintKey;
+        private final long lastSequenceNumber;
+
+        private CompactableKey(String constraintKey, long lastSequenceNumber) {
+            this.constraintKey = constraintKey;
+            this.lastSequenceNumber = lastSequenceNumber;
+        }
+    }
+
+    /**
+     * A new builder to construct a new {@link JdbcConstraintEventCompactor}.
+     * <p>
+     * Requires the {@link ConnectionProvider} to be configured. The {@link TransactionManager} defaults to the
+     * {@link NoTransactionManager}, the {@link EventSchema} to the default schema of the storage engine and the batch
+     * size to {@code 1000}. Removed events are not archived by default.
+     */
+    public static class Builder {
+
+        private ConnectionProvider connectionProvider;
+        private TransactionManager transactionManager = NoTransactionManager.INSTANCE;
+        private EventSchema schema = new EventSchema();
+        private String archiveTable;
+        private int batchSize = 1000;
+
+        /**
+         * The {@link ConnectionProvider} used to obtain connections to the database of the event store. Required to be
+         * able to build the builder.
+         *
+         * @param connectionProvider The {@link ConnectionProvider} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder connectionProvider(ConnectionProvider connectionProvider) {
+            BuilderUtils.assertNonNull(connectionProvider, "connectionProvider cannot be null!");
+            this.connectionProvider = connectionProvider;
+            return this;
+        }
+
+        /**
+         * The {@link TransactionManager} in which every batch of keys is compacted. Defaults to the
+         * {@link NoTransactionManager}.
+         *
+         * @param transactionManager The {@link TransactionManager} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder transactionManager(TransactionManager transactionManager) {
+            BuilderUtils.assertNonNull(transactionManager, "transactionManager cannot be null!");
+            this.transactionManager = transactionManager;
+            return this;
+        }
+
+        /**
+         * The {@link EventSchema} describing the event table. Defaults to the default schema of the storage engine.
+         *
+         * @param schema The {@link EventSchema} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder schema(EventSchema schema) {
+            BuilderUtils.assertNonNull(schema, "schema cannot be null!");
+            this.schema = schema;
+            return this;
+        }
+
+        /**
+         * The table the removed events are copied to before they are removed. Removed events are not archived unless
+         * configured.
+         *
+         * @param archiveTable The name of the archive table.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder archiveTable(String archiveTable) {
+            BuilderUtils.assertNonEmpty(archiveTable, "archiveTable cannot be null or empty!");
+            this.archiveTable = archiveTable;
+            return this;
+        }
+
+        /**
+         * The maximum amount of constraint keys compacted in a single transaction. Defaults to {@code 1000}.
+         *
+         * @param batchSize The maximum amount of keys per transaction.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder batchSize(int batchSize) {
+            BuilderUtils.assertStrictPositive(batchSize, "batchSize must be positive!");
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        protected void validate() {
+            BuilderUtils.assertNonNull(connectionProvider, "connectionProvider cannot be null!");
+        }
+
+        /**
+         * Builds the {@link JdbcConstraintEventCompactor} using the configuration acquired.
+         *
+         * @return The {@link JdbcConstraintEventCompactor}
+         */
+        public JdbcConstraintEventCompactor build() {
+            return new JdbcConstraintEventCompactor(this);
+        }
+    }
+}
@@ -0,0 +1,309 @@
+package org.axonframework.extensions.uniqueconstraint.jdbc;
+
+import org.axonframework.common.BuilderUtils;
+import org.axonframework.common.jdbc.ConnectionProvider;
+import org.axonframework.eventhandling.DomainEventData;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.GenericDomainEventEntry;
+import org.axonframework.eventsourcing.EventStreamUtils;
+import org.axonframework.eventsourcing.eventstore.DomainEventStream;
+import org.axonframework.eventsourcing.eventstore.EventStoreException;
+import org.axonframework.eventsourcing.eventstore.jdbc.EventSchema;
+import org.axonframework.extensions.uniqueconstraint.LatestConstraintEventReader;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.upcasting.event.EventUpcaster;
+import org.axonframework.serialization.upcasting.event.NoOpEventUpcaster;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.axonframework.common.jdbc.JdbcUtils.closeQuietly;
+import static org.axonframework.common.jdbc.JdbcUtils.executeQuery;
+import static org.axonframework.common.jdbc.JdbcUtils.listResults;
+
+/**
+ * Implementation of the {@link LatestConstraintEventReader} that reads the last event of a constraint key from the
+ * tables of the {@link org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine} using a single query.
+ * The last events of multiple constraint keys are read using a single query as well.
+ * <p>
+ * The table and column names are taken from the {@link EventSchema}, which should be the same as the one used by the
+ * storage engine. Similarly, the {@link Serializer} should be the event serializer of the storage engine.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class JdbcLatestConstraintEventReader implements LatestConstraintEventReader {
+
+    private final ConnectionProvider connectionProvider;
+    private final Serializer eventSerializer;
+    private final EventSchema schema;
+    private final Class<?> dataType;
+    private final EventUpcaster upcasterChain;
+
+    /**
+     * Creates a new {@link JdbcLatestConstraintEventReader} with the builder's configuration.
+     *
+     * @param builder The builder to use.
+     */
+    protected JdbcLatestConstraintEventReader(Builder builder) {
+        builder.validate();
+        this.connectionProvider = builder.connectionProvider;
+        this.eventSerializer = builder.eventSerializer;
+        this.schema = builder.schema;
+        this.dataType = builder.dataType;
+        this.upcasterChain = builder.upcasterChain;
+    }
+
+    /**
+     * Creates a new builder to construct a new {@link JdbcLatestConstraintEventReader}.
+     * <p>
+     * Requires the {@link ConnectionProvider} and event {@link Serializer} to be configured. The {@link EventSchema}
+     * defaults to the default schema of the storage engine, the data type to {@code byte[]} and the upcaster chain to
+     * the {@link NoOpEventUpcaster}.
+     *
+     * @return A builder suitable to construct a new {@link JdbcLatestConstraintEventReader}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public Optional<DomainEventMessage<?>> readLatestEvent(String constraintKey) {
+        Connection connection = getConnection();
+        try {
+            List<DomainEventData<?>> eventData = executeQuery(
+                    connection,
+                    c -> readLatestEventData(c, constraintKey),
+                    listResults(this::getDomainEventData),
+                    e -> new EventStoreException(
+                            String.format("Failed to read the last event of constraint key %s", constraintKey), e)
+            );
+            DomainEventStream eventStream = EventStreamUtils.upcastAndDeserializeDomainEvents(eventData.stream(),
+                                                                                              eventSerializer,
+                                                                                              upcasterChain);
+            return eventStream.hasNext() ? Optional.of(eventStream.next()) : Optional.empty();
+        } finally {
+            closeQuietly(connection);
+        }
+    }
+
+    @Override
+    public Map<String, DomainEventMessage<?>> readLatestEvents(Collection<String> constraintKeys) {
+        Map<String, DomainEventMessage<?>> latestEvents = new HashMap<>();
+        if (constraintKeys.isEmpty()) {
+            return latestEvents;
+        }
+        List<String> keys = new ArrayList<>(constraintKeys);
+        Connection connection = getConnection();
+        try {
+            List<DomainEventData<?>> eventData = executeQuery(
+                    connection,
+                    c -> readLatestEventsData(c, keys),
+                    listResults(this::getDomainEventData),
+                    e -> new EventStoreException(
+                            String.format("Failed to read the last events of constraint keys %s", keys), e)
+            );
+            DomainEventStream eventStream = EventStreamUtils.upcastAndDeserializeDomainEvents(eventData.stream(),
+                                                                                              eventSerializer,
+                                                                                              upcasterChain);
+            eventStream.forEachRemaining(event -> latestEvents.put(event.getAggregateIdentifier(), event));
+            return latestEvents;
+        } finally {
+            closeQuietly(connection);
+        }
+    }
+
+    /**
+     * Creates a statement selecting the event with the highest sequence number of the given {@code constraintKey}.
+     *
+     * @param connection    The connection to the database.
+     * @param constraintKey The constraint key to read the last event of.
+     * @return A {@link PreparedStatement} returning at most a single event.
+     * @throws SQLException when an exception occurs while creating the prepared statement.
+     */
+    protected PreparedStatement readLatestEventData(Connection connection, String constraintKey) throws SQLException {
+        final String sql = "SELECT " + schema.domainEventFields()
+                + " FROM " + schema.domainEventTable()
+                + " WHERE " + schema.aggregateIdentifierColumn() + " = ?"
+                + " ORDER BY " + schema.sequenceNumberColumn() + " DESC";
+        PreparedStatement statement = connection.prepareStatement(sql);
+        statement.setString(1, constraintKey);
+        statement.setMaxRows(1);
+        return statement;
+    }
+
+    /**
+     * Creates a statement selecting the event with the highest sequence number of each of the given
+     * {@code constraintKeys}.
+     *
+     * @param connection     The connection to the database.
+     * @param constraintKeys The constraint keys to read the last event of.
+     * @return A {@link PreparedStatement} returning at most a single event per constraint key.
+     * @throws SQLException when an exception occurs while creating the prepared statement.
+     */
+    protected PreparedStatement readLatestEventsData(Connection connection,
+                                                     List<String> constraintKeys) throws SQLException {
+        StringBuilder parameters = new StringBuilder("?");
+        for (int i = 1; i < constraintKeys.size(); i++) {
+            parameters.append(", ?");
+        }
+        final String sql = "SELECT " + schema.domainEventFields()
+                + " FROM " + schema.domainEventTable() + " e"
+                + " WHERE e." + schema.aggregateIdentifierColumn() + " IN (" + parameters + ")"
+                + " AND e." + schema.sequenceNumberColumn() + " = ("
+                + "SELECT MAX(m." + schema.sequenceNumberColumn() + ")"
+                + " FROM " + schema.domainEventTable() + " m"
+                + " WHERE m." + schema.aggregateIdentifierColumn() + " = e." + schema.aggregateIdentifierColumn()
+                + ")";
+        PreparedStatement statement = connection.prepareStatement(sql);
+        for (int i = 0; i < constraintKeys.size(); i++) {
+            statement.setString(i + 1, constraintKeys.get(i));
+        }
+        return statement;
+    }
+
+    /**
+     * Extracts the next domain event entry from the given {@code resultSet}.
+     *
+     * @param resultSet The results of a query for domain events of a constraint key.
+     * @return The next domain event.
+     * @throws SQLException when an exception occurs while reading the result set.
+     */
+    protected DomainEventData<?> getDomainEventData(ResultSet resultSet) throws SQLException {
+        return new GenericDomainEventEntry<>(resultSet.getString(schema.typeColumn()),
+                                             resultSet.getString(schema.aggregateIdentifierColumn()),
+                                             resultSet.getLong(schema.sequenceNumberColumn()),
+                                             resultSet.getString(schema.eventIdentifierColumn()),
+                                             resultSet.getString(schema.timestampColumn()),
+                                             resultSet.getString(schema.payloadTypeColumn()),
+                                             resultSet.getString(schema.payloadRevisionColumn()),
+                                             readPayload(resultSet, schema.payloadColumn()),
+                                             readPayload(resultSet, schema.metaDataColumn()));
+    }
+
+    /**
+     * Reads a serialized object from the given {@code resultSet} at given {@code columnName}, using the configured
+     * data type.
+     *
+     * @param resultSet  The result set to read from.
+     * @param columnName The name of the column containing the serialized object.
+     * @param <T>        The type of the serialized data.
+     * @return The serialized data.
+     * @throws SQLException when an exception occurs while reading the result set.
+     */
+    @SuppressWarnings("unchecked")
+    protected <T> T readPayload(ResultSet resultSet, String columnName) throws SQLException {
+        if (byte[].class.equals(dataType)) {
+            return (T) resultSet.getBytes(columnName);
+        }
+        return (T) resultSet.getObject(columnName);
+    }
+
+    private Connection getConnection() {
+        try {
+            return connectionProvider.getConnection();
+        } catch (SQLException e) {
+            throw new EventStoreException("Failed to obtain a database connection", e);
+        }
+    }
+
+    /**
+     * A new builder to construct a new {@link JdbcLatestConstraintEventReader}.
+     * <p>
+     * Requires the {@link ConnectionProvider} and event {@link Serializer} to be configured. The {@link EventSchema}
+     * defaults to the default schema of the storage engine, the data type to {@code byte[]} and the upcaster chain to
+     * the {@link NoOpEventUpcaster}.
+     */
+    public static class Builder {
+
+        private ConnectionProvider connectionProvider;
+        private Serializer eventSerializer;
+        private EventSchema schema = new EventSchema();
+        private Class<?> dataType = byte[].class;
+        private EventUpcaster upcasterChain = NoOpEventUpcaster.INSTANCE;
+
+        /**
+         * The {@link ConnectionProvider} used to obtain connections to the database of the event store. Required to be
+         * able to build the builder.
+         *
+         * @param connectionProvider The {@link ConnectionProvider} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder connectionProvider(ConnectionProvider connectionProvider) {
+            BuilderUtils.assertNonNull(connectionProvider, "connectionProvider cannot be null!");
+            this.connectionProvider = connectionProvider;
+            return this;
+        }
+
+        /**
+         * The {@link Serializer} the storage engine uses to serialize events. Required to be able to build the
+         * builder.
+         *
+         * @param eventSerializer The event {@link Serializer} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder eventSerializer(Serializer eventSerializer) {
+            BuilderUtils.assertNonNull(eventSerializer, "eventSerializer cannot be null!");
+            this.eventSerializer = eventSerializer;
+            return this;
+        }
+
+        /**
+         * The {@link EventSchema} describing the event table. Defaults to the default schema of the storage engine.
+         *
+         * @param schema The {@link EventSchema} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder schema(EventSchema schema) {
+            BuilderUtils.assertNonNull(schema, "schema cannot be null!");
+            this.schema = schema;
+            return this;
+        }
+
+        /**
+         * The type in which the payload and meta data are stored. Defaults to {@code byte[]}.
+         *
+         * @param dataType The type of the serialized payload and meta data.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder dataType(Class<?> dataType) {
+            BuilderUtils.assertNonNull(dataType, "dataType cannot be null!");
+            this.dataType = dataType;
+            return this;
+        }
+
+        /**
+         * The {@link EventUpcaster} applied to the events read. Defaults to the {@link NoOpEventUpcaster}.
+         *
+         * @param upcasterChain The {@link EventUpcaster} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder upcasterChain(EventUpcaster upcasterChain) {
+            BuilderUtils.assertNonNull(upcasterChain, "upcasterChain cannot be null!");
+            this.upcasterChain = upcasterChain;
+            return this;
+        }
+
+        protected void validate() {
+            BuilderUtils.assertNonNull(connectionProvider, "connectionProvider cannot be null!");
+            BuilderUtils.assertNonNull(eventSerializer, "eventSerializer cannot be null!");
+        }
+
+        /**
+         * Builds the {@link JdbcLatestConstraintEventReader} using the configuration acquired.
+         *
+         * @return The {@link JdbcLatestConstraintEventReader}
+         */
+        public JdbcLatestConstraintEventReader build() {
+            return new JdbcLatestConstraintEventReader(this);
+        }
+    }
+}
@@ -0,0 +1,396 @@
+package org.axonframework.extensions.uniqueconstraint.jdbc;
+
+import org.axonframework.common.BuilderUtils;
+import org.axonframework.common.jdbc.ConnectionProvider;
+import org.axonframework.common.jdbc.JdbcException;
+import org.axonframework.extensions.uniqueconstraint.ConstraintKeyProvider;
+import org.axonframework.extensions.uniqueconstraint.Sha256ConstraintKeyProvider;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintClaimException;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintStore;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Savepoint;
+
+import static org.axonframework.common.jdbc.JdbcUtils.closeQuietly;
+import static org.axonframework.common.jdbc.JdbcUtils.executeQuery;
+import static org.axonframework.common.jdbc.JdbcUtils.executeUpdate;
+
+/**
+ * Implementation of the {@link UniqueConstraintStore} that stores claims in a dedicated table, as described by the
+ * {@link UniqueConstraintSchema}. Claiming a key is a single {@code MERGE} statement which only inserts the claim if the
+ * key is not claimed yet, and releasing a key is a single {@code DELETE} statement restricted to the owner. Only when
+ * these statements do not change a row, or a claim fails on the primary key because of a concurrent claim, is the
+ * current owner queried, to distinguish an idempotent call from a claim of another owner. Within a transaction, the
+ * claim is made within a savepoint which is rolled back when it fails on the primary key, as some databases abort the
+ * transaction otherwise. Without support for savepoints such a failure is reported as a claim of another owner.
+ * <p>
+ * To make claims part of the transaction of the command, configure a {@link ConnectionProvider} that is aware of the
+ * current unit of work, such as the {@link org.axonframework.common.jdbc.UnitOfWorkAwareConnectionProviderWrapper} or
+ * a Spring transaction-aware data source. Claims made during a command that fails are then rolled back along with it.
+ * <p>
+ * The default statements use SQL standard syntax. Databases that do not support the {@code MERGE} statement can
+ * override {@link #claimStatement(Connection, String, String, String)}, for example with an
+ * {@code INSERT ... ON CONFLICT DO NOTHING} statement.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class JdbcUniqueConstraintStore implements UniqueConstraintStore {
+
+    private final ConnectionProvider connectionProvider;
+    private final UniqueConstraintSchema schema;
+    private final ConstraintKeyProvider constraintKeyProvider;
+
+    /**
+     * Creates a new {@link JdbcUniqueConstraintStore} with the builder's configuration.
+     *
+     * @param builder The builder to use.
+     */
+    protected JdbcUniqueConstraintStore(Builder builder) {
+        builder.validate();
+        this.connectionProvider = builder.connectionProvider;
+        this.schema = builder.schema;
+        this.constraintKeyProvider = builder.constraintKeyProvider;
+    }
+
+    /**
+     * Creates a new builder to construct a new {@link JdbcUniqueConstraintStore}.
+     * <p>
+     * Requires the {@link ConnectionProvider} to be configured. The {@link UniqueConstraintSchema} defaults to the
+     * default schema and the {@link ConstraintKeyProvider} defaults to a {@link Sha256ConstraintKeyProvider}.
+     *
+     * @return A builder suitable to construct a new {@link JdbcUniqueConstraintStore}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Creates the table described by the {@link UniqueConstraintSchema}.
+     */
+    public void createSchema() {
+        Connection connection = getConnection();
+        try {
+            executeUpdate(connection,
+                          this::createTableStatement,
+                          e -> new JdbcException("Failed to create the unique constraint table", e));
+        } finally {
+            closeQuietly(connection);
+        }
+    }
+
+    @Override
+    public void checkAndClaimValue(String constraintName, String constraintValue, String owner) {
+        String constraintKey = constraintKeyProvider.determineValue(constraintName, constraintValue);
+        Connection connection = getConnection();
+        try {
+            boolean inTransaction = isInTransaction(connection);
+            Savepoint savepoint = inTransaction ? setSavepoint(connection, constraintName) : null;
+            boolean integrityViolated = false;
+            try {
+                int claimed = executeUpdate(
+                        connection,
+                        c -> claimStatement(c, constraintName, constraintKey, owner),
+                        e -> new JdbcException(String.format("Failed to claim constraint %s", constraintName), e)
+                );
+                releaseSavepoint(connection, savepoint);
+                if (claimed > 0) {
+                    return;
+                }
+            } catch (JdbcException e) {
+                if (!isIntegrityViolation(e)) {
+                    throw e;
+                }
+                if (inTransaction && savepoint == null) {
+                    throw claimedByOtherOwnerException(constraintName, "another owner", owner);
+                }
+                rollbackToSavepoint(connection, savepoint, constraintName);
+                integrityViolated = true;
+            }
+            String currentOwner = readOwner(connection, constraintName, constraintKey);
+            if (currentOwner == null && integrityViolated) {
+                throw claimedByOtherOwnerException(constraintName, "another owner", owner);
+            }
+            if (currentOwner != null && !currentOwner.equals(owner)) {
+                throw claimedByOtherOwnerException(constraintName, currentOwner, owner);
+            }
+        } finally {
+            closeQuietly(connection);
+        }
+    }
+
+    @Override
+    public void releaseClaimValue(String constraintName, String constraintValue, String owner) {
+        String constraintKey = constraintKeyProvider.determineValue(constraintName, constraintValue);
+        Connection connection = getConnection();
+        try {
+            int released = executeUpdate(
+                    connection,
+                    c -> releaseStatement(c, constraintName, constraintKey, owner),
+                    e -> new JdbcException(String.format("Failed to release constraint %s", constraintName), e)
+            );
+            if (released > 0) {
+                return;
+            }
+            String currentOwner = readOwner(connection, constraintName, constraintKey);
+            if (currentOwner != null) {
+                throw claimedByOtherOwnerException(constraintName, currentOwner, owner);
+            }
+        } finally {
+            closeQuietly(connection);
+        }
+    }
+
+    private String readOwner(Connection connection, String constraintName, String constraintKey) {
+        return executeQuery(connection,
+                            c -> selectOwnerStatement(c, constraintName, constraintKey),
+                            resultSet -> resultSet.next() ? resultSet.getString(1) : null,
+                            e -> new JdbcException(
+                                    String.format("Failed to read the owner of constraint %s", constraintName), e));
+    }
+
+    private static boolean isInTransaction(Connection connection) {
+        try {
+            return !connection.getAutoCommit();
+        } catch (SQLException e) {
+            throw new JdbcException("Failed to determine the auto-commit mode of the connection", e);
+        }
+    }
+
+    /**
+     * Sets a savepoint before claiming within a transaction. Some databases, such as PostgreSQL, abort the whole
+     * transaction when a statement fails on the primary key, so the failed claim has to be rolled back to the
+     * savepoint before the current owner can be read. Returns {@code null} if the database does not support
+     * savepoints, in which case a claim failing on the primary key is reported as a conflict without reading the owner.
+     */
+    private static Savepoint setSavepoint(Connection connection, String constraintName) {
+        try {
+            if (!connection.getMetaData().supportsSavepoints()) {
+                return null;
+            }
+            return connection.setSavepoint();
+        } catch (SQLFeatureNotSupportedException e) {
+            return null;
+        } catch (SQLException e) {
+            throw new JdbcException(
+                    String.format("Failed to set a savepoint to claim constraint %s", constraintName), e);
+        }
+    }
+
+    private static void rollbackToSavepoint(Connection connection, Savepoint savepoint, String constraintName) {
+        if (savepoint == null) {
+            return;
+        }
+        try {
+            connection.rollback(savepoint);
+        } catch (SQLException e) {
+            throw new JdbcException(
+                    String.format("Failed to roll back the failed claim of constraint %s", constraintName), e);
+        }
+    }
+
+    private static void releaseSavepoint(Connection connection, Savepoint savepoint) {
+        if (savepoint == null) {
+            return;
+        }
+        try {
+            connection.releaseSavepoint(savepoint);
+        } catch (SQLException e) {
+            // Not all databases support releasing savepoints, it is released with the transaction instead
+        }
+    }
+
+    private UniqueConstraintClaimException claimedByOtherOwnerException(String constraintName,
+                                                                        String currentOwner,
+                                                                        String owner) {
+        return new UniqueConstraintClaimException(
+                String.format(
+                        "Unique constraint %s was claimed by owner %s. Can not change claims is for aggregate %s.",
+                        constraintName,
+                        currentOwner,
+                        owner),
+                constraintName);
+    }
+
+    /**
+     * Whether the claim failed on the primary key, because the key was claimed concurrently. The claim may have been
+     * made by the same owner, so the current owner is read before reporting it as a conflict.
+     */
+    private static boolean isIntegrityViolation(JdbcException e) {
+        if (!(e.getCause() instanceof SQLException)) {
+            return false;
+        }
+        String sqlState = ((SQLException) e.getCause()).getSQLState();
+        return sqlState != null && sqlState.startsWith("23");
+    }
+
+    /**
+     * Creates a statement that inserts the claim of the {@code owner} on the {@code constraintKey}, unless the key is
+     * already claimed. The statement should report one updated row if the claim was inserted, and none if the key
+     * was already claimed.
+     *
+     * @param connection     The connection to the database.
+     * @param constraintName The name of the constraint.
+     * @param constraintKey  The key to claim.
+     * @param owner          The owner claiming the key.
+     * @return A {@link PreparedStatement} claiming the key if it is free.
+     * @throws SQLException when an exception occurs while creating the prepared statement.
+     */
+    protected PreparedStatement claimStatement(Connection connection,
+                                               String constraintName,
+                                               String constraintKey,
+                                               String owner) throws SQLException {
+        final String sql = "MERGE INTO " + schema.constraintTable() + " claims"
+                + " USING (VALUES (CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255))))"
+                + " AS claim (name, claim_key, claim_owner)"
+                + " ON claims." + schema.constraintNameColumn() + " = claim.name"
+                + " AND claims." + schema.constraintKeyColumn() + " = claim.claim_key"
+                + " WHEN NOT MATCHED THEN INSERT ("
+                + schema.constraintNameColumn() + ", "
+                + schema.constraintKeyColumn() + ", "
+                + schema.ownerColumn() + ") VALUES (claim.name, claim.claim_key, claim.claim_owner)";
+        PreparedStatement statement = connection.prepareStatement(sql);
+        statement.setString(1, constraintName);
+        statement.setString(2, constraintKey);
+        statement.setString(3, owner);
+        return statement;
+    }
+
+    /**
+     * Creates a statement that deletes the claim on the {@code constraintKey}, but only if it is owned by the
+     * {@code owner}.
+     *
+     * @param connection     The connection to the database.
+     * @param constraintName The name of the constraint.
+     * @param constraintKey  The key to release.
+     * @param owner          The owner releasing the key.
+     * @return A {@link PreparedStatement} releasing the key if it is owned by the owner.
+     * @throws SQLException when an exception occurs while creating the prepared statement.
+     */
+    protected PreparedStatement releaseStatement(Connection connection,
+                                                 String constraintName,
+                                                 String constraintKey,
+                                                 String owner) throws SQLException {
+        final String sql = "DELETE FROM " + schema.constraintTable()
+                + " WHERE " + schema.constraintNameColumn() + " = ?"
+                + " AND " + schema.constraintKeyColumn() + " = ?"
+                + " AND " + schema.ownerColumn() + " = ?";
+        PreparedStatement statement = connection.prepareStatement(sql);
+        statement.setString(1, constraintName);
+        statement.setString(2, constraintKey);
+        statement.setString(3, owner);
+        return statement;
+    }
+
+    /**
+     * Creates a statement selecting the owner of the {@code constraintKey}.
+     *
+     * @param connection     The connection to the database.
+     * @param constraintName The name of the constraint.
+     * @param constraintKey  The key to select the owner of.
+     * @return A {@link PreparedStatement} returning the owner, if any.
+     * @throws SQLException when an exception occurs while creating the prepared statement.
+     */
+    protected PreparedStatement selectOwnerStatement(Connection connection,
+                                                     String constraintName,
+                                                     String constraintKey) throws SQLException {
+        final String sql = "SELECT " + schema.ownerColumn() + " FROM " + schema.constraintTable()
+                + " WHERE " + schema.constraintNameColumn() + " = ?"
+                + " AND " + schema.constraintKeyColumn() + " = ?";
+        PreparedStatement statement = connection.prepareStatement(sql);
+        statement.setString(1, constraintName);
+        statement.setString(2, constraintKey);
+        return statement;
+    }
+
+    /**
+     * Creates a statement that creates the table described by the {@link UniqueConstraintSchema}.
+     *
+     * @param connection The connection to the database.
+     * @return A {@link PreparedStatement} creating the table.
+     * @throws SQLException when an exception occurs while creating the prepared statement.
+     */
+    protected PreparedStatement createTableStatement(Connection connection) throws SQLException {
+        final String sql = "CREATE TABLE " + schema.constraintTable() + " ("
+                + schema.constraintNameColumn() + " VARCHAR(255) NOT NULL, "
+                + schema.constraintKeyColumn() + " VARCHAR(255) NOT NULL, "
+                + schema.ownerColumn() + " VARCHAR(255) NOT NULL, "
+                + "PRIMARY KEY (" + schema.constraintNameColumn() + ", " + schema.constraintKeyColumn() + "))";
+        return connection.prepareStatement(sql);
+    }
+
+    private Connection getConnection() {
+        try {
+            return connectionProvider.getConnection();
+        } catch (SQLException e) {
+            throw new JdbcException("Failed to obtain a database connection", e);
+        }
+    }
+
+    /**
+     * A new builder to construct a new {@link JdbcUniqueConstraintStore}.
+     * <p>
+     * Requires the {@link ConnectionProvider} to be configured. The {@link UniqueConstraintSchema} defaults to the
+     * default schema and the {@link ConstraintKeyProvider} defaults to a {@link Sha256ConstraintKeyProvider}.
+     */
+    public static class Builder {
+
+        private ConnectionProvider connectionProvider;
+        private UniqueConstraintSchema schema = new UniqueConstraintSchema();
+        private ConstraintKeyProvider constraintKeyProvider = new Sha256ConstraintKeyProvider();
+
+        /**
+         * The {@link ConnectionProvider} used to obtain connections to the database. Required to be able to build the
+         * builder. Use a provider aware of the current unit of work to let claims share the transaction of the command.
+         *
+         * @param connectionProvider The {@link ConnectionProvider} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder connectionProvider(ConnectionProvider connectionProvider) {
+            BuilderUtils.assertNonNull(connectionProvider, "connectionProvider cannot be null!");
+            this.connectionProvider = connectionProvider;
+            return this;
+        }
+
+        /**
+         * The {@link UniqueConstraintSchema} describing the claim table. Defaults to the default schema.
+         *
+         * @param schema The {@link UniqueConstraintSchema} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder schema(UniqueConstraintSchema schema) {
+            BuilderUtils.assertNonNull(schema, "schema cannot be null!");
+            this.schema = schema;
+            return this;
+        }
+
+        /**
+         * Changes the {@link ConstraintKeyProvider} to be used when determining the value of the constraint. Defaults
+         * to the {@link Sha256ConstraintKeyProvider} unless changed.
+         *
+         * @param constraintKeyProvider The new {@link ConstraintKeyProvider}.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder constraintValueProvider(ConstraintKeyProvider constraintKeyProvider) {
+            BuilderUtils.assertNonNull(constraintKeyProvider, "valueProviderFunction cannot be null!");
+            this.constraintKeyProvider = constraintKeyProvider;
+            return this;
+        }
+
+        protected void validate() {
+            BuilderUtils.assertNonNull(connectionProvider, "connectionProvider cannot be null!");
+        }
+
+        /**
+         * Builds the {@link JdbcUniqueConstraintStore} using the configuration acquired.
+         *
+         * @return The {@link JdbcUniqueConstraintStore}
+         */
+        public JdbcUniqueConstraintStore build() {
+            return new JdbcUniqueConstraintStore(this);
+        }
+    }
+}
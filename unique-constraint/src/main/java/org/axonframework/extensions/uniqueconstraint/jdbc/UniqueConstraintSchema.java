@@ -0,0 +1,140 @@
+package org.axonframework.extensions.uniqueconstraint.jdbc;
+
+/**
+ * Schema of the table used by the {@link JdbcUniqueConstraintStore} to store claims. Every row is a claimed constraint
+ * key, with the combination of constraint name and constraint key as primary key.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class UniqueConstraintSchema {
+
+    private final String constraintTable;
+    private final String constraintNameColumn;
+    private final String constraintKeyColumn;
+    private final String ownerColumn;
+
+    /**
+     * Initializes the default schema: a table named {@code unique_constraint} with the columns
+     * {@code constraint_name}, {@code constraint_key} and {@code owner}.
+     */
+    public UniqueConstraintSchema() {
+        this(builder());
+    }
+
+    private UniqueConstraintSchema(Builder builder) {
+        this.constraintTable = builder.constraintTable;
+        this.constraintNameColumn = builder.constraintNameColumn;
+        this.constraintKeyColumn = builder.constraintKeyColumn;
+        this.ownerColumn = builder.ownerColumn;
+    }
+
+    /**
+     * Creates a new builder to construct a {@link UniqueConstraintSchema}, initialized with the default values.
+     *
+     * @return A builder suitable to construct a new {@link UniqueConstraintSchema}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * The name of the table containing the claims.
+     *
+     * @return The name of the table.
+     */
+    public String constraintTable() {
+        return constraintTable;
+    }
+
+    /**
+     * The name of the column containing the name of the constraint.
+     *
+     * @return The name of the constraint name column.
+     */
+    public String constraintNameColumn() {
+        return constraintNameColumn;
+    }
+
+    /**
+     * The name of the column containing the claimed key.
+     *
+     * @return The name of the constraint key column.
+     */
+    public String constraintKeyColumn() {
+        return constraintKeyColumn;
+    }
+
+    /**
+     * The name of the column containing the owner of the claim.
+     *
+     * @return The name of the owner column.
+     */
+    public String ownerColumn() {
+        return ownerColumn;
+    }
+
+    /**
+     * Builder for a {@link UniqueConstraintSchema}, initialized with the default values.
+     */
+    public static class Builder {
+
+        private String constraintTable = "unique_constraint";
+        private String constraintNameColumn = "constraint_name";
+        private String constraintKeyColumn = "constraint_key";
+        private String ownerColumn = "owner";
+
+        /**
+         * Sets the name of the table containing the claims. Defaults to {@code unique_constraint}.
+         *
+         * @param constraintTable The name of the table.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder constraintTable(String constraintTable) {
+            this.constraintTable = constraintTable;
+            return this;
+        }
+
+        /**
+         * Sets the name of the column containing the name of the constraint. Defaults to {@code constraint_name}.
+         *
+         * @param constraintNameColumn The name of the column.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder constraintNameColumn(String constraintNameColumn) {
+            this.constraintNameColumn = constraintNameColumn;
+            return this;
+        }
+
+        /**
+         * Sets the name of the column containing the claimed key. Defaults to {@code constraint_key}.
+         *
+         * @param constraintKeyColumn The name of the column.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder constraintKeyColumn(String constraintKeyColumn) {
+            this.constraintKeyColumn = constraintKeyColumn;
+            return this;
+        }
+
+        /**
+         * Sets the name of the column containing the owner of the claim. Defaults to {@code owner}.
+         *
+         * @param ownerColumn The name of the column.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder ownerColumn(String ownerColumn) {
+            this.ownerColumn = ownerColumn;
+            return this;
+        }
+
+        /**
+         * Builds the {@link UniqueConstraintSchema} using the configuration acquired.
+         *
+         * @return The {@link UniqueConstraintSchema}
+         */
+        public UniqueConstraintSchema build() {
+            return new UniqueConstraintSchema(this);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package org.axonframework.extensions.uniqueconstraint.micrometer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.axonframework.common.BuilderUtils;
+import org.axonframework.extensions.uniqueconstraint.BatchUniqueConstraintStore;
+import org.axonframework.extensions.uniqueconstraint.ConstraintChange;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintClaimException;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintStore;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UniqueConstraintStore} decorator that records the duration of every claim and release in a {@link Timer} per
+ * constraint name and outcome, and counts conflicting claims per constraint name. The outcome is either
+ * {@code success}, {@code conflict} when a {@link UniqueConstraintClaimException} was thrown, or {@code failure} for
+ * any other exception.
+ * <p>
+ * Batches are passed on as a batch if the delegate is a {@link BatchUniqueConstraintStore}, and timed as a whole, since
+ * their changes are not applied separately. Otherwise every change of the batch is claimed or released, and timed,
+ * separately.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class MetricsUniqueConstraintStore implements BatchUniqueConstraintStore {
+
+    private static final String SUCCESS = "success";
+    private static final String CONFLICT = "conflict";
+    private static final String FAILURE = "failure";
+
+    private final UniqueConstraintStore delegate;
+    private final MeterRegistry meterRegistry;
+    private final String meterNamePrefix;
+    private final ConcurrentMap<String, ConstraintMeters> constraintMeters = new ConcurrentHashMap<>();
+    private final Timer batchSuccess;
+    private final Timer batchConflict;
+    private final Timer batchFailure;
+
+    /**
+     * Creates a new {@link MetricsUniqueConstraintStore} with the builder's configuration.
+     *
+     * @param builder The builder to use.
+     */
+    protected MetricsUniqueConstraintStore(Builder builder) {
+        builder.validate();
+        this.delegate = builder.delegate;
+        this.meterRegistry = builder.meterRegistry;
+        this.meterNamePrefix = builder.meterNamePrefix;
+        this.batchSuccess = batchTimer(SUCCESS);
+        this.batchConflict = batchTimer(CONFLICT);
+        this.batchFailure = batchTimer(FAILURE);
+    }
+
+    /**
+     * Creates a new builder to construct a new {@link MetricsUniqueConstraintStore}.
+     * <p>
+     * Requires the delegate {@link UniqueConstraintStore} and {@link MeterRegistry} to be configured. The meter name
+     * prefix defaults to {@code uniqueConstraint}.
+     *
+     * @return A builder suitable to construct a new {@link MetricsUniqueConstraintStore}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void releaseClaimValue(String constraintName, String constraintValue, String owner) {
+        ConstraintMeters meters = metersFor(constraintName);
+        long start = System.nanoTime();
+        try {
+            delegate.releaseClaimValue(constraintName, constraintValue, owner);
+            record(meters.releaseSuccess, start);
+        } catch (UniqueConstraintClaimException e) {
+            record(meters.releaseConflict, start);
+            meters.conflicts.increment();
+            throw e;
+        } catch (RuntimeException e) {
+            record(meters.releaseFailure, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void checkAndClaimValue(String constraintName, String constraintValue, String owner) {
+        ConstraintMeters meters = metersFor(constraintName);
+        long start = System.nanoTime();
+        try {
+            delegate.checkAndClaimValue(constraintName, constraintValue, owner);
+            record(meters.claimSuccess, start);
+        } catch (UniqueConstraintClaimException e) {
+            record(meters.claimConflict, start);
+            meters.conflicts.increment();
+            throw e;
+        } catch (RuntimeException e) {
+            record(meters.claimFailure, start);
+            throw e;
+        }
+    }
+
+    @Override
+    public void applyChanges(String owner, List<ConstraintChange> changes) {
+        if (!(delegate instanceof BatchUniqueConstraintStore)) {
+            for (ConstraintChange change : changes) {
+                if (change.isClaim()) {
+                    checkAndClaimValue(change.getConstraintName(), change.getConstraintValue(), owner);
+                } else {
+                    releaseClaimValue(change.getConstraintName(), change.getConstraintValue(), owner);
+                }
+            }
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            ((BatchUniqueConstraintStore) delegate).applyChanges(owner, changes);
+            record(batchSuccess, start);
+        } catch (UniqueConstraintClaimException e) {
+            record(batchConflict, start);
+            if (e.getConstraintName() != null) {
+                metersFor(e.getConstraintName()).conflicts.increment();
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            record(batchFailure, start);
+            throw e;
+        }
+    }
+
+    private static void record(Timer timer, long start) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private Timer batchTimer(String outcome) {
+        return Timer.builder(meterNamePrefix + ".batch")
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+    }
+
+    private ConstraintMeters metersFor(String constraintName) {
+        return constraintMeters.computeIfAbsent(constraintName, ConstraintMeters::new);
+    }
+
+    private class ConstraintMeters {
+
+        private final Timer claimSuccess;
+        private final Timer claimConflict;
+        private final Timer claimFailure;
+        private final Timer releaseSuccess;
+        private final Timer releaseConflict;
+        private final Timer releaseFailure;
+        private final Counter conflicts;
+
+        private ConstraintMeters(String constraintName) {
+            claimSuccess = timer("claim", constraintName, SUCCESS);
+            claimConflict = timer("claim", constraintName, CONFLICT);
+            claimFailure = timer("claim", constraintName, FAILURE);
+            releaseSuccess = timer("release", constraintName, SUCCESS);
+            releaseConflict = timer("release", constraintName, CONFLICT);
+            releaseFailure = timer("release", constraintName, FAILURE);
+            conflicts = Counter.builder(meterNamePrefix + ".conflicts")
+                               .tag("constraintName", constraintName)
+                               .register(meterRegistry);
+        }
+
+        private Timer timer(String operation, String constraintName, String outcome) {
+            return Timer.builder(meterNamePrefix + "." + operation)
+                        .tag("constraintName", constraintName)
+                        .tag("outcome", outcome)
+                        .register(meterRegistry);
+        }
+    }
+
+    /**
+     * A new builder to construct a new {@link MetricsUniqueConstraintStore}.
+     * <p>
+     * Requires the delegate {@link UniqueConstraintStore} and {@link MeterRegistry} to be configured. The meter name
+     * prefix defaults to {@code uniqueConstraint}.
+     */
+    public static class Builder {
+
+        private UniqueConstraintStore delegate;
+        private MeterRegistry meterRegistry;
+        private String meterNamePrefix = "uniqueConstraint";
+
+        /**
+         * The {@link UniqueConstraintStore} to measure. Required to be able to build the builder.
+         *
+         * @param delegate The {@link UniqueConstraintStore} to decorate.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder delegate(UniqueConstraintStore delegate) {
+            BuilderUtils.assertNonNull(delegate, "delegate cannot be null!");
+            this.delegate = delegate;
+            return this;
+        }
+
+        /**
+         * The {@link MeterRegistry} to register the meters with. Required to be able to build the builder.
+         *
+         * @param meterRegistry The {@link MeterRegistry} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            BuilderUtils.assertNonNull(meterRegistry, "meterRegistry cannot be null!");
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        /**
+         * The prefix of the names of all meters. Defaults to {@code uniqueConstraint}.
+         *
+         * @param meterNamePrefix The prefix of the meter names.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder meterNamePrefix(String meterNamePrefix) {
+            BuilderUtils.assertNonEmpty(meterNamePrefix, "meterNamePrefix cannot be empty!");
+            this.meterNamePrefix = meterNamePrefix;
+            return this;
+        }
+
+        protected void validate() {
+            BuilderUtils.assertNonNull(delegate, "delegate cannot be null!");
+            BuilderUtils.assertNonNull(meterRegistry, "meterRegistry cannot be null!");
+        }
+
+        /**
+         * Builds the {@link MetricsUniqueConstraintStore} using the configuration acquired.
+         *
+         * @return The {@link MetricsUniqueConstraintStore}
+         */
+        public MetricsUniqueConstraintStore build() {
+            return new MetricsUniqueConstraintStore(this);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package org.axonframework.extensions.uniqueconstraint.micrometer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.axonframework.common.BuilderUtils;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintMonitor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UniqueConstraintMonitor} recording its notifications in a {@link MeterRegistry}. Registers the following
+ * meters, prefixed with the configured prefix:
+ * <ul>
+ *     <li>{@code unchanged}: counter of constraints not changed by a command, per constraint name.</li>
+ *     <li>{@code storeReads}: counter of reads of constraint keys from the event store.</li>
+ *     <li>{@code lookup}: timer of the reads of constraint keys from the event store.</li>
+ *     <li>{@code contention}: counter of claims rejected because another owner was claiming the same key on this
+ *     node, per constraint name. When enabled, also per constraint key.</li>
+ * </ul>
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class MicrometerUniqueConstraintMonitor implements UniqueConstraintMonitor {
+
+    private final MeterRegistry meterRegistry;
+    private final String meterNamePrefix;
+    private final boolean contentionKeyTags;
+    private final ConcurrentMap<String, Counter> unchangedCounters = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Counter> contentionCounters = new ConcurrentHashMap<>();
+    private final Counter storeReads;
+    private final Timer lookupTimer;
+
+    /**
+     * Creates a new {@link MicrometerUniqueConstraintMonitor} with the builder's configuration.
+     *
+     * @param builder The builder to use.
+     */
+    protected MicrometerUniqueConstraintMonitor(Builder builder) {
+        builder.validate();
+        this.meterRegistry = builder.meterRegistry;
+        this.meterNamePrefix = builder.meterNamePrefix;
+        this.contentionKeyTags = builder.contentionKeyTags;
+        this.storeReads = Counter.builder(meterNamePrefix + ".storeReads").register(meterRegistry);
+        this.lookupTimer = Timer.builder(meterNamePrefix + ".lookup").register(meterRegistry);
+    }
+
+    /**
+     * Creates a new builder to construct a new {@link MicrometerUniqueConstraintMonitor}.
+     * <p>
+     * Requires the {@link MeterRegistry} to be configured. The meter name prefix defaults to
+     * {@code uniqueConstraint}.
+     *
+     * @return A builder suitable to construct a new {@link MicrometerUniqueConstraintMonitor}.
+     */
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    @Override
+    public void onUnchangedValue(String constraintName) {
+        unchangedCounters.computeIfAbsent(constraintName,
+                                          name -> Counter.builder(meterNamePrefix + ".unchanged")
+                                                         .tag("constraintName", name)
+                                                         .register(meterRegistry))
+                         .increment();
+    }
+
+    @Override
+    public void onClaimStateRead(int keyCount, long durationNanos) {
+        storeReads.increment();
+        lookupTimer.record(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onClaimContention(String constraintName, String constraintKey) {
+        if (!contentionKeyTags) {
+            contentionCounters.computeIfAbsent(constraintName,
+                                               name -> contentionCounter(name).register(meterRegistry))
+                              .increment();
+            return;
+        }
+        contentionCounter(constraintName).tag("constraintKey", constraintKey)
+                                         .register(meterRegistry)
+                                         .increment();
+    }
+
+    private Counter.Builder contentionCounter(String constraintName) {
+        return Counter.builder(meterNamePrefix + ".contention")
+                      .tag("constraintName", constraintName);
+    }
+
+    /**
+     * A new builder to construct a new {@link MicrometerUniqueConstraintMonitor}.
+     * <p>
+     * Requires the {@link MeterRegistry} to be configured. The meter name prefix defaults to
+     * {@code uniqueConstraint}.
+     */
+    public static class Builder {
+
+        private MeterRegistry meterRegistry;
+        private String meterNamePrefix = "uniqueConstraint";
+        private boolean contentionKeyTags = false;
+
+        /**
+         * The {@link MeterRegistry} to register the meters with. Required to be able to build the builder.
+         *
+         * @param meterRegistry The {@link MeterRegistry} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder meterRegistry(MeterRegistry meterRegistry) {
+            BuilderUtils.assertNonNull(meterRegistry, "meterRegistry cannot be null!");
+            this.meterRegistry = meterRegistry;
+            return this;
+        }
+
+        /**
+         * The prefix of the names of all meters. Defaults to {@code uniqueConstraint}.
+         *
+         * @param meterNamePrefix The prefix of the meter names.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder meterNamePrefix(String meterNamePrefix) {
+            BuilderUtils.assertNonEmpty(meterNamePrefix, "meterNamePrefix cannot be empty!");
+            this.meterNamePrefix = meterNamePrefix;
+            return this;
+        }
+
+        /**
+         * Whether the {@code contention} counter is tagged with the contended constraint key, to find the keys that
+         * are claimed concurrently most often. Disabled by default, since every contended key adds a counter to the
+         * {@link MeterRegistry}.
+         *
+         * @param contentionKeyTags Whether to tag the contention counter with the constraint key.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder contentionKeyTags(boolean contentionKeyTags) {
+            this.contentionKeyTags = contentionKeyTags;
+            return this;
+        }
+
+        protected void validate() {
+            BuilderUtils.assertNonNull(meterRegistry, "meterRegistry cannot be null!");
+        }
+
+        /**
+         * Builds the {@link MicrometerUniqueConstraintMonitor} using the configuration acquired.
+         *
+         * @return The {@link MicrometerUniqueConstraintMonitor}
+         */
+        public MicrometerUniqueConstraintMonitor build() {
+            return new MicrometerUniqueConstraintMonitor(this);
+        }
+    }
+}
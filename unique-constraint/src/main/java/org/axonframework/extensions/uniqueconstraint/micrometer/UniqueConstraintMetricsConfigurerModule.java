@@ -0,0 +1,70 @@
+package org.axonframework.extensions.uniqueconstraint.micrometer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.axonframework.config.Configurer;
+import org.axonframework.config.ConfigurerModule;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintConfigurerModule;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintMonitor;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintSettingsRegistry;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintStore;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintValidator;
+
+/**
+ * Adds metrics to the configuration of the {@link UniqueConstraintConfigurerModule}. Registers a
+ * {@link MicrometerUniqueConstraintMonitor} as {@link UniqueConstraintMonitor}, and a {@link UniqueConstraintValidator}
+ * claiming values through a {@link MetricsUniqueConstraintStore} decorating the configured
+ * {@link UniqueConstraintStore}. Like the validator it replaces, it applies the normalization settings of the
+ * {@link UniqueConstraintSettingsRegistry} component, if registered.
+ * <p>
+ * Since it replaces the validator registered by the {@link UniqueConstraintConfigurerModule}, this module should be
+ * applied after it. Its {@link #order()} ensures this when both modules are Spring beans.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class UniqueConstraintMetricsConfigurerModule implements ConfigurerModule {
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Creates the module, registering all meters with the given {@code meterRegistry}.
+     *
+     * @param meterRegistry The {@link MeterRegistry} to register the meters with.
+     */
+    public UniqueConstraintMetricsConfigurerModule(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void configureModule(Configurer configurer) {
+        configurer.registerComponent(
+                UniqueConstraintMonitor.class,
+                config -> MicrometerUniqueConstraintMonitor.builder()
+                                                           .meterRegistry(meterRegistry)
+                                                           .build());
+        configurer.registerComponent(
+                UniqueConstraintValidator.class,
+                config -> {
+                    UniqueConstraintValidator.Builder builder =
+                            UniqueConstraintValidator.builder()
+                                                     .constraintStore(MetricsUniqueConstraintStore
+                                                                              .builder()
+                                                                              .delegate(config.getComponent(
+                                                                                      UniqueConstraintStore.class))
+                                                                              .meterRegistry(meterRegistry)
+                                                                              .build())
+                                                     .monitor(config.getComponent(UniqueConstraintMonitor.class));
+                    UniqueConstraintSettingsRegistry settingsRegistry =
+                            config.getComponent(UniqueConstraintSettingsRegistry.class);
+                    if (settingsRegistry != null) {
+                        builder.settingsRegistry(settingsRegistry);
+                    }
+                    return builder.build();
+                });
+    }
+
+    @Override
+    public int order() {
+        return 1;
+    }
+}
@@ -0,0 +1,624 @@
+package org.axonframework.extensions.uniqueconstraint.reconciliation;
+
+import org.axonframework.common.AxonThreadFactory;
+import org.axonframework.common.BuilderUtils;
+import org.axonframework.common.stream.BlockingStream;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.axonframework.extensions.uniqueconstraint.ConstraintAccessorPlan;
+import org.axonframework.extensions.uniqueconstraint.ConstraintKeyProvider;
+import org.axonframework.extensions.uniqueconstraint.EventStoreLatestConstraintEventReader;
+import org.axonframework.extensions.uniqueconstraint.EventStoreUniqueConstraintStore;
+import org.axonframework.extensions.uniqueconstraint.LatestConstraintEventReader;
+import org.axonframework.extensions.uniqueconstraint.MultiTenantUniqueConstraintStore;
+import org.axonframework.extensions.uniqueconstraint.Sha256ConstraintKeyProvider;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintValidator;
+import org.axonframework.extensions.uniqueconstraint.events.ConstraintClaimedEvent;
+import org.axonframework.extensions.uniqueconstraint.events.ConstraintReleasedEvent;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.axonframework.modelling.command.ConcurrencyException;
+
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Compares the claims in the event store with the current state of the aggregates owning them, to find claims that
+ * should not exist and values that should be claimed. Claims can get out of sync with the aggregates, for example when
+ * the events of a command were stored separately from its claims, or when claims were made by a version of the
+ * application that normalized values differently.
+ * <p>
+ * The scanner reads all {@link ConstraintClaimedEvent}s of the constraints of one aggregate type from the event store.
+ * Claims that were released or claimed again later are skipped. For every other claim, the owning aggregate is loaded
+ * and its current value is derived the same way the {@link UniqueConstraintValidator} does when handling commands.
+ * This results in the following {@link ReconciliationFinding}s:
+ * <ul>
+ *     <li>{@link ReconciliationFinding.Type#ORPHANED_CLAIM}: the aggregate does not exist, or no longer has the
+ *     claimed value. When orphans are released, a {@link ConstraintReleasedEvent} is appended for the claim.</li>
+ *     <li>{@link ReconciliationFinding.Type#DUPLICATE_VALUE}: the current value of the aggregate is claimed by
+ *     another aggregate.</li>
+ *     <li>{@link ReconciliationFinding.Type#MISSING_CLAIM}: the current value of the aggregate is not claimed.</li>
+ * </ul>
+ * Duplicate and missing values are only found for aggregates that have at least one orphaned claim. Use the
+ * {@link org.axonframework.extensions.uniqueconstraint.backfill.UniqueConstraintBackfill} to claim the values of
+ * aggregates without any claim.
+ * <p>
+ * Claims are divided over partitions by their key, each checked by its own thread, and findings are passed to the
+ * finding listener as they are found. Only the claims waiting in the bounded queues of the partitions are held in
+ * memory. After every checkpoint interval, the scanner waits for all partitions to complete their claims and passes
+ * the token of the last event read to the checkpoint listener. Pass it to {@link #run(TrackingToken)} to continue from
+ * there.
+ * <p>
+ * The aggregate loader should return the state of the aggregate as it is in the event store, for example by loading it
+ * from its repository. Loading it from a projection that lags behind results in false orphans, which is harmful when
+ * orphans are released. Constraint names shared with other aggregate types are reported as orphans when the loader
+ * can't find the owner. The loader is invoked on the threads of the partitions, each time in a {@link UnitOfWork} of
+ * its own, so it can load the aggregate from its {@link org.axonframework.modelling.command.Repository}.
+ * <p>
+ * When tenants share the store through a {@link MultiTenantUniqueConstraintStore}, their values are claimed with the
+ * tenant as prefix. Configure a tenant resolver returning the tenant of an aggregate, so their current values are
+ * scoped the same way. Without it, claims of tenants are reported as orphans.
+ * <p>
+ * Configure the {@link EventStoreUniqueConstraintStore} of the application when releasing orphans, so they are released
+ * through that store. This keeps its {@link org.axonframework.extensions.uniqueconstraint.ConstraintClaimStateCache}
+ * up to date, and skips keys that are being claimed on this node.
+ *
+ * @param <T> The type of the aggregates.
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public class ConstraintReconciliationScanner<T> {
+
+    private static final Object STOP = new Object();
+
+    private final EventStore eventStore;
+    private final EventStoreUniqueConstraintStore constraintStore;
+    private final LatestConstraintEventReader latestEventReader;
+    private final UniqueConstraintValidator validator;
+    private final ConstraintKeyProvider constraintKeyProvider;
+    private final ConstraintAccessorPlan plan;
+    private final Function<String, T> aggregateLoader;
+    private final Function<T, String> tenantResolver;
+    private final Consumer<ReconciliationFinding> findingListener;
+    private final Consumer<TrackingToken> checkpointListener;
+    private final boolean releaseOrphans;
+    private final int partitions;
+    private final int queueCapacity;
+    private final int checkpointInterval;
+
+    /**
+     * Creates a new {@link ConstraintReconciliationScanner} with the builder's configuration.
+     *
+     * @param builder The builder to use.
+     */
+    protected ConstraintReconciliationScanner(Builder<T> builder) {
+        builder.validate();
+        this.eventStore = builder.eventStore;
+        this.constraintStore = builder.constraintStore;
+        this.latestEventReader = builder.latestEventReader != null
+                ? builder.latestEventReader
+                : new EventStoreLatestConstraintEventReader(eventStore);
+        this.validator = builder.validator;
+        this.constraintKeyProvider = builder.constraintKeyProvider;
+        this.plan = ConstraintAccessorPlan.forClass(builder.aggregateType);
+        this.aggregateLoader = builder.aggregateLoader;
+        this.tenantResolver = builder.tenantResolver;
+        this.findingListener = builder.findingListener;
+        this.checkpointListener = builder.checkpointListener;
+        this.releaseOrphans = builder.releaseOrphans;
+        this.partitions = builder.partitions;
+        this.queueCapacity = builder.queueCapacity;
+        this.checkpointInterval = builder.checkpointInterval;
+    }
+
+    /**
+     * Creates a new builder to construct a new {@link ConstraintReconciliationScanner}.
+     * <p>
+     * Requires the {@link EventStore}, {@link UniqueConstraintValidator}, aggregate type and aggregate loader to be
+     * configured. The {@link ConstraintKeyProvider} defaults to a {@link Sha256ConstraintKeyProvider}, and should be
+     * the one of the store. Orphans are reported, but not released, by default. The amount of partitions defaults to
+     * {@code 1}, their queue capacity to {@code 1000} and the checkpoint interval to {@code 10_000} events.
+     *
+     * @param <T> The type of the aggregates.
+     * @return A builder suitable to construct a new {@link ConstraintReconciliationScanner}.
+     */
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Scans all claims in the event store.
+     *
+     * @return The {@link ReconciliationResult} of the run.
+     */
+    public ReconciliationResult run() {
+        return run(null);
+    }
+
+    /**
+     * Scans the claims appended to the event store after the given {@code token}, until all events available when
+     * reaching the end of the stream are scanned.
+     * <p>
+     * If checking a claim fails, no further events are read and the exception is rethrown. The checkpoint listener
+     * has received the token to continue from.
+     *
+     * @param token The token to continue from, or {@code null} to scan all claims.
+     * @return The {@link ReconciliationResult} of the run.
+     */
+    public ReconciliationResult run(TrackingToken token) {
+        Partitions partitionWorkers = new Partitions();
+        TrackingToken lastToken = token;
+        long eventsSinceCheckpoint = 0;
+        try (BlockingStream<TrackedEventMessage<?>> eventStream = eventStore.openStream(token)) {
+            while (partitionWorkers.failure.get() == null && eventStream.hasNextAvailable()) {
+                TrackedEventMessage<?> event = eventStream.nextAvailable();
+                lastToken = event.trackingToken();
+                if (event instanceof DomainEventMessage
+                        && ConstraintClaimedEvent.class.equals(event.getPayloadType())
+                        && plan.indexOf(((ConstraintClaimedEvent) event.getPayload()).getConstraintName()) >= 0) {
+                    partitionWorkers.dispatch((DomainEventMessage<?>) event);
+                }
+                if (++eventsSinceCheckpoint >= checkpointInterval) {
+                    checkpoint(partitionWorkers, lastToken);
+                    eventsSinceCheckpoint = 0;
+                }
+            }
+            checkpoint(partitionWorkers, lastToken);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            partitionWorkers.failure.compareAndSet(
+                    null, new IllegalStateException("Interrupted while scanning the constraint claims", e));
+        } finally {
+            partitionWorkers.stop();
+        }
+        if (partitionWorkers.failure.get() != null) {
+            throw partitionWorkers.failure.get();
+        }
+        return new ReconciliationResult(partitionWorkers.checkedClaims.get(),
+                                        partitionWorkers.findings.get(),
+                                        partitionWorkers.releasedClaims.get(),
+                                        lastToken);
+    }
+
+    private void checkpoint(Partitions partitionWorkers, TrackingToken token) throws InterruptedException {
+        partitionWorkers.awaitIdle();
+        if (partitionWorkers.failure.get() == null && token != null) {
+            checkpointListener.accept(token);
+        }
+    }
+
+    /**
+     * Compares the claim of the given event with the current value of its owner, if the claim is still current.
+     *
+     * @return Whether the claim was checked.
+     */
+    private boolean checkClaim(DomainEventMessage<?> claimEvent, Partitions partitionWorkers) {
+        ConstraintClaimedEvent claim = (ConstraintClaimedEvent) claimEvent.getPayload();
+        String constraintName = claim.getConstraintName();
+        String constraintKey = claimEvent.getAggregateIdentifier();
+        String owner = claim.getOwner();
+        Optional<DomainEventMessage<?>> latestEvent = latestEventReader.readLatestEvent(constraintKey);
+        if (!latestEvent.isPresent() || latestEvent.get().getSequenceNumber() != claimEvent.getSequenceNumber()) {
+            return false;
+        }
+
+        T aggregate = loadAggregate(owner);
+        String currentValue = aggregate != null
+                ? validator.claimedValue(plan, plan.indexOf(constraintName), aggregate)
+                : null;
+        if (currentValue != null) {
+            currentValue = MultiTenantUniqueConstraintStore.scopedValue(tenantResolver.apply(aggregate), currentValue);
+        }
+        if (currentValue != null) {
+            String currentKey = constraintKeyProvider.determineValue(constraintName, currentValue);
+            Optional<String> legacyKey = constraintKeyProvider.determineLegacyValue(constraintName, currentValue);
+            if (currentKey.equals(constraintKey) || legacyKey.filter(constraintKey::equals).isPresent()) {
+                return true;
+            }
+            checkCurrentValue(constraintName, currentKey, legacyKey, owner, partitionWorkers);
+        }
+
+        boolean released = releaseOrphans && release(constraintName, constraintKey, claimEvent.getSequenceNumber());
+        if (releaseOrphans && !released) {
+            return true;
+        }
+        report(new ReconciliationFinding(ReconciliationFinding.Type.ORPHANED_CLAIM,
+                                         constraintName, constraintKey, owner, null, released),
+               partitionWorkers);
+        if (released) {
+            partitionWorkers.releasedClaims.incrementAndGet();
+        }
+        return true;
+    }
+
+    /**
+     * Loads the aggregate in a {@link UnitOfWork} of its own, which is committed once the aggregate is loaded.
+     */
+    private T loadAggregate(String owner) {
+        UnitOfWork<?> unitOfWork = DefaultUnitOfWork.startAndGet(null);
+        T aggregate;
+        try {
+            aggregate = aggregateLoader.apply(owner);
+        } catch (RuntimeException e) {
+            unitOfWork.rollback(e);
+            throw e;
+        }
+        unitOfWork.commit();
+        return aggregate;
+    }
+
+    /**
+     * Reports the current value of the aggregate if it is claimed by another aggregate, or not claimed at all.
+     */
+    private void checkCurrentValue(String constraintName,
+                                   String currentKey,
+                                   Optional<String> legacyKey,
+                                   String owner,
+                                   Partitions partitionWorkers) {
+        String currentOwner = claimOwner(currentKey);
+        if (currentOwner == null && legacyKey.isPresent()) {
+            currentOwner = claimOwner(legacyKey.get());
+        }
+        if (owner.equals(currentOwner)) {
+            return;
+        }
+        report(new ReconciliationFinding(currentOwner != null
+                                                 ? ReconciliationFinding.Type.DUPLICATE_VALUE
+                                                 : ReconciliationFinding.Type.MISSING_CLAIM,
+                                         constraintName, currentKey, owner, currentOwner, false),
+               partitionWorkers);
+    }
+
+    private String claimOwner(String constraintKey) {
+        return latestEventReader.readLatestEvent(constraintKey)
+                                .map(DomainEventMessage::getPayload)
+                                .filter(ConstraintClaimedEvent.class::isInstance)
+                                .map(payload -> ((ConstraintClaimedEvent) payload).getOwner())
+                                .orElse(null);
+    }
+
+    /**
+     * Appends a {@link ConstraintReleasedEvent} after the claim, through the constraint store if configured. Fails
+     * if the key was claimed or released in the meantime, in which case the claim is no longer an orphan.
+     *
+     * @return Whether the claim was released.
+     */
+    private boolean release(String constraintName, String constraintKey, long claimSequenceNumber) {
+        if (constraintStore != null) {
+            return constraintStore.releaseClaim(constraintName, constraintKey, claimSequenceNumber);
+        }
+        try {
+            eventStore.publish(new GenericDomainEventMessage<>("Constraint" + constraintName,
+                                                               constraintKey,
+                                                               claimSequenceNumber + 1,
+                                                               new ConstraintReleasedEvent(constraintName,
+                                                                                           constraintKey)));
+            return true;
+        } catch (ConcurrencyException e) {
+            return false;
+        }
+    }
+
+    private void report(ReconciliationFinding finding, Partitions partitionWorkers) {
+        partitionWorkers.findings.incrementAndGet();
+        findingListener.accept(finding);
+    }
+
+    /**
+     * The threads checking the claims of each partition, each with a bounded queue of claims to check.
+     */
+    private class Partitions {
+
+        private final AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        private final AtomicLong checkedClaims = new AtomicLong();
+        private final AtomicLong findings = new AtomicLong();
+        private final AtomicLong releasedClaims = new AtomicLong();
+        private final Object idleLock = new Object();
+        private final BlockingQueue<Object>[] queues;
+        private final Thread[] workers;
+        private long pendingClaims;
+
+        @SuppressWarnings("unchecked")
+        private Partitions() {
+            ThreadFactory threadFactory = new AxonThreadFactory("ConstraintReconciliationScanner");
+            queues = new BlockingQueue[partitions];
+            workers = new Thread[partitions];
+            for (int i = 0; i < partitions; i++) {
+                BlockingQueue<Object> queue = new ArrayBlockingQueue<>(queueCapacity);
+                queues[i] = queue;
+                workers[i] = threadFactory.newThread(() -> checkClaims(queue));
+                workers[i].start();
+            }
+        }
+
+        private void dispatch(DomainEventMessage<?> claimEvent) throws InterruptedException {
+            synchronized (idleLock) {
+                pendingClaims++;
+            }
+            int partition = (claimEvent.getAggregateIdentifier().hashCode() & Integer.MAX_VALUE) % partitions;
+            queues[partition].put(claimEvent);
+        }
+
+        private void checkClaims(BlockingQueue<Object> queue) {
+            try {
+                Object item;
+                while ((item = queue.take()) != STOP) {
+                    try {
+                        if (failure.get() == null && checkClaim((DomainEventMessage<?>) item, this)) {
+                            checkedClaims.incrementAndGet();
+                        }
+                    } catch (RuntimeException e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        synchronized (idleLock) {
+                            pendingClaims--;
+                            idleLock.notifyAll();
+                        }
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void awaitIdle() throws InterruptedException {
+            synchronized (idleLock) {
+                while (pendingClaims > 0) {
+                    idleLock.wait();
+                }
+            }
+        }
+
+        private void stop() {
+            for (int i = 0; i < partitions; i++) {
+                if (!queues[i].offer(STOP)) {
+                    workers[i].interrupt();
+                }
+            }
+            for (Thread worker : workers) {
+                try {
+                    worker.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * A new builder to construct a new {@link ConstraintReconciliationScanner}.
+     * <p>
+     * Requires the {@link EventStore}, {@link UniqueConstraintValidator}, aggregate type and aggregate loader to be
+     * configured. The {@link ConstraintKeyProvider} defaults to a {@link Sha256ConstraintKeyProvider}, and should be
+     * the one of the store. Orphans are reported, but not released, by default. The amount of partitions defaults to
+     * {@code 1}, their queue capacity to {@code 1000} and the checkpoint interval to {@code 10_000} events.
+     *
+     * @param <T> The type of the aggregates.
+     */
+    public static class Builder<T> {
+
+        private EventStore eventStore;
+        private EventStoreUniqueConstraintStore constraintStore;
+        private LatestConstraintEventReader latestEventReader;
+        private UniqueConstraintValidator validator;
+        private ConstraintKeyProvider constraintKeyProvider = new Sha256ConstraintKeyProvider();
+        private Class<T> aggregateType;
+        private Function<String, T> aggregateLoader;
+        private Function<T, String> tenantResolver = aggregate -> null;
+        private Consumer<ReconciliationFinding> findingListener = finding -> {
+        };
+        private Consumer<TrackingToken> checkpointListener = token -> {
+        };
+        private boolean releaseOrphans = false;
+        private int partitions = 1;
+        private int queueCapacity = 1000;
+        private int checkpointInterval = 10_000;
+
+        /**
+         * The {@link EventStore} containing the claims. Required to be able to build the builder.
+         *
+         * @param eventStore The {@link EventStore} to scan.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> eventStore(EventStore eventStore) {
+            BuilderUtils.assertNonNull(eventStore, "eventStore cannot be null!");
+            this.eventStore = eventStore;
+            return this;
+        }
+
+        /**
+         * The {@link EventStoreUniqueConstraintStore} of the application, through which orphans are released. It
+         * should store its claims in the configured {@link EventStore}. Without it, orphans are released by appending
+         * to the {@link EventStore} directly, bypassing the cache of the store and its claims in flight.
+         *
+         * @param constraintStore The {@link EventStoreUniqueConstraintStore} to release orphans through.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> constraintStore(EventStoreUniqueConstraintStore constraintStore) {
+            BuilderUtils.assertNonNull(constraintStore, "constraintStore cannot be null!");
+            this.constraintStore = constraintStore;
+            return this;
+        }
+
+        /**
+         * The {@link LatestConstraintEventReader} used to read the current state of a constraint key. Defaults to an
+         * {@link EventStoreLatestConstraintEventReader} on the configured {@link EventStore}.
+         *
+         * @param latestEventReader The {@link LatestConstraintEventReader} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> latestEventReader(LatestConstraintEventReader latestEventReader) {
+            BuilderUtils.assertNonNull(latestEventReader, "latestEventReader cannot be null!");
+            this.latestEventReader = latestEventReader;
+            return this;
+        }
+
+        /**
+         * The {@link UniqueConstraintValidator} deriving the claimed values of an aggregate. Use the validator of the
+         * configuration, so values are normalized as they are when commands are handled. Required to be able to build
+         * the builder.
+         *
+         * @param validator The {@link UniqueConstraintValidator} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> validator(UniqueConstraintValidator validator) {
+            BuilderUtils.assertNonNull(validator, "validator cannot be null!");
+            this.validator = validator;
+            return this;
+        }
+
+        /**
+         * The {@link ConstraintKeyProvider} the store uses to determine the key of a value. Defaults to the
+         * {@link Sha256ConstraintKeyProvider}.
+         *
+         * @param constraintKeyProvider The {@link ConstraintKeyProvider} to use.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> constraintKeyProvider(ConstraintKeyProvider constraintKeyProvider) {
+            BuilderUtils.assertNonNull(constraintKeyProvider, "constraintKeyProvider cannot be null!");
+            this.constraintKeyProvider = constraintKeyProvider;
+            return this;
+        }
+
+        /**
+         * The type of the aggregates, declaring the
+         * {@link org.axonframework.extensions.uniqueconstraint.AggregateUniqueConstraint}s to check. Only claims of
+         * those constraints are scanned. Required to be able to build the builder.
+         *
+         * @param aggregateType The type of the aggregates.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> aggregateType(Class<T> aggregateType) {
+            BuilderUtils.assertNonNull(aggregateType, "aggregateType cannot be null!");
+            this.aggregateType = aggregateType;
+            return this;
+        }
+
+        /**
+         * The function loading the current state of the aggregate with the given identifier, returning {@code null}
+         * if it does not exist. It is invoked by multiple partitions concurrently, each time in a {@link UnitOfWork} of
+         * its own. Required to be able to build the
+         * builder.
+         *
+         * @param aggregateLoader The function loading an aggregate.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> aggregateLoader(Function<String, T> aggregateLoader) {
+            BuilderUtils.assertNonNull(aggregateLoader, "aggregateLoader cannot be null!");
+            this.aggregateLoader = aggregateLoader;
+            return this;
+        }
+
+        /**
+         * The function resolving the tenant of an aggregate, of which the values are claimed in a store shared by
+         * tenants through a {@link MultiTenantUniqueConstraintStore}. Returns {@code null} for aggregates without a
+         * tenant, which is the default for all aggregates.
+         *
+         * @param tenantResolver The function resolving the tenant of an aggregate.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> tenantResolver(Function<T, String> tenantResolver) {
+            BuilderUtils.assertNonNull(tenantResolver, "tenantResolver cannot be null!");
+            this.tenantResolver = tenantResolver;
+            return this;
+        }
+
+        /**
+         * The listener receiving every {@link ReconciliationFinding}. It is invoked by multiple partitions
+         * concurrently. Does nothing by default.
+         *
+         * @param findingListener The listener of the findings.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> findingListener(Consumer<ReconciliationFinding> findingListener) {
+            BuilderUtils.assertNonNull(findingListener, "findingListener cannot be null!");
+            this.findingListener = findingListener;
+            return this;
+        }
+
+        /**
+         * The listener receiving the token to continue from at every checkpoint. Does nothing by default.
+         *
+         * @param checkpointListener The listener of the checkpoints.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> checkpointListener(Consumer<TrackingToken> checkpointListener) {
+            BuilderUtils.assertNonNull(checkpointListener, "checkpointListener cannot be null!");
+            this.checkpointListener = checkpointListener;
+            return this;
+        }
+
+        /**
+         * Whether orphaned claims are released, instead of only being reported. Disabled by default.
+         *
+         * @param releaseOrphans Whether to release orphaned claims.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> releaseOrphans(boolean releaseOrphans) {
+            this.releaseOrphans = releaseOrphans;
+            return this;
+        }
+
+        /**
+         * The amount of partitions, each checking its claims on its own thread. Defaults to {@code 1}.
+         *
+         * @param partitions The amount of partitions.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> partitions(int partitions) {
+            BuilderUtils.assertStrictPositive(partitions, "partitions must be positive!");
+            this.partitions = partitions;
+            return this;
+        }
+
+        /**
+         * The maximum amount of claims waiting to be checked per partition. Defaults to {@code 1000}.
+         *
+         * @param queueCapacity The capacity of the queue of a partition.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> queueCapacity(int queueCapacity) {
+            BuilderUtils.assertStrictPositive(queueCapacity, "queueCapacity must be positive!");
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        /**
+         * The amount of events read between checkpoints. Defaults to {@code 10_000}.
+         *
+         * @param checkpointInterval The amount of events between checkpoints.
+         * @return The builder, for fluent interfacing.
+         */
+        public Builder<T> checkpointInterval(int checkpointInterval) {
+            BuilderUtils.assertStrictPositive(checkpointInterval, "checkpointInterval must be positive!");
+            this.checkpointInterval = checkpointInterval;
+            return this;
+        }
+
+        protected void validate() {
+            BuilderUtils.assertNonNull(eventStore, "eventStore cannot be null!");
+            BuilderUtils.assertNonNull(validator, "validator cannot be null!");
+            BuilderUtils.assertNonNull(aggregateType, "aggregateType cannot be null!");
+            BuilderUtils.assertNonNull(aggregateLoader, "aggregateLoader cannot be null!");
+        }
+
+        /**
+         * Builds the {@link ConstraintReconciliationScanner} using the configuration acquired.
+         *
+         * @return The {@link ConstraintReconciliationScanner}
+         */
+        public ConstraintReconciliationScanner<T> build() {
+            return new ConstraintReconciliationScanner<>(this);
+        }
+    }
+}
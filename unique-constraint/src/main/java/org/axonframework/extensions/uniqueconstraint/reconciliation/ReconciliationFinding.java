@@ -0,0 +1,150 @@
+package org.axonframework.extensions.uniqueconstraint.reconciliation;
+
+import java.util.Objects;
+
+/**
+ * An inconsistency between the claims in the event store and the current state of an aggregate, found by the
+ * {@link ConstraintReconciliationScanner}.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public final class ReconciliationFinding {
+
+    private final Type type;
+    private final String constraintName;
+    private final String constraintKey;
+    private final String owner;
+    private final String otherOwner;
+    private final boolean released;
+
+    /**
+     * Creates a {@link ReconciliationFinding}.
+     *
+     * @param type           The {@link Type} of the finding.
+     * @param constraintName The name of the constraint.
+     * @param constraintKey  The key of the value the finding is about.
+     * @param owner          The aggregate the finding is about.
+     * @param otherOwner     The aggregate claiming the value of a {@link Type#DUPLICATE_VALUE}, or {@code null}.
+     * @param released       Whether the claim of an {@link Type#ORPHANED_CLAIM} was released.
+     */
+    public ReconciliationFinding(Type type,
+                                 String constraintName,
+                                 String constraintKey,
+                                 String owner,
+                                 String otherOwner,
+                                 boolean released) {
+        this.type = type;
+        this.constraintName = constraintName;
+        this.constraintKey = constraintKey;
+        this.owner = owner;
+        this.otherOwner = otherOwner;
+        this.released = released;
+    }
+
+    /**
+     * The type of the finding.
+     *
+     * @return The {@link Type} of the finding.
+     */
+    public Type getType() {
+        return type;
+    }
+
+    /**
+     * The name of the constraint.
+     *
+     * @return The name of the constraint.
+     */
+    public String getConstraintName() {
+        return constraintName;
+    }
+
+    /**
+     * The key of the claimed value for an {@link Type#ORPHANED_CLAIM}, or of the current value of the aggregate
+     * otherwise.
+     *
+     * @return The constraint key.
+     */
+    public String getConstraintKey() {
+        return constraintKey;
+    }
+
+    /**
+     * The identifier of the aggregate the finding is about.
+     *
+     * @return The owner of the claim or value.
+     */
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * The identifier of the aggregate claiming the value of a {@link Type#DUPLICATE_VALUE}, or {@code null} for other
+     * findings.
+     *
+     * @return The other owner of the value.
+     */
+    public String getOtherOwner() {
+        return otherOwner;
+    }
+
+    /**
+     * Whether the claim of an {@link Type#ORPHANED_CLAIM} was released by the scanner.
+     *
+     * @return {@code true} if the claim was released.
+     */
+    public boolean isReleased() {
+        return released;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ReconciliationFinding that = (ReconciliationFinding) o;
+        return released == that.released
+                && type == that.type
+                && constraintName.equals(that.constraintName)
+                && constraintKey.equals(that.constraintKey)
+                && owner.equals(that.owner)
+                && Objects.equals(otherOwner, that.otherOwner);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(type, constraintName, constraintKey, owner, otherOwner, released);
+    }
+
+    @Override
+    public String toString() {
+        return "ReconciliationFinding{type=" + type
+                + ", constraintName='" + constraintName
+                + "', constraintKey='" + constraintKey
+                + "', owner='" + owner
+                + "', otherOwner='" + otherOwner
+                + "', released=" + released + "}";
+    }
+
+    /**
+     * The type of a {@link ReconciliationFinding}.
+     */
+    public enum Type {
+        /**
+         * A claimed value that the aggregate owning it no longer has, or of an aggregate that does not exist.
+         */
+        ORPHANED_CLAIM,
+        /**
+         * A value of the aggregate that is claimed by another aggregate.
+         */
+        DUPLICATE_VALUE,
+        /**
+         * A value of the aggregate that is not claimed at all.
+         */
+        MISSING_CLAIM
+    }
+}
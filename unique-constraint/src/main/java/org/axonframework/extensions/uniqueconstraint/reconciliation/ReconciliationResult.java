@@ -0,0 +1,70 @@
+package org.axonframework.extensions.uniqueconstraint.reconciliation;
+
+import org.axonframework.eventhandling.TrackingToken;
+
+/**
+ * The outcome of a run of the {@link ConstraintReconciliationScanner}. The findings themselves are passed to the
+ * finding listener while scanning, so the result only holds their counts.
+ *
+ * @author Mitchell Herrijgers
+ * @since 0.0.1
+ */
+public final class ReconciliationResult {
+
+    private final long checkedClaims;
+    private final long findings;
+    private final long releasedClaims;
+    private final TrackingToken lastToken;
+
+    /**
+     * Creates the {@link ReconciliationResult} of a run.
+     *
+     * @param checkedClaims  The amount of current claims compared with their aggregate.
+     * @param findings       The amount of findings reported.
+     * @param releasedClaims The amount of orphaned claims released.
+     * @param lastToken      The token of the last event scanned.
+     */
+    public ReconciliationResult(long checkedClaims, long findings, long releasedClaims, TrackingToken lastToken) {
+        this.checkedClaims = checkedClaims;
+        this.findings = findings;
+        this.releasedClaims = releasedClaims;
+        this.lastToken = lastToken;
+    }
+
+    /**
+     * The amount of claims compared with the current state of their aggregate. Claims that were released or claimed
+     * again later are not compared.
+     *
+     * @return The amount of claims checked.
+     */
+    public long getCheckedClaims() {
+        return checkedClaims;
+    }
+
+    /**
+     * The amount of {@link ReconciliationFinding}s reported.
+     *
+     * @return The amount of findings.
+     */
+    public long getFindings() {
+        return findings;
+    }
+
+    /**
+     * The amount of orphaned claims released.
+     *
+     * @return The amount of released claims.
+     */
+    public long getReleasedClaims() {
+        return releasedClaims;
+    }
+
+    /**
+     * The token of the last event scanned, from which a next run continues.
+     *
+     * @return The last token, or the token the run started from if there were no events.
+     */
+    public TrackingToken getLastToken() {
+        return lastToken;
+    }
+}
@@ -0,0 +1,76 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BloomConstraintKeyFilterTest {
+
+    private final BloomConstraintKeyFilter filter = BloomConstraintKeyFilter.builder()
+                                                                            .expectedKeys(10_000)
+                                                                            .falsePositiveProbability(0.01)
+                                                                            .build();
+
+    @Test
+    void answersEveryKeyMightExistUntilInitialized() {
+        assertTrue(filter.mightExist("NeverAdded"));
+        assertEquals(0, filter.getLookupCount());
+
+        filter.markInitialized();
+
+        assertFalse(filter.mightExist("NeverAdded"));
+    }
+
+    @Test
+    void neverAnswersAddedKeyDoesNotExist() {
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("key-" + i);
+        }
+        filter.markInitialized();
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightExist("key-" + i));
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysCloseToConfiguredProbability() {
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("key-" + i);
+        }
+        filter.markInitialized();
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (filter.mightExist("other-" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertTrue(falsePositives < 2_000, "Too many false positives: " + falsePositives);
+        assertEquals(100_000, filter.getLookupCount());
+        assertEquals(100_000 - falsePositives, filter.getSkippedLookupCount());
+        assertEquals((100_000 - falsePositives) / 100_000d, filter.getSkipRatio(), 0.0001);
+    }
+
+    @Test
+    void sizeIsCappedAtMemoryBudget() {
+        BloomConstraintKeyFilter cappedFilter = BloomConstraintKeyFilter.builder()
+                                                                        .expectedKeys(1_000_000)
+                                                                        .falsePositiveProbability(0.001)
+                                                                        .maximumMemoryBytes(1024)
+                                                                        .build();
+
+        assertEquals(1024 * 8, cappedFilter.getBitSize());
+        assertEquals(1, cappedFilter.getHashFunctionCount());
+    }
+
+    @Test
+    void builderRejectsInvalidFalsePositiveProbability() {
+        BloomConstraintKeyFilter.Builder builder = BloomConstraintKeyFilter.builder();
+
+        assertThrows(AxonConfigurationException.class, () -> builder.falsePositiveProbability(0));
+        assertThrows(AxonConfigurationException.class, () -> builder.falsePositiveProbability(1));
+    }
+}
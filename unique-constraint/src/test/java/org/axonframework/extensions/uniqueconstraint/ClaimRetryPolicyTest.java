@@ -0,0 +1,44 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClaimRetryPolicyTest {
+
+    private final ClaimRetryPolicy policy = ClaimRetryPolicy.builder()
+                                                            .maxAttempts(3)
+                                                            .initialBackoff(Duration.ofMillis(10))
+                                                            .maxBackoff(Duration.ofMillis(25))
+                                                            .build();
+
+    @Test
+    void retriesUntilMaxAttemptsAreReached() {
+        assertTrue(policy.shouldRetry(1));
+        assertTrue(policy.shouldRetry(2));
+        assertFalse(policy.shouldRetry(3));
+    }
+
+    @Test
+    void backoffGrowsExponentiallyUpToMaximum() {
+        for (int i = 0; i < 100; i++) {
+            assertTrue(policy.backoffMillis(1) <= 10);
+            assertTrue(policy.backoffMillis(2) <= 20);
+            assertTrue(policy.backoffMillis(3) <= 25);
+            assertTrue(policy.backoffMillis(40) <= 25);
+            assertTrue(policy.backoffMillis(40) >= 0);
+        }
+    }
+
+    @Test
+    void builderRejectsMaximumBackoffShorterThanInitialBackoff() {
+        ClaimRetryPolicy.Builder builder = ClaimRetryPolicy.builder()
+                                                           .initialBackoff(Duration.ofSeconds(1))
+                                                           .maxBackoff(Duration.ofMillis(1));
+
+        assertThrows(AxonConfigurationException.class, builder::build);
+    }
+}
@@ -0,0 +1,191 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConstraintAccessorPlanTest {
+
+    static class EmptyClass {
+
+        private String notAConstraint = "value";
+    }
+
+    static class ConstraintClass {
+
+        @AggregateUniqueConstraint(constraintName = "Email")
+        private String email = "my@email.com";
+
+        @AggregateUniqueConstraint(constraintName = "Number")
+        private int number = 42;
+
+        @AggregateUniqueConstraint(constraintName = "Name")
+        private String name() {
+            return "myName";
+        }
+    }
+
+    static class OverridingConstraintClass {
+
+        @AggregateUniqueConstraint(constraintName = "Email")
+        private String email = "field@email.com";
+
+        @AggregateUniqueConstraint(constraintName = "Email")
+        public String email() {
+            return "method@email.com";
+        }
+    }
+
+    static class NormalizedConstraintClass {
+
+        @AggregateUniqueConstraint(constraintName = "Email",
+                normalizers = {ConstraintValueNormalizer.Trim.class, ConstraintValueNormalizer.LowerCase.class})
+        private String email = " My@Email.com ";
+
+        @AggregateUniqueConstraint(constraintName = "Number")
+        private int number = 42;
+    }
+
+    static class CompositeConstraintClass {
+
+        @AggregateUniqueConstraint(constraintName = "Email")
+        private String email = "my@email.com";
+
+        @AggregateUniqueConstraint(constraintName = "TenantRoom", order = 1)
+        private int roomNumber = 101;
+
+        @AggregateUniqueConstraint(constraintName = "TenantRoom", order = 0)
+        private String tenantId = "tenant";
+    }
+
+    static class FailingConstraintClass {
+
+        @AggregateUniqueConstraint(constraintName = "Email")
+        public String email() {
+            throw new IllegalArgumentException("Computing the email failed");
+        }
+    }
+
+    static class StaticConstraintClass {
+
+        @AggregateUniqueConstraint(constraintName = "Email")
+        private static String email = "my@email.com";
+    }
+
+    static class ParameterizedConstraintClass {
+
+        @AggregateUniqueConstraint(constraintName = "Email")
+        public String email(String domain) {
+            return "my@" + domain;
+        }
+    }
+
+    @Test
+    void planOfClassWithoutConstraintsIsEmpty() {
+        ConstraintAccessorPlan plan = ConstraintAccessorPlan.forClass(EmptyClass.class);
+
+        assertTrue(plan.isEmpty());
+        assertEquals(0, plan.size());
+    }
+
+    @Test
+    void readsPrivateFieldsAndMethodsInDeclarationOrder() {
+        ConstraintAccessorPlan plan = ConstraintAccessorPlan.forClass(ConstraintClass.class);
+
+        assertEquals(3, plan.size());
+        assertEquals("Email", plan.constraintName(0));
+        assertEquals("Number", plan.constraintName(1));
+        assertEquals("Name", plan.constraintName(2));
+        assertArrayEquals(new Object[]{"my@email.com", 42, "myName"}, plan.readValues(new ConstraintClass()));
+    }
+
+    @Test
+    void readsCurrentValueOfField() {
+        ConstraintAccessorPlan plan = ConstraintAccessorPlan.forClass(ConstraintClass.class);
+        ConstraintClass aggregate = new ConstraintClass();
+        aggregate.email = null;
+
+        assertNull(plan.readValue(0, aggregate));
+        aggregate.email = "other@email.com";
+        assertEquals("other@email.com", plan.readValue(0, aggregate));
+    }
+
+    @Test
+    void methodTakesPrecedenceOverFieldWithSameConstraintName() {
+        ConstraintAccessorPlan plan = ConstraintAccessorPlan.forClass(OverridingConstraintClass.class);
+
+        assertEquals(1, plan.size());
+        assertEquals("method@email.com", plan.readValue(0, new OverridingConstraintClass()));
+    }
+
+    @Test
+    void planIsCreatedOncePerClass() {
+        assertSame(ConstraintAccessorPlan.forClass(ConstraintClass.class),
+                   ConstraintAccessorPlan.forClass(ConstraintClass.class));
+    }
+
+    @Test
+    void exceptionsOfMethodsArePropagated() {
+        ConstraintAccessorPlan plan = ConstraintAccessorPlan.forClass(FailingConstraintClass.class);
+        FailingConstraintClass aggregate = new FailingConstraintClass();
+
+        assertThrows(IllegalArgumentException.class, () -> plan.readValue(0, aggregate));
+    }
+
+    @Test
+    void rejectsConstraintsOnStaticFields() {
+        IllegalStateException exception = assertThrows(
+                IllegalStateException.class, () -> ConstraintAccessorPlan.forClass(StaticConstraintClass.class));
+
+        assertTrue(exception.getMessage().contains("static field email"));
+    }
+
+    @Test
+    void rejectsConstraintsOnMethodsWithParameters() {
+        IllegalStateException exception = assertThrows(
+                IllegalStateException.class, () -> ConstraintAccessorPlan.forClass(ParameterizedConstraintClass.class));
+
+        assertTrue(exception.getMessage().contains("method email"));
+    }
+
+    @Test
+    void restrictedPlanRetainsNamedConstraintsInPlanOrder() {
+        ConstraintAccessorPlan plan = ConstraintAccessorPlan.forClass(ConstraintClass.class);
+
+        ConstraintAccessorPlan restricted = plan.restrictTo("Name", "Email", "Name");
+
+        assertEquals(2, restricted.size());
+        assertEquals("Email", restricted.constraintName(0));
+        assertEquals("Name", restricted.constraintName(1));
+        assertArrayEquals(new Object[]{"my@email.com", "myName"}, restricted.readValues(new ConstraintClass()));
+        assertEquals(2, plan.indexOf("Name"));
+        assertEquals(-1, plan.indexOf("Unknown"));
+        assertTrue(plan.restrictTo().isEmpty());
+        assertThrows(IllegalArgumentException.class, () -> plan.restrictTo("Unknown"));
+    }
+
+    @Test
+    void combinesDeclaredNormalizersOfConstraint() {
+        ConstraintAccessorPlan plan = ConstraintAccessorPlan.forClass(NormalizedConstraintClass.class);
+
+        assertEquals("my@email.com", plan.normalizer(0).normalize(" My@Email.com ").toString());
+        assertNull(plan.normalizer(1));
+        assertNotNull(plan.restrictTo("Email").normalizer(0));
+    }
+
+    @Test
+    void ordersComponentsOfCompositeConstraint() {
+        ConstraintAccessorPlan plan = ConstraintAccessorPlan.forClass(CompositeConstraintClass.class);
+
+        assertEquals(2, plan.size());
+        assertEquals(3, plan.valueCount());
+        assertEquals("TenantRoom", plan.constraintName(1));
+        assertEquals(1, plan.valueIndex(1));
+        assertEquals(2, plan.componentCount(1));
+        assertArrayEquals(new Object[]{"my@email.com", "tenant", 101}, plan.readValues(new CompositeConstraintClass()));
+
+        ConstraintAccessorPlan restricted = plan.restrictTo("TenantRoom");
+        assertEquals(2, restricted.valueCount());
+        assertArrayEquals(new Object[]{"tenant", 101}, restricted.readValues(new CompositeConstraintClass()));
+    }
+}
@@ -0,0 +1,99 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.junit.jupiter.api.*;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConstraintClaimStateCacheTest {
+
+    private final MutableClock clock = new MutableClock();
+
+    @Test
+    void returnsCachedStateAndCountsHits() {
+        ConstraintClaimStateCache cache = ConstraintClaimStateCache.builder().clock(clock).build();
+        cache.put("KEY", ConstraintClaimState.claimed(3L, "AGG_ID"));
+
+        assertEquals(ConstraintClaimState.claimed(3L, "AGG_ID"), cache.get("KEY"));
+        assertNull(cache.get("OTHER_KEY"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void expiresEntriesAfterTimeToLive() {
+        ConstraintClaimStateCache cache = ConstraintClaimStateCache.builder()
+                                                                   .timeToLive(Duration.ofSeconds(10))
+                                                                   .clock(clock)
+                                                                   .build();
+        cache.put("KEY", ConstraintClaimState.released(1L));
+
+        clock.advance(Duration.ofSeconds(9));
+        assertNotNull(cache.get("KEY"));
+        clock.advance(Duration.ofSeconds(1));
+        assertNull(cache.get("KEY"));
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntryWhenFull() {
+        ConstraintClaimStateCache cache = ConstraintClaimStateCache.builder().maximumSize(2).clock(clock).build();
+        cache.put("KEY1", ConstraintClaimState.unused());
+        cache.put("KEY2", ConstraintClaimState.unused());
+        cache.get("KEY1");
+        cache.put("KEY3", ConstraintClaimState.unused());
+
+        assertNotNull(cache.get("KEY1"));
+        assertNull(cache.get("KEY2"));
+        assertNotNull(cache.get("KEY3"));
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    @Test
+    void invalidateRemovesEntry() {
+        ConstraintClaimStateCache cache = ConstraintClaimStateCache.builder().clock(clock).build();
+        cache.put("KEY", ConstraintClaimState.unused());
+
+        cache.invalidate("KEY");
+
+        assertNull(cache.get("KEY"));
+    }
+
+    @Test
+    void builderRejectsNonPositiveSettings() {
+        ConstraintClaimStateCache.Builder builder = ConstraintClaimStateCache.builder();
+
+        assertThrows(AxonConfigurationException.class, () -> builder.maximumSize(0));
+        assertThrows(AxonConfigurationException.class, () -> builder.timeToLive(Duration.ZERO));
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant = Instant.parse("2022-11-01T10:00:00Z");
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.of("UTC");
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.config.Configuration;
+import org.axonframework.config.Configurer;
+import org.axonframework.config.DefaultConfigurer;
+import org.axonframework.eventhandling.EventTrackerStatus;
+import org.axonframework.eventhandling.StreamingEventProcessor;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.extensions.uniqueconstraint.events.ConstraintClaimedEvent;
+import org.axonframework.extensions.uniqueconstraint.events.ConstraintReleasedEvent;
+import org.junit.jupiter.api.*;
+
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConstraintIndexProjectionTest {
+
+    private final Sha256ConstraintKeyProvider keyProvider = new Sha256ConstraintKeyProvider();
+    private final ConstraintIndexProjection projection = ConstraintIndexProjection.builder().expectedKeys(4).build();
+
+    @Test
+    void recordsOwnerOfClaimedKeys() {
+        String key = keyProvider.determineValue("MyConstraint", "MyValue");
+
+        projection.on(new ConstraintClaimedEvent("MyConstraint", key, "AGG_11"));
+
+        assertEquals(Optional.of("AGG_11"), projection.ownerOf(key));
+        assertEquals(Optional.empty(), projection.ownerOf(keyProvider.determineValue("MyConstraint", "Other")));
+    }
+
+    @Test
+    void keepsReleasedKeysWithoutOwner() {
+        String key = keyProvider.determineValue("MyConstraint", "MyValue");
+        projection.markInitialized();
+
+        projection.on(new ConstraintClaimedEvent("MyConstraint", key, "AGG_11"));
+        projection.on(new ConstraintReleasedEvent("MyConstraint", key));
+
+        assertEquals(Optional.empty(), projection.ownerOf(key));
+        assertTrue(projection.mightExist(key));
+    }
+
+    @Test
+    void answersKeysMightExistUntilReady() {
+        String key = keyProvider.determineValue("MyConstraint", "MyValue");
+
+        assertTrue(projection.mightExist(key));
+        projection.markInitialized();
+        assertFalse(projection.mightExist(key));
+    }
+
+    @Test
+    void becomesReadyWhenProcessorCaughtUp() {
+        StreamingEventProcessor processor = mock(StreamingEventProcessor.class);
+        EventTrackerStatus status = mock(EventTrackerStatus.class);
+        when(processor.isRunning()).thenReturn(true);
+        when(processor.processingStatus()).thenReturn(Collections.singletonMap(0, status));
+        projection.trackReadinessOf(processor);
+
+        assertFalse(projection.isReady());
+        when(status.isCaughtUp()).thenReturn(true);
+        assertTrue(projection.isReady());
+    }
+
+    @Test
+    void isNoLongerReadyWhenProcessorStopsOrFails() {
+        StreamingEventProcessor processor = mock(StreamingEventProcessor.class);
+        EventTrackerStatus status = mock(EventTrackerStatus.class);
+        when(processor.isRunning()).thenReturn(true);
+        when(status.isCaughtUp()).thenReturn(true);
+        when(processor.processingStatus()).thenReturn(Collections.singletonMap(0, status));
+        projection.trackReadinessOf(processor);
+        assertTrue(projection.isReady());
+
+        when(status.isErrorState()).thenReturn(true);
+        assertFalse(projection.isReady());
+        assertTrue(projection.mightExist("NeverSeenKey"));
+
+        when(status.isErrorState()).thenReturn(false);
+        when(processor.isRunning()).thenReturn(false);
+        assertFalse(projection.isReady());
+
+        when(processor.isRunning()).thenReturn(true);
+        assertTrue(projection.isReady());
+        assertFalse(projection.mightExist("NeverSeenKey"));
+    }
+
+    @Test
+    void addedKeyDoesNotOverwriteKnownOwner() {
+        String key = keyProvider.determineValue("MyConstraint", "MyValue");
+        String addedKey = keyProvider.determineValue("MyConstraint", "AddedValue");
+        projection.markInitialized();
+
+        projection.on(new ConstraintClaimedEvent("MyConstraint", key, "AGG_11"));
+        projection.add(key);
+        projection.add(addedKey);
+
+        assertEquals(Optional.of("AGG_11"), projection.ownerOf(key));
+        assertEquals(Optional.empty(), projection.ownerOf(addedKey));
+        assertTrue(projection.mightExist(addedKey));
+    }
+
+    @Test
+    void storesKeysOfOtherFormats() {
+        String lowercaseKey = keyProvider.determineValue("MyConstraint", "MyValue").toLowerCase();
+
+        projection.on(new ConstraintClaimedEvent("MyConstraint", "MyValue", "AGG_11"));
+        projection.on(new ConstraintClaimedEvent("MyConstraint", lowercaseKey, "AGG_ID_12"));
+
+        assertEquals(Optional.of("AGG_11"), projection.ownerOf("MyValue"));
+        assertEquals(Optional.of("AGG_ID_12"), projection.ownerOf(lowercaseKey));
+        assertEquals(Optional.empty(), projection.ownerOf(lowercaseKey.toUpperCase()));
+    }
+
+    @Test
+    void recordsBase64UrlKeysUnderSameEntryAsHexKeyOfSameValue() {
+        Sha256ConstraintKeyProvider base64Provider =
+                new Sha256ConstraintKeyProvider(Sha256ConstraintKeyProvider.Encoding.BASE64_URL);
+        String key = base64Provider.determineValue("MyConstraint", "MyValue");
+
+        projection.on(new ConstraintClaimedEvent("MyConstraint", key, "AGG_11"));
+
+        assertEquals(Optional.of("AGG_11"), projection.ownerOf(key));
+        assertEquals(Optional.of("AGG_11"), projection.ownerOf(keyProvider.determineValue("MyConstraint", "MyValue")));
+        assertEquals(Optional.empty(), projection.ownerOf(base64Provider.determineValue("MyConstraint", "Other")));
+        assertEquals(1, projection.size());
+    }
+
+    @Test
+    void growsBeyondExpectedKeys() {
+        for (int i = 0; i < 10000; i++) {
+            projection.on(new ConstraintClaimedEvent("MyConstraint",
+                                                     keyProvider.determineValue("MyConstraint", "value-" + i),
+                                                     "AGG_" + i));
+        }
+
+        assertEquals(10000, projection.size());
+        for (int i = 0; i < 10000; i++) {
+            assertEquals(Optional.of("AGG_" + i),
+                         projection.ownerOf(keyProvider.determineValue("MyConstraint", "value-" + i)));
+        }
+    }
+
+    @Test
+    void resetClearsIndex() {
+        String key = keyProvider.determineValue("MyConstraint", "MyValue");
+        projection.markInitialized();
+        projection.on(new ConstraintClaimedEvent("MyConstraint", key, "AGG_11"));
+
+        projection.reset();
+
+        assertEquals(0, projection.size());
+        assertFalse(projection.isReady());
+    }
+
+    @Test
+    void configurerModuleBuildsIndexFromEventStore() throws InterruptedException {
+        Configurer configurer = DefaultConfigurer.defaultConfiguration()
+                                                 .configureEmbeddedEventStore(c -> new InMemoryEventStorageEngine());
+        new UniqueConstraintConfigurerModule().configureModule(configurer);
+        new ConstraintIndexConfigurerModule().configureModule(configurer);
+        Configuration configuration = configurer.buildConfiguration();
+        configuration.start();
+        try {
+            UniqueConstraintStore store = configuration.getComponent(UniqueConstraintStore.class);
+            ConstraintIndexProjection index = configuration.getComponent(ConstraintIndexProjection.class);
+            store.checkAndClaimValue("MyConstraint", "MyValue", "AGG_11");
+            String key = keyProvider.determineValue("MyConstraint", "MyValue");
+
+            long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(10);
+            while (!(index.isReady() && index.ownerOf(key).isPresent()) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+
+            assertEquals(Optional.of("AGG_11"), index.ownerOf(key));
+            assertFalse(index.mightExist(keyProvider.determineValue("MyConstraint", "OtherValue")));
+            assertThrows(UniqueConstraintClaimException.class,
+                         () -> store.checkAndClaimValue("MyConstraint", "MyValue", "AGG_ID_12"));
+        } finally {
+            configuration.shutdown();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.common.stream.BlockingStream;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventhandling.TrackedEventMessage;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.extensions.uniqueconstraint.events.ConstraintClaimedEvent;
+import org.axonframework.extensions.uniqueconstraint.events.ConstraintReleasedEvent;
+import org.axonframework.messaging.StreamableMessageSource;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConstraintKeyFilterInitializerTest {
+
+    private final EmbeddedEventStore eventStore = EmbeddedEventStore.builder()
+                                                                    .storageEngine(new InMemoryEventStorageEngine())
+                                                                    .build();
+    private final BloomConstraintKeyFilter filter = BloomConstraintKeyFilter.builder().expectedKeys(1_000).build();
+    private final ConstraintKeyFilterInitializer initializer = ConstraintKeyFilterInitializer.builder()
+                                                                                             .messageSource(eventStore)
+                                                                                             .constraintKeyFilter(filter)
+                                                                                             .build();
+
+    @AfterEach
+    void tearDown() {
+        initializer.shutdown();
+        eventStore.shutDown();
+    }
+
+    @Test
+    void addsKeysOfExistingClaimsBeforeMarkingFilterInitialized() {
+        eventStore.publish(new GenericDomainEventMessage<>("ConstraintEmail", "ClaimedKey", 0,
+                                                           new ConstraintClaimedEvent("Email", "ClaimedKey", "AGG_1")),
+                           new GenericDomainEventMessage<>("ConstraintEmail", "ClaimedKey", 1,
+                                                           new ConstraintReleasedEvent("Email", "ClaimedKey")),
+                           new GenericDomainEventMessage<>("Room", "RoomId", 0, "NotAConstraintEvent"));
+
+        initializer.start();
+        awaitTrue(filter::isInitialized);
+
+        assertTrue(filter.mightExist("ClaimedKey"));
+        assertFalse(filter.mightExist("RoomId"));
+        assertFalse(filter.mightExist("UnusedKey"));
+    }
+
+    @Test
+    void addsKeysOfWhichOnlyTheReleaseIsLeft() {
+        eventStore.publish(new GenericDomainEventMessage<>("ConstraintEmail", "CompactedKey", 1,
+                                                           new ConstraintReleasedEvent("Email", "CompactedKey")));
+
+        initializer.start();
+        awaitTrue(filter::isInitialized);
+
+        assertTrue(filter.mightExist("CompactedKey"));
+    }
+
+    @Test
+    void keepsAddingKeysOfNewClaimsAfterInitialization() {
+        initializer.start();
+        awaitTrue(filter::isInitialized);
+
+        eventStore.publish(new GenericDomainEventMessage<>("ConstraintEmail", "NewKey", 0,
+                                                           new ConstraintClaimedEvent("Email", "NewKey", "AGG_2")));
+
+        awaitTrue(() -> filter.mightExist("NewKey"));
+    }
+
+    @Test
+    void marksFilterUninitializedUntilFailedStreamIsRestarted() throws InterruptedException {
+        BlockingStream<TrackedEventMessage<?>> failingStream = mock(BlockingStream.class);
+        when(failingStream.hasNextAvailable(anyInt(), any())).thenThrow(new IllegalStateException("Connection lost"));
+        StreamableMessageSource<TrackedEventMessage<?>> messageSource = mock(StreamableMessageSource.class);
+        when(messageSource.openStream(null)).thenReturn(failingStream)
+                                            .thenAnswer(invocation -> eventStore.openStream(null));
+        BloomConstraintKeyFilter spiedFilter = spy(filter);
+        ConstraintKeyFilterInitializer restartingInitializer = ConstraintKeyFilterInitializer.builder()
+                                                                                             .messageSource(messageSource)
+                                                                                             .constraintKeyFilter(spiedFilter)
+                                                                                             .restartDelay(Duration.ZERO)
+                                                                                             .build();
+        eventStore.publish(new GenericDomainEventMessage<>("ConstraintEmail", "ClaimedKey", 0,
+                                                           new ConstraintClaimedEvent("Email", "ClaimedKey", "AGG_1")));
+
+        restartingInitializer.start();
+        try {
+            verify(messageSource, timeout(5_000).times(2)).openStream(null);
+            awaitTrue(spiedFilter::isInitialized);
+        } finally {
+            restartingInitializer.shutdown();
+        }
+
+        InOrder inOrder = inOrder(spiedFilter);
+        inOrder.verify(spiedFilter).markInitialized();
+        inOrder.verify(spiedFilter).markUninitialized();
+        inOrder.verify(spiedFilter).markInitialized();
+        assertTrue(spiedFilter.mightExist("ClaimedKey"));
+    }
+
+    @Test
+    void marksFilterUninitializedOnShutdown() {
+        initializer.start();
+        awaitTrue(filter::isInitialized);
+
+        initializer.shutdown();
+
+        assertFalse(filter.isInitialized());
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition was not met in time");
+            Thread.yield();
+        }
+    }
+}
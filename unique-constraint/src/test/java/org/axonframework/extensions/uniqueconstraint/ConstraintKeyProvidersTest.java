@@ -0,0 +1,82 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.junit.jupiter.api.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConstraintKeyProvidersTest {
+
+    private static final byte[] SECRET = "my-secret".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void plainProviderSeparatesNameFromValue() {
+        PlainConstraintKeyProvider provider = new PlainConstraintKeyProvider();
+
+        assertEquals("RoomNumber:101", provider.determineValue("RoomNumber", 101));
+        assertNotEquals(provider.determineValue("A:B", "C"), provider.determineValue("A", "B:C"));
+        assertNotEquals(provider.determineValue("A\\", ":B"), provider.determineValue("A", "\\:B"));
+    }
+
+    @Test
+    void murmur3ProviderMatchesReferenceImplementation() {
+        byte[] input = "The quick brown fox jumps over the lazy dog".getBytes(StandardCharsets.UTF_8);
+        byte[] hash = new byte[16];
+
+        Murmur3ConstraintKeyProvider.hash(input, input.length, 0, hash);
+
+        assertEquals("6C1B07BC7BBC4BE347939AC4A93C437A",
+                     ConstraintKeyEncoder.encode(Sha256ConstraintKeyProvider.Encoding.HEX, hash, 16, new char[32]));
+        assertEquals("83D9E5D71B3F84FD34334974B44D6DEA",
+                     new Murmur3ConstraintKeyProvider(Sha256ConstraintKeyProvider.Encoding.HEX, 42)
+                             .determineValue("N", "room-123"));
+    }
+
+    @Test
+    void murmur3ProviderEncodesAsBase64Url() {
+        String key = new Murmur3ConstraintKeyProvider(Sha256ConstraintKeyProvider.Encoding.BASE64_URL, 0)
+                .determineValue("Sku", "ABC-123");
+
+        assertEquals(22, key.length());
+        assertNotEquals(key, new Murmur3ConstraintKeyProvider(Sha256ConstraintKeyProvider.Encoding.BASE64_URL, 1)
+                .determineValue("Sku", "ABC-123"));
+    }
+
+    @Test
+    void hmacProviderMatchesMacOfConcatenatedString() throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET, "HmacSHA256"));
+        byte[] expected = mac.doFinal("Email__someone@example.com".getBytes(StandardCharsets.UTF_8));
+
+        String key = new HmacConstraintKeyProvider(SECRET).determineValue("Email", "someone@example.com");
+
+        assertEquals(ConstraintKeyEncoder.encode(Sha256ConstraintKeyProvider.Encoding.HEX, expected, 32, new char[64]),
+                     key);
+        assertNotEquals(key, new HmacConstraintKeyProvider("other".getBytes(StandardCharsets.UTF_8))
+                .determineValue("Email", "someone@example.com"));
+    }
+
+    @Test
+    void hmacProviderRejectsEmptySecret() {
+        assertThrows(IllegalArgumentException.class, () -> new HmacConstraintKeyProvider(new byte[0]));
+    }
+
+    @Test
+    void perConstraintProviderUsesProviderRegisteredForName() {
+        ConstraintKeyProvider legacyAware = new FallbackConstraintKeyProvider(new PlainConstraintKeyProvider(),
+                                                                              (name, value) -> "legacy");
+        PerConstraintKeyProvider provider = PerConstraintKeyProvider.builder()
+                                                                    .provider("RoomNumber", legacyAware)
+                                                                    .build();
+
+        assertEquals("RoomNumber:101", provider.determineValue("RoomNumber", 101));
+        assertEquals(Optional.of("legacy"), provider.determineLegacyValue("RoomNumber", 101));
+        assertEquals(new Sha256ConstraintKeyProvider().determineValue("Email", "someone@example.com"),
+                     provider.determineValue("Email", "someone@example.com"));
+        assertEquals(Optional.empty(), provider.determineLegacyValue("Email", "someone@example.com"));
+    }
+}
@@ -0,0 +1,39 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConstraintValueNormalizerTest {
+
+    private final ConstraintValueNormalizer trim = new ConstraintValueNormalizer.Trim();
+    private final ConstraintValueNormalizer lowerCase = new ConstraintValueNormalizer.LowerCase();
+    private final ConstraintValueNormalizer nfkc = new ConstraintValueNormalizer.Nfkc();
+
+    @Test
+    void returnsNormalizedValuesThemselves() {
+        String value = "someone@example.com";
+
+        assertSame(value, trim.normalize(value));
+        assertSame(value, lowerCase.normalize(value));
+        assertSame(value, nfkc.normalize(value));
+        assertSame(value, trim.andThen(lowerCase).andThen(nfkc).normalize(value));
+    }
+
+    @Test
+    void normalizesValues() {
+        assertEquals("a b", trim.normalize("\t a b \n").toString());
+        assertEquals("someone@example.com", lowerCase.normalize("SomeOne@Example.COM").toString());
+        assertEquals("straße", lowerCase.normalize("STRAßE").toString());
+        assertEquals("foo1", nfkc.normalize("ｆｏｏ¹").toString());
+        assertEquals("office", nfkc.normalize("oﬃce").toString());
+    }
+
+    @Test
+    void normalizesCharSequencesThatAreNotStrings() {
+        StringBuilder value = new StringBuilder(" Foo ");
+
+        assertEquals("foo", trim.andThen(lowerCase).normalize(value).toString());
+        assertSame(value, nfkc.normalize(value));
+    }
+}
@@ -1,15 +1,39 @@
 package org.axonframework.extensions.uniqueconstraint;
 
+import com.thoughtworks.xstream.XStream;
+import org.axonframework.common.transaction.NoTransactionManager;
 import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.EventMessage;
 import org.axonframework.eventhandling.GenericDomainEventMessage;
 import org.axonframework.eventsourcing.eventstore.DomainEventStream;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
 import org.axonframework.eventsourcing.eventstore.EventStore;
+import org.axonframework.eventsourcing.eventstore.jdbc.HsqlEventTableFactory;
+import org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine;
+import org.axonframework.eventsourcing.eventstore.jpa.SQLStateResolver;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
 import org.axonframework.extensions.uniqueconstraint.events.ConstraintClaimedEvent;
 import org.axonframework.extensions.uniqueconstraint.events.ConstraintReleasedEvent;
+import org.axonframework.modelling.command.AggregateStreamCreationException;
+import org.axonframework.modelling.command.ConcurrencyException;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.xml.XStreamSerializer;
 import org.junit.jupiter.api.*;
 import org.mockito.*;
 
+import java.sql.DriverManager;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -102,6 +126,543 @@ class EventStoreUniqueConstraintStoreTest {
         verifyUnclaimedEvent(captor.getValue(), "MyConstraint", "MyConstraintValue");
     }
 
+    @Test
+    void answersSubsequentClaimsAndReleasesFromCacheWhenConfigured() {
+        ConstraintClaimStateCache cache = ConstraintClaimStateCache.builder().build();
+        EventStoreUniqueConstraintStore cachingStore = cachingStore(cache);
+        when(eventStore.lastSequenceNumberFor("MyConstraintValue")).thenReturn(Optional.empty());
+
+        cachingStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+        cachingStore.releaseClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+        cachingStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_13");
+
+        verify(eventStore, times(1)).lastSequenceNumberFor("MyConstraintValue");
+        verify(eventStore, times(3)).publish(captor.capture());
+        assertEquals(2L, captor.getValue().getSequenceNumber());
+        assertEquals(ConstraintClaimState.claimed(2L, "AGG_ID_13"), cache.get("MyConstraintValue"));
+    }
+
+    @Test
+    void rejectsClaimWhenValueWasReclaimedByOtherOwnerSinceItWasCached() {
+        ConstraintClaimStateCache cache = ConstraintClaimStateCache.builder().build();
+        cache.put("MyConstraintValue", ConstraintClaimState.claimed(0L, "AGG_ID_12"));
+        EventStoreUniqueConstraintStore cachingStore = cachingStore(cache);
+        when(eventStore.lastSequenceNumberFor("MyConstraintValue")).thenReturn(Optional.of(2L));
+        when(eventStore.readEvents("MyConstraintValue", 2L)).thenReturn(DomainEventStream.of(
+                new GenericDomainEventMessage<>("ConstraintMyConstraint",
+                                                "MyConstraintValue",
+                                                2L,
+                                                new ConstraintClaimedEvent("MyConstraint",
+                                                                           "MyConstraintValue",
+                                                                           "AGG_ID_13"))));
+
+        assertThrows(UniqueConstraintClaimException.class, () -> cachingStore.checkAndClaimValue(
+                "MyConstraint", "MyConstraintValue", "AGG_ID_12"));
+        assertEquals(ConstraintClaimState.claimed(2L, "AGG_ID_13"), cache.get("MyConstraintValue"));
+    }
+
+    @Test
+    void claimsValueThatWasReleasedSinceTheClaimOfOtherOwnerWasCached() {
+        ConstraintClaimStateCache cache = ConstraintClaimStateCache.builder().build();
+        cache.put("MyConstraintValue", ConstraintClaimState.claimed(0L, "AGG_ID_13"));
+        EventStoreUniqueConstraintStore cachingStore = cachingStore(cache);
+        when(eventStore.lastSequenceNumberFor("MyConstraintValue")).thenReturn(Optional.of(1L));
+        when(eventStore.readEvents("MyConstraintValue", 1L)).thenReturn(DomainEventStream.of(
+                new GenericDomainEventMessage<>("ConstraintMyConstraint",
+                                                "MyConstraintValue",
+                                                1L,
+                                                new ConstraintReleasedEvent("MyConstraint", "MyConstraintValue"))));
+
+        cachingStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+
+        verify(eventStore).publish(captor.capture());
+        assertEquals(2L, captor.getValue().getSequenceNumber());
+        verifyClaimedEvent(captor.getValue(), "MyConstraint", "MyConstraintValue", "AGG_ID_12");
+    }
+
+    @Test
+    void invalidatesCachedStateWhenPublishingFails() {
+        ConstraintClaimStateCache cache = ConstraintClaimStateCache.builder().build();
+        EventStoreUniqueConstraintStore cachingStore = EventStoreUniqueConstraintStore
+                .builder()
+                .eventStore(eventStore)
+                .constraintValueProvider((constraintName, value) -> value.toString())
+                .claimStateCache(cache)
+                .build();
+        when(eventStore.lastSequenceNumberFor("MyConstraintValue")).thenReturn(Optional.empty());
+        doThrow(new ConcurrencyException("Conflict")).when(eventStore).publish(any(EventMessage.class));
+
+        assertThrows(ConcurrencyException.class, () -> {
+            cachingStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+        });
+
+        assertNull(cache.get("MyConstraintValue"));
+    }
+
+    @Test
+    void retriesClaimOnLatestStateAfterConflictingRelease() {
+        EventStoreUniqueConstraintStore retryingStore = retryingStore(3);
+        when(eventStore.lastSequenceNumberFor("MyConstraintValue")).thenReturn(Optional.empty(), Optional.of(1L));
+        when(eventStore.readEvents("MyConstraintValue", 1L)).thenReturn(DomainEventStream.of(
+                new GenericDomainEventMessage<>("ConstraintMyConstraint",
+                                                "MyConstraintValue",
+                                                1L,
+                                                new ConstraintReleasedEvent("MyConstraint", "MyConstraintValue"))));
+        doThrow(new ConcurrencyException("Conflict")).doNothing().when(eventStore).publish(any(EventMessage.class));
+
+        retryingStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+
+        verify(eventStore, times(2)).publish(captor.capture());
+        assertEquals(2L, captor.getValue().getSequenceNumber());
+        verifyClaimedEvent(captor.getValue(), "MyConstraint", "MyConstraintValue", "AGG_ID_12");
+    }
+
+    @Test
+    void rejectsClaimAfterConflictingClaimOfOtherOwner() {
+        EventStoreUniqueConstraintStore retryingStore = retryingStore(3);
+        when(eventStore.lastSequenceNumberFor("MyConstraintValue")).thenReturn(Optional.empty(), Optional.of(0L));
+        when(eventStore.readEvents("MyConstraintValue", 0L)).thenReturn(DomainEventStream.of(
+                new GenericDomainEventMessage<>("ConstraintMyConstraint",
+                                                "MyConstraintValue",
+                                                0L,
+                                                new ConstraintClaimedEvent("MyConstraint",
+                                                                           "MyConstraintValue",
+                                                                           "AGG_ID_OTHER"))));
+        doThrow(new ConcurrencyException("Conflict")).when(eventStore).publish(any(EventMessage.class));
+
+        assertThrows(UniqueConstraintClaimException.class, () -> retryingStore.checkAndClaimValue(
+                "MyConstraint", "MyConstraintValue", "AGG_ID_12"));
+        verify(eventStore, times(1)).publish(any(EventMessage.class));
+    }
+
+    @Test
+    void rejectsClaimWhenAttemptsAreExhausted() {
+        EventStoreUniqueConstraintStore retryingStore = retryingStore(2);
+        when(eventStore.lastSequenceNumberFor("MyConstraintValue")).thenReturn(Optional.empty());
+        doThrow(new ConcurrencyException("Conflict")).when(eventStore).publish(anyList());
+
+        UniqueConstraintClaimException exception = assertThrows(UniqueConstraintClaimException.class, () ->
+                retryingStore.applyChanges("AGG_ID_12", Collections.singletonList(
+                        ConstraintChange.claim("MyConstraint", "MyConstraintValue"))));
+        assertEquals("MyConstraint", exception.getConstraintName());
+        assertTrue(exception.getCause() instanceof ConcurrencyException);
+        verify(eventStore, times(2)).publish(anyList());
+    }
+
+    @Test
+    void claimWithinUnitOfWorkIsInvisibleToOtherNodesUntilCommit() {
+        EmbeddedEventStore embeddedEventStore = jdbcEventStore();
+        EventStoreUniqueConstraintStore retryingStore = jdbcStore(embeddedEventStore, true);
+        EventStoreUniqueConstraintStore otherNode = jdbcStore(embeddedEventStore, false);
+
+        DefaultUnitOfWork<?> unitOfWork = DefaultUnitOfWork.startAndGet(null);
+        retryingStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+        assertFalse(latestEventOnOtherThread(embeddedEventStore).isPresent());
+        unitOfWork.commit();
+
+        DomainEventMessage<?> latestEvent = latestEventOnOtherThread(embeddedEventStore)
+                .orElseThrow(AssertionError::new);
+        assertEquals(0L, latestEvent.getSequenceNumber());
+        verifyClaimedEvent(latestEvent, "MyConstraint", "MyConstraintValue", "AGG_ID_12");
+        assertThrows(UniqueConstraintClaimException.class, () -> otherNode.checkAndClaimValue(
+                "MyConstraint", "MyConstraintValue", "AGG_ID_11"));
+    }
+
+    @Test
+    void claimWithinUnitOfWorkThatRollsBackIsNeverStored() {
+        EmbeddedEventStore embeddedEventStore = jdbcEventStore();
+        EventStoreUniqueConstraintStore retryingStore = jdbcStore(embeddedEventStore, true);
+
+        DefaultUnitOfWork<?> unitOfWork = DefaultUnitOfWork.startAndGet(null);
+        retryingStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+        unitOfWork.rollback();
+
+        assertFalse(latestEventOnOtherThread(embeddedEventStore).isPresent());
+        jdbcStore(embeddedEventStore, false).checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_11");
+    }
+
+    @Test
+    void conflictAtCommitFailsCommandAndRetryReadsLatestState() {
+        EmbeddedEventStore embeddedEventStore = jdbcEventStore();
+        BloomConstraintKeyFilter filter = BloomConstraintKeyFilter.builder().expectedKeys(100).build();
+        filter.markInitialized();
+        EventStoreUniqueConstraintStore retryingStore = EventStoreUniqueConstraintStore
+                .builder()
+                .eventStore(embeddedEventStore)
+                .constraintValueProvider((constraintName, value) -> value.toString())
+                .claimStateCache(ConstraintClaimStateCache.builder().build())
+                .constraintKeyFilter(filter)
+                .retryPolicy(ClaimRetryPolicy.builder().build())
+                .build();
+        EventStoreUniqueConstraintStore otherNode = jdbcStore(embeddedEventStore, false);
+
+        DefaultUnitOfWork<?> unitOfWork = DefaultUnitOfWork.startAndGet(null);
+        retryingStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+        CompletableFuture.runAsync(() -> otherNode.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_11"))
+                         .join();
+        assertThrows(AggregateStreamCreationException.class, unitOfWork::commit);
+
+        DefaultUnitOfWork<?> retry = DefaultUnitOfWork.startAndGet(null);
+        assertThrows(UniqueConstraintClaimException.class, () -> retryingStore.checkAndClaimValue(
+                "MyConstraint", "MyConstraintValue", "AGG_ID_12"));
+        retry.rollback();
+        DomainEventMessage<?> latestEvent = latestEventOnOtherThread(embeddedEventStore)
+                .orElseThrow(AssertionError::new);
+        verifyClaimedEvent(latestEvent, "MyConstraint", "MyConstraintValue", "AGG_ID_11");
+    }
+
+    @Test
+    void rejectsClaimOfKeyInFlightWithoutConsultingEventStore() {
+        UniqueConstraintMonitor monitor = mock(UniqueConstraintMonitor.class);
+        EventStoreUniqueConstraintStore monitoredStore = EventStoreUniqueConstraintStore
+                .builder()
+                .eventStore(eventStore)
+                .constraintValueProvider((constraintName, value) -> value.toString())
+                .monitor(monitor)
+                .build();
+        when(eventStore.lastSequenceNumberFor("MyConstraintValue")).thenReturn(Optional.empty());
+        DefaultUnitOfWork<?> unitOfWork = DefaultUnitOfWork.startAndGet(null);
+        monitoredStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_1");
+
+        CompletionException exception = assertThrows(CompletionException.class, () -> CompletableFuture.runAsync(
+                () -> monitoredStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_2")).join());
+
+        assertTrue(exception.getCause() instanceof UniqueConstraintClaimException);
+        verify(eventStore, times(1)).lastSequenceNumberFor("MyConstraintValue");
+        verify(eventStore, times(1)).publish(any(EventMessage.class));
+        verify(monitor).onClaimContention("MyConstraint", "MyConstraintValue");
+
+        unitOfWork.rollback();
+        CompletableFuture.runAsync(
+                () -> monitoredStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_2")).join();
+        verify(eventStore, times(2)).publish(any(EventMessage.class));
+    }
+
+    @Test
+    void releasesInFlightClaimsOfRejectedBatch() {
+        when(eventStore.lastSequenceNumberFor(anyString())).thenReturn(Optional.empty());
+        DefaultUnitOfWork<?> unitOfWork = DefaultUnitOfWork.startAndGet(null);
+        store.checkAndClaimValue("MyConstraint", "Contended", "AGG_ID_1");
+
+        assertThrows(CompletionException.class, () -> CompletableFuture.runAsync(() -> store.applyChanges(
+                "AGG_ID_2", Arrays.asList(ConstraintChange.claim("MyConstraint", "Free"),
+                                          ConstraintChange.claim("MyConstraint", "Contended")))).join());
+        CompletableFuture.runAsync(() -> store.applyChanges(
+                "AGG_ID_3", Collections.singletonList(ConstraintChange.claim("MyConstraint", "Free")))).join();
+
+        unitOfWork.commit();
+
+        verify(eventStore, times(1)).lastSequenceNumberFor("Free");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void appliesBatchOfChangesInSinglePublish() {
+        when(eventStore.lastSequenceNumberFor("OldValue")).thenReturn(Optional.of(2L));
+        when(eventStore.readEvents("OldValue", 2L)).thenReturn(DomainEventStream.of(
+                new GenericDomainEventMessage<>("ConstraintMyConstraint",
+                                                "OldValue",
+                                                2L,
+                                                new ConstraintClaimedEvent("MyConstraint", "OldValue", "AGG_ID_12"))
+        ));
+        when(eventStore.lastSequenceNumberFor("NewValue")).thenReturn(Optional.empty());
+        when(eventStore.lastSequenceNumberFor("OtherValue")).thenReturn(Optional.empty());
+        ArgumentCaptor<List<DomainEventMessage<?>>> listCaptor = ArgumentCaptor.forClass(List.class);
+
+        store.applyChanges("AGG_ID_12", Arrays.asList(ConstraintChange.release("MyConstraint", "OldValue"),
+                                                      ConstraintChange.claim("MyConstraint", "NewValue"),
+                                                      ConstraintChange.release("OtherConstraint", "OtherValue")));
+
+        verify(eventStore).publish(listCaptor.capture());
+        List<DomainEventMessage<?>> events = listCaptor.getValue();
+        assertEquals(2, events.size());
+        verifyUnclaimedEvent(events.get(0), "MyConstraint", "OldValue");
+        assertEquals(3L, events.get(0).getSequenceNumber());
+        verifyClaimedEvent(events.get(1), "MyConstraint", "NewValue", "AGG_ID_12");
+        assertEquals(0L, events.get(1).getSequenceNumber());
+    }
+
+    @Test
+    void rejectsEntireBatchWhenAnyValueIsClaimedByOtherOwner() {
+        when(eventStore.lastSequenceNumberFor("FreeValue")).thenReturn(Optional.empty());
+        when(eventStore.lastSequenceNumberFor("TakenValue")).thenReturn(Optional.of(0L));
+        when(eventStore.readEvents("TakenValue", 0L)).thenReturn(DomainEventStream.of(
+                new GenericDomainEventMessage<>("ConstraintMyConstraint",
+                                                "TakenValue",
+                                                0L,
+                                                new ConstraintClaimedEvent("MyConstraint", "TakenValue", "AGG_11"))
+        ));
+
+        assertThrows(UniqueConstraintClaimException.class, () -> {
+            store.applyChanges("AGG_ID_12", Arrays.asList(ConstraintChange.claim("OtherConstraint", "FreeValue"),
+                                                          ConstraintChange.claim("MyConstraint", "TakenValue")));
+        });
+
+        verify(eventStore, never()).publish(anyList());
+        verify(eventStore, never()).publish(any(EventMessage.class));
+    }
+
+    @Test
+    void readsKeysInParallelWhenLookupExecutorIsConfigured() {
+        CountDownLatch allLookupsStarted = new CountDownLatch(3);
+        LatestConstraintEventReader blockingReader = constraintKey -> {
+            allLookupsStarted.countDown();
+            try {
+                // Only completes if all lookups run at the same time
+                assertTrue(allLookupsStarted.await(5, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Optional.empty();
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            EventStoreUniqueConstraintStore parallelStore = EventStoreUniqueConstraintStore
+                    .builder()
+                    .eventStore(eventStore)
+                    .constraintValueProvider((constraintName, value) -> value.toString())
+                    .latestEventReader(blockingReader)
+                    .lookupExecutor(executor)
+                    .build();
+
+            parallelStore.applyChanges("AGG_ID_12", Arrays.asList(ConstraintChange.claim("Email", "Value1"),
+                                                                  ConstraintChange.claim("Username", "Value2"),
+                                                                  ConstraintChange.claim("Phone", "Value3")));
+
+            assertEquals(0, allLookupsStarted.getCount());
+            verify(eventStore).publish(anyList());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void propagatesExceptionOfParallelLookup() {
+        LatestConstraintEventReader failingReader = constraintKey -> {
+            throw new IllegalStateException("Lookup failed");
+        };
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            EventStoreUniqueConstraintStore parallelStore = EventStoreUniqueConstraintStore
+                    .builder()
+                    .eventStore(eventStore)
+                    .constraintValueProvider((constraintName, value) -> value.toString())
+                    .latestEventReader(failingReader)
+                    .lookupExecutor(executor)
+                    .build();
+            List<ConstraintChange> changes = Arrays.asList(ConstraintChange.claim("Email", "Value1"),
+                                                           ConstraintChange.claim("Username", "Value2"));
+
+            assertThrows(IllegalStateException.class, () -> parallelStore.applyChanges("AGG_ID_12", changes));
+            verify(eventStore, never()).publish(anyList());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void skipsReadingStateOfKeysTheFilterHasNeverSeen() {
+        BloomConstraintKeyFilter filter = BloomConstraintKeyFilter.builder().expectedKeys(100).build();
+        filter.markInitialized();
+        EventStoreUniqueConstraintStore filteringStore = EventStoreUniqueConstraintStore
+                .builder()
+                .eventStore(eventStore)
+                .constraintValueProvider((constraintName, value) -> value.toString())
+                .constraintKeyFilter(filter)
+                .build();
+
+        filteringStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+
+        verify(eventStore, never()).lastSequenceNumberFor(any());
+        verify(eventStore).publish(captor.capture());
+        verifyClaimedEvent(captor.getValue(), "MyConstraint", "MyConstraintValue", "AGG_ID_12");
+        assertEquals(0L, captor.getValue().getSequenceNumber());
+        assertTrue(filter.mightExist("MyConstraintValue"));
+        assertEquals(1, filter.getSkippedLookupCount());
+    }
+
+    @Test
+    void readsStateOfReleasedKeysTheFilterHasNeverSeen() {
+        BloomConstraintKeyFilter filter = BloomConstraintKeyFilter.builder().expectedKeys(100).build();
+        filter.markInitialized();
+        EventStoreUniqueConstraintStore filteringStore = EventStoreUniqueConstraintStore
+                .builder()
+                .eventStore(eventStore)
+                .constraintValueProvider((constraintName, value) -> value.toString())
+                .constraintKeyFilter(filter)
+                .build();
+        when(eventStore.lastSequenceNumberFor("MyConstraintValue")).thenReturn(Optional.of(0L));
+        when(eventStore.readEvents("MyConstraintValue", 0L)).thenReturn(DomainEventStream.of(
+                new GenericDomainEventMessage<>("ConstraintMyConstraint",
+                                                "MyConstraintValue",
+                                                0L,
+                                                new ConstraintClaimedEvent("MyConstraint",
+                                                                           "MyConstraintValue",
+                                                                           "AGG_ID_12"))));
+
+        filteringStore.releaseClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+
+        verify(eventStore).publish(captor.capture());
+        verifyUnclaimedEvent(captor.getValue(), "MyConstraint", "MyConstraintValue");
+        assertEquals(1L, captor.getValue().getSequenceNumber());
+    }
+
+    @Test
+    void notifiesMonitorOfReadsFromEventStore() {
+        UniqueConstraintMonitor monitor = Mockito.mock(UniqueConstraintMonitor.class);
+        EventStoreUniqueConstraintStore monitoredStore = EventStoreUniqueConstraintStore
+                .builder()
+                .eventStore(eventStore)
+                .constraintValueProvider((constraintName, value) -> value.toString())
+                .monitor(monitor)
+                .build();
+        when(eventStore.lastSequenceNumberFor(any())).thenReturn(Optional.empty());
+
+        monitoredStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+        monitoredStore.applyChanges("AGG_ID_12", Arrays.asList(ConstraintChange.claim("Email", "Value1"),
+                                                               ConstraintChange.claim("Username", "Value2")));
+
+        verify(monitor).onClaimStateRead(eq(1), anyLong());
+        verify(monitor).onClaimStateRead(eq(2), anyLong());
+    }
+
+    @Test
+    void respectsClaimOfLegacyKey() {
+        EventStoreUniqueConstraintStore migratingStore = legacyKeyStore();
+        when(eventStore.lastSequenceNumberFor("new-MyConstraintValue")).thenReturn(Optional.empty());
+        when(eventStore.lastSequenceNumberFor("MyConstraintValue")).thenReturn(Optional.of(0L));
+        when(eventStore.readEvents("MyConstraintValue", 0L)).thenAnswer(i -> DomainEventStream.of(
+                new GenericDomainEventMessage<>("MyConstraint",
+                                                "MyConstraintValue",
+                                                0L,
+                                                new ConstraintClaimedEvent("MyConstraint",
+                                                                           "MyConstraintValue",
+                                                                           "AGG_11"))
+        ));
+
+        assertThrows(UniqueConstraintClaimException.class, () -> {
+            migratingStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+        });
+        migratingStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_11");
+        verify(eventStore, never()).publish(any(EventMessage.class));
+
+        migratingStore.releaseClaimValue("MyConstraint", "MyConstraintValue", "AGG_11");
+        verify(eventStore).publish(captor.capture());
+        verifyUnclaimedEvent(captor.getValue(), "MyConstraint", "MyConstraintValue");
+        assertEquals(1L, captor.getValue().getSequenceNumber());
+    }
+
+    @Test
+    void claimsPrimaryKeyWhenLegacyKeyWasReleased() {
+        EventStoreUniqueConstraintStore migratingStore = legacyKeyStore();
+        when(eventStore.lastSequenceNumberFor("new-MyConstraintValue")).thenReturn(Optional.empty());
+        when(eventStore.lastSequenceNumberFor("MyConstraintValue")).thenReturn(Optional.of(1L));
+        when(eventStore.readEvents("MyConstraintValue", 1L)).thenReturn(DomainEventStream.of(
+                new GenericDomainEventMessage<>("MyConstraint",
+                                                "MyConstraintValue",
+                                                1L,
+                                                new ConstraintReleasedEvent("MyConstraint", "MyConstraintValue"))
+        ));
+
+        migratingStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+
+        verify(eventStore).publish(captor.capture());
+        verifyClaimedEvent(captor.getValue(), "MyConstraint", "new-MyConstraintValue", "AGG_ID_12");
+        assertEquals(0L, captor.getValue().getSequenceNumber());
+    }
+
+    @Test
+    void releasesLegacyKeyAndClaimsPrimaryKeyInBatch() {
+        EventStoreUniqueConstraintStore migratingStore = legacyKeyStore();
+        when(eventStore.lastSequenceNumberFor(any())).thenReturn(Optional.empty());
+        when(eventStore.lastSequenceNumberFor("OldValue")).thenReturn(Optional.of(0L));
+        when(eventStore.readEvents("OldValue", 0L)).thenReturn(DomainEventStream.of(
+                new GenericDomainEventMessage<>("MyConstraint",
+                                                "OldValue",
+                                                0L,
+                                                new ConstraintClaimedEvent("MyConstraint", "OldValue", "AGG_ID_12"))
+        ));
+
+        migratingStore.applyChanges("AGG_ID_12", Arrays.asList(ConstraintChange.release("MyConstraint", "OldValue"),
+                                                               ConstraintChange.claim("MyConstraint", "NewValue")));
+
+        ArgumentCaptor<List<DomainEventMessage<?>>> listCaptor = ArgumentCaptor.forClass(List.class);
+        verify(eventStore).publish(listCaptor.capture());
+        List<DomainEventMessage<?>> published = listCaptor.getValue();
+        assertEquals(2, published.size());
+        verifyUnclaimedEvent(published.get(0), "MyConstraint", "OldValue");
+        verifyClaimedEvent(published.get(1), "MyConstraint", "new-NewValue", "AGG_ID_12");
+    }
+
+    private static EmbeddedEventStore jdbcEventStore() {
+        XStream xStream = new XStream();
+        xStream.allowTypesByWildcard(new String[]{"org.axonframework.**"});
+        Serializer serializer = XStreamSerializer.builder().xStream(xStream).build();
+        String url = "jdbc:hsqldb:mem:" + UUID.randomUUID();
+        JdbcEventStorageEngine storageEngine = JdbcEventStorageEngine.builder()
+                                                                     .connectionProvider(() -> DriverManager
+                                                                             .getConnection(url))
+                                                                     .transactionManager(NoTransactionManager.INSTANCE)
+                                                                     .persistenceExceptionResolver(new SQLStateResolver())
+                                                                     .eventSerializer(serializer)
+                                                                     .snapshotSerializer(serializer)
+                                                                     .build();
+        storageEngine.createSchema(HsqlEventTableFactory.INSTANCE);
+        return EmbeddedEventStore.builder().storageEngine(storageEngine).build();
+    }
+
+    private static EventStoreUniqueConstraintStore jdbcStore(EmbeddedEventStore embeddedEventStore, boolean retrying) {
+        EventStoreUniqueConstraintStore.Builder builder =
+                EventStoreUniqueConstraintStore.builder()
+                                               .eventStore(embeddedEventStore)
+                                               .constraintValueProvider((constraintName, value) -> value.toString());
+        if (retrying) {
+            builder.retryPolicy(ClaimRetryPolicy.builder()
+                                                .initialBackoff(Duration.ZERO)
+                                                .maxBackoff(Duration.ZERO)
+                                                .build());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Reads the latest event of the key on another thread, outside of the unit of work of the test.
+     */
+    private static Optional<DomainEventMessage<?>> latestEventOnOtherThread(EmbeddedEventStore embeddedEventStore) {
+        EventStoreLatestConstraintEventReader reader = new EventStoreLatestConstraintEventReader(embeddedEventStore);
+        return CompletableFuture.supplyAsync(() -> reader.readLatestEvent("MyConstraintValue")).join();
+    }
+
+    private EventStoreUniqueConstraintStore cachingStore(ConstraintClaimStateCache cache) {
+        return EventStoreUniqueConstraintStore.builder()
+                                              .eventStore(eventStore)
+                                              .constraintValueProvider((constraintName, value) -> value.toString())
+                                              .claimStateCache(cache)
+                                              .build();
+    }
+
+    private EventStoreUniqueConstraintStore legacyKeyStore() {
+        return EventStoreUniqueConstraintStore
+                .builder()
+                .eventStore(eventStore)
+                .constraintValueProvider(new FallbackConstraintKeyProvider(
+                        (constraintName, value) -> "new-" + value,
+                        (constraintName, value) -> value.toString()))
+                .build();
+    }
+
+    private EventStoreUniqueConstraintStore retryingStore(int maxAttempts) {
+        return EventStoreUniqueConstraintStore.builder()
+                                              .eventStore(eventStore)
+                                              .constraintValueProvider((constraintName, value) -> value.toString())
+                                              .retryPolicy(ClaimRetryPolicy.builder()
+                                                                           .maxAttempts(maxAttempts)
+                                                                           .initialBackoff(Duration.ZERO)
+                                                                           .maxBackoff(Duration.ZERO)
+                                                                           .build())
+                                              .build();
+    }
+
     private void verifyClaimedEvent(DomainEventMessage<?> value, String constraintName, String constraintValue,
                                     String owner) {
         assertEquals("Constraint" + constraintName, value.getType());
@@ -0,0 +1,177 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.*;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.axonframework.eventhandling.GenericEventMessage.asEventMessage;
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryUniqueConstraintStoreTest {
+
+    private final InMemoryUniqueConstraintStore store = InMemoryUniqueConstraintStore.builder().build();
+
+    @Test
+    void acceptsClaimWhenValueIsFreeOrClaimedBySameOwner() {
+        store.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+        store.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void rejectsClaimWhenValueIsAlreadyClaimed() {
+        store.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_11");
+
+        UniqueConstraintClaimException exception = assertThrows(UniqueConstraintClaimException.class, () -> {
+            store.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+        });
+        assertEquals("MyConstraint", exception.getConstraintName());
+    }
+
+    @Test
+    void rejectsReleaseWhenValueIsClaimedByOtherOwner() {
+        store.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_11");
+
+        assertThrows(UniqueConstraintClaimException.class, () -> {
+            store.releaseClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+        });
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void releasedValueCanBeClaimedByOtherOwner() {
+        store.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_11");
+        store.releaseClaimValue("MyConstraint", "MyConstraintValue", "AGG_11");
+        store.releaseClaimValue("MyConstraint", "MyConstraintValue", "AGG_11");
+
+        store.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+        assertEquals(1, store.size());
+    }
+
+    @Test
+    void revertsClaimsAndReleasesWhenUnitOfWorkRollsBack() {
+        store.checkAndClaimValue("MyConstraint", "ReleasedValue", "AGG_11");
+
+        UnitOfWork<?> uow = DefaultUnitOfWork.startAndGet(asEventMessage("test"));
+        store.releaseClaimValue("MyConstraint", "ReleasedValue", "AGG_11");
+        store.checkAndClaimValue("MyConstraint", "ClaimedValue", "AGG_11");
+        uow.rollback();
+
+        assertThrows(UniqueConstraintClaimException.class, () -> {
+            store.checkAndClaimValue("MyConstraint", "ReleasedValue", "AGG_ID_12");
+        });
+        store.checkAndClaimValue("MyConstraint", "ClaimedValue", "AGG_ID_12");
+    }
+
+    @Test
+    void revertsAppliedChangesOfBatchWhenOneConflicts() {
+        store.checkAndClaimValue("MyConstraint", "ReleasedValue", "AGG_11");
+        store.checkAndClaimValue("MyConstraint", "ConflictingValue", "AGG_ID_12");
+
+        assertThrows(UniqueConstraintClaimException.class, () -> {
+            store.applyChanges("AGG_11", Arrays.asList(ConstraintChange.release("MyConstraint", "ReleasedValue"),
+                                                       ConstraintChange.claim("MyConstraint", "ClaimedValue"),
+                                                       ConstraintChange.claim("MyConstraint", "ConflictingValue")));
+        });
+
+        assertThrows(UniqueConstraintClaimException.class, () -> {
+            store.checkAndClaimValue("MyConstraint", "ReleasedValue", "AGG_ID_12");
+        });
+        store.checkAndClaimValue("MyConstraint", "ClaimedValue", "AGG_ID_12");
+    }
+
+    @Test
+    void doesNotRevertFailedBatchAgainWhenUnitOfWorkRollsBack() {
+        store.checkAndClaimValue("MyConstraint", "ReleasedValue", "AGG_11");
+        store.checkAndClaimValue("MyConstraint", "ConflictingValue", "AGG_ID_12");
+
+        UnitOfWork<?> uow = DefaultUnitOfWork.startAndGet(asEventMessage("test"));
+        assertThrows(UniqueConstraintClaimException.class, () -> {
+            store.applyChanges("AGG_11", Arrays.asList(ConstraintChange.release("MyConstraint", "ReleasedValue"),
+                                                       ConstraintChange.claim("MyConstraint", "ConflictingValue")));
+        });
+        CompletableFuture.runAsync(() -> store.releaseClaimValue("MyConstraint", "ReleasedValue", "AGG_11")).join();
+        uow.rollback();
+
+        store.checkAndClaimValue("MyConstraint", "ReleasedValue", "AGG_ID_12");
+    }
+
+    @Test
+    void restoresClaimsFromSnapshot(@TempDir Path directory) {
+        Path snapshotPath = directory.resolve("claims.snapshot");
+        InMemoryUniqueConstraintStore snapshotStore = InMemoryUniqueConstraintStore.builder()
+                                                                                   .snapshotPath(snapshotPath)
+                                                                                   .build();
+        snapshotStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_11");
+        snapshotStore.checkAndClaimValue("MyConstraint", "MyOtherValue", "AGG_ID_12");
+        snapshotStore.writeSnapshot();
+
+        InMemoryUniqueConstraintStore restoredStore = InMemoryUniqueConstraintStore.builder()
+                                                                                   .snapshotPath(snapshotPath)
+                                                                                   .build();
+
+        assertEquals(2, restoredStore.size());
+        assertThrows(UniqueConstraintClaimException.class, () -> {
+            restoredStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+        });
+        restoredStore.releaseClaimValue("MyConstraint", "MyOtherValue", "AGG_ID_12");
+    }
+
+    @Test
+    void cannotWriteSnapshotWithoutSnapshotPath() {
+        assertThrows(IllegalStateException.class, store::writeSnapshot);
+    }
+
+    @Test
+    void grantsEachValueToExactlyOneOwnerWhenClaimedConcurrently() throws Exception {
+        int threadCount = 8;
+        int valueCount = 1000;
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentMap<Integer, String> winners = new ConcurrentHashMap<>();
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threadCount; t++) {
+                String owner = "AGG_" + t;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int value = 0; value < valueCount; value++) {
+                        try {
+                            store.checkAndClaimValue("MyConstraint", "value-" + value, owner);
+                            assertNull(winners.putIfAbsent(value, owner));
+                        } catch (UniqueConstraintClaimException e) {
+                            // Claimed by another thread first
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(valueCount, winners.size());
+        assertEquals(valueCount, store.size());
+        winners.forEach((value, owner) -> store.releaseClaimValue("MyConstraint", "value-" + value, owner));
+        assertEquals(0, store.size());
+    }
+}
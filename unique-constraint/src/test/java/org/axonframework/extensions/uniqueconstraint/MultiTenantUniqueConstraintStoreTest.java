@@ -0,0 +1,118 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.commandhandling.GenericCommandMessage;
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.messaging.MetaData;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MultiTenantUniqueConstraintStoreTest {
+
+    private final BatchUniqueConstraintStore defaultStore = mock(BatchUniqueConstraintStore.class);
+    private final UniqueConstraintStore tenantOneStore = mock(UniqueConstraintStore.class);
+    private final MultiTenantUniqueConstraintStore store =
+            MultiTenantUniqueConstraintStore.builder()
+                                            .defaultStore(defaultStore)
+                                            .tenantStoreFactory(t -> "tenant-1".equals(t) ? tenantOneStore : null)
+                                            .build();
+
+    @Test
+    void routesClaimsToStoreOfTenant() {
+        inUnitOfWorkOf("tenant-1", () -> store.checkAndClaimValue("Email", "someone@example.com", "AGG_ID"));
+
+        verify(tenantOneStore).checkAndClaimValue("Email", "someone@example.com", "AGG_ID");
+        verifyNoInteractions(defaultStore);
+    }
+
+    @Test
+    void scopesValuesOfTenantsSharingDefaultStore() {
+        inUnitOfWorkOf("tenant-2", () -> store.releaseClaimValue("Email", "someone@example.com", "AGG_ID"));
+        inUnitOfWorkOf(null, () -> store.checkAndClaimValue("Email", "someone@example.com", "AGG_ID"));
+        store.checkAndClaimValue("RoomNumber", "101", "AGG_ID");
+
+        verify(defaultStore).releaseClaimValue("Email", "tenant-2/someone@example.com", "AGG_ID");
+        verify(defaultStore).checkAndClaimValue("Email", "someone@example.com", "AGG_ID");
+        verify(defaultStore).checkAndClaimValue("RoomNumber", "101", "AGG_ID");
+        verifyNoInteractions(tenantOneStore);
+    }
+
+    @Test
+    void scopesBatchOfTenantSharingDefaultStore() {
+        List<ConstraintChange> changes = Arrays.asList(ConstraintChange.release("Email", "old@example.com"),
+                                                       ConstraintChange.claim("Email", "new@example.com"));
+
+        inUnitOfWorkOf("tenant-2", () -> store.applyChanges("AGG_ID", changes));
+
+        verify(defaultStore).applyChanges("AGG_ID", Arrays.asList(
+                ConstraintChange.release("Email", "tenant-2/old@example.com"),
+                ConstraintChange.claim("Email", "tenant-2/new@example.com")));
+    }
+
+    @Test
+    void appliesBatchToStoreOfTenantOneChangeAtATime() {
+        inUnitOfWorkOf("tenant-1", () -> store.applyChanges(
+                "AGG_ID", Collections.singletonList(ConstraintChange.claim("Email", "new@example.com"))));
+
+        verify(tenantOneStore).checkAndClaimValue("Email", "new@example.com", "AGG_ID");
+        verifyNoInteractions(defaultStore);
+    }
+
+    @Test
+    void routesScopedValuesOfTenantsByConstraintName() {
+        UniqueConstraintStore roomNumberStore = mock(UniqueConstraintStore.class);
+        MultiTenantUniqueConstraintStore routedStore =
+                MultiTenantUniqueConstraintStore.builder()
+                                                .defaultStore(RoutingUniqueConstraintStore.builder()
+                                                                                          .defaultStore(defaultStore)
+                                                                                          .store("RoomNumber",
+                                                                                                 roomNumberStore)
+                                                                                          .build())
+                                                .build();
+
+        inUnitOfWorkOf("tenant-2", () -> routedStore.applyChanges("AGG_ID", Arrays.asList(
+                ConstraintChange.claim("RoomNumber", "101"),
+                ConstraintChange.claim("Email", "someone@example.com"))));
+
+        verify(roomNumberStore).checkAndClaimValue("RoomNumber", "tenant-2/101", "AGG_ID");
+        verify(defaultStore).applyChanges("AGG_ID", Collections.singletonList(
+                ConstraintChange.claim("Email", "tenant-2/someone@example.com")));
+    }
+
+    @Test
+    void createsStoreOfTenantOnce() {
+        int[] created = new int[1];
+        MultiTenantUniqueConstraintStore countingStore =
+                MultiTenantUniqueConstraintStore.builder()
+                                                .defaultStore(defaultStore)
+                                                .tenantStoreFactory(t -> {
+                                                    created[0]++;
+                                                    return tenantOneStore;
+                                                })
+                                                .tenantMetaDataKey("tenant")
+                                                .build();
+
+        assertSame(tenantOneStore, countingStore.storeOf("tenant-1"));
+        assertSame(tenantOneStore, countingStore.storeOf("tenant-1"));
+        assertSame(defaultStore, countingStore.storeOf(null));
+        assertEquals(1, created[0]);
+    }
+
+    @Test
+    void builderRequiresDefaultStore() {
+        MultiTenantUniqueConstraintStore.Builder builder = MultiTenantUniqueConstraintStore.builder();
+
+        assertThrows(AxonConfigurationException.class, builder::build);
+    }
+
+    private void inUnitOfWorkOf(String tenant, Runnable task) {
+        MetaData metaData = tenant != null ? MetaData.with("tenantId", tenant) : MetaData.emptyInstance();
+        DefaultUnitOfWork.startAndGet(new GenericCommandMessage<>("command", metaData)).execute(task);
+    }
+}
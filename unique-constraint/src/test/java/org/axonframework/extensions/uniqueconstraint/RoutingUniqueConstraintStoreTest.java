@@ -0,0 +1,62 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RoutingUniqueConstraintStoreTest {
+
+    private final BatchUniqueConstraintStore defaultStore = mock(BatchUniqueConstraintStore.class);
+    private final UniqueConstraintStore roomNumberStore = mock(UniqueConstraintStore.class);
+    private final RoutingUniqueConstraintStore store = RoutingUniqueConstraintStore.builder()
+                                                                                   .defaultStore(defaultStore)
+                                                                                   .store("RoomNumber", roomNumberStore)
+                                                                                   .build();
+
+    @Test
+    void routesClaimsAndReleasesByConstraintName() {
+        store.checkAndClaimValue("RoomNumber", "101", "AGG_ID");
+        store.releaseClaimValue("Email", "someone@example.com", "AGG_ID");
+
+        verify(roomNumberStore).checkAndClaimValue("RoomNumber", "101", "AGG_ID");
+        verify(defaultStore).releaseClaimValue("Email", "someone@example.com", "AGG_ID");
+        verifyNoMoreInteractions(roomNumberStore, defaultStore);
+    }
+
+    @Test
+    void passesBatchOfSingleStoreAsIs() {
+        List<ConstraintChange> changes = Arrays.asList(ConstraintChange.release("Email", "old@example.com"),
+                                                       ConstraintChange.claim("Email", "new@example.com"));
+
+        store.applyChanges("AGG_ID", changes);
+
+        verify(defaultStore).applyChanges("AGG_ID", changes);
+        verifyNoInteractions(roomNumberStore);
+    }
+
+    @Test
+    void splitsBatchBetweenStores() {
+        ConstraintChange emailClaim = ConstraintChange.claim("Email", "new@example.com");
+        ConstraintChange roomRelease = ConstraintChange.release("RoomNumber", "101");
+        ConstraintChange roomClaim = ConstraintChange.claim("RoomNumber", "102");
+
+        store.applyChanges("AGG_ID", Arrays.asList(emailClaim, roomRelease, roomClaim));
+
+        verify(defaultStore).applyChanges("AGG_ID", Collections.singletonList(emailClaim));
+        verify(roomNumberStore).releaseClaimValue("RoomNumber", "101", "AGG_ID");
+        verify(roomNumberStore).checkAndClaimValue("RoomNumber", "102", "AGG_ID");
+    }
+
+    @Test
+    void builderRequiresDefaultStore() {
+        RoutingUniqueConstraintStore.Builder builder = RoutingUniqueConstraintStore.builder();
+
+        assertThrows(AxonConfigurationException.class, builder::build);
+    }
+}
@@ -2,6 +2,16 @@ package org.axonframework.extensions.uniqueconstraint;
 
 import org.junit.jupiter.api.*;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 class Sha256ConstraintKeyProviderTest {
@@ -31,4 +41,74 @@ class Sha256ConstraintKeyProviderTest {
 
         assertNotEquals(value1, value2);
     }
+
+    @Test
+    void providesSameValuesAsHashOfConcatenatedString() throws Exception {
+        String[] values = {"Value1", "", "f\u00f6\u00f6@\u00e9xample.com", "\u20ac100", "\ud83d\ude00 smile",
+                "unpaired \ud83d surrogate", "\ude00 low surrogate first", "ends with high \ud83d"};
+        for (String value : values) {
+            assertEquals(referenceKey("MyConstraint", value), provider.determineValue("MyConstraint", value));
+        }
+        assertEquals(referenceKey("MyConstraint", "627030788"), provider.determineValue("MyConstraint", 627030788));
+        assertEquals(referenceKey("MyConstraint", "builder"),
+                     provider.determineValue("MyConstraint", new StringBuilder("builder")));
+    }
+
+    @Test
+    void encodesSameHashAsUnpaddedBase64Url() throws Exception {
+        ConstraintKeyProvider base64Provider =
+                new Sha256ConstraintKeyProvider(Sha256ConstraintKeyProvider.Encoding.BASE64_URL);
+        for (String value : new String[]{"Value1", "", "f\u00f6\u00f6@\u00e9xample.com", "627030788"}) {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(
+                    ("MyConstraint__" + value).getBytes(StandardCharsets.UTF_8));
+            String key = base64Provider.determineValue("MyConstraint", value);
+
+            assertEquals(Base64.getUrlEncoder().withoutPadding().encodeToString(hash), key);
+            assertEquals(43, key.length());
+        }
+    }
+
+    @Test
+    void providesCorrectValuesWhenUsedConcurrently() throws Exception {
+        int threads = 16;
+        int valuesPerThread = 2_000;
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < valuesPerThread; i++) {
+            expected.add(referenceKey("MyConstraint", "user-" + i + "@example.com"));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                results.add(executor.submit(() -> {
+                    int mismatches = 0;
+                    for (int i = 0; i < valuesPerThread; i++) {
+                        int index = (i + offset * 131) % valuesPerThread;
+                        String key = provider.determineValue("MyConstraint", "user-" + index + "@example.com");
+                        if (!expected.get(index).equals(key)) {
+                            mismatches++;
+                        }
+                    }
+                    return mismatches;
+                }));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(0, result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static String referenceKey(String constraintName, String value) throws Exception {
+        byte[] hash = MessageDigest.getInstance("SHA-256")
+                                   .digest((constraintName + "__" + value).getBytes(StandardCharsets.UTF_8));
+        StringBuilder hex = new StringBuilder();
+        for (byte b : hash) {
+            hex.append(String.format("%02X", b));
+        }
+        return hex.toString();
+    }
 }
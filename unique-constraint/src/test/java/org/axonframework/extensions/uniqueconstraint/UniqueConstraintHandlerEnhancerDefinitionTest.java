@@ -3,7 +3,11 @@ package org.axonframework.extensions.uniqueconstraint;
 import org.axonframework.commandhandling.CommandHandler;
 import org.axonframework.commandhandling.CommandMessage;
 import org.axonframework.commandhandling.GenericCommandMessage;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.Configurer;
+import org.axonframework.config.DefaultConfigurer;
 import org.axonframework.eventsourcing.EventSourcingHandler;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
 import org.axonframework.messaging.Scope;
 import org.axonframework.messaging.ScopeDescriptor;
 import org.axonframework.messaging.annotation.DefaultParameterResolverFactory;
@@ -12,12 +16,16 @@ import org.axonframework.modelling.command.AggregateIdentifier;
 import org.axonframework.modelling.command.AggregateLifecycle;
 import org.axonframework.modelling.command.AggregateRoot;
 import org.axonframework.modelling.command.AggregateScopeDescriptor;
+import org.axonframework.modelling.command.TargetAggregateIdentifier;
 import org.axonframework.modelling.command.inspection.AggregateModel;
 import org.axonframework.modelling.command.inspection.AnnotatedAggregateMetaModelFactory;
 import org.junit.jupiter.api.*;
 import org.mockito.*;
 
+import java.lang.reflect.Executable;
+import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -131,6 +139,90 @@ class UniqueConstraintHandlerEnhancerDefinitionTest {
         verify(store).checkAndClaimValue("Email", "myEmail2", "AGG_ID");
     }
 
+    @Test
+    void onlyChecksConstraintsDeclaredByHandler() throws Exception {
+        when(actualHandler.canHandleMessageType(CommandMessage.class)).thenReturn(true);
+        when(actualHandler.declaringClass()).thenReturn(MultipleConstraintsClass.class);
+        when(actualHandler.unwrap(Executable.class)).thenReturn(Optional.of(
+                MultipleConstraintsClass.class.getMethod("changeEmail", String.class)));
+        MessageHandlingMember messageHandlingMember = definition.wrapHandler(actualHandler);
+        assertNotSame(actualHandler, messageHandlingMember);
+
+        MultipleConstraintsClass aggregate = new MultipleConstraintsClass();
+        aggregate.email = "myEmail";
+        aggregate.userName = "myUserName";
+        when(actualHandler.handle(any(), any())).thenAnswer(invocationOnMock -> {
+            aggregate.email = "myEmail2";
+            aggregate.userName = "myUserName2";
+            return null;
+        });
+
+        new MockedCommandHandlingScope().execute(() -> {
+            messageHandlingMember.handle(GenericCommandMessage.asCommandMessage("myCommand"), aggregate);
+            return null;
+        });
+        verify(store).releaseClaimValue("Email", "myEmail", "AGG_ID");
+        verify(store).checkAndClaimValue("Email", "myEmail2", "AGG_ID");
+        verifyNoMoreInteractions(store);
+    }
+
+    @Test
+    void doesNotWrapHandlerAffectingNoConstraints() throws Exception {
+        when(actualHandler.canHandleMessageType(CommandMessage.class)).thenReturn(true);
+        when(actualHandler.declaringClass()).thenReturn(MultipleConstraintsClass.class);
+        when(actualHandler.unwrap(Executable.class)).thenReturn(Optional.of(
+                MultipleConstraintsClass.class.getMethod("recordLogin")));
+
+        assertSame(actualHandler, definition.wrapHandler(actualHandler));
+    }
+
+    @Test
+    void rejectsHandlerDeclaringUnknownConstraint() throws Exception {
+        when(actualHandler.canHandleMessageType(CommandMessage.class)).thenReturn(true);
+        when(actualHandler.declaringClass()).thenReturn(MultipleConstraintsClass.class);
+        when(actualHandler.unwrap(Executable.class)).thenReturn(Optional.of(
+                MultipleConstraintsClass.class.getMethod("changePhoneNumber")));
+
+        assertThrows(IllegalArgumentException.class, () -> definition.wrapHandler(actualHandler));
+    }
+
+    @Test
+    void doesNotWrapCommandHandlersOfAggregateTrackingChanges() {
+        when(actualHandler.canHandleMessageType(CommandMessage.class)).thenReturn(true);
+        when(actualHandler.declaringClass()).thenReturn(TrackedAccount.class);
+
+        assertSame(actualHandler, definition.wrapHandler(actualHandler));
+    }
+
+    @Test
+    void checksConstraintsWrittenByEventSourcingHandlersWhenTrackingChanges() {
+        Configurer configurer = DefaultConfigurer.defaultConfiguration()
+                                                 .configureEmbeddedEventStore(c -> new InMemoryEventStorageEngine())
+                                                 .configureAggregate(TrackedAccount.class);
+        new UniqueConstraintConfigurerModule().configureModule(configurer);
+        Configuration configuration = configurer.buildConfiguration();
+        configuration.start();
+        try {
+            TrackedAccount.EMAIL_READS.set(0);
+            configuration.commandGateway().sendAndWait(new CreateAccountCommand("A1", "one@example.com"));
+            configuration.commandGateway().sendAndWait(new CreateAccountCommand("A2", "two@example.com"));
+            assertEquals(4, TrackedAccount.EMAIL_READS.get());
+
+            TrackedAccount.EMAIL_READS.set(0);
+            configuration.commandGateway().sendAndWait(new RecordLoginCommand("A1"));
+            configuration.commandGateway().sendAndWait(new RecordLoginCommand("A1"));
+            assertEquals(0, TrackedAccount.EMAIL_READS.get());
+
+            assertThrows(UniqueConstraintClaimException.class,
+                         () -> configuration.commandGateway()
+                                            .sendAndWait(new ChangeEmailCommand("A2", "one@example.com")));
+            configuration.commandGateway().sendAndWait(new ChangeEmailCommand("A1", "three@example.com"));
+            configuration.commandGateway().sendAndWait(new ChangeEmailCommand("A2", "one@example.com"));
+        } finally {
+            configuration.shutdown();
+        }
+    }
+
     class MockedCommandHandlingScope extends Scope {
 
         @Override
@@ -167,4 +259,141 @@ class UniqueConstraintHandlerEnhancerDefinitionTest {
             this.email = email;
         }
     }
+
+    class MultipleConstraintsClass {
+
+        @AggregateUniqueConstraint(constraintName = "Email")
+        public String email;
+
+        @AggregateUniqueConstraint(constraintName = "UserName")
+        public String userName;
+
+        @CommandHandler
+        @AffectsUniqueConstraints("Email")
+        public void changeEmail(String email) {
+            this.email = email;
+        }
+
+        @CommandHandler
+        @AffectsUniqueConstraints({})
+        public void recordLogin() {
+        }
+
+        @CommandHandler
+        @AffectsUniqueConstraints("PhoneNumber")
+        public void changePhoneNumber() {
+        }
+    }
+
+    @TrackUniqueConstraintChanges
+    public static class TrackedAccount {
+
+        private static final AtomicInteger EMAIL_READS = new AtomicInteger();
+
+        @AggregateIdentifier
+        private String accountId;
+        private String email;
+        private int logins;
+
+        public TrackedAccount() {
+        }
+
+        @CommandHandler
+        public TrackedAccount(CreateAccountCommand command) {
+            AggregateLifecycle.apply(new AccountCreatedEvent(command.accountId, command.email));
+        }
+
+        @CommandHandler
+        public void handle(RecordLoginCommand command) {
+            if (logins == 0) {
+                AggregateLifecycle.apply(new LoginRecordedEvent());
+            }
+        }
+
+        @CommandHandler
+        public void handle(ChangeEmailCommand command) {
+            AggregateLifecycle.apply(new EmailChangedEvent(command.email));
+        }
+
+        @EventSourcingHandler
+        public void on(AccountCreatedEvent event) {
+            this.accountId = event.accountId;
+            this.email = event.email;
+        }
+
+        @EventSourcingHandler
+        @AffectsUniqueConstraints({})
+        public void on(LoginRecordedEvent event) {
+            this.logins++;
+        }
+
+        @EventSourcingHandler
+        @AffectsUniqueConstraints("Email")
+        public void on(EmailChangedEvent event) {
+            this.email = event.email;
+        }
+
+        @AggregateUniqueConstraint(constraintName = "Email")
+        public String getEmail() {
+            EMAIL_READS.incrementAndGet();
+            return email;
+        }
+    }
+
+    static class CreateAccountCommand {
+
+        private final String accountId;
+        private final String email;
+
+        CreateAccountCommand(String accountId, String email) {
+            this.accountId = accountId;
+            this.email = email;
+        }
+    }
+
+    static class RecordLoginCommand {
+
+        @TargetAggregateIdentifier
+        private final String accountId;
+
+        RecordLoginCommand(String accountId) {
+            this.accountId = accountId;
+        }
+    }
+
+    static class ChangeEmailCommand {
+
+        @TargetAggregateIdentifier
+        private final String accountId;
+        private final String email;
+
+        ChangeEmailCommand(String accountId, String email) {
+            this.accountId = accountId;
+            this.email = email;
+        }
+    }
+
+    static class AccountCreatedEvent {
+
+        private final String accountId;
+        private final String email;
+
+        AccountCreatedEvent(String accountId, String email) {
+            this.accountId = accountId;
+            this.email = email;
+        }
+    }
+
+    static class LoginRecordedEvent {
+
+    }
+
+    static class EmailChangedEvent {
+
+        private final String email;
+
+        EmailChangedEvent(String email) {
+            this.email = email;
+        }
+    }
 }
@@ -0,0 +1,78 @@
+package org.axonframework.extensions.uniqueconstraint;
+
+import org.axonframework.common.AxonConfigurationException;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.Configurer;
+import org.axonframework.config.DefaultConfigurer;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UniqueConstraintSettingsRegistryTest {
+
+    @Test
+    void normalizesValuesAccordingToSettings() {
+        UniqueConstraintSettingsRegistry registry =
+                UniqueConstraintSettingsRegistry.builder()
+                                                .constraint("Email", UniqueConstraintSettings.builder()
+                                                                                             .caseInsensitive(true)
+                                                                                             .normalized(true)
+                                                                                             .build())
+                                                .constraint("Handle", UniqueConstraintSettings.builder()
+                                                                                              .normalized(true)
+                                                                                              .build())
+                                                .build();
+
+        assertEquals("someone@example.com", registry.normalize("Email", " SomeOne@Example.COM "));
+        assertEquals("Foo", registry.normalize("Handle", "Ｆｏｏ "));
+        assertEquals(" Foo ", registry.normalize("Other", " Foo "));
+        assertSame(UniqueConstraintSettings.defaultSettings(), registry.settingsOf("Other"));
+    }
+
+    @Test
+    void settingsCannotCombineStoreWithKeyProvider() {
+        UniqueConstraintSettings.Builder builder = UniqueConstraintSettings.builder()
+                                                                           .store(InMemoryUniqueConstraintStore.builder()
+                                                                                                               .build())
+                                                                           .keyProvider(new PlainConstraintKeyProvider());
+
+        assertThrows(AxonConfigurationException.class, builder::build);
+    }
+
+    @Test
+    void configurerModuleAppliesSettingsOfEachConstraint() {
+        InMemoryUniqueConstraintStore roomNumberStore = InMemoryUniqueConstraintStore.builder().build();
+        Configurer configurer = DefaultConfigurer.defaultConfiguration()
+                                                 .configureEmbeddedEventStore(c -> new InMemoryEventStorageEngine());
+        new UniqueConstraintConfigurerModule().configureModule(configurer);
+        configurer.registerComponent(
+                UniqueConstraintSettingsRegistry.class,
+                c -> UniqueConstraintSettingsRegistry
+                        .builder()
+                        .constraint("RoomNumber", UniqueConstraintSettings.builder().store(roomNumberStore).build())
+                        .constraint("Email", UniqueConstraintSettings.builder()
+                                                                     .keyProvider(new PlainConstraintKeyProvider())
+                                                                     .caseInsensitive(true)
+                                                                     .cached(true)
+                                                                     .build())
+                        .build());
+        Configuration configuration = configurer.buildConfiguration();
+
+        RoutingUniqueConstraintStore store =
+                (RoutingUniqueConstraintStore) configuration.getComponent(UniqueConstraintStore.class);
+        assertSame(roomNumberStore, store.storeOf("RoomNumber"));
+        assertNotSame(store.storeOf("Email"), store.storeOf("Other"));
+
+        UniqueConstraintValidator validator = configuration.getComponent(UniqueConstraintValidator.class);
+        validator.forAggregate(() -> "AGG_1").addConstraint("RoomNumber", () -> 101).check();
+        validator.forAggregate(() -> "AGG_1").addConstraint("Email", () -> "SomeOne@Example.com").check();
+
+        assertEquals(1, roomNumberStore.size());
+        assertEquals(1, configuration.eventStore().readEvents("Email:someone@example.com").asStream().count());
+        assertThrows(UniqueConstraintClaimException.class,
+                     () -> validator.forAggregate(() -> "AGG_2")
+                                    .addConstraint("Email", () -> "someone@EXAMPLE.com")
+                                    .check());
+    }
+}
@@ -4,6 +4,8 @@ import org.axonframework.common.AxonConfigurationException;
 import org.junit.jupiter.api.*;
 import org.mockito.*;
 
+import java.util.Arrays;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -102,6 +104,200 @@ class UniqueConstraintValidatorTest {
         verify(store).checkAndClaimValue("MyConstraint", "MyValue1", "AGG_ID");
     }
 
+    static class AnnotatedValueHolder {
+
+        @AggregateUniqueConstraint(constraintName = "MyConstraint1")
+        String myValue1 = "MyValue1";
+        @AggregateUniqueConstraint(constraintName = "MyConstraint2")
+        String myValue2 = "MyValue1";
+    }
+
+    @Test
+    void claimsAndReleasesChangedValuesOfPlan() {
+        ConstraintAccessorPlan plan = ConstraintAccessorPlan.forClass(AnnotatedValueHolder.class);
+        AnnotatedValueHolder valueHolder = new AnnotatedValueHolder();
+        Object[] valuesBefore = plan.readValues(valueHolder);
+        valueHolder.myValue1 = "MyValue2";
+
+        validator.checkChanges(plan, valueHolder, valuesBefore, () -> "AGG_ID");
+
+        verify(store).releaseClaimValue("MyConstraint1", "MyValue1", "AGG_ID");
+        verify(store).checkAndClaimValue("MyConstraint1", "MyValue2", "AGG_ID");
+        verifyNoMoreInteractions(store);
+    }
+
+    static class CompositeValueHolder {
+
+        @AggregateUniqueConstraint(constraintName = "TenantRoom", order = 1)
+        Integer roomNumber = 101;
+
+        @AggregateUniqueConstraint(constraintName = "TenantRoom", order = 0,
+                normalizers = ConstraintValueNormalizer.LowerCase.class)
+        String tenantId = "Tenant|A";
+    }
+
+    @Test
+    void claimsCombinedComponentsOfCompositeConstraint() {
+        ConstraintAccessorPlan plan = ConstraintAccessorPlan.forClass(CompositeValueHolder.class);
+        CompositeValueHolder valueHolder = new CompositeValueHolder();
+
+        validator.checkChanges(plan, valueHolder, plan.readValues(valueHolder), () -> "AGG_ID");
+        verifyNoInteractions(store);
+
+        Object[] valuesBefore = plan.readValues(valueHolder);
+        valueHolder.roomNumber = 102;
+        validator.checkChanges(plan, valueHolder, valuesBefore, () -> "AGG_ID");
+
+        verify(store).releaseClaimValue("TenantRoom", "tenant\\|a|101", "AGG_ID");
+        verify(store).checkAndClaimValue("TenantRoom", "tenant\\|a|102", "AGG_ID");
+        verifyNoMoreInteractions(store);
+    }
+
+    @Test
+    void doesNotClaimCompositeConstraintWithMissingComponent() {
+        ConstraintAccessorPlan plan = ConstraintAccessorPlan.forClass(CompositeValueHolder.class);
+        CompositeValueHolder valueHolder = new CompositeValueHolder();
+        valueHolder.roomNumber = null;
+
+        validator.check(plan, valueHolder, () -> "AGG_ID");
+
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    void onCheckOfPlanAlwaysChecksValues() {
+        ConstraintAccessorPlan plan = ConstraintAccessorPlan.forClass(AnnotatedValueHolder.class);
+
+        validator.check(plan, new AnnotatedValueHolder(), () -> "AGG_ID");
+
+        verify(store).checkAndClaimValue("MyConstraint1", "MyValue1", "AGG_ID");
+        verify(store).checkAndClaimValue("MyConstraint2", "MyValue1", "AGG_ID");
+    }
+
+    @Test
+    void appliesAllChangesAtOnceWhenStoreSupportsBatches() throws Exception {
+        BatchUniqueConstraintStore batchStore = Mockito.mock(BatchUniqueConstraintStore.class);
+        UniqueConstraintValidator batchValidator = UniqueConstraintValidator.builder()
+                                                                            .constraintStore(batchStore)
+                                                                            .build();
+        MyValueHolder myValueHolder = new MyValueHolder();
+        batchValidator.forAggregate(() -> "AGG_ID")
+                      .addConstraint("MyConstraint1", () -> myValueHolder.myValue1)
+                      .addConstraint("MyConstraint2", () -> myValueHolder.myValue2)
+                      .checkForInterceptor(() -> {
+                          myValueHolder.myValue1 = "MyValue2";
+                          return null;
+                      });
+
+        verify(batchStore).applyChanges("AGG_ID", Arrays.asList(ConstraintChange.release("MyConstraint1", "MyValue1"),
+                                                                ConstraintChange.claim("MyConstraint1", "MyValue2")));
+        verifyNoMoreInteractions(batchStore);
+    }
+
+    @Test
+    void doesNotCallBatchStoreWhenNothingChanged() {
+        BatchUniqueConstraintStore batchStore = Mockito.mock(BatchUniqueConstraintStore.class);
+        UniqueConstraintValidator batchValidator = UniqueConstraintValidator.builder()
+                                                                            .constraintStore(batchStore)
+                                                                            .build();
+        ConstraintAccessorPlan plan = ConstraintAccessorPlan.forClass(AnnotatedValueHolder.class);
+        AnnotatedValueHolder valueHolder = new AnnotatedValueHolder();
+
+        batchValidator.checkChanges(plan, valueHolder, plan.readValues(valueHolder), () -> "AGG_ID");
+
+        verifyNoInteractions(batchStore);
+    }
+
+    @Test
+    void notifiesMonitorOfUnchangedValues() throws Exception {
+        UniqueConstraintMonitor monitor = Mockito.mock(UniqueConstraintMonitor.class);
+        UniqueConstraintValidator monitoredValidator = UniqueConstraintValidator.builder()
+                                                                                .constraintStore(store)
+                                                                                .monitor(monitor)
+                                                                                .build();
+        MyValueHolder myValueHolder = new MyValueHolder();
+        monitoredValidator.forAggregate(() -> "AGG_ID")
+                          .addConstraint("MyConstraint1", () -> myValueHolder.myValue1)
+                          .addConstraint("MyConstraint2", () -> myValueHolder.myValue2)
+                          .checkForInterceptor(() -> {
+                              myValueHolder.myValue1 = "MyValue2";
+                              return null;
+                          });
+
+        verify(monitor).onUnchangedValue("MyConstraint2");
+        verify(monitor, never()).onUnchangedValue("MyConstraint1");
+    }
+
+    @Test
+    void doesNotConvertEqualValuesToString() throws Exception {
+        CountingValue value = new CountingValue("MyValue1");
+        UniqueConstraintValidator.ValidatorInstance instance = validator.forAggregate(() -> "AGG_ID")
+                                                                        .addConstraint("MyConstraint", () -> value);
+
+        instance.checkForInterceptor(() -> null);
+        instance.checkForInterceptor(() -> null);
+
+        assertEquals(0, value.toStringCount);
+        verifyNoInteractions(store);
+    }
+
+    @Test
+    void replacesSupplierOfConstraintAddedTwice() throws Exception {
+        MyValueHolder myValueHolder = new MyValueHolder();
+        validator.forAggregate(() -> "AGG_ID")
+                 .addConstraint("MyConstraint", () -> "Unused")
+                 .addConstraint("MyConstraint", () -> myValueHolder.myValue1)
+                 .check();
+
+        verify(store).checkAndClaimValue("MyConstraint", "MyValue1", "AGG_ID");
+        verifyNoMoreInteractions(store);
+    }
+
+    @Test
+    void comparesNormalizedValuesOfChangedValues() throws Exception {
+        MyValueHolder myValueHolder = new MyValueHolder();
+        myValueHolder.myValue1 = "someone@example.com";
+        ConstraintValueNormalizer lowerCase = new ConstraintValueNormalizer.LowerCase();
+        validator.forAggregate(() -> "AGG_ID")
+                 .addConstraint("MyConstraint", () -> myValueHolder.myValue1, lowerCase)
+                 .checkForInterceptor(() -> {
+                     myValueHolder.myValue1 = "SomeOne@Example.com";
+                     return null;
+                 });
+        verifyNoInteractions(store);
+
+        validator.forAggregate(() -> "AGG_ID")
+                 .addConstraint("MyConstraint", () -> myValueHolder.myValue1, lowerCase)
+                 .check();
+        verify(store).checkAndClaimValue("MyConstraint", "someone@example.com", "AGG_ID");
+    }
+
+    static class CountingValue {
+
+        private final String value;
+        private int toStringCount;
+
+        CountingValue(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof CountingValue && ((CountingValue) o).value.equals(value);
+        }
+
+        @Override
+        public int hashCode() {
+            return value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            toStringCount++;
+            return value;
+        }
+    }
+
     @Test
     void builderCannotBeBuiltWithoutStore() {
         UniqueConstraintValidator.Builder builder = UniqueConstraintValidator.builder();
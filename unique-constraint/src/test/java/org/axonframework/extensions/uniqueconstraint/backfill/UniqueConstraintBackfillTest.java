@@ -0,0 +1,120 @@
+package org.axonframework.extensions.uniqueconstraint.backfill;
+
+import org.axonframework.eventhandling.EventMessage;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.extensions.uniqueconstraint.AggregateUniqueConstraint;
+import org.axonframework.extensions.uniqueconstraint.EventStoreUniqueConstraintStore;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintClaimException;
+import org.axonframework.modelling.command.AggregateIdentifier;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UniqueConstraintBackfillTest {
+
+    private final AtomicInteger appends = new AtomicInteger();
+    private final EmbeddedEventStore eventStore = EmbeddedEventStore.builder()
+                                                                    .storageEngine(new CountingStorageEngine())
+                                                                    .build();
+    private final EventStoreUniqueConstraintStore store = EventStoreUniqueConstraintStore
+            .builder()
+            .eventStore(eventStore)
+            .constraintValueProvider((constraintName, value) -> constraintName + ":" + value)
+            .build();
+    private final List<Account> accounts = Arrays.asList(new Account("a1", "one@example.com"),
+                                                         new Account("a2", "two@example.com"),
+                                                         new Account("a3", "shared@example.com"),
+                                                         new Account("a4", "shared@example.com"),
+                                                         new Account("a5", "taken@example.com"),
+                                                         new Account("a6", null));
+    private final List<String> progress = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        eventStore.shutDown();
+    }
+
+    @Test
+    void claimsValuesOfAllAggregatesInBatchesAndReportsConflicts() {
+        store.checkAndClaimValue("Email", "taken@example.com", "other");
+        appends.set(0);
+
+        BackfillResult result = backfill().run();
+
+        assertEquals(6, result.getProcessedAggregates());
+        assertEquals("a6", result.getLastToken());
+        assertEquals(Arrays.asList("a4", "a5"), result.getConflicts().stream()
+                                                      .map(BackfillConflict::getAggregateIdentifier)
+                                                      .sorted()
+                                                      .collect(Collectors.toList()));
+        assertEquals("Email", result.getConflicts().get(0).getConstraintName());
+        assertEquals("a6", progress.get(progress.size() - 1));
+        assertEquals(2, appends.get());
+        assertThrows(UniqueConstraintClaimException.class,
+                     () -> store.checkAndClaimValue("Email", "shared@example.com", "a4"));
+        store.checkAndClaimValue("Email", "one@example.com", "a1");
+    }
+
+    @Test
+    void resumesFromTokenAndSkipsValuesClaimedBefore() {
+        backfill().run("a4");
+        appends.set(0);
+
+        BackfillResult result = backfill().run("a2");
+
+        assertEquals(4, result.getProcessedAggregates());
+        assertEquals(1, result.getConflicts().size());
+        assertEquals("a4", result.getConflicts().get(0).getAggregateIdentifier());
+        assertEquals(1, appends.get());
+        store.checkAndClaimValue("Email", "two@example.com", "other");
+    }
+
+    private UniqueConstraintBackfill<Account> backfill() {
+        return UniqueConstraintBackfill.<Account>builder()
+                                       .aggregateType(Account.class)
+                                       .source(this::readAfter)
+                                       .constraintStore(store)
+                                       .progressListener(progress::add)
+                                       .batchSize(2)
+                                       .concurrency(2)
+                                       .build();
+    }
+
+    private List<Account> readAfter(String token, int maxCount) {
+        return accounts.stream()
+                       .filter(account -> token == null || account.id.compareTo(token) > 0)
+                       .limit(maxCount)
+                       .collect(Collectors.toList());
+    }
+
+    private class CountingStorageEngine extends InMemoryEventStorageEngine {
+
+        @Override
+        public void appendEvents(List<? extends EventMessage<?>> events) {
+            if (!events.isEmpty()) {
+                appends.incrementAndGet();
+            }
+            super.appendEvents(events);
+        }
+    }
+
+    private static class Account {
+
+        @AggregateIdentifier
+        private final String id;
+        @AggregateUniqueConstraint(constraintName = "Email")
+        private final String email;
+
+        private Account(String id, String email) {
+            this.id = id;
+            this.email = email;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package org.axonframework.extensions.uniqueconstraint.jdbc;
+
+import com.thoughtworks.xstream.XStream;
+import org.axonframework.common.jdbc.ConnectionProvider;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.eventsourcing.eventstore.jdbc.HsqlEventTableFactory;
+import org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine;
+import org.axonframework.extensions.uniqueconstraint.BloomConstraintKeyFilter;
+import org.axonframework.extensions.uniqueconstraint.ConstraintKeyFilterInitializer;
+import org.axonframework.extensions.uniqueconstraint.EventStoreUniqueConstraintStore;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintClaimException;
+import org.axonframework.extensions.uniqueconstraint.events.ConstraintClaimedEvent;
+import org.axonframework.extensions.uniqueconstraint.events.ConstraintReleasedEvent;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcConstraintEventCompactorTest {
+
+    private final String url = "jdbc:hsqldb:mem:" + UUID.randomUUID();
+    private final ConnectionProvider connectionProvider = () -> DriverManager.getConnection(url);
+    private final Serializer serializer = xStreamSerializer();
+
+    private EmbeddedEventStore eventStore;
+    private EventStoreUniqueConstraintStore store;
+
+    @BeforeEach
+    void setUp() {
+        JdbcEventStorageEngine storageEngine = JdbcEventStorageEngine.builder()
+                                                                     .connectionProvider(connectionProvider)
+                                                                     .transactionManager(NoTransactionManager.INSTANCE)
+                                                                     .eventSerializer(serializer)
+                                                                     .snapshotSerializer(serializer)
+                                                                     .build();
+        storageEngine.createSchema(HsqlEventTableFactory.INSTANCE);
+        eventStore = EmbeddedEventStore.builder().storageEngine(storageEngine).build();
+        store = EventStoreUniqueConstraintStore.builder()
+                                               .eventStore(eventStore)
+                                               .constraintValueProvider((constraintName, value) -> value.toString())
+                                               .latestEventReader(latestEventReader())
+                                               .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventStore.shutDown();
+    }
+
+    @Test
+    void removesAllButLastEventOfEveryConstraintKey() throws SQLException {
+        store.checkAndClaimValue("Email", "someone@example.com", "AGG_1");
+        store.releaseClaimValue("Email", "someone@example.com", "AGG_1");
+        store.checkAndClaimValue("Email", "someone@example.com", "AGG_2");
+        store.checkAndClaimValue("Email", "other@example.com", "AGG_3");
+        eventStore.publish(new GenericDomainEventMessage<>("ConstraintLike", "AGG_4", 0, "created"),
+                           new GenericDomainEventMessage<>("ConstraintLike", "AGG_4", 1, "updated"));
+
+        int removed = JdbcConstraintEventCompactor.builder()
+                                                  .connectionProvider(connectionProvider)
+                                                  .batchSize(1)
+                                                  .build()
+                                                  .compact();
+
+        assertEquals(2, removed);
+        assertEquals(1, countEvents("DomainEventEntry", "someone@example.com"));
+        assertEquals(1, countEvents("DomainEventEntry", "other@example.com"));
+        assertEquals(2, countEvents("DomainEventEntry", "AGG_4"));
+        assertThrows(UniqueConstraintClaimException.class,
+                     () -> store.checkAndClaimValue("Email", "someone@example.com", "AGG_1"));
+        store.releaseClaimValue("Email", "someone@example.com", "AGG_2");
+        store.checkAndClaimValue("Email", "someone@example.com", "AGG_1");
+        assertEquals(3, countEvents("DomainEventEntry", "someone@example.com"));
+    }
+
+    @Test
+    void archivesEventsOfSingleConstraintBeforeRemovingThem() throws SQLException {
+        execute("CREATE TABLE ConstraintEventArchive AS (SELECT * FROM DomainEventEntry) WITH NO DATA");
+        store.checkAndClaimValue("Email", "someone@example.com", "AGG_1");
+        store.releaseClaimValue("Email", "someone@example.com", "AGG_1");
+        store.checkAndClaimValue("RoomNumber", "101", "AGG_1");
+        store.releaseClaimValue("RoomNumber", "101", "AGG_1");
+
+        int removed = JdbcConstraintEventCompactor.builder()
+                                                  .connectionProvider(connectionProvider)
+                                                  .archiveTable("ConstraintEventArchive")
+                                                  .build()
+                                                  .compact("Email");
+
+        assertEquals(1, removed);
+        assertEquals(1, countEvents("DomainEventEntry", "someone@example.com"));
+        assertEquals(1, countEvents("ConstraintEventArchive", "someone@example.com"));
+        assertEquals(2, countEvents("DomainEventEntry", "101"));
+    }
+
+    @Test
+    void keepsCompactedReleasedKeysClaimableOnceAfterRestartWithKeyFilter() {
+        store.checkAndClaimValue("Email", "someone@example.com", "AGG_1");
+        store.releaseClaimValue("Email", "someone@example.com", "AGG_1");
+        JdbcConstraintEventCompactor.builder()
+                                    .connectionProvider(connectionProvider)
+                                    .build()
+                                    .compact();
+
+        BloomConstraintKeyFilter filter = BloomConstraintKeyFilter.builder().expectedKeys(1_000).build();
+        ConstraintKeyFilterInitializer initializer = ConstraintKeyFilterInitializer.builder()
+                                                                                   .messageSource(eventStore)
+                                                                                   .constraintKeyFilter(filter)
+                                                                                   .build();
+        initializer.start();
+        try {
+            awaitTrue(filter::isInitialized);
+            EventStoreUniqueConstraintStore restartedStore =
+                    EventStoreUniqueConstraintStore.builder()
+                                                   .eventStore(eventStore)
+                                                   .constraintValueProvider((constraintName, value) -> value.toString())
+                                                   .latestEventReader(latestEventReader())
+                                                   .constraintKeyFilter(filter)
+                                                   .build();
+
+            restartedStore.checkAndClaimValue("Email", "someone@example.com", "AGG_2");
+            assertThrows(UniqueConstraintClaimException.class,
+                         () -> restartedStore.checkAndClaimValue("Email", "someone@example.com", "AGG_3"));
+        } finally {
+            initializer.shutdown();
+        }
+    }
+
+    private JdbcLatestConstraintEventReader latestEventReader() {
+        return JdbcLatestConstraintEventReader.builder()
+                                              .connectionProvider(connectionProvider)
+                                              .eventSerializer(serializer)
+                                              .build();
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "Condition was not met in time");
+            Thread.yield();
+        }
+    }
+
+    private int countEvents(String table, String aggregateIdentifier) throws SQLException {
+        try (Connection connection = connectionProvider.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM " + table
+                                                                  + " WHERE aggregateIdentifier = '"
+                                                                  + aggregateIdentifier + "'")) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private void execute(String sql) throws SQLException {
+        try (Connection connection = connectionProvider.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private static Serializer xStreamSerializer() {
+        XStream xStream = new XStream();
+        xStream.allowTypesByWildcard(new String[]{"org.axonframework.**"});
+        return XStreamSerializer.builder().xStream(xStream).build();
+    }
+}
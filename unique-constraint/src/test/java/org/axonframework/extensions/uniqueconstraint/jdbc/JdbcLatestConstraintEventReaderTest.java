@@ -0,0 +1,156 @@
+package org.axonframework.extensions.uniqueconstraint.jdbc;
+
+import com.thoughtworks.xstream.XStream;
+import org.axonframework.common.jdbc.ConnectionProvider;
+import org.axonframework.common.transaction.NoTransactionManager;
+import org.axonframework.eventhandling.DomainEventMessage;
+import org.axonframework.eventhandling.GenericDomainEventMessage;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.eventsourcing.eventstore.jdbc.HsqlEventTableFactory;
+import org.axonframework.eventsourcing.eventstore.jdbc.JdbcEventStorageEngine;
+import org.axonframework.extensions.uniqueconstraint.EventStoreUniqueConstraintStore;
+import org.axonframework.extensions.uniqueconstraint.events.ConstraintClaimedEvent;
+import org.axonframework.extensions.uniqueconstraint.events.ConstraintReleasedEvent;
+import org.axonframework.serialization.Serializer;
+import org.axonframework.serialization.xml.XStreamSerializer;
+import org.junit.jupiter.api.*;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JdbcLatestConstraintEventReaderTest {
+
+    private final AtomicInteger selectQueries = new AtomicInteger();
+    private final String url = "jdbc:hsqldb:mem:" + UUID.randomUUID();
+    private final ConnectionProvider connectionProvider = () -> countingSelects(DriverManager.getConnection(url));
+    private final Serializer serializer = xStreamSerializer();
+
+    private EmbeddedEventStore eventStore;
+    private JdbcLatestConstraintEventReader reader;
+
+    @BeforeEach
+    void setUp() {
+        JdbcEventStorageEngine storageEngine = JdbcEventStorageEngine.builder()
+                                                                     .connectionProvider(connectionProvider)
+                                                                     .transactionManager(NoTransactionManager.INSTANCE)
+                                                                     .eventSerializer(serializer)
+                                                                     .snapshotSerializer(serializer)
+                                                                     .build();
+        storageEngine.createSchema(HsqlEventTableFactory.INSTANCE);
+        eventStore = EmbeddedEventStore.builder().storageEngine(storageEngine).build();
+        reader = JdbcLatestConstraintEventReader.builder()
+                                                .connectionProvider(connectionProvider)
+                                                .eventSerializer(serializer)
+                                                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventStore.shutDown();
+    }
+
+    @Test
+    void returnsEmptyOptionalWhenConstraintKeyHasNoEvents() {
+        assertFalse(reader.readLatestEvent("MyConstraintValue").isPresent());
+    }
+
+    @Test
+    void readsEventWithHighestSequenceNumber() {
+        eventStore.publish(event(0, new ConstraintClaimedEvent("MyConstraint", "MyConstraintValue", "AGG_1")),
+                           event(1, new ConstraintReleasedEvent("MyConstraint", "MyConstraintValue")),
+                           event(2, new ConstraintClaimedEvent("MyConstraint", "MyConstraintValue", "AGG_2")));
+        eventStore.publish(new GenericDomainEventMessage<>("ConstraintMyConstraint", "OtherValue", 5,
+                                                           new ConstraintReleasedEvent("MyConstraint", "OtherValue")));
+
+        Optional<DomainEventMessage<?>> result = reader.readLatestEvent("MyConstraintValue");
+
+        assertTrue(result.isPresent());
+        assertEquals(2L, result.get().getSequenceNumber());
+        assertEquals("ConstraintMyConstraint", result.get().getType());
+        ConstraintClaimedEvent payload = (ConstraintClaimedEvent) result.get().getPayload();
+        assertEquals("AGG_2", payload.getOwner());
+    }
+
+    @Test
+    void claimCostsOneQueryInsteadOfTwo() {
+        eventStore.publish(event(0, new ConstraintClaimedEvent("MyConstraint", "MyConstraintValue", "AGG_1")),
+                           event(1, new ConstraintReleasedEvent("MyConstraint", "MyConstraintValue")));
+        EventStoreUniqueConstraintStore defaultStore = EventStoreUniqueConstraintStore
+                .builder()
+                .eventStore(eventStore)
+                .constraintValueProvider((constraintName, value) -> value.toString())
+                .build();
+        EventStoreUniqueConstraintStore jdbcStore = EventStoreUniqueConstraintStore
+                .builder()
+                .eventStore(eventStore)
+                .constraintValueProvider((constraintName, value) -> value.toString())
+                .latestEventReader(reader)
+                .build();
+
+        selectQueries.set(0);
+        defaultStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_1");
+        int queriesBefore = selectQueries.getAndSet(0);
+        jdbcStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_1");
+        int queriesAfter = selectQueries.get();
+
+        assertEquals(2, queriesBefore);
+        assertEquals(1, queriesAfter);
+    }
+
+    @Test
+    void readsLatestEventsOfMultipleKeysInSingleQuery() {
+        eventStore.publish(event(0, new ConstraintClaimedEvent("MyConstraint", "MyConstraintValue", "AGG_1")),
+                           event(1, new ConstraintReleasedEvent("MyConstraint", "MyConstraintValue")));
+        eventStore.publish(new GenericDomainEventMessage<>("ConstraintMyConstraint", "OtherValue", 0,
+                                                           new ConstraintClaimedEvent("MyConstraint",
+                                                                                      "OtherValue",
+                                                                                      "AGG_2")));
+
+        selectQueries.set(0);
+        Map<String, DomainEventMessage<?>> result =
+                reader.readLatestEvents(Arrays.asList("MyConstraintValue", "OtherValue", "UnusedValue"));
+
+        assertEquals(1, selectQueries.get());
+        assertEquals(2, result.size());
+        assertEquals(1L, result.get("MyConstraintValue").getSequenceNumber());
+        assertTrue(result.get("MyConstraintValue").getPayload() instanceof ConstraintReleasedEvent);
+        assertEquals(0L, result.get("OtherValue").getSequenceNumber());
+        assertFalse(result.containsKey("UnusedValue"));
+    }
+
+    private DomainEventMessage<?> event(long sequenceNumber, Object payload) {
+        return new GenericDomainEventMessage<>("ConstraintMyConstraint", "MyConstraintValue", sequenceNumber, payload);
+    }
+
+    private Connection countingSelects(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("prepareStatement")
+                            && ((String) args[0]).trim().toUpperCase().startsWith("SELECT")) {
+                        selectQueries.incrementAndGet();
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+
+    private static Serializer xStreamSerializer() {
+        XStream xStream = new XStream();
+        xStream.allowTypesByWildcard(new String[]{"org.axonframework.**"});
+        return XStreamSerializer.builder().xStream(xStream).build();
+    }
+}
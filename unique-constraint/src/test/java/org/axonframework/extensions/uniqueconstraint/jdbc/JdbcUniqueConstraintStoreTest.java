@@ -0,0 +1,185 @@
+package org.axonframework.extensions.uniqueconstraint.jdbc;
+
+import org.axonframework.common.jdbc.ConnectionProvider;
+import org.axonframework.common.jdbc.UnitOfWorkAwareConnectionProviderWrapper;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintClaimException;
+import org.axonframework.messaging.unitofwork.DefaultUnitOfWork;
+import org.axonframework.messaging.unitofwork.UnitOfWork;
+import org.junit.jupiter.api.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Statement;
+import java.util.UUID;
+
+import static org.axonframework.eventhandling.GenericEventMessage.asEventMessage;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class JdbcUniqueConstraintStoreTest {
+
+    private final String url = "jdbc:hsqldb:mem:" + UUID.randomUUID();
+    private final ConnectionProvider connectionProvider = () -> DriverManager.getConnection(url);
+    private final JdbcUniqueConstraintStore store = JdbcUniqueConstraintStore
+            .builder()
+            .connectionProvider(connectionProvider)
+            .constraintValueProvider((constraintName, value) -> value.toString())
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        store.createSchema();
+    }
+
+    @Test
+    void storesClaimWhenValueIsFree() throws SQLException {
+        store.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+
+        assertEquals("AGG_ID_12", ownerOf("MyConstraint", "MyConstraintValue"));
+    }
+
+    @Test
+    void acceptsClaimWhenValueIsClaimedBySameOwner() throws SQLException {
+        store.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+        store.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+
+        assertEquals("AGG_ID_12", ownerOf("MyConstraint", "MyConstraintValue"));
+    }
+
+    @Test
+    void rejectsClaimWhenValueIsAlreadyClaimed() throws SQLException {
+        store.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_11");
+
+        assertThrows(UniqueConstraintClaimException.class, () -> {
+            store.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+        });
+        assertEquals("AGG_11", ownerOf("MyConstraint", "MyConstraintValue"));
+    }
+
+    @Test
+    void storesClaimsOfDifferentConstraintsWithTheSameKey() throws SQLException {
+        store.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_11");
+        store.checkAndClaimValue("MyOtherConstraint", "MyConstraintValue", "AGG_ID_12");
+
+        assertEquals("AGG_11", ownerOf("MyConstraint", "MyConstraintValue"));
+        assertEquals("AGG_ID_12", ownerOf("MyOtherConstraint", "MyConstraintValue"));
+    }
+
+    @Test
+    void rejectsReleaseWhenValueIsClaimedByOtherOwner() throws SQLException {
+        store.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_11");
+
+        assertThrows(UniqueConstraintClaimException.class, () -> {
+            store.releaseClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+        });
+        assertEquals("AGG_11", ownerOf("MyConstraint", "MyConstraintValue"));
+    }
+
+    @Test
+    void releaseWhenValueIsClaimedBySameOwner() throws SQLException {
+        store.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+
+        store.releaseClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+
+        assertNull(ownerOf("MyConstraint", "MyConstraintValue"));
+        store.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_11");
+        assertEquals("AGG_11", ownerOf("MyConstraint", "MyConstraintValue"));
+    }
+
+    @Test
+    void releaseOfUnclaimedValueDoesNothing() throws SQLException {
+        store.releaseClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+
+        assertNull(ownerOf("MyConstraint", "MyConstraintValue"));
+    }
+
+    @Test
+    void claimFailingOnThePrimaryKeyIsOnlyRejectedForOtherOwners() throws SQLException {
+        JdbcUniqueConstraintStore insertingStore = insertingStore(connectionProvider);
+        insertingStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_11");
+
+        insertingStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_11");
+        UniqueConstraintClaimException exception = assertThrows(
+                UniqueConstraintClaimException.class,
+                () -> insertingStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12"));
+        assertTrue(exception.getMessage().contains("AGG_11"));
+        assertEquals("AGG_11", ownerOf("MyConstraint", "MyConstraintValue"));
+    }
+
+    @Test
+    void claimIsRolledBackWithTheUnitOfWork() throws SQLException {
+        JdbcUniqueConstraintStore transactionalStore = JdbcUniqueConstraintStore
+                .builder()
+                .connectionProvider(new UnitOfWorkAwareConnectionProviderWrapper(() -> {
+                    Connection connection = DriverManager.getConnection(url);
+                    connection.setAutoCommit(false);
+                    return connection;
+                }))
+                .constraintValueProvider((constraintName, value) -> value.toString())
+                .build();
+
+        UnitOfWork<?> unitOfWork = DefaultUnitOfWork.startAndGet(asEventMessage("command"));
+        transactionalStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12");
+        unitOfWork.rollback();
+
+        assertNull(ownerOf("MyConstraint", "MyConstraintValue"));
+    }
+
+    @Test
+    void claimFailingOnThePrimaryKeyWithinUnitOfWorkIsRolledBackToSavepoint() throws SQLException {
+        store.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_11");
+        Connection connection = spy(DriverManager.getConnection(url));
+        connection.setAutoCommit(false);
+        JdbcUniqueConstraintStore transactionalStore =
+                insertingStore(new UnitOfWorkAwareConnectionProviderWrapper(() -> connection));
+
+        UnitOfWork<?> unitOfWork = DefaultUnitOfWork.startAndGet(asEventMessage("command"));
+        UniqueConstraintClaimException exception = assertThrows(
+                UniqueConstraintClaimException.class,
+                () -> transactionalStore.checkAndClaimValue("MyConstraint", "MyConstraintValue", "AGG_ID_12"));
+        transactionalStore.checkAndClaimValue("MyConstraint", "MyOtherConstraintValue", "AGG_ID_12");
+        unitOfWork.commit();
+
+        assertTrue(exception.getMessage().contains("AGG_11"));
+        verify(connection).rollback(any(Savepoint.class));
+        assertEquals("AGG_11", ownerOf("MyConstraint", "MyConstraintValue"));
+        assertEquals("AGG_ID_12", ownerOf("MyConstraint", "MyOtherConstraintValue"));
+    }
+
+    /**
+     * Creates a store claiming keys with a plain {@code INSERT}, which fails on the primary key if the key is claimed.
+     */
+    private JdbcUniqueConstraintStore insertingStore(ConnectionProvider connectionProvider) {
+        return new JdbcUniqueConstraintStore(
+                JdbcUniqueConstraintStore.builder()
+                                         .connectionProvider(connectionProvider)
+                                         .constraintValueProvider((constraintName, value) -> value.toString())) {
+            @Override
+            protected PreparedStatement claimStatement(Connection connection,
+                                                       String constraintName,
+                                                       String constraintKey,
+                                                       String owner) throws SQLException {
+                PreparedStatement statement = connection.prepareStatement(
+                        "INSERT INTO unique_constraint (constraint_name, constraint_key, owner) VALUES (?, ?, ?)");
+                statement.setString(1, constraintName);
+                statement.setString(2, constraintKey);
+                statement.setString(3, owner);
+                return statement;
+            }
+        };
+    }
+
+    private String ownerOf(String constraintName, String constraintKey) throws SQLException {
+        try (Connection connection = connectionProvider.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(
+                     "SELECT owner FROM unique_constraint WHERE constraint_name = '" + constraintName
+                             + "' AND constraint_key = '" + constraintKey + "'")) {
+            return resultSet.next() ? resultSet.getString(1) : null;
+        }
+    }
+}
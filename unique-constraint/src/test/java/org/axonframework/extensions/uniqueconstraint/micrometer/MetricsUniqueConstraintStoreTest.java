@@ -0,0 +1,138 @@
+package org.axonframework.extensions.uniqueconstraint.micrometer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.axonframework.config.Configuration;
+import org.axonframework.config.Configurer;
+import org.axonframework.config.DefaultConfigurer;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.extensions.uniqueconstraint.BatchUniqueConstraintStore;
+import org.axonframework.extensions.uniqueconstraint.ConstraintChange;
+import org.axonframework.extensions.uniqueconstraint.PlainConstraintKeyProvider;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintClaimException;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintConfigurerModule;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintSettings;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintSettingsRegistry;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintStore;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintValidator;
+import org.junit.jupiter.api.*;
+import org.mockito.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class MetricsUniqueConstraintStoreTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final BatchUniqueConstraintStore delegate = Mockito.mock(BatchUniqueConstraintStore.class);
+    private final MetricsUniqueConstraintStore store = MetricsUniqueConstraintStore.builder()
+                                                                                   .delegate(delegate)
+                                                                                   .meterRegistry(meterRegistry)
+                                                                                   .build();
+
+    @Test
+    void timesSuccessfulClaimPerConstraintName() {
+        store.checkAndClaimValue("Email", "my@email.com", "AGG_ID");
+
+        verify(delegate).checkAndClaimValue("Email", "my@email.com", "AGG_ID");
+        assertEquals(1, meterRegistry.get("uniqueConstraint.claim")
+                                     .tag("constraintName", "Email")
+                                     .tag("outcome", "success")
+                                     .timer().count());
+    }
+
+    @Test
+    void countsConflictingClaims() {
+        doThrow(new UniqueConstraintClaimException("Taken", "Email"))
+                .when(delegate).checkAndClaimValue("Email", "my@email.com", "AGG_ID");
+
+        assertThrows(UniqueConstraintClaimException.class,
+                     () -> store.checkAndClaimValue("Email", "my@email.com", "AGG_ID"));
+
+        assertEquals(1, meterRegistry.get("uniqueConstraint.claim")
+                                     .tag("constraintName", "Email")
+                                     .tag("outcome", "conflict")
+                                     .timer().count());
+        assertEquals(1, meterRegistry.get("uniqueConstraint.conflicts")
+                                     .tag("constraintName", "Email")
+                                     .counter().count());
+    }
+
+    @Test
+    void timesFailedRelease() {
+        doThrow(new IllegalStateException("Store unavailable"))
+                .when(delegate).releaseClaimValue("Email", "my@email.com", "AGG_ID");
+
+        assertThrows(IllegalStateException.class,
+                     () -> store.releaseClaimValue("Email", "my@email.com", "AGG_ID"));
+
+        assertEquals(1, meterRegistry.get("uniqueConstraint.release")
+                                     .tag("constraintName", "Email")
+                                     .tag("outcome", "failure")
+                                     .timer().count());
+    }
+
+    @Test
+    void passesBatchToBatchDelegateAndCountsConflictOfConstraint() {
+        List<ConstraintChange> changes = Arrays.asList(ConstraintChange.claim("Email", "my@email.com"),
+                                                       ConstraintChange.claim("Username", "me"));
+        doThrow(new UniqueConstraintClaimException("Taken", "Username")).when(delegate).applyChanges("AGG_ID", changes);
+
+        assertThrows(UniqueConstraintClaimException.class, () -> store.applyChanges("AGG_ID", changes));
+
+        assertEquals(1, meterRegistry.get("uniqueConstraint.batch").tag("outcome", "conflict").timer().count());
+        assertEquals(1, meterRegistry.get("uniqueConstraint.conflicts")
+                                     .tag("constraintName", "Username")
+                                     .counter().count());
+    }
+
+    @Test
+    void appliesBatchChangeByChangeWhenDelegateDoesNotSupportBatches() {
+        UniqueConstraintStore simpleDelegate = Mockito.mock(UniqueConstraintStore.class);
+        MetricsUniqueConstraintStore simpleStore = MetricsUniqueConstraintStore.builder()
+                                                                               .delegate(simpleDelegate)
+                                                                               .meterRegistry(meterRegistry)
+                                                                               .build();
+
+        simpleStore.applyChanges("AGG_ID", Arrays.asList(ConstraintChange.release("Email", "old@email.com"),
+                                                         ConstraintChange.claim("Email", "new@email.com")));
+
+        verify(simpleDelegate).releaseClaimValue("Email", "old@email.com", "AGG_ID");
+        verify(simpleDelegate).checkAndClaimValue("Email", "new@email.com", "AGG_ID");
+        assertEquals(1, meterRegistry.get("uniqueConstraint.release").tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get("uniqueConstraint.claim").tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void metricsModuleKeepsNormalizationSettingsOfConstraints() {
+        Configurer configurer = DefaultConfigurer.defaultConfiguration()
+                                                 .configureEmbeddedEventStore(c -> new InMemoryEventStorageEngine());
+        new UniqueConstraintConfigurerModule().configureModule(configurer);
+        new UniqueConstraintMetricsConfigurerModule(meterRegistry).configureModule(configurer);
+        configurer.registerComponent(
+                UniqueConstraintSettingsRegistry.class,
+                c -> UniqueConstraintSettingsRegistry
+                        .builder()
+                        .constraint("Email", UniqueConstraintSettings.builder()
+                                                                     .keyProvider(new PlainConstraintKeyProvider())
+                                                                     .caseInsensitive(true)
+                                                                     .normalized(true)
+                                                                     .build())
+                        .build());
+        Configuration configuration = configurer.buildConfiguration();
+
+        UniqueConstraintValidator validator = configuration.getComponent(UniqueConstraintValidator.class);
+        validator.forAggregate(() -> "AGG_1").addConstraint("Email", () -> " SomeOne@Example.com").check();
+
+        assertEquals(1, configuration.eventStore().readEvents("Email:someone@example.com").asStream().count());
+        assertThrows(UniqueConstraintClaimException.class,
+                     () -> validator.forAggregate(() -> "AGG_2")
+                                    .addConstraint("Email", () -> "someone@EXAMPLE.com")
+                                    .check());
+        assertEquals(1, meterRegistry.get("uniqueConstraint.conflicts")
+                                     .tag("constraintName", "Email")
+                                     .counter().count());
+    }
+}
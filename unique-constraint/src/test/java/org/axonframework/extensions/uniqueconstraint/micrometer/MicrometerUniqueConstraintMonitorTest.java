@@ -0,0 +1,59 @@
+package org.axonframework.extensions.uniqueconstraint.micrometer;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MicrometerUniqueConstraintMonitorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MicrometerUniqueConstraintMonitor monitor = MicrometerUniqueConstraintMonitor.builder()
+                                                                                               .meterRegistry(
+                                                                                                       meterRegistry)
+                                                                                               .build();
+
+    @Test
+    void countsUnchangedValuesPerConstraintName() {
+        monitor.onUnchangedValue("Email");
+        monitor.onUnchangedValue("Email");
+        monitor.onUnchangedValue("Username");
+
+        assertEquals(2, meterRegistry.get("uniqueConstraint.unchanged")
+                                     .tag("constraintName", "Email")
+                                     .counter().count());
+        assertEquals(1, meterRegistry.get("uniqueConstraint.unchanged")
+                                     .tag("constraintName", "Username")
+                                     .counter().count());
+    }
+
+    @Test
+    void countsAndTimesStoreReads() {
+        monitor.onClaimStateRead(3, TimeUnit.MILLISECONDS.toNanos(4));
+
+        assertEquals(1, meterRegistry.get("uniqueConstraint.storeReads").counter().count());
+        assertEquals(4, meterRegistry.get("uniqueConstraint.lookup").timer().totalTime(TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void countsContentionPerConstraintNameAndOptionallyPerKey() {
+        MicrometerUniqueConstraintMonitor keyTaggingMonitor = MicrometerUniqueConstraintMonitor.builder()
+                                                                                               .meterRegistry(
+                                                                                                       meterRegistry)
+                                                                                               .meterNamePrefix("keyed")
+                                                                                               .contentionKeyTags(true)
+                                                                                               .build();
+        monitor.onClaimContention("Email", "key-1");
+        monitor.onClaimContention("Email", "key-2");
+        keyTaggingMonitor.onClaimContention("Email", "key-1");
+
+        assertEquals(2, meterRegistry.get("uniqueConstraint.contention")
+                                     .tag("constraintName", "Email")
+                                     .counter().count());
+        assertEquals(1, meterRegistry.get("keyed.contention")
+                                     .tags("constraintName", "Email", "constraintKey", "key-1")
+                                     .counter().count());
+    }
+}
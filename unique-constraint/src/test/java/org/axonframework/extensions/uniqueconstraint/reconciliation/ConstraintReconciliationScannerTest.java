@@ -0,0 +1,195 @@
+package org.axonframework.extensions.uniqueconstraint.reconciliation;
+
+import org.axonframework.eventhandling.TrackingToken;
+import org.axonframework.eventsourcing.eventstore.EmbeddedEventStore;
+import org.axonframework.eventsourcing.eventstore.inmemory.InMemoryEventStorageEngine;
+import org.axonframework.extensions.uniqueconstraint.AggregateUniqueConstraint;
+import org.axonframework.extensions.uniqueconstraint.ConstraintClaimState;
+import org.axonframework.extensions.uniqueconstraint.ConstraintClaimStateCache;
+import org.axonframework.extensions.uniqueconstraint.ConstraintKeyProvider;
+import org.axonframework.extensions.uniqueconstraint.EventStoreUniqueConstraintStore;
+import org.axonframework.extensions.uniqueconstraint.MultiTenantUniqueConstraintStore;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintClaimException;
+import org.axonframework.extensions.uniqueconstraint.UniqueConstraintValidator;
+import org.axonframework.messaging.unitofwork.CurrentUnitOfWork;
+import org.axonframework.modelling.command.AggregateIdentifier;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConstraintReconciliationScannerTest {
+
+    private final ConstraintKeyProvider keyProvider = (constraintName, value) -> constraintName + ":" + value;
+    private final EmbeddedEventStore eventStore = EmbeddedEventStore.builder()
+                                                                    .storageEngine(new InMemoryEventStorageEngine())
+                                                                    .build();
+    private final ConstraintClaimStateCache claimStateCache = ConstraintClaimStateCache.builder().build();
+    private final EventStoreUniqueConstraintStore store = EventStoreUniqueConstraintStore
+            .builder()
+            .eventStore(eventStore)
+            .constraintValueProvider(keyProvider)
+            .claimStateCache(claimStateCache)
+            .build();
+    private final UniqueConstraintValidator validator = UniqueConstraintValidator.builder()
+                                                                                 .constraintStore(store)
+                                                                                 .build();
+    private final Map<String, Account> accounts = new HashMap<>();
+    private final List<ReconciliationFinding> findings = Collections.synchronizedList(new ArrayList<>());
+    private final List<TrackingToken> checkpoints = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        claim("a1", "one@example.com");
+        claim("a2", "old@example.com");
+        claim("a3", "mine@example.com");
+        claim("b", "taken@example.com");
+        claim("ghost", "ghost@example.com");
+        claim("a4", "gone@example.com");
+        store.releaseClaimValue("Email", "gone@example.com", "a4");
+
+        accounts.put("a1", new Account("a1", "one@example.com"));
+        accounts.put("a2", new Account("a2", "new@example.com"));
+        accounts.put("a3", new Account("a3", "taken@example.com"));
+        accounts.put("a4", new Account("a4", null));
+        accounts.put("b", new Account("b", "taken@example.com"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        eventStore.shutDown();
+    }
+
+    @Test
+    void reportsOrphanedClaimsAndTheCurrentValuesOfTheirOwners() {
+        ReconciliationResult result = scanner(false).run();
+
+        assertEquals(5, result.getCheckedClaims());
+        assertEquals(5, result.getFindings());
+        assertEquals(0, result.getReleasedClaims());
+        assertTrue(findings.contains(orphan("a2", "old@example.com", false)));
+        assertTrue(findings.contains(orphan("a3", "mine@example.com", false)));
+        assertTrue(findings.contains(orphan("ghost", "ghost@example.com", false)));
+        assertTrue(findings.contains(new ReconciliationFinding(ReconciliationFinding.Type.MISSING_CLAIM, "Email",
+                                                               "Email:new@example.com", "a2", null, false)));
+        assertTrue(findings.contains(new ReconciliationFinding(ReconciliationFinding.Type.DUPLICATE_VALUE, "Email",
+                                                               "Email:taken@example.com", "a3", "b", false)));
+        assertThrows(UniqueConstraintClaimException.class,
+                     () -> store.checkAndClaimValue("Email", "old@example.com", "other"));
+    }
+
+    @Test
+    void releasesOrphanedClaims() {
+        ReconciliationResult result = scanner(true).run();
+
+        assertEquals(3, result.getReleasedClaims());
+        assertTrue(findings.contains(orphan("ghost", "ghost@example.com", true)));
+        findings.clear();
+        assertEquals(0, scanner(true).run().getFindings());
+
+        store.checkAndClaimValue("Email", "old@example.com", "other");
+        store.checkAndClaimValue("Email", "ghost@example.com", "other");
+        assertThrows(UniqueConstraintClaimException.class,
+                     () -> store.checkAndClaimValue("Email", "one@example.com", "other"));
+    }
+
+    @Test
+    void releasesOrphanedClaimsThroughTheConstraintStore() {
+        ReconciliationResult result = scannerBuilder(true).constraintStore(store)
+                                                            .build()
+                                                            .run();
+
+        assertEquals(3, result.getReleasedClaims());
+        assertEquals(ConstraintClaimState.released(1), claimStateCache.get("Email:old@example.com"));
+        assertDoesNotThrow(() -> store.releaseClaimValue("Email", "old@example.com", "a2"));
+        store.checkAndClaimValue("Email", "old@example.com", "other");
+    }
+
+    @Test
+    void scopesCurrentValuesOfTenants() {
+        store.checkAndClaimValue("Email", MultiTenantUniqueConstraintStore.scopedValue("t1", "tenant@example.com"), "t");
+        accounts.put("t", new Account("t", "tenant@example.com"));
+
+        scannerBuilder(false).tenantResolver(account -> "t".equals(account.id) ? "t1" : null)
+                             .build()
+                             .run();
+
+        assertEquals(5, findings.size());
+        assertFalse(findings.contains(orphan("t", "t1/tenant@example.com", false)));
+    }
+
+    @Test
+    void loadsAggregatesInAUnitOfWork() {
+        List<Boolean> unitOfWorkStarted = Collections.synchronizedList(new ArrayList<>());
+
+        scannerBuilder(false).aggregateLoader(id -> {
+                                 unitOfWorkStarted.add(CurrentUnitOfWork.isStarted());
+                                 return accounts.get(id);
+                             })
+                             .build()
+                             .run();
+
+        assertFalse(unitOfWorkStarted.isEmpty());
+        assertFalse(unitOfWorkStarted.contains(false));
+    }
+
+    @Test
+    void reportsCheckpointsToContinueFrom() {
+        ReconciliationResult result = scanner(false).run();
+
+        assertEquals(4, checkpoints.size());
+        assertEquals(result.getLastToken(), checkpoints.get(checkpoints.size() - 1));
+
+        findings.clear();
+        claim("a5", "five@example.com");
+        ReconciliationResult continued = scanner(false).run(result.getLastToken());
+
+        assertEquals(1, continued.getCheckedClaims());
+        assertEquals(Collections.singletonList(orphan("a5", "five@example.com", false)), findings);
+    }
+
+    private ConstraintReconciliationScanner<Account> scanner(boolean releaseOrphans) {
+        return scannerBuilder(releaseOrphans).build();
+    }
+
+    private ConstraintReconciliationScanner.Builder<Account> scannerBuilder(boolean releaseOrphans) {
+        return ConstraintReconciliationScanner.<Account>builder()
+                                              .eventStore(eventStore)
+                                              .validator(validator)
+                                              .constraintKeyProvider(keyProvider)
+                                              .aggregateType(Account.class)
+                                              .aggregateLoader(accounts::get)
+                                              .findingListener(findings::add)
+                                              .checkpointListener(checkpoints::add)
+                                              .releaseOrphans(releaseOrphans)
+                                              .partitions(3)
+                                              .checkpointInterval(2);
+    }
+
+    private void claim(String owner, String email) {
+        store.checkAndClaimValue("Email", email, owner);
+    }
+
+    private ReconciliationFinding orphan(String owner, String email, boolean released) {
+        return new ReconciliationFinding(ReconciliationFinding.Type.ORPHANED_CLAIM, "Email",
+                                         "Email:" + email, owner, null, released);
+    }
+
+    private static class Account {
+
+        @AggregateIdentifier
+        private final String id;
+        @AggregateUniqueConstraint(constraintName = "Email")
+        private final String email;
+
+        private Account(String id, String email) {
+            this.id = id;
+            this.email = email;
+        }
+    }
+}